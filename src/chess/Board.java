@@ -12,44 +12,61 @@ import chess.enums.*;
 public class Board {
 	public static final int GLOBAL_BOARD_SIDE_LENGTH = 8; // The length of one side of the board for chess
 	private static final int MIN_SIDE_LENGTH = 4; // The minimum length of the side of the board
-	private Space spaces[][]; // the content of the board
+	private static final int INITIAL_UNDO_DEPTH = 16; // The number of undo records made up front, the stack grows past it when a search needs more
+	private Position position; // the content of the board, stored as bitboards
 	private int width; // the width of the board
 	private int height; // the height of the board
 	private Game game;
+	private boolean incrementalUpdates; // whether moves only update the affected move lists
+	private UndoRecord undoStack[]; // the records of the moves made with makeMove, reused between moves
+	private int undoCount; // the number of records in use on the undo stack
 	
 	/**
 	 * The default constructor for the Board class. The board is initialized as an 
 	 * 8x8 board of empty spaces with a black player and a white player.
 	 */
 	public Board(Game game) {
-		spaces = new Space[GLOBAL_BOARD_SIDE_LENGTH ][GLOBAL_BOARD_SIDE_LENGTH ];
+		position = new Position();
 		width = GLOBAL_BOARD_SIDE_LENGTH;
 		height = GLOBAL_BOARD_SIDE_LENGTH;
-		populateWithEmptySpaces();
+		incrementalUpdates = true;
+		initUndoStack();
 		this.game = game;
 	}
 	
 	/**
 	 * The constructor for the Board class that creates a Board object with the given
-	 * width and height. The board is then populated with empty spaces.
+	 * width and height. The board starts out empty. Since the board is stored as 64-bit
+	 * bitboards, neither side can be longer than the global side length.
 	 * @param width
 	 * @param height
 	 */
 	public Board(Game game, int width, int height) {
 		if (width >= MIN_SIDE_LENGTH && height >= MIN_SIDE_LENGTH) {
-			spaces = new Space[width][height];
-			this.width = width;
-			this.height = height;
+			this.width = Math.min(width, GLOBAL_BOARD_SIDE_LENGTH);
+			this.height = Math.min(height, GLOBAL_BOARD_SIDE_LENGTH);
 		} else {
-			spaces = new Space[MIN_SIDE_LENGTH][MIN_SIDE_LENGTH];
 			this.width = MIN_SIDE_LENGTH;
 			this.height = MIN_SIDE_LENGTH;
 		}
 		
-		populateWithEmptySpaces();
+		position = new Position();
+		incrementalUpdates = true;
+		initUndoStack();
 		this.game = game;
 	}
 	
+	/**
+	 * Creates the undo stack with room for a deep line of moves.
+	 */
+	private void initUndoStack() {
+		undoStack = new UndoRecord[INITIAL_UNDO_DEPTH];
+		for (int i = 0; i < undoStack.length; i++)
+			undoStack[i] = new UndoRecord();
+		
+		undoCount = 0;
+	}
+	
 	/**
 	 * A helper function called that populates the board with pawns and empty spaces.
 	 */
@@ -57,9 +74,9 @@ public class Board {
 		for (int row = 0; row < GLOBAL_BOARD_SIDE_LENGTH; row++) {
 			for (int col = 0; col < GLOBAL_BOARD_SIDE_LENGTH; col++) {
 				if (row == 1) {
-					spaces[col][row].addPiece(new Pawn(PieceColor.BLACK, col, row));
+					addPiece(new Pawn(PieceColor.BLACK, col, row));
 				} else if (row == 6) {
-					spaces[col][row].addPiece(new Pawn(PieceColor.WHITE, col, row));
+					addPiece(new Pawn(PieceColor.WHITE, col, row));
 				}
 			}
 		}
@@ -72,27 +89,16 @@ public class Board {
 	 * @param row, the row that's being populated
 	 */
 	private void populateBackRow(PieceColor color, int row) {
-		spaces[0][row].addPiece(new Rook(color, 0, row));
-		spaces[1][row].addPiece(new Knight(color, 1, row));
-		spaces[2][row].addPiece(new Bishop(color, 2, row));
-		spaces[5][row].addPiece(new Bishop(color, 5, row));
-		spaces[6][row].addPiece(new Knight(color, 6, row));
-		spaces[7][row].addPiece(new Rook(color, 7, row));
+		addPiece(new Rook(color, 0, row));
+		addPiece(new Knight(color, 1, row));
+		addPiece(new Bishop(color, 2, row));
+		addPiece(new Bishop(color, 5, row));
+		addPiece(new Knight(color, 6, row));
+		addPiece(new Rook(color, 7, row));
 		
 		if (row == 0 || row == 7) {
-			spaces[3][row].addPiece(new Queen(color, 3, row));
-			spaces[4][row].addPiece(new King(color, 4, row));
-		}
-	}
-	
-	/**
-	 * Fills the game board with only empty spaces
-	 */
-	private void populateWithEmptySpaces() {
-		for (int col = 0; col < width; col++) {
-			for (int row = 0; row < height; row++) {
-				spaces[col][row] = new Space(null);
-			}
+			addPiece(new Queen(color, 3, row));
+			addPiece(new King(color, 4, row));
 		}
 	}
 	
@@ -103,7 +109,7 @@ public class Board {
 	private void populateTeamListsUpdateMoves() {
 		for (int col = 0; col < width; col++) {
 			for (int row = 0; row < height; row++) {
-				Piece piece = spaces[col][row].getPiece();
+				Piece piece = getPiece(col, row);
 				if (piece != null) {
 					if (row == 0 || row == 1)
 						game.player[1].addToRoster(piece);
@@ -120,20 +126,16 @@ public class Board {
 	 * Clears all the pieces from the board.
 	 */
 	public void clearBoard() {
-		for (int col = 0; col < width; col++) {
-			for (int row = 0; row < height; row++) {
-				spaces[col][row].removePiece();
-			}
-		}
+		position.clear();
+		undoCount = 0;
 	}
 	
 	/**
 	 * Resets the board to its original position.
 	 */
 	public void reset() {
-		spaces = null;
-		spaces = new Space[GLOBAL_BOARD_SIDE_LENGTH][GLOBAL_BOARD_SIDE_LENGTH];
-		populateWithEmptySpaces();
+		position = new Position();
+		undoCount = 0;
 	}
 	
 	/**
@@ -159,7 +161,7 @@ public class Board {
 			xCoord >= width || yCoord >= height)
 			return null;
 		else
-			return spaces[xCoord][yCoord].getPiece();
+			return position.getPiece(Position.toSquare(xCoord, yCoord));
 	}
 	
 	/**
@@ -170,7 +172,7 @@ public class Board {
 	public void addPiece(Piece piece) {
 		if (piece.getX() >= 0 && piece.getY() >= 0 &&
 			piece.getX() < width && piece.getY() < height)
-			spaces[piece.getX()][piece.getY()].addPiece(piece);
+			position.addPiece(piece, Position.toSquare(piece.getX(), piece.getY()));
 	}
 	
 	/**
@@ -182,7 +184,25 @@ public class Board {
 	public void removePiece(int xCoord, int yCoord) {
 		if (xCoord >= 0 && yCoord >= 0 && 
 			xCoord < width && yCoord < height)
-			spaces[xCoord][yCoord].removePiece();
+			position.removePiece(Position.toSquare(xCoord, yCoord));
+	}
+	
+	/**
+	 * Retrieves the bitboard representation of the pieces on the board.
+	 * @return the Position backing the board
+	 */
+	public Position getPosition() {
+		return position;
+	}
+	
+	/**
+	 * Retrieves the Zobrist key of the board, which identifies the pieces, their first move
+	 * flags and energy, and whose turn it is. The key is kept up to date as pieces move, so
+	 * this is cheap enough to call at every node of a search.
+	 * @return the key of the board
+	 */
+	public long getKey() {
+		return position.getKey() ^ Zobrist.turnKey(game.getTurn());
 	}
 	
 	/**
@@ -203,6 +223,8 @@ public class Board {
 	
 	/**
 	 * Moves the piece at the source coordinates to the destination coordinate if possible.
+	 * In incremental mode, only the pieces whose move lists can be changed by the move are
+	 * updated afterwards. Otherwise, the whole board is rebuilt from the team rosters.
 	 * @param piece, the piece to check
 	 * @param xDest, the x-coordinate to move to
 	 * @param yDest, the y-coordinate to move to
@@ -210,29 +232,41 @@ public class Board {
 	 */
 	public boolean movePiece(Piece piece, int xDest, int yDest) {
 		Piece destination = getPiece(xDest, yDest); // piece currently at the destination
-		if (piece != null && piece.move(xDest, yDest, game)) {
+		if (piece == null)
+			return false;
+		
+		int source = piece.getSquare();
+		long previousOccupied = position.getOccupied();
+		if (piece.move(xDest, yDest, game)) {
+			long changed = (1L << source) | (1L << Position.toSquare(xDest, yDest));
+			if (destination != null)
+				setCapturedPiece(destination);
+			
 			if (piece.getType() == Piece.Type.HIGHTEMPLAR &&
 				(yDest == piece.getY() + 3 || yDest == piece.getY() + 4
 				|| yDest == piece.getY() - 3 || yDest == piece.getY() - 4)) {
-				if (destination != null)
-					setCapturedPiece(destination);
-				
 				Piece behind = getPiece(xDest, yDest + 1);
 				Piece ahead = getPiece(xDest, yDest - 1);
-				if (behind != null)
+				if (behind != null) {
 					setCapturedPiece(behind);
+					changed |= 1L << behind.getSquare();
+				}
 				
-				if (ahead != null)
+				if (ahead != null) {
 					setCapturedPiece(ahead);
-				
-				updateBoard(game);
-				return true;
+					changed |= 1L << ahead.getSquare();
+				}
 			}
 			
-			if (destination != null)
-				setCapturedPiece(destination);
+			if (incrementalUpdates) {
+				for (long squares = changed; squares != 0; squares &= squares - 1)
+					position.removePiece(Long.numberOfTrailingZeros(squares));
+				
+				addPiece(piece);
+				updateMoveLists(piece, changed, previousOccupied);
+			} else
+				updateBoard(game);
 			
-			updateBoard(game);
 			return true;
 		}
 		
@@ -240,16 +274,435 @@ public class Board {
 	}
 	
 	/**
-	 * Updates the board based on where the pieces' coordinates are.
+	 * Checks if any piece of the given color can capture a King, or any other piece Ghosts
+	 * can't snipe, standing on the given square. The check works backwards from the square
+	 * using the attack tables, including High Templar storms that would hit the square from
+	 * either side.
+	 * @param square, the square to check
+	 * @param byColor, the color of the attacking team
+	 * @return true if the square is attacked, false otherwise
+	 */
+	public boolean isSquareAttacked(int square, PieceColor byColor) {
+		return isSquareAttacked(square, byColor, position.getOccupied());
+	}
+	
+	/**
+	 * Checks if any piece of the given color can capture a King standing on the given square,
+	 * tracing sliding pieces and storm targets with the given occupancy instead of the board's.
+	 * This lets a King check a square with itself taken off the board, including a square it
+	 * would capture a High Templar on.
+	 * @param square, the square to check
+	 * @param byColor, the color of the attacking team
+	 * @param occupied, the occupancy of the board to check with
+	 * @return true if the square is attacked, false otherwise
+	 */
+	public boolean isSquareAttacked(int square, PieceColor byColor, long occupied) {
+		if (getMovingAttackers(square, byColor, occupied) != 0)
+			return true;
+		
+		long templars = position.getPieces(byColor, Piece.Type.HIGHTEMPLAR);
+		if (templars == 0)
+			return false;
+		
+		// a storm on a victim directly in front of or behind the square hits the square too
+		long victims = occupied & ~position.getColorBoard(byColor);
+		long targets = victims & (square >= Position.SIDE_LENGTH ? 1L << (square - Position.SIDE_LENGTH) : 0L)
+			| victims & (square < Position.NUM_SQUARES - Position.SIDE_LENGTH ? 1L << (square + Position.SIDE_LENGTH) : 0L);
+		for (; targets != 0; targets &= targets - 1) {
+			long casters = HighTemplar.STORM[Long.numberOfTrailingZeros(targets)] & templars;
+			for (; casters != 0; casters &= casters - 1) {
+				HighTemplar caster = (HighTemplar) position.getPiece(Long.numberOfTrailingZeros(casters));
+				if (caster.canCastStorm())
+					return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Finds every piece of the given color that can capture a piece on the given square by
+	 * moving to it, sniping it, or targeting it with a storm.
+	 * @param square, the square to check
+	 * @param byColor, the color of the attacking team
+	 * @param occupied, the occupancy of the board to trace sliding pieces with
+	 * @return the bitboard of attacking pieces
+	 */
+	public long getAttackers(int square, PieceColor byColor, long occupied) {
+		long attackers = getMovingAttackers(square, byColor, occupied);
+		Piece target = position.getPiece(square);
+		if (target != null && target.getType() == Piece.Type.HIGHTEMPLAR && target.getColor() != byColor
+			&& (occupied & (1L << square)) != 0) // Ghosts can only snipe High Templars
+			attackers |= Ghost.SNIPES[square] & position.getPieces(byColor, Piece.Type.GHOST) & occupied;
+		
+		return attackers;
+	}
+	
+	/**
+	 * Finds every piece of the given color that can capture a piece on the given square by
+	 * moving to it or targeting it with a storm, leaving out snipes. Only pieces that are in
+	 * the given occupancy count, so pieces can be taken away to find the ones behind them.
+	 * @param square, the square to check
+	 * @param byColor, the color of the attacking team
+	 * @param occupied, the occupancy of the board to trace sliding pieces with
+	 * @return the bitboard of attacking pieces
+	 */
+	public long getMovingAttackers(int square, PieceColor byColor, long occupied) {
+		long queens = position.getTypeBoard(Piece.Type.QUEEN);
+		long templars = position.getTypeBoard(Piece.Type.HIGHTEMPLAR);
+		long ghosts = position.getTypeBoard(Piece.Type.GHOST);
+		// a pawn attacks this square from where a pawn moving the other way would attack
+		long pawnSources[] = Pawn.getAttacks(byColor == PieceColor.BLACK ? PieceColor.WHITE : PieceColor.BLACK);
+		long attackers = (pawnSources[square] & position.getTypeBoard(Piece.Type.PAWN))
+			| (Knight.ATTACKS[square] & position.getTypeBoard(Piece.Type.KNIGHT))
+			| (King.ATTACKS[square] & (position.getTypeBoard(Piece.Type.KING) | templars | ghosts))
+			| (HighTemplar.STORM[square] & templars)
+			| (SlidingAttacks.rookAttacks(square, occupied) & (position.getTypeBoard(Piece.Type.ROOK) | queens))
+			| (SlidingAttacks.bishopAttacks(square, occupied) & (position.getTypeBoard(Piece.Type.BISHOP) | queens));
+		return attackers & position.getColorBoard(byColor) & occupied;
+	}
+	
+	/**
+	 * Checks if the King of the given color is attacked by any other team.
+	 * @param color, the color of the King to check
+	 * @return true if the King is attacked, false otherwise or if there's no King of that color
+	 */
+	public boolean isKingAttacked(PieceColor color) {
+		long king = position.getPieces(color, Piece.Type.KING);
+		if (king == 0)
+			return false;
+		
+		int square = Long.numberOfTrailingZeros(king);
+		for (int i = 0; i < game.getNumPlayers(); i++) {
+			PieceColor enemyColor = game.getPlayerColor(i);
+			if (enemyColor != color && isSquareAttacked(square, enemyColor))
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Makes the given move on the board and switches the turn to the other player, recording
+	 * everything needed to take the move back with unmakeMove. The move isn't checked for
+	 * legality, and the move lists of the pieces aren't updated, so this is meant for callers
+	 * that generate their own moves and take them back right away.
+	 * @param move, the move to make, packed by the Move class
+	 */
+	public void makeMove(int move) {
+		if (undoCount == undoStack.length)
+			growUndoStack();
+		
+		UndoRecord undo = undoStack[undoCount++];
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		Piece piece = position.getPiece(from);
+		undo.move = move;
+		undo.piece = piece;
+		undo.turn = game.getTurn();
+		undo.capturedCount = 0;
+		if (piece.getType() == Piece.Type.PAWN)
+			undo.firstMove = ((Pawn) piece).getFirstMove();
+		else if (piece.getType() == Piece.Type.HIGHTEMPLAR)
+			undo.energy = ((HighTemplar) piece).getEnergy();
+		
+		if (Move.hasFlag(move, Move.STORM)) { // the storm hits the target and the pieces on either side of it
+			capture(undo, to);
+			if (to >= Position.SIDE_LENGTH)
+				capture(undo, to - Position.SIDE_LENGTH);
+			
+			if (to < Position.NUM_SQUARES - Position.SIDE_LENGTH)
+				capture(undo, to + Position.SIDE_LENGTH);
+			
+			((HighTemplar) piece).setEnergy(0);
+			position.refreshKey(from);
+		} else if (Move.hasFlag(move, Move.SNIPE)) { // the Ghost stays where it is
+			capture(undo, to);
+		} else {
+			capture(undo, to);
+			position.removePiece(from);
+			piece.setSquare(to);
+			position.addPiece(piece, to);
+			if (piece.getType() == Piece.Type.PAWN)
+				((Pawn) piece).setFirstMove(false);
+			else if (piece.getType() == Piece.Type.HIGHTEMPLAR)
+				((HighTemplar) piece).setEnergy(undo.energy + 1);
+			
+			position.refreshKey(to);
+		}
+		
+		game.setTurn((undo.turn + 1) % game.getNumPlayers());
+	}
+	
+	/**
+	 * Passes the turn to the next player without moving anything. A search uses this to see
+	 * if the position is still good for it even when the opponent moves twice in a row. It's
+	 * taken back with unmakeMove like any other move.
+	 */
+	public void makeNullMove() {
+		if (undoCount == undoStack.length)
+			growUndoStack();
+		
+		UndoRecord undo = undoStack[undoCount++];
+		undo.move = Move.NONE;
+		undo.piece = null;
+		undo.turn = game.getTurn();
+		undo.capturedCount = 0;
+		game.setTurn((undo.turn + 1) % game.getNumPlayers());
+	}
+	
+	/**
+	 * Takes back the last move made with makeMove or makeNullMove, restoring the board, the
+	 * captured pieces, the pawn's first move flag, the High Templar's energy and the turn
+	 * exactly as they were.
+	 */
+	public void unmakeMove() {
+		UndoRecord undo = undoStack[--undoCount];
+		Piece piece = undo.piece;
+		if (piece == null) { // a null move only passed the turn
+			game.setTurn(undo.turn);
+			return;
+		}
+		
+		int from = Move.getFrom(undo.move);
+		if (!Move.hasFlag(undo.move, Move.STORM | Move.SNIPE)) {
+			position.removePiece(Move.getTo(undo.move));
+			piece.setSquare(from);
+			position.addPiece(piece, from);
+		}
+		
+		if (piece.getType() == Piece.Type.PAWN)
+			((Pawn) piece).setFirstMove(undo.firstMove);
+		else if (piece.getType() == Piece.Type.HIGHTEMPLAR)
+			((HighTemplar) piece).setEnergy(undo.energy);
+		
+		position.refreshKey(from);
+		for (int i = undo.capturedCount - 1; i >= 0; i--) { // put pieces back in the reverse order they were taken
+			Piece captured = undo.captured[i];
+			captured.setAlive(true);
+			position.addPiece(captured, undo.capturedSquares[i]);
+			if (undo.capturedRosterIndexes[i] >= 0)
+				findPlayer(captured.getColor()).restoreFromGraveyard(captured, undo.capturedRosterIndexes[i]);
+		}
+		
+		game.setTurn(undo.turn);
+	}
+	
+	/**
+	 * Makes the given move with makeMove, then brings the move lists of the pieces up to date.
+	 * In incremental mode, only the pieces the changed squares can affect are updated, the same
+	 * way movePiece does it. Otherwise, every move list is recalculated.
+	 * @param move, the move to make, packed by the Move class
+	 */
+	public void playMove(int move) {
+		long previousOccupied = position.getOccupied();
+		makeMove(move);
+		UndoRecord undo = undoStack[undoCount - 1];
+		refreshAfter(undo.piece, changedSquares(undo), previousOccupied);
+	}
+	
+	/**
+	 * Takes back the last move with unmakeMove, then brings the move lists of the pieces up to
+	 * date the way playMove does, the pieces put back included.
+	 */
+	public void takeBackMove() {
+		UndoRecord undo = undoStack[undoCount - 1];
+		Piece piece = undo.piece;
+		long changed = changedSquares(undo);
+		long previousOccupied = position.getOccupied();
+		unmakeMove();
+		refreshAfter(piece, changed, previousOccupied);
+	}
+	
+	/**
+	 * Finds the squares a move changed: where the piece started and ended, and every square a
+	 * piece was captured on.
+	 * @param undo, the record of the move
+	 * @return the bitboard of changed squares
+	 */
+	private long changedSquares(UndoRecord undo) {
+		long changed = (1L << Move.getFrom(undo.move)) | (1L << Move.getTo(undo.move));
+		for (int i = 0; i < undo.capturedCount; i++)
+			changed |= 1L << undo.capturedSquares[i];
+		
+		return changed;
+	}
+	
+	/**
+	 * Updates the move lists after a change to the given squares, incrementally or in full
+	 * depending on the mode of the board.
+	 * @param moved, the piece that moved
+	 * @param changed, the bitboard of squares that gained or lost a piece
+	 * @param previousOccupied, the occupancy of the board before the change
+	 */
+	private void refreshAfter(Piece moved, long changed, long previousOccupied) {
+		if (incrementalUpdates)
+			updateMoveLists(moved, changed, previousOccupied);
+		else
+			refreshMoveLists();
+	}
+	
+	/**
+	 * Captures the Piece on the given square as part of a move, if there is one, and records
+	 * it so the capture can be taken back.
+	 * @param undo, the record of the move being made
+	 * @param square, the square to capture on
+	 */
+	private void capture(UndoRecord undo, int square) {
+		Piece captured = position.removePiece(square);
+		if (captured == null)
+			return;
+		
+		Player owner = findPlayer(captured.getColor());
+		int index = owner != null ? owner.getRosterIndex(captured) : -1;
+		if (index >= 0)
+			owner.getCaptured(captured);
+		
+		captured.setAlive(false);
+		undo.captured[undo.capturedCount] = captured;
+		undo.capturedSquares[undo.capturedCount] = square;
+		undo.capturedRosterIndexes[undo.capturedCount] = index;
+		undo.capturedCount++;
+	}
+	
+	/**
+	 * Doubles the number of undo records the board can hold.
+	 */
+	private void growUndoStack() {
+		UndoRecord grown[] = new UndoRecord[undoStack.length * 2];
+		for (int i = 0; i < grown.length; i++)
+			grown[i] = i < undoStack.length ? undoStack[i] : new UndoRecord();
+		
+		undoStack = grown;
+	}
+	
+	/**
+	 * Finds the Player with the given team color.
+	 * @param color, the color of the player
+	 * @return the Player with the given color, or null if there is none
+	 */
+	private Player findPlayer(PieceColor color) {
+		for (int i = 0; i < game.getNumPlayers(); i++)
+			if (game.player[i].getColor() == color)
+				return game.player[i];
+		
+		return null;
+	}
+	
+	/**
+	 * Retrieves the number of moves made with makeMove that haven't been taken back.
+	 * @return the number of moves that can be unmade
+	 */
+	public int getUndoCount() {
+		return undoCount;
+	}
+	
+	/**
+	 * Recalculates the move list of every piece on the board, kings last.
+	 */
+	public void refreshMoveLists() {
+		long kings = position.getTypeBoard(Piece.Type.KING);
+		for (long pieces = position.getOccupied() & ~kings; pieces != 0; pieces &= pieces - 1)
+			position.getPiece(Long.numberOfTrailingZeros(pieces)).updateMoveList(game);
+		
+		for (; kings != 0; kings &= kings - 1)
+			position.getPiece(Long.numberOfTrailingZeros(kings)).updateMoveList(game);
+	}
+	
+	/**
+	 * Updates the move lists of the pieces that can be affected by a change to the given
+	 * squares. A piece is affected if one of the squares is in its reach, either before or after
+	 * the change, since its move list can then gain or lose that square. Kings are always
+	 * updated, because a King's moves depend on what every enemy piece attacks, and so is any
+	 * piece standing on one of the squares, such as a captured piece that was put back.
+	 * @param moved, the piece that made the move
+	 * @param changed, the bitboard of squares that gained or lost a piece
+	 * @param previousOccupied, the occupancy of the board before the change
+	 */
+	private void updateMoveLists(Piece moved, long changed, long previousOccupied) {
+		long affected = 0L;
+		for (long squares = changed; squares != 0; squares &= squares - 1) {
+			int square = Long.numberOfTrailingZeros(squares);
+			affected |= reachingSquare(square, previousOccupied) | reachingSquare(square, position.getOccupied());
+		}
+		
+		long kings = position.getTypeBoard(Piece.Type.KING);
+		affected = ((affected | changed) & position.getOccupied() & ~kings) | (1L << moved.getSquare());
+		for (; affected != 0; affected &= affected - 1)
+			position.getPiece(Long.numberOfTrailingZeros(affected)).updateMoveList(game);
+		
+		for (; kings != 0; kings &= kings - 1)
+			position.getPiece(Long.numberOfTrailingZeros(kings)).updateMoveList(game);
+	}
+	
+	/**
+	 * Finds every piece, of any color, that has the given square within its reach: the squares
+	 * it can move to or whose occupancy decides whether it can move somewhere.
+	 * @param square, the square to check
+	 * @param occupied, the occupancy of the board to trace sliding pieces with
+	 * @return the bitboard of pieces that reach the square
+	 */
+	private long reachingSquare(int square, long occupied) {
+		long queens = position.getTypeBoard(Piece.Type.QUEEN);
+		long templars = position.getTypeBoard(Piece.Type.HIGHTEMPLAR);
+		long ghosts = position.getTypeBoard(Piece.Type.GHOST);
+		return (Pawn.REACH[square] & position.getTypeBoard(Piece.Type.PAWN))
+			| (Knight.ATTACKS[square] & position.getTypeBoard(Piece.Type.KNIGHT))
+			| (King.ATTACKS[square] & (position.getTypeBoard(Piece.Type.KING) | templars | ghosts))
+			| (HighTemplar.STORM[square] & templars)
+			| (Ghost.SNIPES[square] & ghosts)
+			| (SlidingAttacks.rookAttacks(square, occupied) & (position.getTypeBoard(Piece.Type.ROOK) | queens))
+			| (SlidingAttacks.bishopAttacks(square, occupied) & (position.getTypeBoard(Piece.Type.BISHOP) | queens));
+	}
+	
+	/**
+	 * Switches between updating only the affected move lists after a move, and rebuilding the
+	 * whole board from the team rosters.
+	 * @param incrementalUpdates, true to update incrementally, false to rebuild after every move
+	 */
+	public void setIncrementalUpdates(boolean incrementalUpdates) {
+		this.incrementalUpdates = incrementalUpdates;
+	}
+	
+	/**
+	 * Retrieves whether the board updates move lists incrementally after a move.
+	 * @return true if updates are incremental, false if the board is rebuilt after every move
+	 */
+	public boolean isIncrementalUpdates() {
+		return incrementalUpdates;
+	}
+	
+	/**
+	 * Updates the board based on where the pieces' coordinates are. Every piece is placed
+	 * before any move list is calculated, so no piece sees a half-built board.
 	 * @param game, the game to update the board on
 	 */
 	public void updateBoard(Game game) {
 		clearBoard();
 		for (int i = 0; i < game.getNumPlayers(); i++) {
-			for (int j = 0; j < game.player[i].getRosterSize(); j++) {
+			for (int j = 0; j < game.player[i].getRosterSize(); j++)
 				addPiece(game.player[i].getFromRoster(j));
+		}
+		
+		for (int i = 0; i < game.getNumPlayers(); i++) {
+			for (int j = 0; j < game.player[i].getRosterSize(); j++)
 				game.player[i].getFromRoster(j).updateMoveList(game);
-			}
 		}
 	}
+	
+	/**
+	 * A record of a move made with makeMove, holding everything the move changed that can't
+	 * be worked out from the move itself.
+	 */
+	private static class UndoRecord {
+		private int move; // the move that was made
+		private Piece piece; // the piece that made the move
+		private int turn; // the player whose turn it was before the move
+		private boolean firstMove; // the first move flag of the piece, if it's a Pawn
+		private int energy; // the energy of the piece, if it's a High Templar
+		private Piece captured[] = new Piece[3]; // the pieces captured by the move
+		private int capturedSquares[] = new int[3]; // the squares the captured pieces were on
+		private int capturedRosterIndexes[] = new int[3]; // where the captured pieces were in their rosters
+		private int capturedCount; // the number of pieces captured by the move
+	}
 }
@@ -0,0 +1,16 @@
+package chess;
+
+/**
+ * An EndgameProbe interface for anything that knows the results of endgame positions under
+ * perfect play, so a Game can be decided early without knowing where the results come from.
+ * A result of DRAW is a draw, a positive result n means the team to move mates in n - 1
+ * plies, and a negative result -n means it gets mated in n - 1 plies.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public interface EndgameProbe {
+	public static final int UNKNOWN = Integer.MIN_VALUE; // the result of a position nothing covers
+	public static final int DRAW = 0;
+	
+	public int probe(Game game); // the result for the team to move, or UNKNOWN
+}
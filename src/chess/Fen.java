@@ -0,0 +1,361 @@
+package chess;
+
+import chess.enums.PieceColor;
+import chess.pieces.HighTemplar;
+import chess.pieces.Pawn;
+import chess.pieces.Piece;
+
+/**
+ * A Fen class that reads and writes positions as one line of text, in the notation chess
+ * uses for positions extended with this game's pieces. The placement is written row by row
+ * from the top, the black side, with a digit for every run of empty squares, an upper case
+ * letter for a white piece and a lower case one for a black piece: P, N, B, R, Q and K as in
+ * chess, T for a High Templar and G for a Ghost. It's followed by the team to move, w or b,
+ * the squares of the Pawns that can still move two, and the energy of every High Templar that
+ * has any, such as "c1:2,f8:3", with - for an empty list. The last two fields can be left
+ * off, in which case the Pawns on their starting rows can move two and no energy is stored.
+ * Reading goes straight into the board without updating any move list, and the scratch space
+ * is reused, so one Fen can load any number of positions.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Fen {
+	public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w a7b7c7d7e7f7g7h7a2b2c2d2e2f2g2h2 -";
+	
+	private static final String LETTERS = "PNBRQKTG"; // the letter of every Piece type, by ordinal
+	private static final Piece.Type TYPES[] = Piece.Type.values();
+	
+	private Piece pieces[]; // the pieces read so far, by square
+	private StringBuilder text; // the buffer positions are written into
+	
+	/**
+	 * The constructor for the Fen class.
+	 */
+	public Fen() {
+		pieces = new Piece[Position.NUM_SQUARES];
+		text = new StringBuilder();
+	}
+	
+	/**
+	 * Replaces the position of the given game with the one in the given text. Every piece is
+	 * put on the board and in its team's roster, and the turn is set, but no move list is
+	 * updated; Board.refreshMoveLists does that for callers that need them. The game is left
+	 * alone if the text can't be read.
+	 * @param game, the game to load the position into
+	 * @param fen, the position
+	 * @throws IllegalArgumentException if the text isn't a position
+	 */
+	public void load(Game game, CharSequence fen) {
+		long placed = 0L;
+		int length = fen.length();
+		int index = 0;
+		int x = 0;
+		int y = 0;
+		for (; index < length && fen.charAt(index) != ' '; index++) {
+			char letter = fen.charAt(index);
+			if (letter == '/') {
+				if (x != Position.SIDE_LENGTH || ++y == Position.SIDE_LENGTH)
+					throw error(fen, index);
+				
+				x = 0;
+			} else if (letter >= '1' && letter <= '8') {
+				x += letter - '0';
+				if (x > Position.SIDE_LENGTH)
+					throw error(fen, index);
+			} else {
+				Piece.Type type = getType(letter);
+				if (type == null || x == Position.SIDE_LENGTH)
+					throw error(fen, index);
+				
+				PieceColor color = Character.isUpperCase(letter) ? PieceColor.WHITE : PieceColor.BLACK;
+				int square = Position.toSquare(x, y);
+				pieces[square] = Piece.create(type, color, x, y);
+				placed |= 1L << square;
+				x++;
+			}
+		}
+		
+		if (x != Position.SIDE_LENGTH || y != Position.SIDE_LENGTH - 1 || index + 1 >= length)
+			throw error(fen, index);
+		
+		char side = fen.charAt(++index);
+		if (side != 'w' && side != 'b')
+			throw error(fen, index);
+		
+		index++;
+		boolean pawnField = index < length;
+		if (pawnField)
+			index = readPawns(fen, skipSpace(fen, index), placed);
+		
+		if (index < length)
+			index = readEnergies(fen, skipSpace(fen, index), placed);
+		
+		if (index < length)
+			throw error(fen, index);
+		
+		game.board.clearBoard();
+		for (int i = 0; i < game.player.length; i++)
+			game.player[i].clearTeam();
+		
+		Position position = game.board.getPosition();
+		for (; placed != 0; placed &= placed - 1) {
+			int square = Long.numberOfTrailingZeros(placed);
+			Piece piece = pieces[square];
+			pieces[square] = null;
+			if (!pawnField && piece.getType() == Piece.Type.PAWN)
+				((Pawn) piece).setFirstMove(Position.getY(square) == startingRow(piece.getColor()));
+			
+			position.addPiece(piece, square);
+			game.addToTeam(piece.getColor(), piece);
+		}
+		
+		PieceColor color = side == 'w' ? PieceColor.WHITE : PieceColor.BLACK;
+		for (int i = 0; i < game.getNumPlayers(); i++) {
+			if (game.getPlayerColor(i) == color)
+				game.setTurn(i);
+		}
+	}
+	
+	/**
+	 * Writes the position of the given game.
+	 * @param game, the game to write
+	 * @return the position, with every field
+	 * @throws IllegalArgumentException if a team other than white or black has a piece
+	 */
+	public String write(Game game) {
+		text.setLength(0);
+		write(game, text);
+		return text.toString();
+	}
+	
+	/**
+	 * Writes the position of the given game onto the end of the given buffer.
+	 * @param game, the game to write
+	 * @param out, the buffer to write to
+	 * @throws IllegalArgumentException if a team other than white or black has a piece
+	 */
+	public static void write(Game game, StringBuilder out) {
+		Position position = game.board.getPosition();
+		for (int y = 0; y < Position.SIDE_LENGTH; y++) {
+			if (y > 0)
+				out.append('/');
+			
+			int empty = 0;
+			for (int x = 0; x < Position.SIDE_LENGTH; x++) {
+				Piece piece = position.getPiece(Position.toSquare(x, y));
+				if (piece == null) {
+					empty++;
+					continue;
+				}
+				
+				if (empty > 0)
+					out.append((char) ('0' + empty));
+				
+				out.append(getLetter(piece));
+				empty = 0;
+			}
+			
+			if (empty > 0)
+				out.append((char) ('0' + empty));
+		}
+		
+		out.append(' ').append(game.getPlayerColor(game.getTurn()) == PieceColor.BLACK ? 'b' : 'w').append(' ');
+		int length = out.length();
+		for (long pawns = position.getTypeBoard(Piece.Type.PAWN); pawns != 0; pawns &= pawns - 1) {
+			int square = Long.numberOfTrailingZeros(pawns);
+			if (((Pawn) position.getPiece(square)).getFirstMove())
+				appendSquare(out, square);
+		}
+		
+		if (out.length() == length)
+			out.append('-');
+		
+		out.append(' ');
+		length = out.length();
+		for (long templars = position.getTypeBoard(Piece.Type.HIGHTEMPLAR); templars != 0; templars &= templars - 1) {
+			int square = Long.numberOfTrailingZeros(templars);
+			int energy = ((HighTemplar) position.getPiece(square)).getEnergy();
+			if (energy == 0)
+				continue;
+			
+			if (out.length() > length)
+				out.append(',');
+			
+			appendSquare(out, square);
+			out.append(':').append(energy);
+		}
+		
+		if (out.length() == length)
+			out.append('-');
+	}
+	
+	/**
+	 * Retrieves the letter a Piece is written with, upper case for white and lower case for
+	 * black.
+	 * @param piece, the Piece to write
+	 * @return the letter of the Piece
+	 * @throws IllegalArgumentException if the Piece is neither white nor black
+	 */
+	public static char getLetter(Piece piece) {
+		char letter = getLetter(piece.getType());
+		if (piece.getColor() == PieceColor.WHITE)
+			return letter;
+		
+		if (piece.getColor() == PieceColor.BLACK)
+			return Character.toLowerCase(letter);
+		
+		throw new IllegalArgumentException("no letter for a " + piece.getColor() + " piece");
+	}
+	
+	/**
+	 * Retrieves the upper case letter a Piece type is written with.
+	 * @param type, the Piece type
+	 * @return the letter of the type
+	 */
+	public static char getLetter(Piece.Type type) {
+		return LETTERS.charAt(type.ordinal());
+	}
+	
+	/**
+	 * Finds the Piece type written with the given letter, in either case.
+	 * @param letter, the letter to look up
+	 * @return the Piece type, or null if the letter isn't a piece
+	 */
+	public static Piece.Type getType(char letter) {
+		int ordinal = LETTERS.indexOf(Character.toUpperCase(letter));
+		return ordinal >= 0 ? TYPES[ordinal] : null;
+	}
+	
+	/**
+	 * Reads the squares of the Pawns that can still move two, and sets the first move flag
+	 * of every Pawn read so far to match.
+	 * @param fen, the position
+	 * @param index, where the field starts
+	 * @param placed, the squares holding a piece
+	 * @return the index of the character after the field
+	 */
+	private int readPawns(CharSequence fen, int index, long placed) {
+		for (long pawns = placed; pawns != 0; pawns &= pawns - 1) {
+			Piece piece = pieces[Long.numberOfTrailingZeros(pawns)];
+			if (piece.getType() == Piece.Type.PAWN)
+				((Pawn) piece).setFirstMove(false);
+		}
+		
+		if (index < fen.length() && fen.charAt(index) == '-')
+			return index + 1;
+		
+		int start = index;
+		while (index < fen.length() && fen.charAt(index) != ' ') {
+			int square = readSquare(fen, index, placed);
+			if (pieces[square].getType() != Piece.Type.PAWN)
+				throw error(fen, index);
+			
+			((Pawn) pieces[square]).setFirstMove(true);
+			index += 2;
+		}
+		
+		if (index == start)
+			throw error(fen, index);
+		
+		return index;
+	}
+	
+	/**
+	 * Reads the energy of the High Templars that have any, and sets it on them.
+	 * @param fen, the position
+	 * @param index, where the field starts
+	 * @param placed, the squares holding a piece
+	 * @return the index of the character after the field
+	 */
+	private int readEnergies(CharSequence fen, int index, long placed) {
+		if (index < fen.length() && fen.charAt(index) == '-')
+			return index + 1;
+		
+		int start = index;
+		while (index < fen.length() && fen.charAt(index) != ' ') {
+			if (index > start && fen.charAt(index++) != ',')
+				throw error(fen, index - 1);
+			
+			int square = readSquare(fen, index, placed);
+			if (pieces[square].getType() != Piece.Type.HIGHTEMPLAR || index + 2 >= fen.length()
+				|| fen.charAt(index + 2) != ':')
+				throw error(fen, index);
+			
+			index += 3;
+			int energy = 0;
+			int digits = index;
+			for (; index < fen.length() && Character.isDigit(fen.charAt(index)) && index - digits < 6; index++)
+				energy = energy * 10 + fen.charAt(index) - '0';
+			
+			if (index == digits)
+				throw error(fen, index);
+			
+			((HighTemplar) pieces[square]).setEnergy(energy);
+		}
+		
+		if (index == start)
+			throw error(fen, index);
+		
+		return index;
+	}
+	
+	/**
+	 * Steps over the space that ends a field.
+	 * @param fen, the position
+	 * @param index, where the space should be
+	 * @return the index of the next field
+	 */
+	private static int skipSpace(CharSequence fen, int index) {
+		if (fen.charAt(index) != ' ')
+			throw error(fen, index);
+		
+		return index + 1;
+	}
+	
+	/**
+	 * Reads the name of a square holding a piece, such as e2.
+	 * @param fen, the position
+	 * @param index, where the name starts
+	 * @param placed, the squares holding a piece
+	 * @return the square
+	 */
+	private static int readSquare(CharSequence fen, int index, long placed) {
+		if (index + 1 >= fen.length())
+			throw error(fen, index);
+		
+		int x = fen.charAt(index) - 'a';
+		int y = '8' - fen.charAt(index + 1);
+		if (!Position.isOnBoard(x, y) || (placed & (1L << Position.toSquare(x, y))) == 0)
+			throw error(fen, index);
+		
+		return Position.toSquare(x, y);
+	}
+	
+	/**
+	 * Writes the name of a square, such as e2.
+	 * @param out, the buffer to write to
+	 * @param square, the square to name
+	 */
+	private static void appendSquare(StringBuilder out, int square) {
+		out.append((char) ('a' + Position.getX(square))).append((char) ('8' - Position.getY(square)));
+	}
+	
+	/**
+	 * Retrieves the row the Pawns of the given team start on.
+	 * @param color, the color of the team
+	 * @return the row of its Pawns in the standard set-up
+	 */
+	private static int startingRow(PieceColor color) {
+		return color == PieceColor.BLACK ? 1 : Position.SIDE_LENGTH - 2;
+	}
+	
+	/**
+	 * Builds the exception thrown for text that isn't a position.
+	 * @param fen, the text
+	 * @param index, where the text stopped making sense
+	 * @return the exception
+	 */
+	private static IllegalArgumentException error(CharSequence fen, int index) {
+		return new IllegalArgumentException("not a position at character " + index + ": " + fen);
+	}
+}
@@ -1,7 +1,5 @@
 package chess;
 
-import java.awt.Point;
-
 import chess.enums.PieceColor;
 import chess.pieces.*;
 import chess.pieces.Piece.Type;
@@ -14,6 +12,7 @@ import chess.pieces.Piece.Type;
 public class Game {
 	public static final int PLAYER1 = 0;
 	public static final int PLAYER2 = 1;
+	public static final int NUM_PLAYERS = 2;
 	
 	public Board board; // the board to play on
 	public Player player[]; // the players playing the game
@@ -23,6 +22,9 @@ public class Game {
 	private boolean tie; // determines if there's a stalemate
 	private int turn; // determines which player can move a piece
 	private CommandManager commandManager; // manages the commands taken during the game
+	private MoveGenerator moveGenerator; // generates the legal moves of each team
+	private int legalMoves[]; // the buffer the legal moves are generated into
+	private EndgameProbe tablebase; // the endgame results the game can be decided by early, or null
 	
 	/**
 	 * The constructor for the Game class. 
@@ -33,10 +35,47 @@ public class Game {
 		player2Win = false;
 		tie = false;
 		turn = PLAYER1;
-		player = new Player[2];
+		player = new Player[NUM_PLAYERS];
 		player[0] = new Player(PieceColor.WHITE);
 		player[1] = new Player(PieceColor.BLACK);
 		commandManager = new CommandManager();
+		moveGenerator = new MoveGenerator(this);
+		legalMoves = new int[MoveGenerator.MAX_MOVES];
+	}
+	
+	/**
+	 * The copy constructor for the Game class. Every Piece is copied onto a board of the new
+	 * game, and the rosters hold the copies in the same order. The copy shares nothing with the
+	 * original, so each can be used by a different thread, but the move history isn't copied.
+	 * @param other, the game to copy
+	 */
+	public Game(Game other) {
+		this();
+		player1Win = other.player1Win;
+		player2Win = other.player2Win;
+		inCheck = other.inCheck;
+		tie = other.tie;
+		turn = other.turn;
+		tablebase = other.tablebase;
+		Position source = other.board.getPosition();
+		Piece copies[] = new Piece[Position.NUM_SQUARES];
+		for (long pieces = source.getOccupied(); pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			copies[square] = source.getPiece(square).copy();
+			board.addPiece(copies[square]);
+		}
+		
+		player = new Player[other.player.length];
+		for (int i = 0; i < player.length; i++) {
+			player[i] = new Player(other.player[i].getColor());
+			for (int j = 0; j < other.player[i].getRosterSize(); j++) {
+				Piece piece = other.player[i].getFromRoster(j);
+				int square = piece.getSquare();
+				player[i].addToRoster(source.getPiece(square) == piece ? copies[square] : piece.copy());
+			}
+		}
+		
+		board.refreshMoveLists();
 	}
 	
 	/**
@@ -51,7 +90,7 @@ public class Game {
 			
 			if (!player1Win) player1Win = checkCheckmate(getPlayerColor(PLAYER2));
 			if (!player2Win) player2Win = checkCheckmate(getPlayerColor(PLAYER1));
-			if (!tie) tie = checkStalemate();
+			if (!tie) tie = checkStalemate() || checkTablebaseDraw();
 		}
 		// reset all the variables
 		tie = false;
@@ -60,85 +99,63 @@ public class Game {
 	}
 	
 	/**
-	 * Checks if the Player with the given color is in checkmate. The check is done by checking if the King
-	 * has no more available moves, and the Player has no Piece that can block the King from being in check.
+	 * Checks if the Player with the given color is in checkmate, which is when the King is in
+	 * check and the team has no legal move left.
 	 * @param color, the color of the team to check checkmate for
 	 * @return true if the team of the given color is in checkmate
 	 */
 	public boolean checkCheckmate(PieceColor color) {
-		if (isInCheck(color)) {
-			for (int i = 0; i < getRosterSize(color); i++) {
-				Piece ally = getPieceFromRoster(color, i);
-				if (ally.getType() != Piece.Type.KING) {
-					Point originalPosition = new Point(ally.getX(), ally.getY());
-					for (int moves = 0; moves < ally.getMoveListSize(); moves++) {
-						Point potentialPoint = ally.getMove(moves);
-//						System.out.println("Ally x: " + potentialPoint.x + ", y: " + potentialPoint.y);
-						board.movePiece(ally, potentialPoint.x, potentialPoint.y);
-						if (!isInCheck(color)) {
-//							System.out.println("asdfasdfasdf");
-							board.movePiece(ally, originalPosition.x, originalPosition.y);
-							return false;
-						}
-						
-						board.movePiece(ally, originalPosition.x, originalPosition.y);
-					}
-				}
-			}
-			
-			return true;
-		}
+		if (isInCheck(color))
+			return moveGenerator.generateLegalMoves(color, legalMoves) == 0;
 		
 		return false;
 	}
 	
 	/**
-	 * Checks for a stalemate by seeing if all the teams have no more valid moves to make.
-	 * @param board, the board to check
-	 * @return true if no teams have any valid moves, false otherwise
+	 * Checks for a stalemate by seeing if the team whose turn it is has no legal move to make
+	 * while its King isn't in check.
+	 * @return true if the team to move is stalemated, false otherwise
 	 */
 	public boolean checkStalemate() {
-		for (int i = 0; i < getNumPlayers(); i++) { // iterate through every player
-			PieceColor playerColor = getPlayerColor(i); // get their color
-			for (int j = 0; j < getRosterSize(playerColor); j++) { // iterate through each player's rosters
-				if (getPieceFromRoster(playerColor, j).getMoveListSize() > 0) //check if there are any available moves
-					return false;
-			}
-		}
-		
-		return true;
+		PieceColor color = getPlayerColor(turn);
+		return !board.isKingAttacked(color) && moveGenerator.generateLegalMoves(color, legalMoves) == 0;
+	}
+	
+	/**
+	 * Checks if the tablebase knows the position to be a draw with best play from both teams,
+	 * so the game can end there instead of being played out.
+	 * @return true if the tablebase has the position as a draw, false otherwise or without a tablebase
+	 */
+	public boolean checkTablebaseDraw() {
+		return getTablebaseResult() == EndgameProbe.DRAW;
+	}
+	
+	/**
+	 * Looks up the position in the tablebase, which sees mates any number of moves ahead.
+	 * @return the result for the team to move, as described by EndgameProbe, or
+	 * EndgameProbe.UNKNOWN if there's no tablebase or it doesn't cover the position
+	 */
+	public int getTablebaseResult() {
+		return tablebase != null ? tablebase.probe(this) : EndgameProbe.UNKNOWN;
 	}
 	
 	/**
-	 * Calculates if the King of the given color is in check by seeing if any enemy Pieces can
-	 * attack the King.
+	 * Sets the tablebase the game looks endgames up in.
+	 * @param tablebase, the tablebase, or null for none
+	 */
+	public void setTablebase(EndgameProbe tablebase) {
+		this.tablebase = tablebase;
+	}
+	
+	/**
+	 * Calculates if the King of the given color is in check by asking the board whether any
+	 * enemy Piece attacks the King's square. No move lists are recalculated.
 	 * @param color, the color of the King to check
-	 * @param board, the board to check
 	 * @return true if there is a Piece that can attack the King
 	 */
 	private boolean isInCheck(PieceColor color) {
-		Piece king = getPieceOfType(color, Type.KING);
-		Point currentPosition = new Point(king.getX(), king.getY());
-		for (int i = 0; i < getNumPlayers(); i++) {
-			PieceColor enemyColor = getPlayerColor(i);
-			if (enemyColor != color) {
-				for (int j = 0; j < getRosterSize(enemyColor); j++) {
-					Piece enemy = getPieceFromRoster(enemyColor, j);
-					enemy.updateMoveList(this);
-//					for (int k = 0; k < enemy.getMoveListSize(); k++)
-//						if (enemy.getMove(k).equals(currentPosition))
-//							System.out.println("Enemy x: " + enemy.getMove(k).x + ", y: " + enemy.getMove(k).y);
-			
-					if (enemy.isInMoveList(currentPosition.x, currentPosition.y)) {
-						inCheck = true;
-						return true;
-					}
-				}
-			}
-		}
-		
-		inCheck = false;
-		return false;
+		inCheck = board.isKingAttacked(color);
+		return inCheck;
 	}
 	
 	/**
@@ -236,6 +253,15 @@ public class Game {
 		return turn;
 	}
 	
+	/**
+	 * Sets which player's turn the game is in. This is used by the board when it makes and
+	 * takes back moves.
+	 * @param turn, the index of the player who moves next
+	 */
+	void setTurn(int turn) {
+		this.turn = turn;
+	}
+	
 	/**
 	 * Sets the Piece of the Player with the given color as captured. It removes the given Piece from the
 	 * board, and the moves the Piece from the player's roster to the graveyard.
@@ -342,6 +368,14 @@ public class Game {
 		return player.length;
 	}
 	
+	/**
+	 * Retrieves the generator of the legal moves in the game.
+	 * @return the MoveGenerator of the game
+	 */
+	public MoveGenerator getMoveGenerator() {
+		return moveGenerator;
+	}
+	
 	/**
 	 * Retrieves the check status in the game.
 	 * @return true if the current player is in check, false otherwise
@@ -393,23 +427,13 @@ public class Game {
 	}
 	
 	private class MoveCommand implements Command {
-
-		private Game model;
 		
-		private Piece srcPiece; // the piece being moved
-		private Piece destPiece; // the piece being acted upon
-		private int prevSrcPieceX; // the previous x-coordinate of the source piece
-		private int prevSrcPieceY; // the previous y-coordinate of the source piece
-		private int prevDestPieceX; // the previous x-coordinate of the destination piece
-		private int prevDestPieceY; // the previous y-coordinate of the destination piece
-		private int prevTurn; // player with the previous turn
-		private int destX; // the x-coordinate to move to
-		private int destY; // the y-coordinate to move to
-		private boolean firstMove; // a flag determining if the piece is a pawn and if it has made its first move
+		private Game model; // the game the move is played in
+		private int move; // the move, packed by the Move class
 		
 		/**
-		 * The constructor for the MoveCommand class. It stores the previous state of the 
-		 * command.
+		 * The constructor for the MoveCommand class. It picks the move out of the piece's
+		 * move list.
 		 * @param model, the game to use
 		 * @param srcPiece, the piece to move
 		 * @param x, the x-coordinate to move to
@@ -417,58 +441,30 @@ public class Game {
 		 */
 		private MoveCommand(Game model, Piece srcPiece, int x, int y) {
 			this.model = model;
-			this.srcPiece = srcPiece;
-			this.destPiece = model.board.getPiece(x, y);
-			destX = x;
-			destY = y;
-			prevSrcPieceX = srcPiece.getCoordinate().x;
-			prevSrcPieceY = srcPiece.getCoordinate().y;
-			prevTurn = model.getTurn();
-			if (destPiece != null) {
-				prevDestPieceX = destPiece.getCoordinate().x;
-				prevDestPieceY = destPiece.getCoordinate().y;
+			move = Move.NONE;
+			int square = Position.toSquare(x, y);
+			for (int i = 0; i < srcPiece.getMoveListSize() && move == Move.NONE; i++) {
+				if (Move.getTo(srcPiece.getPackedMove(i)) == square)
+					move = srcPiece.getPackedMove(i);
 			}
-			
-			if (srcPiece.getType() == Piece.Type.PAWN) {
-				Pawn piece = (Pawn) srcPiece;
-				firstMove = piece.getFirstMove();
-			} else
-				firstMove = false;
 		}
 		
 		/**
-		 * Executes the command by incrementing the turn and moving the Piece to the
-		 * destination coordinate.
+		 * Executes the command by playing the move on the board, which also passes the turn
+		 * and updates the move lists of the pieces it affects.
 		 */
 		@Override
 		public void execute() {
-			turn = (turn + 1) % 2; // set the turn to be the other player
-			board.movePiece(srcPiece, destX, destY);
+			model.board.playMove(move);
 		}
 		
 		/**
-		 * Undoes the command by restoring the previous state before the command was executed.
+		 * Undoes the command by taking the move back on the board, which restores every
+		 * captured piece, the pawn's first move flag, the High Templar's energy and the turn.
 		 */
 		@Override
 		public void undo() {
-			if (srcPiece.getType() == Piece.Type.PAWN) {
-				Pawn piece = (Pawn) srcPiece;
-				piece.setFirstMove(firstMove);
-				System.out.println("pawn!");
-			}
-			
-			srcPiece.setLocation(prevSrcPieceX, prevSrcPieceY, model);
-			model.board.updateBoard(model);
-			srcPiece.updateMoveList(model);
-			System.out.println("srcPiece movelist size: " + srcPiece.getMoveListSize());
-			model.turn = prevTurn;
-			if (destPiece != null) {
-				destPiece.setAlive(true);
-				model.addToTeam(destPiece.getColor(), destPiece);
-				destPiece.setLocation(prevDestPieceX, prevDestPieceY, model);
-				model.board.updateBoard(model);
-				destPiece.updateMoveList(model);
-			}
+			model.board.takeBackMove();
 		}
 	}
 }
\ No newline at end of file
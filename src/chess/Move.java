@@ -0,0 +1,95 @@
+package chess;
+
+/**
+ * A Move class with helpers for moves packed into a single int. The lowest 6 bits hold the
+ * square the piece moves from, the next 6 bits hold the square it moves to, and the bits
+ * above that hold flags describing what kind of move it is. Packing moves this way lets
+ * move lists be plain int arrays that are reused instead of lists of Point objects.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public final class Move {
+	public static final int NONE = 0; // no move, a8 to a8 (square 0 to itself) can never be played
+
+	public static final int CAPTURE = 1 << 12; // the move removes a piece from the destination
+	public static final int STORM = 1 << 13; // a High Templar casts its storm without moving
+	public static final int SNIPE = 1 << 14; // a Ghost snipes a High Templar without moving
+	public static final int DOUBLE_PUSH = 1 << 15; // a Pawn moves two spaces on its first move
+
+	private static final int SQUARE_MASK = 0x3F;
+	private static final int TO_SHIFT = 6;
+	private static final int FLAG_MASK = ~0xFFF;
+
+	private Move() {} // static helpers only
+
+	/**
+	 * Packs the given squares and flags into a move.
+	 * @param from, the square the piece moves from
+	 * @param to, the square the piece moves to
+	 * @param flags, the flags of the move
+	 * @return the packed move
+	 */
+	public static int encode(int from, int to, int flags) {
+		return from | (to << TO_SHIFT) | flags;
+	}
+
+	/**
+	 * Retrieves the square the piece moves from.
+	 * @param move, the packed move
+	 * @return the source square
+	 */
+	public static int getFrom(int move) {
+		return move & SQUARE_MASK;
+	}
+
+	/**
+	 * Retrieves the square the piece moves to, or acts on if it doesn't move.
+	 * @param move, the packed move
+	 * @return the destination square
+	 */
+	public static int getTo(int move) {
+		return (move >>> TO_SHIFT) & SQUARE_MASK;
+	}
+
+	/**
+	 * Retrieves the flags of the move.
+	 * @param move, the packed move
+	 * @return the flags of the move
+	 */
+	public static int getFlags(int move) {
+		return move & FLAG_MASK;
+	}
+
+	/**
+	 * Checks if the move has the given flag set.
+	 * @param move, the packed move
+	 * @param flag, the flag to check
+	 * @return true if the flag is set, false otherwise
+	 */
+	public static boolean hasFlag(int move, int flag) {
+		return (move & flag) != 0;
+	}
+
+	/**
+	 * Names the given square in algebraic notation, with files a-h from left to right and
+	 * ranks 8-1 from the top row to the bottom row.
+	 * @param square, the square to name
+	 * @return the name of the square, such as e2
+	 */
+	public static String squareName(int square) {
+		return "" + (char) ('a' + Position.getX(square)) + (char) ('8' - Position.getY(square));
+	}
+
+	/**
+	 * Writes the given move as the names of its two squares, such as e2e4. Storms and snipes
+	 * name the square they act on as the destination.
+	 * @param move, the packed move
+	 * @return the move in coordinate notation, or "0000" for no move
+	 */
+	public static String toString(int move) {
+		if (move == NONE)
+			return "0000";
+
+		return squareName(getFrom(move)) + squareName(getTo(move));
+	}
+}
@@ -0,0 +1,431 @@
+package chess;
+
+import chess.enums.PieceColor;
+import chess.pieces.*;
+
+/**
+ * A MoveGenerator class that generates only the legal moves of a team. The checkers and the
+ * pinned pieces of the team's King are found once for the position, and every candidate move
+ * is then kept or dropped with a few mask tests instead of being played out. Storms and snipes
+ * can take pieces off the board without putting anything in their place, which opens lines no
+ * mask accounts for, so those moves are still tried with makeMove and taken back. The same is
+ * done for every move while an enemy High Templar can cast a storm, since a storm can hit the
+ * King from the square next to the one it targets.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class MoveGenerator {
+	public static final int MAX_MOVES = 256; // more legal moves than any reachable position has
+	
+	/**
+	 * The squares strictly between every pair of squares that share a row, column or diagonal.
+	 * Squares that don't share a line have nothing between them.
+	 */
+	private static final long BETWEEN[][] = new long[Position.NUM_SQUARES][Position.NUM_SQUARES];
+	
+	static {
+		for (int from = 0; from < Position.NUM_SQUARES; from++) {
+			for (int to = 0; to < Position.NUM_SQUARES; to++) {
+				long toBit = 1L << to;
+				if ((SlidingAttacks.rookAttacks(from, 0L) & toBit) != 0)
+					BETWEEN[from][to] = SlidingAttacks.rookAttacks(from, toBit) & SlidingAttacks.rookAttacks(to, 1L << from);
+				else if ((SlidingAttacks.bishopAttacks(from, 0L) & toBit) != 0)
+					BETWEEN[from][to] = SlidingAttacks.bishopAttacks(from, toBit) & SlidingAttacks.bishopAttacks(to, 1L << from);
+			}
+		}
+	}
+	
+	private Game game; // the game to generate moves for
+	private long checkers; // the enemy pieces attacking the King
+	private long pinned; // the allied pieces that can't leave the line between the King and an enemy slider
+	private long pinRays[]; // the squares each pinned piece may still move to
+	private int candidates[]; // the moves tried when checking a single move
+	
+	/**
+	 * The constructor for the MoveGenerator class.
+	 * @param game, the game to generate moves for
+	 */
+	public MoveGenerator(Game game) {
+		this.game = game;
+		pinRays = new long[Position.NUM_SQUARES];
+		candidates = new int[MAX_MOVES];
+	}
+	
+	/**
+	 * Retrieves the squares strictly between the two given squares.
+	 * @param from, the first square
+	 * @param to, the second square
+	 * @return the bitboard of squares between them, or 0 if they don't share a line
+	 */
+	public static long between(int from, int to) {
+		return BETWEEN[from][to];
+	}
+	
+	/**
+	 * Generates the legal moves of the team whose turn it is.
+	 * @param moves, the array to fill with moves packed by the Move class
+	 * @return the number of moves generated
+	 */
+	public int generateLegalMoves(int moves[]) {
+		return generateLegalMoves(game.getPlayerColor(game.getTurn()), moves);
+	}
+	
+	/**
+	 * Generates the legal moves of the given team. A team without a King has no King to keep
+	 * safe, so all of its moves are legal.
+	 * @param color, the color of the team to move
+	 * @param moves, the array to fill with moves packed by the Move class
+	 * @return the number of moves generated
+	 */
+	public int generateLegalMoves(PieceColor color, int moves[]) {
+		return filterLegalMoves(color, moves, generatePseudoLegalMoves(color, moves));
+	}
+	
+	/**
+	 * Generates the legal captures of the given team, including storms and snipes.
+	 * @param color, the color of the team to move
+	 * @param moves, the array to fill with moves packed by the Move class
+	 * @return the number of moves generated
+	 */
+	public int generateLegalCaptures(PieceColor color, int moves[]) {
+		Position position = game.board.getPosition();
+		long enemies = position.getOccupied() & ~position.getColorBoard(color);
+		return filterLegalMoves(color, moves, generatePseudoLegalMoves(color, moves, enemies));
+	}
+	
+	/**
+	 * Generates the legal moves of the given team that don't capture anything. Together with
+	 * the captures these are all of the team's legal moves, so a search can put off
+	 * generating them until the captures have been tried.
+	 * @param color, the color of the team to move
+	 * @param moves, the array to fill with moves packed by the Move class
+	 * @return the number of moves generated
+	 */
+	public int generateLegalQuiets(PieceColor color, int moves[]) {
+		long empty = ~game.board.getPosition().getOccupied();
+		return filterLegalMoves(color, moves, generatePseudoLegalMoves(color, moves, empty));
+	}
+	
+	/**
+	 * Checks if the given move is legal for the given team in the current position. The move
+	 * has to match a generated move exactly, flags included, so a move remembered from another
+	 * position is only accepted if it still means the same thing here.
+	 * @param color, the color of the team to move
+	 * @param move, the move to check
+	 * @return true if the move is legal, false otherwise
+	 */
+	public boolean isLegal(PieceColor color, int move) {
+		Piece piece = game.board.getPosition().getPiece(Move.getFrom(move));
+		if (move == Move.NONE || piece == null || piece.getColor() != color)
+			return false;
+		
+		int count = generatePseudoLegalMoves(color, candidates, 1L << Move.getTo(move));
+		for (int i = 0; i < count; i++) {
+			if (candidates[i] == move) {
+				candidates[0] = move;
+				return filterLegalMoves(color, candidates, 1) == 1;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Drops the moves that leave the given team's King attacked, keeping the order of the rest.
+	 * @param color, the color of the team to move
+	 * @param moves, the moves to filter
+	 * @param count, the number of moves to filter
+	 * @return the number of legal moves left at the front of the array
+	 */
+	private int filterLegalMoves(PieceColor color, int moves[], int count) {
+		Position position = game.board.getPosition();
+		long king = position.getPieces(color, Piece.Type.KING);
+		if (king == 0)
+			return count;
+		
+		if (enemyCanStorm(color)) {
+			int legal = 0;
+			for (int i = 0; i < count; i++) {
+				if (isLegalAfterMove(color, moves[i]))
+					moves[legal++] = moves[i];
+			}
+			
+			return legal;
+		}
+		
+		int kingSquare = Long.numberOfTrailingZeros(king);
+		findCheckersAndPins(color, kingSquare);
+		long evasions = -1L; // while not in check, a move can land anywhere
+		if (Long.bitCount(checkers) == 1) { // capture the checker, or block it if it slides
+			int checker = Long.numberOfTrailingZeros(checkers);
+			evasions = checkers;
+			if ((checkers & (position.getTypeBoard(Piece.Type.ROOK) | position.getTypeBoard(Piece.Type.BISHOP)
+				| position.getTypeBoard(Piece.Type.QUEEN))) != 0)
+				evasions |= BETWEEN[kingSquare][checker];
+		} else if (checkers != 0) { // only the King can escape more than one checker
+			evasions = 0L;
+		}
+		
+		long withoutKing = position.getOccupied() & ~king;
+		int legal = 0;
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			int from = Move.getFrom(move);
+			int to = Move.getTo(move);
+			boolean isLegal;
+			if (from == kingSquare)
+				isLegal = !isAttackedByEnemy(color, to, withoutKing);
+			else if (Move.hasFlag(move, Move.STORM | Move.SNIPE))
+				isLegal = isLegalAfterMove(color, move);
+			else
+				isLegal = (evasions & (1L << to)) != 0
+					&& ((pinned & (1L << from)) == 0 || (pinRays[from] & (1L << to)) != 0);
+			
+			if (isLegal)
+				moves[legal++] = move;
+		}
+		
+		return legal;
+	}
+	
+	/**
+	 * Finds the legal move of the team whose turn it is that is written as the given
+	 * coordinates, such as e2e4.
+	 * @param coordinates, the move in coordinate notation
+	 * @return the move, or Move.NONE if no legal move is written that way
+	 */
+	public int findMove(String coordinates) {
+		int moves[] = new int[MAX_MOVES];
+		int count = generateLegalMoves(moves);
+		for (int i = 0; i < count; i++) {
+			if (Move.toString(moves[i]).equals(coordinates))
+				return moves[i];
+		}
+		
+		return Move.NONE;
+	}
+	
+	/**
+	 * Checks if the given team has any legal move.
+	 * @param color, the color of the team to check
+	 * @return true if the team can move, false otherwise
+	 */
+	public boolean hasLegalMoves(PieceColor color) {
+		return generateLegalMoves(color, new int[MAX_MOVES]) > 0;
+	}
+	
+	/**
+	 * Generates every move the pieces of the given team can make, without checking if the
+	 * move leaves the team's King attacked. The moves follow the same rules as the move lists
+	 * the pieces build for themselves.
+	 * @param color, the color of the team to move
+	 * @param moves, the array to fill with moves packed by the Move class
+	 * @return the number of moves generated
+	 */
+	public int generatePseudoLegalMoves(PieceColor color, int moves[]) {
+		return generatePseudoLegalMoves(color, moves, -1L);
+	}
+	
+	/**
+	 * Generates the moves the pieces of the given team can make to the given squares, without
+	 * checking if the move leaves the team's King attacked.
+	 * @param color, the color of the team to move
+	 * @param moves, the array to fill with moves packed by the Move class
+	 * @param mask, the squares the moves may end on
+	 * @return the number of moves generated
+	 */
+	private int generatePseudoLegalMoves(PieceColor color, int moves[], long mask) {
+		Position position = game.board.getPosition();
+		long occupied = position.getOccupied();
+		long allies = position.getColorBoard(color);
+		long enemies = occupied & ~allies & mask;
+		long targets = ~allies & mask;
+		int count = 0;
+		for (long pieces = allies; pieces != 0; pieces &= pieces - 1) {
+			int from = Long.numberOfTrailingZeros(pieces);
+			Piece piece = position.getPiece(from);
+			switch (piece.getType()) {
+			case PAWN:
+				count = addPawnMoves((Pawn) piece, from, occupied, enemies, mask, moves, count);
+				break;
+			case KNIGHT:
+				count = addMoves(from, Knight.ATTACKS[from] & targets, occupied, moves, count);
+				break;
+			case BISHOP:
+				count = addMoves(from, SlidingAttacks.bishopAttacks(from, occupied) & targets, occupied, moves, count);
+				break;
+			case ROOK:
+				count = addMoves(from, SlidingAttacks.rookAttacks(from, occupied) & targets, occupied, moves, count);
+				break;
+			case QUEEN:
+				count = addMoves(from, SlidingAttacks.queenAttacks(from, occupied) & targets, occupied, moves, count);
+				break;
+			case KING:
+				count = addMoves(from, King.ATTACKS[from] & targets, occupied, moves, count);
+				break;
+			case HIGHTEMPLAR:
+				long reach = HighTemplar.ATTACKS[from] & targets;
+				long storms = ((HighTemplar) piece).canCastStorm() ? HighTemplar.STORM[from] & enemies : 0L;
+				count = addMoves(from, reach & ~storms, occupied, moves, count);
+				for (; storms != 0; storms &= storms - 1)
+					moves[count++] = Move.encode(from, Long.numberOfTrailingZeros(storms), Move.CAPTURE | Move.STORM);
+				break;
+			case GHOST:
+				count = addMoves(from, Ghost.ATTACKS[from] & targets, occupied, moves, count);
+				long snipes = Ghost.SNIPES[from] & enemies & position.getTypeBoard(Piece.Type.HIGHTEMPLAR);
+				for (; snipes != 0; snipes &= snipes - 1)
+					moves[count++] = Move.encode(from, Long.numberOfTrailingZeros(snipes), Move.CAPTURE | Move.SNIPE);
+				break;
+			default:
+				break;
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Retrieves the enemy pieces that were attacking the King the last time legal moves were
+	 * generated without trying them out.
+	 * @return the bitboard of checking pieces
+	 */
+	public long getCheckers() {
+		return checkers;
+	}
+	
+	/**
+	 * Retrieves the allied pieces that were pinned to the King the last time legal moves were
+	 * generated without trying them out.
+	 * @return the bitboard of pinned pieces
+	 */
+	public long getPinned() {
+		return pinned;
+	}
+	
+	/**
+	 * Finds the enemy pieces attacking the King, and the allied pieces that are the only piece
+	 * between the King and an enemy rook, bishop or queen on the same line.
+	 * @param color, the color of the King
+	 * @param kingSquare, the square of the King
+	 */
+	private void findCheckersAndPins(PieceColor color, int kingSquare) {
+		Position position = game.board.getPosition();
+		long occupied = position.getOccupied();
+		long allies = position.getColorBoard(color);
+		long queens = position.getTypeBoard(Piece.Type.QUEEN);
+		long lines = (SlidingAttacks.rookAttacks(kingSquare, 0L) & (position.getTypeBoard(Piece.Type.ROOK) | queens))
+			| (SlidingAttacks.bishopAttacks(kingSquare, 0L) & (position.getTypeBoard(Piece.Type.BISHOP) | queens));
+		checkers = 0L;
+		pinned = 0L;
+		for (int i = 0; i < game.getNumPlayers(); i++) {
+			PieceColor enemyColor = game.getPlayerColor(i);
+			if (enemyColor == color)
+				continue;
+			
+			checkers |= game.board.getAttackers(kingSquare, enemyColor, occupied);
+			for (long snipers = lines & position.getColorBoard(enemyColor); snipers != 0; snipers &= snipers - 1) {
+				int sniper = Long.numberOfTrailingZeros(snipers);
+				long blockers = BETWEEN[kingSquare][sniper] & occupied;
+				if (Long.bitCount(blockers) == 1 && (blockers & allies) != 0) {
+					pinned |= blockers;
+					pinRays[Long.numberOfTrailingZeros(blockers)] = BETWEEN[kingSquare][sniper] | (1L << sniper);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Checks if any High Templar of another team has the energy to cast a storm.
+	 * @param color, the color of the team to move
+	 * @return true if an enemy storm is ready, false otherwise
+	 */
+	private boolean enemyCanStorm(PieceColor color) {
+		Position position = game.board.getPosition();
+		long templars = position.getTypeBoard(Piece.Type.HIGHTEMPLAR) & ~position.getColorBoard(color);
+		for (; templars != 0; templars &= templars - 1) {
+			if (((HighTemplar) position.getPiece(Long.numberOfTrailingZeros(templars))).canCastStorm())
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Checks if the given square is attacked by any team other than the given one.
+	 * @param color, the color of the defending team
+	 * @param square, the square to check
+	 * @param occupied, the occupancy of the board to check with
+	 * @return true if the square is attacked, false otherwise
+	 */
+	private boolean isAttackedByEnemy(PieceColor color, int square, long occupied) {
+		for (int i = 0; i < game.getNumPlayers(); i++) {
+			PieceColor enemyColor = game.getPlayerColor(i);
+			if (enemyColor != color && game.board.isSquareAttacked(square, enemyColor, occupied))
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Plays the given move, checks that the team's King is still on the board and not
+	 * attacked, and takes the move back.
+	 * @param color, the color of the team making the move
+	 * @param move, the move to try
+	 * @return true if the move is legal, false otherwise
+	 */
+	private boolean isLegalAfterMove(PieceColor color, int move) {
+		game.board.makeMove(move);
+		boolean legal = game.board.getPosition().getPieces(color, Piece.Type.KING) != 0
+			&& !game.board.isKingAttacked(color);
+		game.board.unmakeMove();
+		return legal;
+	}
+	
+	/**
+	 * Adds the moves of a Pawn. A Pawn moves one space forward onto an empty square, two on its
+	 * first move if both are empty, and captures one space diagonally forward.
+	 * @param pawn, the Pawn to move
+	 * @param from, the square of the Pawn
+	 * @param occupied, the occupancy of the board
+	 * @param enemies, the enemy pieces the Pawn may capture
+	 * @param mask, the squares the moves may end on
+	 * @param moves, the array to add the moves to
+	 * @param count, the number of moves already in the array
+	 * @return the number of moves in the array
+	 */
+	private static int addPawnMoves(Pawn pawn, int from, long occupied, long enemies, long mask, int moves[], int count) {
+		int step = pawn.getColor() == PieceColor.BLACK ? Position.SIDE_LENGTH : -Position.SIDE_LENGTH;
+		int one = from + step;
+		if (one >= 0 && one < Position.NUM_SQUARES && (occupied & (1L << one)) == 0) {
+			if ((mask & (1L << one)) != 0)
+				moves[count++] = Move.encode(from, one, 0);
+			
+			int two = one + step;
+			if (pawn.getFirstMove() && two >= 0 && two < Position.NUM_SQUARES && (occupied & (1L << two)) == 0
+				&& (mask & (1L << two)) != 0)
+				moves[count++] = Move.encode(from, two, Move.DOUBLE_PUSH);
+		}
+		
+		return addMoves(from, Pawn.getAttacks(pawn.getColor())[from] & enemies, occupied, moves, count);
+	}
+	
+	/**
+	 * Adds a move from the given square to every square in the given bitboard. Squares that
+	 * are occupied are flagged as captures.
+	 * @param from, the square to move from
+	 * @param targets, the bitboard of squares to move to
+	 * @param occupied, the occupancy of the board
+	 * @param moves, the array to add the moves to
+	 * @param count, the number of moves already in the array
+	 * @return the number of moves in the array
+	 */
+	private static int addMoves(int from, long targets, long occupied, int moves[], int count) {
+		for (; targets != 0; targets &= targets - 1) {
+			int to = Long.numberOfTrailingZeros(targets);
+			moves[count++] = Move.encode(from, to, (occupied & (1L << to)) != 0 ? Move.CAPTURE : 0);
+		}
+		
+		return count;
+	}
+}
@@ -0,0 +1,143 @@
+package chess;
+
+import java.io.PrintStream;
+
+/**
+ * A Perft class that counts the leaf nodes of the legal move tree of a game to a fixed depth.
+ * The counts for well-known positions are published, so a mismatch points straight at a bug
+ * in move generation, and the time taken to count them measures how fast moves are generated,
+ * made and taken back. The divide option prints the count under every root move, which
+ * narrows a wrong total down to the move whose subtree is wrong.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Perft {
+	private Game game; // the game whose board is searched
+	private MoveGenerator generator; // generates the legal moves at every node
+	private int moves[][]; // a move buffer for every ply, so nothing is allocated while counting
+	
+	/**
+	 * The constructor for the Perft class.
+	 * @param game, the game whose board to count moves on
+	 */
+	public Perft(Game game) {
+		this.game = game;
+		generator = new MoveGenerator(game);
+		moves = new int[0][];
+	}
+	
+	/**
+	 * Counts the leaf nodes of the legal move tree from the current position to the given
+	 * depth. The board is left exactly as it was.
+	 * @param depth, the number of plies to search
+	 * @return the number of leaf nodes
+	 */
+	public long perft(int depth) {
+		ensureDepth(depth);
+		return count(depth);
+	}
+	
+	/**
+	 * Counts the leaf nodes under every legal root move to the given depth, and prints each
+	 * count followed by the total, the time taken and the nodes counted per second.
+	 * @param depth, the number of plies to search
+	 * @param out, the stream to print to
+	 * @return the total number of leaf nodes
+	 */
+	public long divide(int depth, PrintStream out) {
+		ensureDepth(depth);
+		long start = System.nanoTime();
+		long total = 0;
+		if (depth == 0) {
+			total = 1;
+		} else {
+			int count = generator.generateLegalMoves(moves[depth]);
+			for (int i = 0; i < count; i++) {
+				int move = moves[depth][i];
+				game.board.makeMove(move);
+				long nodes = count(depth - 1);
+				game.board.unmakeMove();
+				out.println(Move.toString(move) + ": " + nodes);
+				total += nodes;
+			}
+		}
+		
+		long elapsed = System.nanoTime() - start;
+		out.println();
+		out.println("Nodes: " + total);
+		out.println("Time: " + elapsed / 1000000 + " ms");
+		out.println("Nodes per second: " + nodesPerSecond(total, elapsed));
+		return total;
+	}
+	
+	/**
+	 * Calculates a counting rate, guarding against a time too short to measure.
+	 * @param nodes, the number of nodes counted
+	 * @param elapsed, the time taken in nanoseconds
+	 * @return the number of nodes per second
+	 */
+	public static long nodesPerSecond(long nodes, long elapsed) {
+		return elapsed > 0 ? (long) (nodes * 1000000000.0 / elapsed) : 0;
+	}
+	
+	/**
+	 * Recursively counts the leaf nodes to the given depth. The last ply isn't played out,
+	 * since the number of legal moves already is the number of leaves under it.
+	 * @param depth, the number of plies left to search
+	 * @return the number of leaf nodes
+	 */
+	private long count(int depth) {
+		if (depth == 0)
+			return 1;
+		
+		int count = generator.generateLegalMoves(moves[depth]);
+		if (depth == 1)
+			return count;
+		
+		long nodes = 0;
+		for (int i = 0; i < count; i++) {
+			game.board.makeMove(moves[depth][i]);
+			nodes += count(depth - 1);
+			game.board.unmakeMove();
+		}
+		
+		return nodes;
+	}
+	
+	/**
+	 * Makes sure there's a move buffer for every ply up to the given depth.
+	 * @param depth, the deepest ply that will be searched
+	 */
+	private void ensureDepth(int depth) {
+		if (moves.length > depth)
+			return;
+		
+		int grown[][] = new int[depth + 1][];
+		for (int i = 0; i < grown.length; i++)
+			grown[i] = i < moves.length ? moves[i] : new int[MoveGenerator.MAX_MOVES];
+		
+		moves = grown;
+	}
+	
+	/**
+	 * Runs perft with divide output. The depth is the first argument and defaults to 4, and
+	 * the rest of the arguments are the position to start from, in the notation Fen reads,
+	 * which defaults to the standard starting position.
+	 * @param args, the command line arguments
+	 */
+	public static void main(String args[]) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		Game game = new Game();
+		if (args.length > 1) {
+			StringBuilder fen = new StringBuilder(args[1]);
+			for (int i = 2; i < args.length; i++)
+				fen.append(' ').append(args[i]);
+			
+			new Fen().load(game, fen);
+		} else {
+			game.board.setUpGame();
+		}
+		
+		new Perft(game).divide(depth, System.out);
+	}
+}
@@ -0,0 +1,215 @@
+package chess;
+
+import chess.enums.PieceColor;
+import chess.pieces.Piece;
+
+/**
+ * A PieceSquareTables class holding what every piece is worth on every square, once for the
+ * middlegame and once for the endgame. Each entry is the material value of the piece plus a
+ * bonus or penalty for the square, so adding up the entries of every piece on the board gives
+ * both scores at once. The tables are written from the white side, with the first row being
+ * the row white moves toward, and are flipped for black. Pawns don't promote in this game, so
+ * the last rows aren't worth much more to them than the middle. Every piece also counts
+ * toward the game phase, which says how far the middlegame score still holds over the
+ * endgame score.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public final class PieceSquareTables {
+	public static final int MAX_PHASE = 24; // the phase of the standard starting position
+	
+	/**
+	 * The material value of every Piece type in the middlegame, indexed by Type ordinal.
+	 */
+	private static final int MIDGAME_VALUES[] = { 100, 300, 320, 500, 900, 0, 450, 280, 0 };
+	
+	/**
+	 * The material value of every Piece type in the endgame. Rooks and Queens gain on an open
+	 * board, and a storm has fewer pieces to hit.
+	 */
+	private static final int ENDGAME_VALUES[] = { 120, 290, 320, 530, 950, 0, 420, 300, 0 };
+	
+	/**
+	 * How much every Piece type counts toward the game phase, indexed by Type ordinal.
+	 */
+	private static final int PHASES[] = { 0, 1, 1, 2, 4, 0, 2, 1, 0 };
+	
+	private static final int PAWN_MIDGAME[] = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		 20,  20,  20,  25,  25,  20,  20,  20,
+		 10,  10,  15,  25,  25,  15,  10,  10,
+		  5,   5,  10,  20,  20,  10,   5,   5,
+		  0,   0,   5,  20,  20,   5,   0,   0,
+		  5,  -5, -10,   0,   0, -10,  -5,   5,
+		  5,  10,  10, -20, -20,  10,  10,   5,
+		  0,   0,   0,   0,   0,   0,   0,   0
+	};
+	
+	private static final int PAWN_ENDGAME[] = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		 15,  15,  15,  15,  15,  15,  15,  15,
+		 10,  10,  10,  10,  10,  10,  10,  10,
+		  5,   5,   5,   5,   5,   5,   5,   5,
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		  0,   0,   0,   0,   0,   0,   0,   0
+	};
+	
+	private static final int KNIGHT[] = {
+		-50, -40, -30, -30, -30, -30, -40, -50,
+		-40, -20,   0,   0,   0,   0, -20, -40,
+		-30,   0,  10,  15,  15,  10,   0, -30,
+		-30,   5,  15,  20,  20,  15,   5, -30,
+		-30,   0,  15,  20,  20,  15,   0, -30,
+		-30,   5,  10,  15,  15,  10,   5, -30,
+		-40, -20,   0,   5,   5,   0, -20, -40,
+		-50, -40, -30, -30, -30, -30, -40, -50
+	};
+	
+	private static final int BISHOP[] = {
+		-20, -10, -10, -10, -10, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,  10,  10,   5,   0, -10,
+		-10,   5,   5,  10,  10,   5,   5, -10,
+		-10,   0,  10,  10,  10,  10,   0, -10,
+		-10,  10,  10,  10,  10,  10,  10, -10,
+		-10,   5,   0,   0,   0,   0,   5, -10,
+		-20, -10, -10, -10, -10, -10, -10, -20
+	};
+	
+	private static final int ROOK[] = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		  5,  10,  10,  10,  10,  10,  10,   5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		  0,   0,   0,   5,   5,   0,   0,   0
+	};
+	
+	private static final int QUEEN[] = {
+		-20, -10, -10,  -5,  -5, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,   5,   5,   5,   0, -10,
+		 -5,   0,   5,   5,   5,   5,   0,  -5,
+		  0,   0,   5,   5,   5,   5,   0,  -5,
+		-10,   5,   5,   5,   5,   5,   0, -10,
+		-10,   0,   5,   0,   0,   0,   0, -10,
+		-20, -10, -10,  -5,  -5, -10, -10, -20
+	};
+	
+	private static final int KING_MIDGAME[] = {
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-20, -30, -30, -40, -40, -30, -30, -20,
+		-10, -20, -20, -20, -20, -20, -20, -10,
+		 20,  20,   0,   0,   0,   0,  20,  20,
+		 20,  30,  10,   0,   0,  10,  30,  20
+	};
+	
+	private static final int KING_ENDGAME[] = {
+		-50, -40, -30, -20, -20, -30, -40, -50,
+		-30, -20, -10,   0,   0, -10, -20, -30,
+		-30, -10,  20,  30,  30,  20, -10, -30,
+		-30, -10,  30,  40,  40,  30, -10, -30,
+		-30, -10,  30,  40,  40,  30, -10, -30,
+		-30, -10,  20,  30,  30,  20, -10, -30,
+		-30, -30,   0,   0,   0,   0, -30, -30,
+		-50, -30, -30, -30, -30, -30, -30, -50
+	};
+	
+	// a High Templar in the middle rows can storm into either half of the board
+	private static final int HIGHTEMPLAR[] = {
+		-20, -10, -10, -10, -10, -10, -10, -20,
+		-10,   0,   5,   5,   5,   5,   0, -10,
+		-10,   5,  10,  10,  10,  10,   5, -10,
+		-10,   5,  10,  15,  15,  10,   5, -10,
+		-10,   5,  10,  15,  15,  10,   5, -10,
+		-10,   5,  10,  10,  10,  10,   5, -10,
+		-10,   0,   5,   5,   5,   5,   0, -10,
+		-20, -10, -10, -10, -10, -10, -10, -20
+	};
+	
+	// a Ghost in the middle has the most High Templars in sniping range
+	private static final int GHOST[] = {
+		-30, -20, -10, -10, -10, -10, -20, -30,
+		-20, -10,   0,   0,   0,   0, -10, -20,
+		-10,   0,  10,  10,  10,  10,   0, -10,
+		-10,   0,  10,  20,  20,  10,   0, -10,
+		-10,   0,  10,  20,  20,  10,   0, -10,
+		-10,   0,  10,  10,  10,  10,   0, -10,
+		-20, -10,   0,   0,   0,   0, -10, -20,
+		-30, -20, -10, -10, -10, -10, -20, -30
+	};
+	
+	private static final int NOTHING[] = new int[Position.NUM_SQUARES];
+	
+	private static final int MIDGAME_TABLES[][] = { PAWN_MIDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDGAME,
+		HIGHTEMPLAR, GHOST, NOTHING };
+	private static final int ENDGAME_TABLES[][] = { PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME,
+		HIGHTEMPLAR, GHOST, NOTHING };
+	
+	private static final int MIDGAME[][][] = new int[PieceColor.values().length][MIDGAME_TABLES.length][Position.NUM_SQUARES];
+	private static final int ENDGAME[][][] = new int[PieceColor.values().length][ENDGAME_TABLES.length][Position.NUM_SQUARES];
+	
+	static {
+		for (int color = 0; color < MIDGAME.length; color++) {
+			// only black moves down the board, so only black's tables are flipped
+			int flip = color == PieceColor.BLACK.ordinal() ? Position.NUM_SQUARES - Position.SIDE_LENGTH : 0;
+			for (int type = 0; type < MIDGAME_TABLES.length; type++) {
+				for (int square = 0; square < Position.NUM_SQUARES; square++) {
+					MIDGAME[color][type][square] = MIDGAME_VALUES[type] + MIDGAME_TABLES[type][square ^ flip];
+					ENDGAME[color][type][square] = ENDGAME_VALUES[type] + ENDGAME_TABLES[type][square ^ flip];
+				}
+			}
+		}
+	}
+	
+	private PieceSquareTables() {} // static tables only
+	
+	/**
+	 * Retrieves the middlegame worth of the given Piece on the given square.
+	 * @param piece, the Piece to score
+	 * @param square, the square the Piece stands on
+	 * @return the material value of the Piece plus its square bonus
+	 */
+	public static int midgame(Piece piece, int square) {
+		return MIDGAME[piece.getColor().ordinal()][piece.getType().ordinal()][square];
+	}
+	
+	/**
+	 * Retrieves the endgame worth of the given Piece on the given square.
+	 * @param piece, the Piece to score
+	 * @param square, the square the Piece stands on
+	 * @return the material value of the Piece plus its square bonus
+	 */
+	public static int endgame(Piece piece, int square) {
+		return ENDGAME[piece.getColor().ordinal()][piece.getType().ordinal()][square];
+	}
+	
+	/**
+	 * Retrieves how much the given Piece counts toward the game phase.
+	 * @param piece, the Piece to count
+	 * @return the phase weight of the Piece
+	 */
+	public static int phase(Piece piece) {
+		return PHASES[piece.getType().ordinal()];
+	}
+	
+	/**
+	 * Blends a middlegame and an endgame score by the game phase. A full board gets the
+	 * middlegame score and an empty one the endgame score, with a straight line in between.
+	 * @param midgame, the middlegame score
+	 * @param endgame, the endgame score
+	 * @param phase, the game phase, which is capped at MAX_PHASE
+	 * @return the blended score
+	 */
+	public static int taper(int midgame, int endgame, int phase) {
+		int weight = Math.min(phase, MAX_PHASE);
+		return (midgame * weight + endgame * (MAX_PHASE - weight)) / MAX_PHASE;
+	}
+}
@@ -58,6 +58,35 @@ public class Player {
 		teamRoster.remove(piece);
 	}
 	
+	/**
+	 * Finds where the given Piece is in the team roster.
+	 * @param piece, the Piece to look for
+	 * @return the index of the Piece in the roster, or -1 if it isn't on the roster
+	 */
+	public int getRosterIndex(Piece piece) {
+		for (int i = 0; i < teamRoster.size(); i++)
+			if (piece == teamRoster.get(i))
+				return i;
+		
+		return -1;
+	}
+	
+	/**
+	 * Takes back the capture of the given Piece by removing it from the graveyard and putting
+	 * it back into the roster at the index it was captured from.
+	 * @param piece, the Piece to bring back
+	 * @param index, the index in the roster the Piece had before it was captured
+	 */
+	public void restoreFromGraveyard(Piece piece, int index) {
+		int last = graveyard.size() - 1;
+		if (last >= 0 && graveyard.get(last) == piece)
+			graveyard.remove(last);
+		else
+			graveyard.remove(piece);
+		
+		teamRoster.add(index, piece);
+	}
+	
 	/**
 	 * Clears the entire team roster.
 	 */
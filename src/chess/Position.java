@@ -0,0 +1,274 @@
+package chess;
+
+import chess.enums.PieceColor;
+import chess.pieces.Piece;
+
+/**
+ * A Position class that stores the pieces on the board as 64-bit bitboards, with one long
+ * for every color and one long for every Piece type. A square is numbered y * 8 + x, so bit 0
+ * is the top-left corner of the board and bit 63 is the bottom-right corner. A mailbox of
+ * Piece references is kept alongside the bitboards so the Piece on a square can still be
+ * looked up directly. The piece-square scores of every color and the game phase are kept up
+ * to date as pieces come and go, so an evaluation never has to look at every piece. A second
+ * key hashes only where the Pawns stand, for caching what the pawn structure is worth.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Position {
+	public static final int NUM_SQUARES = 64; // the number of squares a bitboard can hold
+	public static final int SIDE_LENGTH = 8; // the width of a row of squares in a bitboard
+
+	private long typeBoards[]; // the occupancy of every Piece type, indexed by Type ordinal
+	private long colorBoards[]; // the occupancy of every team color, indexed by PieceColor ordinal
+	private long occupied; // the occupancy of every Piece on the board
+	private Piece squares[]; // the Piece occupying each square, may be null
+	private long key; // the Zobrist key of the pieces, without the turn
+	private long squareKeys[]; // the key each square added to the Zobrist key
+	private long pawnKey; // the Zobrist key of the Pawns' placement alone
+	private int midgame[]; // the middlegame piece-square score of every team color
+	private int endgame[]; // the endgame piece-square score of every team color
+	private int phase; // the game phase of the pieces on the board
+
+	/**
+	 * The constructor for the Position class. The position starts out with no pieces.
+	 */
+	public Position() {
+		typeBoards = new long[Piece.Type.values().length];
+		colorBoards = new long[PieceColor.values().length];
+		squares = new Piece[NUM_SQUARES];
+		squareKeys = new long[NUM_SQUARES];
+		midgame = new int[PieceColor.values().length];
+		endgame = new int[PieceColor.values().length];
+		occupied = 0L;
+		key = 0L;
+	}
+
+	/**
+	 * Converts the given coordinates to a square index.
+	 * @param xCoord, the x-coordinate of the square
+	 * @param yCoord, the y-coordinate of the square
+	 * @return the index of the square
+	 */
+	public static int toSquare(int xCoord, int yCoord) {
+		return (yCoord << 3) | xCoord;
+	}
+
+	/**
+	 * Retrieves the x-coordinate of the given square.
+	 * @param square, the square index
+	 * @return the x-coordinate of the square
+	 */
+	public static int getX(int square) {
+		return square & 7;
+	}
+
+	/**
+	 * Retrieves the y-coordinate of the given square.
+	 * @param square, the square index
+	 * @return the y-coordinate of the square
+	 */
+	public static int getY(int square) {
+		return square >>> 3;
+	}
+
+	/**
+	 * Checks if the given coordinates lie on a board that a bitboard can represent.
+	 * @param xCoord, the x-coordinate to check
+	 * @param yCoord, the y-coordinate to check
+	 * @return true if the coordinates are on the board, false otherwise
+	 */
+	public static boolean isOnBoard(int xCoord, int yCoord) {
+		return xCoord >= 0 && yCoord >= 0 && xCoord < SIDE_LENGTH && yCoord < SIDE_LENGTH;
+	}
+
+	/**
+	 * Places the given Piece on the given square. Any Piece already on the square is
+	 * removed first.
+	 * @param piece, the Piece to place
+	 * @param square, the square to place the Piece on
+	 */
+	public void addPiece(Piece piece, int square) {
+		if (squares[square] != null)
+			removePiece(square);
+
+		long bit = 1L << square;
+		squares[square] = piece;
+		typeBoards[piece.getType().ordinal()] |= bit;
+		colorBoards[piece.getColor().ordinal()] |= bit;
+		occupied |= bit;
+		squareKeys[square] = Zobrist.pieceKey(piece, square);
+		key ^= squareKeys[square];
+		if (piece.getType() == Piece.Type.PAWN)
+			pawnKey ^= Zobrist.placementKey(piece, square);
+
+		midgame[piece.getColor().ordinal()] += PieceSquareTables.midgame(piece, square);
+		endgame[piece.getColor().ordinal()] += PieceSquareTables.endgame(piece, square);
+		phase += PieceSquareTables.phase(piece);
+	}
+
+	/**
+	 * Removes the Piece occupying the given square, if there is one.
+	 * @param square, the square to clear
+	 * @return the Piece that was removed, or null if the square was empty
+	 */
+	public Piece removePiece(int square) {
+		Piece piece = squares[square];
+		if (piece != null) {
+			long bit = ~(1L << square);
+			typeBoards[piece.getType().ordinal()] &= bit;
+			colorBoards[piece.getColor().ordinal()] &= bit;
+			occupied &= bit;
+			squares[square] = null;
+			key ^= squareKeys[square];
+			squareKeys[square] = 0L;
+			if (piece.getType() == Piece.Type.PAWN)
+				pawnKey ^= Zobrist.placementKey(piece, square);
+
+			midgame[piece.getColor().ordinal()] -= PieceSquareTables.midgame(piece, square);
+			endgame[piece.getColor().ordinal()] -= PieceSquareTables.endgame(piece, square);
+			phase -= PieceSquareTables.phase(piece);
+		}
+
+		return piece;
+	}
+
+	/**
+	 * Removes every Piece from the position.
+	 */
+	public void clear() {
+		for (int i = 0; i < typeBoards.length; i++)
+			typeBoards[i] = 0L;
+
+		for (int i = 0; i < colorBoards.length; i++)
+			colorBoards[i] = 0L;
+
+		for (int i = 0; i < NUM_SQUARES; i++) {
+			squares[i] = null;
+			squareKeys[i] = 0L;
+		}
+
+		for (int i = 0; i < midgame.length; i++) {
+			midgame[i] = 0;
+			endgame[i] = 0;
+		}
+
+		occupied = 0L;
+		key = 0L;
+		pawnKey = 0L;
+		phase = 0;
+	}
+
+	/**
+	 * Hashes the Piece on the given square again after its first move flag or energy changed.
+	 * The key the square added before is XORed out, so it doesn't matter what changed.
+	 * @param square, the square of the Piece that changed
+	 */
+	public void refreshKey(int square) {
+		if (squares[square] == null)
+			return;
+
+		key ^= squareKeys[square];
+		squareKeys[square] = Zobrist.pieceKey(squares[square], square);
+		key ^= squareKeys[square];
+	}
+
+	/**
+	 * Retrieves the Zobrist key of the pieces in the position. The key of the turn isn't
+	 * included, since the position doesn't know whose turn it is.
+	 * @return the key of the pieces
+	 */
+	public long getKey() {
+		return key;
+	}
+
+	/**
+	 * Retrieves the Zobrist key of the Pawns' placement. It doesn't change when any other
+	 * piece moves, or when a Pawn loses its first move.
+	 * @return the pawn key
+	 */
+	public long getPawnKey() {
+		return pawnKey;
+	}
+
+	/**
+	 * Retrieves the middlegame piece-square score of the given team.
+	 * @param color, the color of the team
+	 * @return the sum of the middlegame worth of every piece of the team
+	 */
+	public int getMidgame(PieceColor color) {
+		return midgame[color.ordinal()];
+	}
+
+	/**
+	 * Retrieves the endgame piece-square score of the given team.
+	 * @param color, the color of the team
+	 * @return the sum of the endgame worth of every piece of the team
+	 */
+	public int getEndgame(PieceColor color) {
+		return endgame[color.ordinal()];
+	}
+
+	/**
+	 * Retrieves the game phase of the pieces on the board, MAX_PHASE of PieceSquareTables for
+	 * a full set and 0 for bare Kings and Pawns.
+	 * @return the game phase
+	 */
+	public int getPhase() {
+		return phase;
+	}
+
+	/**
+	 * Retrieves the Piece occupying the given square.
+	 * @param square, the square to check
+	 * @return the Piece on the square, or null if the square is empty
+	 */
+	public Piece getPiece(int square) {
+		return squares[square];
+	}
+
+	/**
+	 * Checks if the given square is occupied by any Piece.
+	 * @param square, the square to check
+	 * @return true if the square is occupied, false otherwise
+	 */
+	public boolean isOccupied(int square) {
+		return (occupied & (1L << square)) != 0;
+	}
+
+	/**
+	 * Retrieves the bitboard of every occupied square.
+	 * @return the occupancy of the whole board
+	 */
+	public long getOccupied() {
+		return occupied;
+	}
+
+	/**
+	 * Retrieves the bitboard of the squares occupied by pieces of the given color.
+	 * @param color, the team color to check
+	 * @return the occupancy of the given color
+	 */
+	public long getColorBoard(PieceColor color) {
+		return colorBoards[color.ordinal()];
+	}
+
+	/**
+	 * Retrieves the bitboard of the squares occupied by pieces of the given type, regardless
+	 * of their color.
+	 * @param type, the Piece type to check
+	 * @return the occupancy of the given type
+	 */
+	public long getTypeBoard(Piece.Type type) {
+		return typeBoards[type.ordinal()];
+	}
+
+	/**
+	 * Retrieves the bitboard of the squares occupied by pieces of the given color and type.
+	 * @param color, the team color to check
+	 * @param type, the Piece type to check
+	 * @return the occupancy of the given color and type
+	 */
+	public long getPieces(PieceColor color, Piece.Type type) {
+		return colorBoards[color.ordinal()] & typeBoards[type.ordinal()];
+	}
+}
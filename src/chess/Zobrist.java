@@ -0,0 +1,138 @@
+package chess;
+
+import chess.enums.PieceColor;
+import chess.pieces.HighTemplar;
+import chess.pieces.Pawn;
+import chess.pieces.Piece;
+
+/**
+ * A Zobrist class holding the random keys that hash a position into a single long. Every
+ * piece on every square has its own key, and so does the team to move. A position's key is
+ * the XOR of the keys of everything in it, so a move only has to XOR out the keys of what it
+ * changed and XOR in the keys of what replaced them. Pawns that haven't moved yet and High
+ * Templars with stored energy move differently, so they get extra keys on top of their piece
+ * key. Energy above what a storm needs doesn't change the moves, so it shares a key with the
+ * storm threshold. The keys come from a fixed seed so they're the same on every run, which
+ * keeps keys saved to a file valid.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public final class Zobrist {
+	private static final int NUM_COLORS = PieceColor.values().length;
+	private static final int NUM_TYPES = Piece.Type.values().length;
+	private static final int ENERGY_LEVELS = HighTemplar.STORM_ENERGY + 1;
+	
+	private static final long PIECES[][][] = new long[NUM_COLORS][NUM_TYPES][Position.NUM_SQUARES];
+	private static final long FIRST_MOVE[][] = new long[NUM_COLORS][Position.NUM_SQUARES]; // pawns that can still move two
+	private static final long ENERGY[][][] = new long[NUM_COLORS][ENERGY_LEVELS][Position.NUM_SQUARES];
+	private static final long TURN[] = new long[Game.NUM_PLAYERS]; // the team to move, by player index
+	
+	private static long seed = 0x3243F6A8885A308DL;
+	
+	static {
+		for (int color = 0; color < NUM_COLORS; color++) {
+			for (int type = 0; type < NUM_TYPES; type++) {
+				for (int square = 0; square < Position.NUM_SQUARES; square++)
+					PIECES[color][type][square] = nextKey();
+			}
+			
+			for (int square = 0; square < Position.NUM_SQUARES; square++)
+				FIRST_MOVE[color][square] = nextKey();
+			
+			for (int energy = 1; energy < ENERGY_LEVELS; energy++) { // no energy leaves the piece key alone
+				for (int square = 0; square < Position.NUM_SQUARES; square++)
+					ENERGY[color][energy][square] = nextKey();
+			}
+		}
+		
+		for (int turn = 0; turn < Game.NUM_PLAYERS; turn++)
+			TURN[turn] = turn == Game.PLAYER1 ? 0L : nextKey();
+	}
+	
+	private Zobrist() {} // static keys only
+	
+	/**
+	 * Retrieves the key of the given Piece standing on the given square, including its first
+	 * move flag if it's a Pawn or its energy if it's a High Templar.
+	 * @param piece, the Piece to hash
+	 * @param square, the square the Piece stands on
+	 * @return the key of the Piece
+	 */
+	public static long pieceKey(Piece piece, int square) {
+		int color = piece.getColor().ordinal();
+		long key = PIECES[color][piece.getType().ordinal()][square];
+		if (piece.getType() == Piece.Type.PAWN && ((Pawn) piece).getFirstMove())
+			key ^= FIRST_MOVE[color][square];
+		else if (piece.getType() == Piece.Type.HIGHTEMPLAR)
+			key ^= ENERGY[color][Math.min(((HighTemplar) piece).getEnergy(), HighTemplar.STORM_ENERGY)][square];
+		
+		return key;
+	}
+	
+	/**
+	 * Retrieves the key of the given Piece standing on the given square, without its first
+	 * move flag or energy. Pawn structure only depends on where the Pawns are, so the pawn key
+	 * is built from these.
+	 * @param piece, the Piece to hash
+	 * @param square, the square the Piece stands on
+	 * @return the key of the Piece's placement
+	 */
+	public static long placementKey(Piece piece, int square) {
+		return PIECES[piece.getColor().ordinal()][piece.getType().ordinal()][square];
+	}
+	
+	/**
+	 * Retrieves the key of the player whose turn it is. The first player's key is 0, so a key
+	 * without a turn folded in reads as the first player to move.
+	 * @param turn, the index of the player to move
+	 * @return the key of the turn
+	 */
+	public static long turnKey(int turn) {
+		return TURN[turn];
+	}
+	
+	/**
+	 * Calculates the key of the given position from scratch. This is slow next to the key the
+	 * position keeps up to date, and is meant for checking it.
+	 * @param position, the position to hash
+	 * @param turn, the index of the player to move
+	 * @return the key of the position
+	 */
+	public static long computeKey(Position position, int turn) {
+		long key = turnKey(turn);
+		for (long pieces = position.getOccupied(); pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			key ^= pieceKey(position.getPiece(square), square);
+		}
+		
+		return key;
+	}
+	
+	/**
+	 * Calculates the pawn key of the given position from scratch, for checking the one the
+	 * position keeps up to date.
+	 * @param position, the position to hash
+	 * @return the key of the Pawns' placement
+	 */
+	public static long computePawnKey(Position position) {
+		long key = 0L;
+		for (long pawns = position.getTypeBoard(Piece.Type.PAWN); pawns != 0; pawns &= pawns - 1) {
+			int square = Long.numberOfTrailingZeros(pawns);
+			key ^= placementKey(position.getPiece(square), square);
+		}
+		
+		return key;
+	}
+	
+	/**
+	 * Generates the next random key with the SplitMix64 generator.
+	 * @return the next key
+	 */
+	private static long nextKey() {
+		seed += 0x9E3779B97F4A7C15L;
+		long key = seed;
+		key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+		key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+		return key ^ (key >>> 31);
+	}
+}
@@ -0,0 +1,263 @@
+package chess.engine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import chess.Fen;
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pieces.HighTemplar;
+import chess.pieces.Piece;
+
+/**
+ * An EndgameTable class that holds the result of every position of one set of pieces, such as
+ * a white King and Queen against a lone black King, in a file mapped into memory. The set is
+ * named by the Fen letters of its white pieces, a "v" and its black pieces, each side King
+ * first, as in "KQvK" or "KTvKG". Every position has an index worked out from the team to
+ * move, the square of every piece and, for a High Templar, how much energy it has up to what
+ * a storm needs, since more than that makes no difference. After a 16 byte header of MAGIC,
+ * VERSION and the number of positions, the file holds one big-endian short per position, read
+ * by Tablebase.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class EndgameTable implements Closeable {
+	public static final int MAGIC = 0x43484554; // the first four bytes of every table file
+	public static final int VERSION = 1;
+	public static final int HEADER_BYTES = 16;
+	public static final int ENTRY_BYTES = 2;
+	public static final int ILLEGAL = Short.MIN_VALUE; // a position that can't come up, such as two pieces on a square
+	public static final int ENERGY_LEVELS = HighTemplar.STORM_ENERGY + 1; // the energies a High Templar is told apart by
+	public static final String EXTENSION = ".tb";
+	
+	private String name; // the pieces of the table, such as "KQvK"
+	private PieceColor colors[]; // the color of the piece in every slot
+	private Piece.Type types[]; // the type of the piece in every slot
+	private int size; // the number of positions
+	private RandomAccessFile file; // the open table file
+	private MappedByteBuffer buffer; // the whole file
+	
+	/**
+	 * The constructor for the EndgameTable class.
+	 * @param path, the table file
+	 * @param name, the pieces of the table
+	 * @param writable, whether to create the file and map it to be written, or to map it read-only
+	 * @throws IOException if the file can't be opened, or isn't a table of the given pieces
+	 */
+	private EndgameTable(File path, String name, boolean writable) throws IOException {
+		this.name = name;
+		types = parseName(name);
+		colors = new PieceColor[types.length];
+		for (int i = 0; i < types.length; i++)
+			colors[i] = i < name.indexOf('v') ? PieceColor.WHITE : PieceColor.BLACK;
+		
+		long positions = 2;
+		for (int i = 0; i < types.length; i++)
+			positions *= radix(types[i]);
+		
+		long length = HEADER_BYTES + positions * ENTRY_BYTES;
+		if (length > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("too many pieces: " + name);
+		
+		size = (int) positions;
+		file = new RandomAccessFile(path, writable ? "rw" : "r");
+		try {
+			FileChannel channel = file.getChannel();
+			if (writable) {
+				file.setLength(length);
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+				buffer.putInt(0, MAGIC);
+				buffer.putInt(4, VERSION);
+				buffer.putLong(8, positions);
+			} else {
+				if (channel.size() != length)
+					throw new IOException("not a table of " + name + ": " + path);
+				
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+				if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != positions)
+					throw new IOException("not a table of " + name + ": " + path);
+			}
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Creates the file of a table in the given directory, with every position a draw, and
+	 * maps it to be filled in.
+	 * @param directory, the directory to create the file in
+	 * @param name, the pieces of the table
+	 * @return the new table
+	 * @throws IOException if the file can't be created
+	 */
+	public static EndgameTable create(File directory, String name) throws IOException {
+		return new EndgameTable(new File(directory, name + EXTENSION), name, true);
+	}
+	
+	/**
+	 * Opens the file of a table in the given directory. The file is mapped, not read.
+	 * @param directory, the directory holding the file
+	 * @param name, the pieces of the table
+	 * @return the table
+	 * @throws IOException if the file can't be opened or doesn't hold the table
+	 */
+	public static EndgameTable open(File directory, String name) throws IOException {
+		return new EndgameTable(new File(directory, name + EXTENSION), name, false);
+	}
+	
+	/**
+	 * Retrieves the pieces of the table.
+	 * @return the name of the table, such as "KQvK"
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Retrieves the number of pieces in every position of the table.
+	 * @return the number of pieces
+	 */
+	public int getPieceCount() {
+		return types.length;
+	}
+	
+	/**
+	 * Retrieves the color of the piece in the given slot.
+	 * @param slot, the slot, counting the white pieces first
+	 * @return the color of the piece
+	 */
+	public PieceColor getColor(int slot) {
+		return colors[slot];
+	}
+	
+	/**
+	 * Retrieves the type of the piece in the given slot.
+	 * @param slot, the slot, counting the white pieces first
+	 * @return the type of the piece
+	 */
+	public Piece.Type getType(int slot) {
+		return types[slot];
+	}
+	
+	/**
+	 * Retrieves the number of positions in the table, legal or not.
+	 * @return the number of positions
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Reads the result of the position with the given index.
+	 * @param index, the index of the position
+	 * @return the result, as described by Tablebase, or ILLEGAL
+	 */
+	public int get(int index) {
+		return buffer.getShort(HEADER_BYTES + index * ENTRY_BYTES);
+	}
+	
+	/**
+	 * Writes the result of the position with the given index.
+	 * @param index, the index of the position
+	 * @param result, the result to write
+	 */
+	void set(int index, int result) {
+		buffer.putShort(HEADER_BYTES + index * ENTRY_BYTES, (short) result);
+	}
+	
+	/**
+	 * Works out the index of a position.
+	 * @param whiteToMove, whether white is the team to move
+	 * @param squares, the square of the piece in every slot
+	 * @param energies, the energy of the piece in every slot, which only counts for a High Templar
+	 * @return the index of the position
+	 */
+	public int index(boolean whiteToMove, int squares[], int energies[]) {
+		int index = whiteToMove ? 0 : 1;
+		for (int i = 0; i < types.length; i++) {
+			index = index * Position.NUM_SQUARES + squares[i];
+			if (types[i] == Piece.Type.HIGHTEMPLAR)
+				index = index * ENERGY_LEVELS + Math.min(energies[i], HighTemplar.STORM_ENERGY);
+		}
+		
+		return index;
+	}
+	
+	/**
+	 * Works out the position with the given index, the reverse of index.
+	 * @param index, the index of the position
+	 * @param squares, the array to fill with the square of the piece in every slot
+	 * @param energies, the array to fill with the energy of the piece in every slot
+	 * @return true if white is the team to move, false if black is
+	 */
+	public boolean decode(int index, int squares[], int energies[]) {
+		for (int i = types.length - 1; i >= 0; i--) {
+			energies[i] = 0;
+			if (types[i] == Piece.Type.HIGHTEMPLAR) {
+				energies[i] = index % ENERGY_LEVELS;
+				index /= ENERGY_LEVELS;
+			}
+			
+			squares[i] = index % Position.NUM_SQUARES;
+			index /= Position.NUM_SQUARES;
+		}
+		
+		return index == 0;
+	}
+	
+	/**
+	 * Writes everything changed in the mapping out to the file.
+	 */
+	public void force() {
+		buffer.force();
+	}
+	
+	/**
+	 * Closes the table file. The mapping itself is let go of by the garbage collector.
+	 * @throws IOException if the file can't be closed
+	 */
+	public void close() throws IOException {
+		file.close();
+	}
+	
+	/**
+	 * Reads the pieces a table name stands for, in the order it names them. The pieces
+	 * before the v are White's and the ones after it Black's.
+	 * @param name, the pieces of the table, such as KRvK
+	 * @return the type of every piece, one slot per piece
+	 * @throws IllegalArgumentException if the name isn't a table name
+	 */
+	static Piece.Type[] parseName(String name) {
+		int split = name.indexOf('v');
+		if (split < 0 || name.indexOf('v', split + 1) >= 0)
+			throw new IllegalArgumentException("not a table name: " + name);
+		
+		Piece.Type types[] = new Piece.Type[name.length() - 1];
+		for (int i = 0, slot = 0; i < name.length(); i++) {
+			if (i == split)
+				continue;
+			
+			Piece.Type type = Fen.getType(name.charAt(i));
+			if (type == null || !Character.isUpperCase(name.charAt(i)))
+				throw new IllegalArgumentException("not a table name: " + name);
+			
+			types[slot++] = type;
+		}
+		
+		return types;
+	}
+	
+	/**
+	 * Retrieves the number of values a piece of the given type adds to the index.
+	 * @param type, the type of the piece
+	 * @return the number of squares, times the energies for a High Templar
+	 */
+	private static int radix(Piece.Type type) {
+		return type == Piece.Type.HIGHTEMPLAR ? Position.NUM_SQUARES * ENERGY_LEVELS : Position.NUM_SQUARES;
+	}
+}
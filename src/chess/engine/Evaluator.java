@@ -0,0 +1,79 @@
+package chess.engine;
+
+import chess.Game;
+import chess.PieceSquareTables;
+import chess.Position;
+import chess.enums.PieceColor;
+
+/**
+ * An Evaluator class that scores a position by the material each team has left and the
+ * squares its pieces stand on. The middlegame and endgame scores are kept by the position as
+ * pieces move, and are blended by how much material is left, so the King hides early and
+ * walks to the middle late without a jump in between. High Templars are valued close to a
+ * Rook, since a charged storm can take three pieces at once, and Ghosts a little under a
+ * Knight, since they step like a King and can only snipe High Templars. The pawn structure
+ * is scored on top, looked up in a PawnTable of the evaluator's own. Scores are in
+ * hundredths of a Pawn, from the point of view of the team whose turn it is.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Evaluator {
+	/**
+	 * The value of every Piece type, indexed by Type ordinal, for weighing up captures. The
+	 * King is never traded, so it doesn't count.
+	 */
+	public static final int VALUES[] = { 100, 300, 320, 500, 900, 0, 450, 280, 0 };
+	
+	private PawnTable pawnTable; // the pawn structures scored so far
+	
+	/**
+	 * The constructor for the Evaluator class, with a pawn table of the default size.
+	 */
+	public Evaluator() {
+		this(new PawnTable());
+	}
+	
+	/**
+	 * The constructor for the Evaluator class. The pawn table isn't safe to share between
+	 * threads, so every searching thread needs its own.
+	 * @param pawnTable, the table to cache pawn structure scores in
+	 */
+	public Evaluator(PawnTable pawnTable) {
+		this.pawnTable = pawnTable;
+	}
+	
+	/**
+	 * Scores the position of the given game for the team whose turn it is.
+	 * @param game, the game to evaluate
+	 * @return the score in hundredths of a Pawn, positive if the team to move is ahead
+	 */
+	public int evaluate(Game game) {
+		Position position = game.board.getPosition();
+		PieceColor toMove = game.getPlayerColor(game.getTurn());
+		int midgame = 0;
+		int endgame = 0;
+		for (int i = 0; i < game.getNumPlayers(); i++) {
+			PieceColor color = game.getPlayerColor(i);
+			int sign = color == toMove ? 1 : -1;
+			midgame += sign * position.getMidgame(color);
+			endgame += sign * position.getEndgame(color);
+		}
+		
+		if (toMove == PieceColor.WHITE || toMove == PieceColor.BLACK) {
+			PawnTable.Entry pawns = pawnTable.probe(position);
+			int sign = toMove == PieceColor.WHITE ? 1 : -1;
+			midgame += sign * pawns.getMidgame();
+			endgame += sign * pawns.getEndgame();
+		}
+		
+		return PieceSquareTables.taper(midgame, endgame, position.getPhase());
+	}
+	
+	/**
+	 * Retrieves the pawn table the evaluator caches pawn structure scores in.
+	 * @return the pawn table
+	 */
+	public PawnTable getPawnTable() {
+		return pawnTable;
+	}
+}
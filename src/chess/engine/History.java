@@ -0,0 +1,107 @@
+package chess.engine;
+
+import chess.Move;
+import chess.Position;
+import chess.enums.PieceColor;
+
+/**
+ * A History class that remembers which quiet moves cut off the search before, to try them
+ * early the next time. The two latest killer moves of every ply are kept, since a move that
+ * refuted one sibling often refutes the others. Every quiet cutoff also adds to a score kept
+ * by team and by the squares the move goes from and to, no matter where in the tree it
+ * happened, so moves that keep working rise to the front of the quiet moves everywhere.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class History {
+	public static final int KILLERS = 2; // the killer moves kept at every ply
+	
+	private static final int MAX_SCORE = 1 << 20; // the score at which every score is halved
+	private static final int NUM_MOVES = Position.NUM_SQUARES * Position.NUM_SQUARES; // every pair of from and to squares
+	
+	private int killers[][]; // the latest quiet moves to cut off the search, by ply
+	private int scores[][]; // how often and how deep every quiet move cut off, by team color and squares
+	
+	/**
+	 * The constructor for the History class.
+	 * @param maxPly, the deepest ply killer moves are kept for
+	 */
+	public History(int maxPly) {
+		killers = new int[maxPly][KILLERS];
+		scores = new int[PieceColor.values().length][NUM_MOVES];
+	}
+	
+	/**
+	 * Records a quiet move that cut off the search. Deeper cutoffs count for more, since they
+	 * saved more work.
+	 * @param color, the color of the team that made the move
+	 * @param move, the move that cut off
+	 * @param depth, the depth that was left to search
+	 * @param ply, the number of plies from the root
+	 */
+	public void addCutoff(PieceColor color, int move, int depth, int ply) {
+		if (killers[ply][0] != move) {
+			for (int i = KILLERS - 1; i > 0; i--)
+				killers[ply][i] = killers[ply][i - 1];
+			
+			killers[ply][0] = move;
+		}
+		
+		int teamScores[] = scores[color.ordinal()];
+		int index = index(move);
+		teamScores[index] += depth * depth;
+		if (teamScores[index] >= MAX_SCORE)
+			halveScores();
+	}
+	
+	/**
+	 * Retrieves a killer move of the given ply.
+	 * @param ply, the number of plies from the root
+	 * @param slot, which killer to retrieve, the latest being 0
+	 * @return the killer move, or Move.NONE if there is none
+	 */
+	public int getKiller(int ply, int slot) {
+		return killers[ply][slot];
+	}
+	
+	/**
+	 * Retrieves the history score of a quiet move.
+	 * @param color, the color of the team making the move
+	 * @param move, the move to score
+	 * @return the score, higher for moves that cut off more
+	 */
+	public int getScore(PieceColor color, int move) {
+		return scores[color.ordinal()][index(move)];
+	}
+	
+	/**
+	 * Halves every history score, so moves that worked in earlier searches give way to the
+	 * ones working now, and forgets the killer moves, which belong to the old root.
+	 */
+	public void age() {
+		halveScores();
+		for (int i = 0; i < killers.length; i++) {
+			for (int j = 0; j < KILLERS; j++)
+				killers[i][j] = Move.NONE;
+		}
+	}
+	
+	/**
+	 * Halves every history score, keeping their order but leaving room for new cutoffs.
+	 */
+	private void halveScores() {
+		for (int i = 0; i < scores.length; i++) {
+			for (int j = 0; j < NUM_MOVES; j++)
+				scores[i][j] >>= 1;
+		}
+	}
+	
+	/**
+	 * Finds the place of a move in the history scores by its from and to squares.
+	 * @param move, the move to look up
+	 * @return the index of the move
+	 */
+	private static int index(int move) {
+		return Move.getFrom(move) * Position.NUM_SQUARES + Move.getTo(move);
+	}
+}
@@ -0,0 +1,212 @@
+package chess.engine;
+
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pieces.Piece;
+
+/**
+ * A MovePicker class that hands out the legal moves of a position one at a time, best guess
+ * first, so the search can cut off before most of them are even generated. The hash move
+ * comes first, then the captures with the most valuable victim and the cheapest attacker
+ * first, then the killer moves of the ply, and last the quiet moves by their history score.
+ * Quiet moves are only generated once every capture has been handed out. A storm is valued
+ * by every enemy piece it hits, and a snipe by the High Templar it takes.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class MovePicker {
+	private static final int HASH = 0;
+	private static final int GENERATE_CAPTURES = 1;
+	private static final int CAPTURES = 2;
+	private static final int KILLERS = 3;
+	private static final int GENERATE_QUIETS = 4;
+	private static final int QUIETS = 5;
+	private static final int DONE = 6;
+	
+	private Game game; // the game whose moves are picked
+	private MoveGenerator generator; // generates the captures and the quiet moves
+	private History history; // the killer moves and history scores to order quiet moves by
+	private int moves[]; // the moves of the current stage
+	private int scores[]; // the ordering score of every move of the current stage
+	private int count; // the number of moves in the current stage
+	private int index; // the next move of the current stage to hand out
+	private int stage; // which kind of move is handed out next
+	private PieceColor color; // the color of the team to move
+	private int hashMove; // the best move stored for the position, or Move.NONE
+	private int ply; // the number of plies from the root, to find the killer moves with
+	private int killerIndex; // the next killer move to try
+	
+	/**
+	 * The constructor for the MovePicker class.
+	 * @param game, the game whose moves to pick
+	 * @param generator, the move generator of the game
+	 * @param history, the killer moves and history scores to order quiet moves by
+	 */
+	public MovePicker(Game game, MoveGenerator generator, History history) {
+		this.game = game;
+		this.generator = generator;
+		this.history = history;
+		moves = new int[MoveGenerator.MAX_MOVES];
+		scores = new int[MoveGenerator.MAX_MOVES];
+	}
+	
+	/**
+	 * Starts handing out the moves of the current position.
+	 * @param color, the color of the team to move
+	 * @param hashMove, the best move stored for the position, or Move.NONE
+	 * @param ply, the number of plies from the root
+	 */
+	public void reset(PieceColor color, int hashMove, int ply) {
+		this.color = color;
+		this.hashMove = hashMove;
+		this.ply = ply;
+		stage = HASH;
+		killerIndex = 0;
+		count = 0;
+		index = 0;
+	}
+	
+	/**
+	 * Hands out the next legal move. Every legal move is handed out exactly once.
+	 * @return the next move, or Move.NONE once there are none left
+	 */
+	public int next() {
+		while (true) {
+			switch (stage) {
+			case HASH:
+				stage = GENERATE_CAPTURES;
+				if (hashMove != Move.NONE && generator.isLegal(color, hashMove))
+					return hashMove;
+				
+				hashMove = Move.NONE;
+				break;
+			case GENERATE_CAPTURES:
+				count = generator.generateLegalCaptures(color, moves);
+				for (int i = 0; i < count; i++)
+					scores[i] = captureScore(moves[i]);
+				
+				index = 0;
+				stage = CAPTURES;
+				break;
+			case CAPTURES:
+				int capture = pickNext();
+				if (capture != Move.NONE)
+					return capture;
+				
+				stage = KILLERS;
+				break;
+			case KILLERS:
+				if (killerIndex == History.KILLERS) {
+					stage = GENERATE_QUIETS;
+					break;
+				}
+				
+				int killer = history.getKiller(ply, killerIndex++);
+				if (killer != Move.NONE && killer != hashMove && !Move.hasFlag(killer, Move.CAPTURE)
+					&& generator.isLegal(color, killer))
+					return killer;
+				
+				break;
+			case GENERATE_QUIETS:
+				count = generator.generateLegalQuiets(color, moves);
+				for (int i = 0; i < count; i++)
+					scores[i] = history.getScore(color, moves[i]);
+				
+				index = 0;
+				stage = QUIETS;
+				break;
+			case QUIETS:
+				int quiet = pickNext();
+				if (quiet != Move.NONE)
+					return quiet;
+				
+				stage = DONE;
+				break;
+			default:
+				return Move.NONE;
+			}
+		}
+	}
+	
+	/**
+	 * Moves the highest scoring move left in the current stage to the front and hands it out,
+	 * skipping the moves an earlier stage already handed out.
+	 * @return the next move of the stage, or Move.NONE once there are none left
+	 */
+	private int pickNext() {
+		while (index < count) {
+			int best = index;
+			for (int i = index + 1; i < count; i++) {
+				if (scores[i] > scores[best])
+					best = i;
+			}
+			
+			int move = moves[best];
+			moves[best] = moves[index];
+			scores[best] = scores[index];
+			index++;
+			if (move != hashMove && (stage != QUIETS || !isKiller(move)))
+				return move;
+		}
+		
+		return Move.NONE;
+	}
+	
+	/**
+	 * Checks if a quiet move was already handed out as a killer move.
+	 * @param move, the move to check
+	 * @return true if the move is a killer move of the ply, false otherwise
+	 */
+	private boolean isKiller(int move) {
+		for (int i = 0; i < History.KILLERS; i++) {
+			if (history.getKiller(ply, i) == move)
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Scores a capture by the most valuable victim and then the least valuable attacker.
+	 * @param move, the capture to score
+	 * @return the ordering score of the capture
+	 */
+	private int captureScore(int move) {
+		Position position = game.board.getPosition();
+		int to = Move.getTo(move);
+		int victims = value(position.getPiece(to));
+		if (Move.hasFlag(move, Move.STORM)) { // the pieces on either side of the target are hit too
+			if (to >= Position.SIDE_LENGTH)
+				victims += enemyValue(position.getPiece(to - Position.SIDE_LENGTH));
+			
+			if (to < Position.NUM_SQUARES - Position.SIDE_LENGTH)
+				victims += enemyValue(position.getPiece(to + Position.SIDE_LENGTH));
+		}
+		
+		return victims * Position.NUM_SQUARES - value(position.getPiece(Move.getFrom(move))) / 10;
+	}
+	
+	/**
+	 * Retrieves the value of a piece hit by a storm, counting the team's own pieces as a loss.
+	 * @param piece, the piece hit, or null for an empty square
+	 * @return the value of the piece to the team to move
+	 */
+	private int enemyValue(Piece piece) {
+		if (piece == null)
+			return 0;
+		
+		return piece.getColor() == color ? -value(piece) : value(piece);
+	}
+	
+	/**
+	 * Retrieves the material value of a piece.
+	 * @param piece, the piece to value
+	 * @return the value of the piece
+	 */
+	private static int value(Piece piece) {
+		return Evaluator.VALUES[piece.getType().ordinal()];
+	}
+}
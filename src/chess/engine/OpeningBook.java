@@ -0,0 +1,201 @@
+package chess.engine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.enums.PieceColor;
+
+/**
+ * An OpeningBook class that looks up moves for known positions in a book file, so the opening
+ * can be played without searching. The file is mapped into memory rather than read, so
+ * opening a book costs nothing up front and lookups read straight from the mapping. After a
+ * 16 byte header of MAGIC, VERSION and the number of entries, every entry is 16 bytes: the
+ * Zobrist key of the position, the move and its weight, big-endian and sorted by key, so the
+ * moves of a position sit next to each other and are found with a binary search. The book
+ * only reads from the mapping, so any number of threads can share one.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class OpeningBook implements Closeable {
+	public static final int MAGIC = 0x43484B42; // the first four bytes of every book file
+	public static final int VERSION = 1;
+	public static final int HEADER_BYTES = 16;
+	public static final int ENTRY_BYTES = 16;
+	
+	private static final int MOVE_OFFSET = 8; // where the move sits in an entry
+	private static final int WEIGHT_OFFSET = 12; // where the weight sits in an entry
+	
+	private RandomAccessFile file; // the open book file
+	private MappedByteBuffer buffer; // the whole file, mapped read-only
+	private int size; // the number of entries
+	
+	/**
+	 * The constructor for the OpeningBook class. The file is mapped, not read.
+	 * @param path, the book file to open
+	 * @throws IOException if the file can't be opened or isn't a book file
+	 */
+	public OpeningBook(File path) throws IOException {
+		file = new RandomAccessFile(path, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			long length = channel.size();
+			if (length < HEADER_BYTES || length > Integer.MAX_VALUE)
+				throw new IOException("not an opening book: " + path);
+			
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			long entries = buffer.getLong(8);
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+				|| entries < 0 || HEADER_BYTES + entries * ENTRY_BYTES != length)
+				throw new IOException("not an opening book: " + path);
+			
+			size = (int) entries;
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Retrieves the number of entries in the book.
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Finds every move the book has for the position with the given key.
+	 * @param key, the Zobrist key of the position, with the turn folded in
+	 * @param moves, the array to fill with the moves
+	 * @param weights, the array to fill with the weight of every move
+	 * @return the number of moves found, at most the length of the arrays
+	 */
+	public int getMoves(long key, int moves[], int weights[]) {
+		int count = 0;
+		for (int i = lowerBound(key); i < size && count < moves.length && keyAt(i) == key; i++) {
+			int offset = HEADER_BYTES + i * ENTRY_BYTES;
+			moves[count] = buffer.getInt(offset + MOVE_OFFSET);
+			weights[count] = buffer.getInt(offset + WEIGHT_OFFSET);
+			count++;
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Picks a book move for the team to move in the given game, choosing between the moves
+	 * of the position in proportion to their weights. Moves that aren't legal on the board,
+	 * which can only come from a key collision, are never picked.
+	 * @param game, the game to find a move for
+	 * @param random, the source of the choice
+	 * @return the book move, or Move.NONE if the position isn't in the book
+	 */
+	public int probe(Game game, Random random) {
+		int moves[] = new int[MoveGenerator.MAX_MOVES];
+		int weights[] = new int[MoveGenerator.MAX_MOVES];
+		int count = legalMoves(game, moves, weights);
+		long total = 0;
+		for (int i = 0; i < count; i++)
+			total += weights[i];
+		
+		if (total == 0)
+			return count > 0 ? moves[0] : Move.NONE;
+		
+		long pick = (long) (random.nextDouble() * total);
+		for (int i = 0; i < count; i++) {
+			pick -= weights[i];
+			if (pick < 0)
+				return moves[i];
+		}
+		
+		return moves[count - 1];
+	}
+	
+	/**
+	 * Picks the book move with the most weight for the team to move in the given game.
+	 * @param game, the game to find a move for
+	 * @return the book move, or Move.NONE if the position isn't in the book
+	 */
+	public int bestMove(Game game) {
+		int moves[] = new int[MoveGenerator.MAX_MOVES];
+		int weights[] = new int[MoveGenerator.MAX_MOVES];
+		int count = legalMoves(game, moves, weights);
+		int best = Move.NONE;
+		int bestWeight = -1;
+		for (int i = 0; i < count; i++) {
+			if (weights[i] > bestWeight) {
+				best = moves[i];
+				bestWeight = weights[i];
+			}
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * Closes the book file. The mapping itself is let go of by the garbage collector.
+	 * @throws IOException if the file can't be closed
+	 */
+	public void close() throws IOException {
+		file.close();
+	}
+	
+	/**
+	 * Finds the book moves of the position in the given game that are legal on its board.
+	 * @param game, the game to find moves for
+	 * @param moves, the array to fill with the moves
+	 * @param weights, the array to fill with the weight of every move
+	 * @return the number of legal book moves
+	 */
+	private int legalMoves(Game game, int moves[], int weights[]) {
+		int count = getMoves(game.board.getKey(), moves, weights);
+		PieceColor color = game.getPlayerColor(game.getTurn());
+		MoveGenerator generator = game.getMoveGenerator();
+		int legal = 0;
+		for (int i = 0; i < count; i++) {
+			if (generator.isLegal(color, moves[i])) {
+				moves[legal] = moves[i];
+				weights[legal] = weights[i];
+				legal++;
+			}
+		}
+		
+		return legal;
+	}
+	
+	/**
+	 * Finds the first entry whose key isn't less than the given key.
+	 * @param key, the key to search for
+	 * @return the index of the entry, or the number of entries if every key is less
+	 */
+	private int lowerBound(long key) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (keyAt(middle) < key)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		
+		return low;
+	}
+	
+	/**
+	 * Reads the key of the given entry.
+	 * @param index, the index of the entry
+	 * @return the key of the entry
+	 */
+	private long keyAt(int index) {
+		return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+	}
+}
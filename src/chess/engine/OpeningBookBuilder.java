@@ -0,0 +1,205 @@
+package chess.engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import chess.Game;
+import chess.Move;
+
+/**
+ * An OpeningBookBuilder class that compiles game records into an opening book file. A record
+ * is one line of moves in coordinate notation, such as "e2e4 e7e5 g1f3", played from the
+ * standard starting position. Move numbers and results are skipped, and a record stops at the
+ * first move that isn't legal. Every move played from a position adds one to its weight, up to
+ * the given number of plies into the game, so the book plays the moves that were played most.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class OpeningBookBuilder {
+	public static final int DEFAULT_PLIES = 20; // how deep into a game moves go into the book
+	
+	private static final int WRITE_ENTRIES = 4096; // the entries written to the file at once
+	
+	private int maxPlies; // the number of plies of every game that go into the book
+	private Map<Long, Map<Integer, Integer>> weights; // the weight of every move, by position key
+	private int size; // the number of distinct entries
+	
+	/**
+	 * The constructor for the OpeningBookBuilder class.
+	 * @param maxPlies, the number of plies of every game that go into the book
+	 */
+	public OpeningBookBuilder(int maxPlies) {
+		this.maxPlies = maxPlies;
+		weights = new HashMap<Long, Map<Integer, Integer>>();
+	}
+	
+	/**
+	 * Plays out a game record from the standard starting position and adds its moves.
+	 * @param record, the moves of the game in coordinate notation, separated by spaces
+	 * @return the number of moves added
+	 */
+	public int addGame(String record) {
+		Game game = new Game();
+		game.board.setUpGame();
+		String tokens[] = record.trim().split("\\s+");
+		int plies = 0;
+		for (int i = 0; i < tokens.length && plies < maxPlies; i++) {
+			String token = tokens[i];
+			if (token.isEmpty() || token.endsWith(".") || token.equals("1-0") || token.equals("0-1")
+				|| token.equals("1/2-1/2") || token.equals("*"))
+				continue;
+			
+			int move = game.getMoveGenerator().findMove(token);
+			if (move == Move.NONE)
+				break;
+			
+			add(game.board.getKey(), move);
+			game.board.makeMove(move);
+			plies++;
+		}
+		
+		return plies;
+	}
+	
+	/**
+	 * Adds every game record read from the given reader, one record per line. Blank lines and
+	 * lines starting with # are skipped.
+	 * @param reader, the reader to read records from
+	 * @return the number of games added
+	 * @throws IOException if the records can't be read
+	 */
+	public int addGames(BufferedReader reader) throws IOException {
+		int games = 0;
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#"))
+				continue;
+			
+			if (addGame(line) > 0)
+				games++;
+		}
+		
+		return games;
+	}
+	
+	/**
+	 * Retrieves the number of entries the book will have.
+	 * @return the number of distinct position and move pairs
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Writes the book file, sorted by key and then by weight, heaviest first.
+	 * @param path, the file to write
+	 * @throws IOException if the file can't be written
+	 */
+	public void write(File path) throws IOException {
+		long entries[][] = new long[size][];
+		int count = 0;
+		for (Map.Entry<Long, Map<Integer, Integer>> position : weights.entrySet()) {
+			for (Map.Entry<Integer, Integer> move : position.getValue().entrySet())
+				entries[count++] = new long[] { position.getKey(), move.getKey(), move.getValue() };
+		}
+		
+		Arrays.sort(entries, new Comparator<long[]>() {
+			public int compare(long first[], long second[]) {
+				if (first[0] != second[0])
+					return first[0] < second[0] ? -1 : 1;
+				
+				if (first[2] != second[2])
+					return first[2] > second[2] ? -1 : 1;
+				
+				return first[1] < second[1] ? -1 : first[1] > second[1] ? 1 : 0;
+			}
+		});
+		
+		RandomAccessFile file = new RandomAccessFile(path, "rw");
+		try {
+			file.setLength(0);
+			FileChannel channel = file.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocate(WRITE_ENTRIES * OpeningBook.ENTRY_BYTES);
+			buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putLong(size);
+			for (int i = 0; i < size; i++) {
+				if (buffer.remaining() < OpeningBook.ENTRY_BYTES)
+					flush(channel, buffer);
+				
+				buffer.putLong(entries[i][0]).putInt((int) entries[i][1]).putInt((int) entries[i][2]);
+			}
+			
+			flush(channel, buffer);
+		} finally {
+			file.close();
+		}
+	}
+	
+	/**
+	 * Adds one to the weight of a move played from a position.
+	 * @param key, the key of the position
+	 * @param move, the move played
+	 */
+	private void add(long key, int move) {
+		Map<Integer, Integer> moves = weights.get(key);
+		if (moves == null) {
+			moves = new HashMap<Integer, Integer>();
+			weights.put(key, moves);
+		}
+		
+		Integer weight = moves.get(move);
+		if (weight == null) {
+			moves.put(move, 1);
+			size++;
+		} else if (weight < Integer.MAX_VALUE) {
+			moves.put(move, weight + 1);
+		}
+	}
+	
+	/**
+	 * Writes out what's in the buffer and empties it.
+	 * @param channel, the channel to write to
+	 * @param buffer, the buffer to write
+	 * @throws IOException if the buffer can't be written
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		
+		buffer.clear();
+	}
+	
+	/**
+	 * Builds a book file from a file of game records. The arguments are the records file, the
+	 * book file to write, and optionally the number of plies of every game to use.
+	 * @param args, the command line arguments
+	 * @throws IOException if a file can't be read or written
+	 */
+	public static void main(String args[]) throws IOException {
+		if (args.length < 2) {
+			System.out.println("usage: OpeningBookBuilder <records> <book> [plies]");
+			return;
+		}
+		
+		OpeningBookBuilder builder = new OpeningBookBuilder(args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PLIES);
+		BufferedReader reader = new BufferedReader(new FileReader(args[0]));
+		int games;
+		try {
+			games = builder.addGames(reader);
+		} finally {
+			reader.close();
+		}
+		
+		builder.write(new File(args[1]));
+		System.out.println(games + " games, " + builder.size() + " entries");
+	}
+}
@@ -0,0 +1,175 @@
+package chess.engine;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import chess.Game;
+
+/**
+ * A ParallelSearch class that searches one position on several threads at once, in the style
+ * known as Lazy SMP. Every thread runs an ordinary Search on a copy of the game of its own, and
+ * the only thing they share is the transposition table. The helper threads fill the table with
+ * positions the main thread then finds already searched, and every other helper searches one
+ * ply deeper than the main thread so their trees overlap less. The main thread decides when
+ * the search is over, and its result is the one returned.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class ParallelSearch {
+	private int threads; // the number of threads searching, including the calling thread
+	private TranspositionTable table; // the table every thread shares
+	private ExecutorService helpers; // runs the searches of the helper threads
+	private volatile Search searches[]; // the searches of the current position, the main one first
+	
+	/**
+	 * The constructor for the ParallelSearch class.
+	 * @param threads, the number of threads to search with, including the calling thread
+	 * @param table, the transposition table the threads share
+	 */
+	public ParallelSearch(int threads, TranspositionTable table) {
+		this.threads = Math.max(1, threads);
+		this.table = table;
+		searches = new Search[0];
+		if (this.threads > 1) {
+			helpers = Executors.newFixedThreadPool(this.threads - 1, new ThreadFactory() {
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "search-helper");
+					thread.setDaemon(true); // a forgotten search shouldn't keep the program open
+					return thread;
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Searches the current position of the given game until one of the limits is reached on
+	 * the calling thread. The helper threads are stopped as soon as the calling thread is done.
+	 * The game itself is never touched, since every thread searches a copy of it.
+	 * @param game, the game to search
+	 * @param limits, when the search has to stop
+	 * @return the result of the main search, with the nodes of every thread added up
+	 */
+	public SearchResult search(Game game, SearchLimits limits) {
+		Search searches[] = new Search[threads];
+		for (int i = 0; i < threads; i++) {
+			searches[i] = new Search(new Game(game), table);
+			searches[i].setDepthOffset(i & 1);
+		}
+		
+		this.searches = searches; // published whole, since stop reads it from other threads
+		final SearchLimits helperLimits = new SearchLimits();
+		helperLimits.setDepth(limits.getDepth());
+		helperLimits.setNodes(limits.getNodes());
+		helperLimits.setHardTime(limits.getHardTime());
+		List<Future<SearchResult>> futures = new ArrayList<Future<SearchResult>>(threads - 1);
+		for (int i = 1; i < threads; i++) {
+			final Search helper = searches[i];
+			futures.add(helpers.submit(new Callable<SearchResult>() {
+				public SearchResult call() {
+					return helper.search(helperLimits);
+				}
+			}));
+		}
+		
+		SearchResult main = searches[0].search(limits);
+		long nodes = main.getNodes();
+		for (int i = 1; i < threads; i++)
+			searches[i].abort(); // a helper that hasn't started yet would miss a plain stop
+		
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				nodes += futures.get(i).get().getNodes();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("A helper search failed", e.getCause());
+			}
+		}
+		
+		return new SearchResult(main.getMove(), main.getScore(), main.getDepth(), nodes);
+	}
+	
+	/**
+	 * Stops every thread of the search that's running. This can be called from any thread.
+	 */
+	public void stop() {
+		Search running[] = searches;
+		for (int i = 0; i < running.length; i++)
+			running[i].abort();
+	}
+	
+	/**
+	 * Retrieves the number of threads the search runs on.
+	 * @return the thread count
+	 */
+	public int getThreads() {
+		return threads;
+	}
+	
+	/**
+	 * Shuts the helper threads down. The search can't be used afterwards.
+	 */
+	public void shutdown() {
+		if (helpers != null)
+			helpers.shutdownNow();
+	}
+	
+	/**
+	 * Measures how much faster the given number of threads reach the given depth than a single
+	 * thread does, each starting from an empty table, and prints the time and speed of both.
+	 * @param game, the game whose position to search
+	 * @param depth, the depth to search to
+	 * @param threads, the number of threads to compare against one
+	 * @param megabytes, the size of the transposition table
+	 * @param out, the stream to print the report to
+	 * @return the time taken by one thread divided by the time taken by all of them
+	 */
+	public static double measureSpeedup(Game game, int depth, int threads, int megabytes, PrintStream out) {
+		long single = timeSearch(game, depth, 1, megabytes, out);
+		long parallel = timeSearch(game, depth, threads, megabytes, out);
+		double speedup = (double) single / Math.max(1, parallel);
+		out.println("Speedup with " + threads + " threads: " + String.format("%.2f", speedup));
+		return speedup;
+	}
+	
+	/**
+	 * Searches the position to the given depth with the given number of threads and prints
+	 * how long it took.
+	 * @param game, the game whose position to search
+	 * @param depth, the depth to search to
+	 * @param threads, the number of threads to search with
+	 * @param megabytes, the size of the transposition table
+	 * @param out, the stream to print to
+	 * @return the time taken in nanoseconds
+	 */
+	private static long timeSearch(Game game, int depth, int threads, int megabytes, PrintStream out) {
+		ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(megabytes));
+		long start = System.nanoTime();
+		SearchResult result = search.search(game, SearchLimits.depth(depth));
+		long elapsed = System.nanoTime() - start;
+		search.shutdown();
+		out.println(threads + " thread(s): " + result + " time " + elapsed / 1000000 + " ms nps "
+			+ (elapsed > 0 ? (long) (result.getNodes() * 1000000000.0 / elapsed) : 0));
+		return elapsed;
+	}
+	
+	/**
+	 * Reports the speedup on the standard starting position. The arguments are the number of
+	 * threads, which defaults to every core, and the depth, which defaults to 8.
+	 * @param args, the command line arguments
+	 */
+	public static void main(String args[]) {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		Game game = new Game();
+		game.board.setUpGame();
+		measureSpeedup(game, depth, threads, 64, System.out);
+	}
+}
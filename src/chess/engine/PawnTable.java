@@ -0,0 +1,195 @@
+package chess.engine;
+
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pieces.Piece;
+
+/**
+ * A PawnTable class that caches what the pawn structure of a position is worth, keyed only on
+ * where the Pawns stand. Sibling positions almost always share their Pawns, so the structure
+ * is worked out once and looked up after that. Doubled and isolated Pawns are penalized and
+ * passed Pawns rewarded by how far they've come. Pawns don't promote in this game, so a
+ * passed Pawn is worth far less than in chess, and one that reached the last row can't move
+ * at all. The terms are only worked out for the white and black teams, the two the standard
+ * set-up plays with, and are stored from white's point of view. Entries are overwritten
+ * whenever another structure lands on the same slot, which keeps the table a fixed size.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class PawnTable {
+	public static final int DEFAULT_ENTRIES = 1 << 14; // enough for the structures of any one search
+	
+	public static final int DOUBLED_MIDGAME = -10; // for every Pawn behind another one on its column
+	public static final int DOUBLED_ENDGAME = -20;
+	public static final int ISOLATED_MIDGAME = -10; // for every Pawn with no Pawn of its team on the columns beside it
+	public static final int ISOLATED_ENDGAME = -15;
+	
+	/**
+	 * The bonus of a passed Pawn by the number of rows it has come from its starting row.
+	 */
+	public static final int PASSED_MIDGAME[] = { 0, 5, 5, 10, 15, 20, 10 };
+	public static final int PASSED_ENDGAME[] = { 0, 10, 10, 15, 25, 30, 10 };
+	
+	private static final long FILES[] = new long[Position.SIDE_LENGTH]; // every square of every column
+	private static final long WHITE_AHEAD[] = new long[Position.NUM_SQUARES]; // the rows in front of a white Pawn
+	private static final long BLACK_AHEAD[] = new long[Position.NUM_SQUARES]; // the rows in front of a black Pawn
+	
+	static {
+		for (int x = 0; x < Position.SIDE_LENGTH; x++) {
+			for (int y = 0; y < Position.SIDE_LENGTH; y++)
+				FILES[x] |= 1L << Position.toSquare(x, y);
+		}
+		
+		for (int square = 0; square < Position.NUM_SQUARES; square++) {
+			int y = Position.getY(square);
+			for (int row = 0; row < Position.SIDE_LENGTH; row++) {
+				long rowMask = 0xFFL << (row * Position.SIDE_LENGTH);
+				if (row < y)
+					WHITE_AHEAD[square] |= rowMask;
+				else if (row > y)
+					BLACK_AHEAD[square] |= rowMask;
+			}
+		}
+	}
+	
+	/**
+	 * An Entry class holding the pawn structure score of one Pawn placement.
+	 */
+	public static class Entry {
+		private long key; // the pawn key of the placement the scores belong to
+		private int midgame; // the middlegame score, white minus black
+		private int endgame; // the endgame score, white minus black
+		
+		/**
+		 * Retrieves the middlegame score of the pawn structure.
+		 * @return the score from white's point of view
+		 */
+		public int getMidgame() {
+			return midgame;
+		}
+		
+		/**
+		 * Retrieves the endgame score of the pawn structure.
+		 * @return the score from white's point of view
+		 */
+		public int getEndgame() {
+			return endgame;
+		}
+	}
+	
+	private Entry entries[]; // the cached structures, indexed by the low bits of the pawn key
+	private int mask; // the number of entries minus one
+	private long probes; // the number of lookups
+	private long hits; // the number of lookups that found their structure
+	
+	/**
+	 * The constructor for the PawnTable class, with the default number of entries.
+	 */
+	public PawnTable() {
+		this(DEFAULT_ENTRIES);
+	}
+	
+	/**
+	 * The constructor for the PawnTable class.
+	 * @param size, the number of entries, rounded down to a power of two
+	 */
+	public PawnTable(int size) {
+		int capacity = Integer.highestOneBit(Math.max(size, 1));
+		entries = new Entry[capacity];
+		for (int i = 0; i < capacity; i++)
+			entries[i] = new Entry(); // the empty placement has key 0 and scores nothing
+		
+		mask = capacity - 1;
+	}
+	
+	/**
+	 * Finds the pawn structure score of the given position, working it out and storing it if
+	 * the table doesn't have it.
+	 * @param position, the position to score
+	 * @return the entry holding the score, which stays valid until the next lookup
+	 */
+	public Entry probe(Position position) {
+		long key = position.getPawnKey();
+		Entry entry = entries[(int) key & mask];
+		probes++;
+		if (entry.key == key) {
+			hits++;
+			return entry;
+		}
+		
+		long white = position.getPieces(PieceColor.WHITE, Piece.Type.PAWN);
+		long black = position.getPieces(PieceColor.BLACK, Piece.Type.PAWN);
+		entry.key = key;
+		entry.midgame = 0;
+		entry.endgame = 0;
+		score(entry, white, black, WHITE_AHEAD, 1);
+		score(entry, black, white, BLACK_AHEAD, -1);
+		return entry;
+	}
+	
+	/**
+	 * Retrieves the number of lookups since the table was made.
+	 * @return the number of lookups
+	 */
+	public long getProbes() {
+		return probes;
+	}
+	
+	/**
+	 * Retrieves the number of lookups that found their structure already stored.
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+	
+	/**
+	 * Adds the doubled, isolated and passed Pawn terms of one team to an entry.
+	 * @param entry, the entry to add to
+	 * @param pawns, the Pawns of the team
+	 * @param enemyPawns, the Pawns of the other team
+	 * @param ahead, the rows in front of a Pawn of the team, by square
+	 * @param sign, 1 to add the terms for white, -1 for black
+	 */
+	private static void score(Entry entry, long pawns, long enemyPawns, long ahead[], int sign) {
+		int midgame = 0;
+		int endgame = 0;
+		for (int x = 0; x < Position.SIDE_LENGTH; x++) {
+			int count = Long.bitCount(pawns & FILES[x]);
+			if (count == 0)
+				continue;
+			
+			midgame += (count - 1) * DOUBLED_MIDGAME;
+			endgame += (count - 1) * DOUBLED_ENDGAME;
+			if ((pawns & neighborFiles(x)) == 0) {
+				midgame += count * ISOLATED_MIDGAME;
+				endgame += count * ISOLATED_ENDGAME;
+			}
+		}
+		
+		for (long rest = pawns; rest != 0; rest &= rest - 1) {
+			int square = Long.numberOfTrailingZeros(rest);
+			int x = Position.getX(square);
+			long front = ahead[square] & (FILES[x] | neighborFiles(x));
+			if ((enemyPawns & front) != 0 || (pawns & ahead[square] & FILES[x]) != 0)
+				continue; // blocked by an enemy Pawn, or only the front Pawn of a column counts
+			
+			int rows = sign > 0 ? Position.SIDE_LENGTH - 2 - Position.getY(square) : Position.getY(square) - 1;
+			rows = Math.max(0, Math.min(rows, PASSED_MIDGAME.length - 1));
+			midgame += PASSED_MIDGAME[rows];
+			endgame += PASSED_ENDGAME[rows];
+		}
+		
+		entry.midgame += sign * midgame;
+		entry.endgame += sign * endgame;
+	}
+	
+	/**
+	 * Retrieves every square of the columns on either side of the given column.
+	 * @param x, the column
+	 * @return the bitboard of the neighboring columns
+	 */
+	private static long neighborFiles(int x) {
+		return (x > 0 ? FILES[x - 1] : 0L) | (x < Position.SIDE_LENGTH - 1 ? FILES[x + 1] : 0L);
+	}
+}
@@ -0,0 +1,571 @@
+package chess.engine;
+
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pieces.Piece;
+
+/**
+ * A Search class that finds the best move for the team whose turn it is with a principal
+ * variation alpha-beta search. The first move at every node is searched with the full window,
+ * and the rest with a null window that only proves them worse, searching again with the full
+ * window when one turns out better. Positions where passing the turn still beats the window
+ * are cut off with a shallower null move search, and quiet moves late in the move order are
+ * searched to a reduced depth first. Moves come from a MovePicker, so the best guesses are
+ * searched first and the quiet moves often never have to be generated. At the end of every
+ * line, captures are played out until the position is quiet, skipping the ones that lose
+ * material on their square. The board is driven through makeMove and unmakeMove, and every
+ * position is remembered in the transposition table. Endgames a tablebase covers are looked
+ * up instead of searched.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Search {
+	public static final int INFINITE = 31000; // more than any score
+	public static final int MATE = 30000; // the score of a King taken right now
+	public static final int DRAW = 0;
+	public static final int MAX_PLY = 128; // the deepest a line is searched
+	public static final int DEFAULT_TABLE_MEGABYTES = 16;
+	
+	private static final int MATE_BOUND = MATE - MAX_PLY; // scores past this are mate scores
+	private static final int NULL_MOVE_DEPTH = 3; // the shallowest depth a null move is tried at
+	private static final int REDUCTION_DEPTH = 3; // the shallowest depth moves are reduced at
+	private static final int FULL_DEPTH_MOVES = 3; // the moves searched at full depth before reducing
+	private static final int CHECK_INTERVAL = 1023; // the clock is read once every this many nodes plus one
+	
+	private Game game; // the game to search
+	private MoveGenerator generator; // generates the legal moves at every node
+	private TranspositionTable table; // remembers positions that were already searched
+	private Evaluator evaluator; // scores the positions at the end of every line
+	private int moves[][]; // the move buffer of every ply
+	private int exchanges[][]; // the exchange values of the captures in the move buffer of every ply
+	private StaticExchange exchange; // works out the exchange values
+	private MovePicker pickers[]; // hands out the moves of every ply in order
+	private History history; // the quiet moves that cut off before
+	private long keys[]; // the key of every position on the current line, to catch repetitions
+	private long nodes; // the number of positions visited
+	private int rootMove; // the best move found at the root so far
+	private SearchLimits limits; // when the current search has to stop
+	private long startTime; // when the current search started, in nanoseconds
+	private volatile boolean stopped; // set when the search has to return right away
+	private volatile boolean aborted; // set when every search from now on has to return right away
+	private int depthOffset; // the plies every iteration searches past its number
+	private OpeningBook book; // the book to play known positions from, or null
+	private Tablebase tablebase; // the endgame results to look up instead of searching, or null
+	
+	/**
+	 * The constructor for the Search class, with a transposition table of its own.
+	 * @param game, the game to search
+	 */
+	public Search(Game game) {
+		this(game, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+	}
+	
+	/**
+	 * The constructor for the Search class.
+	 * @param game, the game to search
+	 * @param table, the transposition table to use, which may be shared with other searches
+	 */
+	public Search(Game game, TranspositionTable table) {
+		this.game = game;
+		this.table = table;
+		generator = new MoveGenerator(game);
+		evaluator = new Evaluator();
+		moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+		exchanges = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+		exchange = new StaticExchange();
+		history = new History(MAX_PLY);
+		pickers = new MovePicker[MAX_PLY];
+		for (int i = 0; i < MAX_PLY; i++)
+			pickers[i] = new MovePicker(game, generator, history);
+		keys = new long[MAX_PLY];
+	}
+	
+	/**
+	 * Searches the current position one ply deeper at a time, up to the given depth.
+	 * @param depth, the number of plies to search
+	 * @return the best move and its score
+	 */
+	public SearchResult search(int depth) {
+		return search(SearchLimits.depth(depth));
+	}
+	
+	/**
+	 * Searches the current position one ply deeper at a time until one of the given limits
+	 * is reached. Each iteration fills the transposition table with the best moves that order
+	 * the next one. An iteration cut off by the hard time or node limit is thrown away, and
+	 * the result of the last complete iteration is returned. A book move is returned with a
+	 * depth of 0, as is a move the tablebase picked.
+	 * @param limits, when the search has to stop
+	 * @return the best move and its score
+	 */
+	public SearchResult search(SearchLimits limits) {
+		this.limits = limits;
+		startTime = System.nanoTime();
+		stopped = aborted;
+		nodes = 0;
+		if (book != null) {
+			int bookMove = book.bestMove(game);
+			if (bookMove != Move.NONE)
+				return new SearchResult(bookMove, 0, 0, 0);
+		}
+		
+		if (tablebase != null) {
+			SearchResult result = tablebaseMove();
+			if (result != null)
+				return result;
+		}
+		
+		table.newSearch();
+		history.age();
+		int score = 0;
+		int completed = 0;
+		int bestMove = Move.NONE;
+		for (int iteration = 1; iteration <= limits.getDepth(); iteration++) {
+			rootMove = Move.NONE;
+			int iterationScore = negamax(iteration + depthOffset, -INFINITE, INFINITE, 0, false);
+			if (stopped) {
+				if (completed == 0) // nothing finished, so any move beats none
+					bestMove = rootMove != Move.NONE ? rootMove : firstLegalMove();
+				
+				break;
+			}
+			
+			score = iterationScore;
+			bestMove = rootMove;
+			completed = iteration + depthOffset;
+			if (bestMove == Move.NONE || Math.abs(score) >= MATE_BOUND)
+				break; // there's no move, or a forced mate was found
+			
+			if (getElapsedMillis() >= limits.getSoftTime())
+				break; // the next iteration probably won't finish in time
+		}
+		
+		return new SearchResult(bestMove, score, completed, nodes);
+	}
+	
+	/**
+	 * Gives the search a book to play from. A position in the book is answered with its
+	 * heaviest move right away, without searching.
+	 * @param book, the opening book, or null to always search
+	 */
+	public void setOpeningBook(OpeningBook book) {
+		this.book = book;
+	}
+	
+	/**
+	 * Gives the search a tablebase to look endgames up in. Positions it covers are scored by
+	 * their distance to mate instead of being searched, and at the root the move is picked
+	 * from the tablebase alone.
+	 * @param tablebase, the tablebase, or null to always search
+	 */
+	public void setTablebase(Tablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+	
+	/**
+	 * Makes every iteration search the given number of plies deeper than its number. Helper
+	 * threads of a parallel search use this so they aren't all on the same depth at once.
+	 * @param depthOffset, the extra plies to search
+	 */
+	void setDepthOffset(int depthOffset) {
+		this.depthOffset = depthOffset;
+	}
+	
+	/**
+	 * Stops the search as soon as possible. This can be called from another thread, and the
+	 * search then returns the result of its last complete iteration.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+	
+	/**
+	 * Stops the search for good. Unlike stop, this also holds for a search that hasn't started
+	 * yet, so another thread can stop a search before it gets to run. Every later search then
+	 * returns right away with the first legal move.
+	 */
+	public void abort() {
+		aborted = true;
+		stopped = true;
+	}
+	
+	/**
+	 * Lets the searches after an abort run again, so the search can be kept and used for the
+	 * next move. This is called between searches, by the thread that runs them.
+	 */
+	public void resume() {
+		aborted = false;
+	}
+	
+	/**
+	 * Retrieves the time passed since the current search started.
+	 * @return the elapsed time in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return (System.nanoTime() - startTime) / 1000000;
+	}
+	
+	/**
+	 * Retrieves the number of positions visited by the last search.
+	 * @return the node count
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+	
+	/**
+	 * Searches the current position to the given depth and scores it for the team to move.
+	 * @param depth, the number of plies left to search
+	 * @param alpha, the score the team to move is already sure of
+	 * @param beta, the score the opponent is already sure of
+	 * @param ply, the number of plies from the root
+	 * @param allowNull, whether a null move may be tried at this node
+	 * @return the score of the position
+	 */
+	private int negamax(int depth, int alpha, int beta, int ply, boolean allowNull) {
+		if (depth <= 0)
+			return quiescence(alpha, beta, ply);
+		
+		if (visitNode())
+			return 0;
+		
+		long key = game.board.getKey();
+		if (ply > 0 && isRepetition(key, ply))
+			return DRAW;
+		
+		if (ply > 0 && tablebase != null && Long.bitCount(game.board.getPosition().getOccupied()) <= Tablebase.MAX_PIECES) {
+			int result = tablebase.probe(game);
+			if (result != Tablebase.UNKNOWN)
+				return fromTablebase(result, ply);
+		}
+		
+		if (ply >= MAX_PLY - 1)
+			return evaluator.evaluate(game);
+		
+		keys[ply] = key;
+		boolean pvNode = beta - alpha > 1;
+		int hashMove = Move.NONE;
+		long entry = table.probe(key);
+		if (entry != 0) {
+			hashMove = TranspositionTable.getMove(entry);
+			if (!pvNode && ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+				int score = fromTable(TranspositionTable.getScore(entry), ply);
+				int bound = TranspositionTable.getBound(entry);
+				if (bound == TranspositionTable.BOUND_EXACT
+					|| (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+					|| (bound == TranspositionTable.BOUND_UPPER && score <= alpha))
+					return score;
+			}
+		}
+		
+		PieceColor color = game.getPlayerColor(game.getTurn());
+		boolean inCheck = game.board.isKingAttacked(color);
+		if (allowNull && !pvNode && !inCheck && depth >= NULL_MOVE_DEPTH && Math.abs(beta) < MATE_BOUND
+			&& hasPiecesBesidesPawns(color) && evaluator.evaluate(game) >= beta) {
+			int reduction = depth > 6 ? 3 : 2;
+			game.board.makeNullMove();
+			int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+			game.board.unmakeMove();
+			if (stopped)
+				return 0;
+			
+			if (score >= beta)
+				return score >= MATE_BOUND ? beta : score; // a mate found by passing isn't proven
+		}
+		
+		MovePicker picker = pickers[ply];
+		picker.reset(color, hashMove, ply);
+		int originalAlpha = alpha;
+		int bestScore = -INFINITE;
+		int bestMove = Move.NONE;
+		int move;
+		int i = 0; // the number of moves searched before this one
+		for (; (move = picker.next()) != Move.NONE; i++) {
+			game.board.makeMove(move);
+			boolean givesCheck = game.board.isKingAttacked(game.getPlayerColor(game.getTurn()));
+			int score;
+			if (i == 0) {
+				score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+			} else {
+				int reduction = 0;
+				if (depth >= REDUCTION_DEPTH && i >= FULL_DEPTH_MOVES && !inCheck && !givesCheck && isQuiet(move))
+					reduction = i >= 2 * FULL_DEPTH_MOVES && depth >= 6 ? 2 : 1;
+				
+				score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+				if (score > alpha && reduction > 0) // the reduced search may have missed something
+					score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1, true);
+				
+				if (score > alpha && score < beta) // the move is better, so find out by how much
+					score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+			}
+			
+			game.board.unmakeMove();
+			if (stopped)
+				return 0; // the score is unfinished, so it mustn't reach the table or the root
+			
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+				if (ply == 0)
+					rootMove = move;
+				
+				if (score > alpha) {
+					alpha = score;
+					if (alpha >= beta) {
+						if (isQuiet(move))
+							history.addCutoff(color, move, depth, ply);
+						
+						break;
+					}
+				}
+			}
+		}
+		
+		if (bestMove == Move.NONE)
+			return inCheck ? -MATE + ply : DRAW;
+		
+		int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+			: bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+		table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+		return bestScore;
+	}
+	
+	/**
+	 * Searches only the captures, storms and snipes of the current position, until there are
+	 * none left worth making, so a line never ends in the middle of an exchange. The team to
+	 * move can always stand on the static score instead of capturing, unless it's in check,
+	 * in which case every move is searched. Captures that lose material on their square are
+	 * skipped, since a storm or a far snipe can leave too many of them to search.
+	 * @param alpha, the score the team to move is already sure of
+	 * @param beta, the score the opponent is already sure of
+	 * @param ply, the number of plies from the root
+	 * @return the score of the position
+	 */
+	private int quiescence(int alpha, int beta, int ply) {
+		if (visitNode())
+			return 0;
+		
+		if (ply >= MAX_PLY - 1)
+			return evaluator.evaluate(game);
+		
+		PieceColor color = game.getPlayerColor(game.getTurn());
+		boolean inCheck = game.board.isKingAttacked(color);
+		int bestScore = -INFINITE;
+		if (!inCheck) {
+			bestScore = evaluator.evaluate(game);
+			if (bestScore >= beta)
+				return bestScore;
+			
+			if (bestScore > alpha)
+				alpha = bestScore;
+		}
+		
+		int moveList[] = moves[ply];
+		int values[] = exchanges[ply];
+		int count = inCheck ? generator.generateLegalMoves(color, moveList) : generator.generateLegalCaptures(color, moveList);
+		if (count == 0 && inCheck)
+			return -MATE + ply;
+		
+		for (int i = 0; i < count; i++)
+			values[i] = isQuiet(moveList[i]) ? 0 : exchange.evaluate(game, moveList[i]);
+		
+		for (int i = 0; i < count; i++) {
+			pickBest(moveList, values, i, count);
+			if (!inCheck && values[i] < 0)
+				break; // the rest lose material too
+			
+			game.board.makeMove(moveList[i]);
+			int score = -quiescence(-beta, -alpha, ply + 1);
+			game.board.unmakeMove();
+			if (stopped)
+				return 0;
+			
+			if (score > bestScore) {
+				bestScore = score;
+				if (score > alpha) {
+					alpha = score;
+					if (alpha >= beta)
+						break;
+				}
+			}
+		}
+		
+		return bestScore;
+	}
+	
+	/**
+	 * Counts a visit to a position, and stops the search once the node limit is passed or the
+	 * hard time limit is up.
+	 * @return true if the search has to stop, false otherwise
+	 */
+	private boolean visitNode() {
+		nodes++;
+		if (nodes > limits.getNodes()
+			|| ((nodes & CHECK_INTERVAL) == 0 && getElapsedMillis() >= limits.getHardTime()))
+			stopped = true;
+		
+		return stopped;
+	}
+	
+	/**
+	 * Moves the move with the highest value left in the list to the given index, along with
+	 * its value. Picking one move at a time is cheaper than sorting when a cutoff comes early.
+	 * @param moveList, the moves to pick from
+	 * @param values, the value of every move
+	 * @param index, the index to fill
+	 * @param count, the number of moves in the list
+	 */
+	private static void pickBest(int moveList[], int values[], int index, int count) {
+		int best = index;
+		for (int i = index + 1; i < count; i++) {
+			if (values[i] > values[best])
+				best = i;
+		}
+		
+		swap(moveList, index, best);
+		swap(values, index, best);
+	}
+	
+	/**
+	 * Finds any legal move for the team to move, for when the search was stopped before it
+	 * could compare any.
+	 * @return a legal move, or Move.NONE if there is none
+	 */
+	private int firstLegalMove() {
+		int count = generator.generateLegalMoves(moves[0]);
+		return count > 0 ? moves[0][0] : Move.NONE;
+	}
+	
+	/**
+	 * Picks the move that mates soonest, holds the draw, or puts off the mate the longest, if
+	 * the tablebase covers the position after every legal move.
+	 * @return the move and its score, or null if the position has to be searched
+	 */
+	private SearchResult tablebaseMove() {
+		if (Long.bitCount(game.board.getPosition().getOccupied()) > Tablebase.MAX_PIECES)
+			return null;
+		
+		int count = generator.generateLegalMoves(moves[0]);
+		int bestMove = Move.NONE;
+		int bestScore = -INFINITE;
+		for (int i = 0; i < count; i++) {
+			game.board.makeMove(moves[0][i]);
+			int result = tablebase.probe(game);
+			game.board.unmakeMove();
+			if (result == Tablebase.UNKNOWN)
+				return null;
+			
+			int score = -fromTablebase(result, 1);
+			if (score > bestScore) {
+				bestMove = moves[0][i];
+				bestScore = score;
+			}
+		}
+		
+		return bestMove != Move.NONE ? new SearchResult(bestMove, bestScore, 0, 0) : null;
+	}
+	
+	/**
+	 * Swaps two entries of a move list or of the values that go with it.
+	 * @param list, the list of moves or values
+	 * @param first, the index of the first entry
+	 * @param second, the index of the second entry
+	 */
+	private static void swap(int list[], int first, int second) {
+		int entry = list[first];
+		list[first] = list[second];
+		list[second] = entry;
+	}
+	
+	/**
+	 * Checks if a move doesn't capture anything.
+	 * @param move, the move to check
+	 * @return true if the move is quiet, false otherwise
+	 */
+	private static boolean isQuiet(int move) {
+		return !Move.hasFlag(move, Move.CAPTURE);
+	}
+	
+	/**
+	 * Checks if the position with the given key already came up earlier on the current line,
+	 * with the same team to move. Going back to it means the line can go around in a circle,
+	 * so it's scored as a draw.
+	 * @param key, the key of the position
+	 * @param ply, the number of plies from the root
+	 * @return true if the position is a repetition, false otherwise
+	 */
+	private boolean isRepetition(long key, int ply) {
+		int step = game.getNumPlayers();
+		for (int i = ply - step; i >= 0; i -= step) {
+			if (keys[i] == key)
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Checks if the team has anything besides Pawns and its King. Without other pieces, being
+	 * made to move can be the only reason a position is lost, which the null move can't see.
+	 * @param color, the color of the team to check
+	 * @return true if the team has other pieces, false otherwise
+	 */
+	private boolean hasPiecesBesidesPawns(PieceColor color) {
+		Position position = game.board.getPosition();
+		return (position.getColorBoard(color) & ~position.getTypeBoard(Piece.Type.PAWN)
+			& ~position.getTypeBoard(Piece.Type.KING)) != 0;
+	}
+	
+	/**
+	 * Converts a mate score found at the given ply into a distance from the position itself,
+	 * so the entry holds for the position wherever it comes up.
+	 * @param score, the score at the given ply
+	 * @param ply, the number of plies from the root
+	 * @return the score to store
+	 */
+	private static int toTable(int score, int ply) {
+		if (score >= MATE_BOUND)
+			return score + ply;
+		
+		if (score <= -MATE_BOUND)
+			return score - ply;
+		
+		return score;
+	}
+	
+	/**
+	 * Converts a mate score from the transposition table back into a distance from the root.
+	 * @param score, the stored score
+	 * @param ply, the number of plies from the root
+	 * @return the score at the given ply
+	 */
+	private static int fromTable(int score, int ply) {
+		if (score >= MATE_BOUND)
+			return score - ply;
+		
+		if (score <= -MATE_BOUND)
+			return score + ply;
+		
+		return score;
+	}
+	
+	/**
+	 * Converts a tablebase result into a score at the given ply, mating or getting mated as
+	 * many plies later as the tablebase says.
+	 * @param result, the result of the position for the team to move
+	 * @param ply, the number of plies from the root
+	 * @return the score of the position
+	 */
+	private static int fromTablebase(int result, int ply) {
+		if (Tablebase.isWin(result))
+			return MATE - ply - Tablebase.getDistance(result);
+		
+		if (Tablebase.isLoss(result))
+			return -MATE + ply + Tablebase.getDistance(result);
+		
+		return DRAW;
+	}
+}
@@ -0,0 +1,119 @@
+package chess.engine;
+
+/**
+ * A SearchLimits class describing when a search has to stop. The depth limit is the deepest
+ * iteration to run. The soft time limit keeps a new iteration from starting once it has
+ * passed, since the next iteration usually takes longer than all the ones before it. The hard
+ * time limit stops the search in the middle of an iteration, and the node limit does the same
+ * after a fixed number of positions, which gives the same result on every run. Limits that
+ * aren't set don't stop the search.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class SearchLimits {
+	public static final long UNLIMITED = Long.MAX_VALUE;
+	
+	private int depth; // the deepest iteration to run
+	private long softTime; // the milliseconds after which no new iteration is started
+	private long hardTime; // the milliseconds after which the search stops right away
+	private long nodes; // the number of positions after which the search stops right away
+	
+	/**
+	 * The constructor for the SearchLimits class. Nothing is limited except the depth, which
+	 * is capped at the deepest line a search can hold.
+	 */
+	public SearchLimits() {
+		depth = Search.MAX_PLY - 1;
+		softTime = UNLIMITED;
+		hardTime = UNLIMITED;
+		nodes = UNLIMITED;
+	}
+	
+	/**
+	 * Creates limits that only stop the search at the given depth.
+	 * @param depth, the deepest iteration to run
+	 * @return the limits
+	 */
+	public static SearchLimits depth(int depth) {
+		SearchLimits limits = new SearchLimits();
+		limits.setDepth(depth);
+		return limits;
+	}
+	
+	/**
+	 * Creates limits for answering within the given time. No new iteration starts after half
+	 * of it has passed, and the search is cut off when all of it has.
+	 * @param milliseconds, the time the search may take
+	 * @return the limits
+	 */
+	public static SearchLimits moveTime(long milliseconds) {
+		SearchLimits limits = new SearchLimits();
+		limits.setSoftTime(milliseconds / 2);
+		limits.setHardTime(milliseconds);
+		return limits;
+	}
+	
+	/**
+	 * Sets the deepest iteration to run.
+	 * @param depth, the depth in plies
+	 */
+	public void setDepth(int depth) {
+		this.depth = Math.max(1, Math.min(depth, Search.MAX_PLY - 1));
+	}
+	
+	/**
+	 * Sets the time after which no new iteration is started.
+	 * @param milliseconds, the soft time limit
+	 */
+	public void setSoftTime(long milliseconds) {
+		softTime = milliseconds;
+	}
+	
+	/**
+	 * Sets the time after which the search stops in the middle of an iteration.
+	 * @param milliseconds, the hard time limit
+	 */
+	public void setHardTime(long milliseconds) {
+		hardTime = milliseconds;
+	}
+	
+	/**
+	 * Sets the number of positions after which the search stops in the middle of an iteration.
+	 * @param nodes, the node limit
+	 */
+	public void setNodes(long nodes) {
+		this.nodes = nodes;
+	}
+	
+	/**
+	 * Get method for the depth limit.
+	 * @return the deepest iteration to run
+	 */
+	public int getDepth() {
+		return depth;
+	}
+	
+	/**
+	 * Get method for the soft time limit.
+	 * @return the soft time limit in milliseconds
+	 */
+	public long getSoftTime() {
+		return softTime;
+	}
+	
+	/**
+	 * Get method for the hard time limit.
+	 * @return the hard time limit in milliseconds
+	 */
+	public long getHardTime() {
+		return hardTime;
+	}
+	
+	/**
+	 * Get method for the node limit.
+	 * @return the node limit
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+}
@@ -0,0 +1,71 @@
+package chess.engine;
+
+import chess.Move;
+
+/**
+ * A SearchResult class holding what a search settled on: the best move, its score, how deep
+ * the search got and how many positions it visited.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class SearchResult {
+	private final int move; // the best move, packed by the Move class
+	private final int score; // the score of the best move for the team that searched
+	private final int depth; // the depth of the last completed iteration
+	private final long nodes; // the number of positions visited
+	
+	/**
+	 * The constructor for the SearchResult class.
+	 * @param move, the best move, packed by the Move class
+	 * @param score, the score of the best move
+	 * @param depth, the depth the search completed
+	 * @param nodes, the number of positions visited
+	 */
+	public SearchResult(int move, int score, int depth, long nodes) {
+		this.move = move;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+	}
+	
+	/**
+	 * Get method for the best move.
+	 * @return the best move packed by the Move class, or Move.NONE if there's no legal move
+	 */
+	public int getMove() {
+		return move;
+	}
+	
+	/**
+	 * Get method for the score of the best move.
+	 * @return the score in hundredths of a Pawn, or a mate score
+	 */
+	public int getScore() {
+		return score;
+	}
+	
+	/**
+	 * Get method for the depth the search completed.
+	 * @return the depth in plies
+	 */
+	public int getDepth() {
+		return depth;
+	}
+	
+	/**
+	 * Get method for the number of positions visited.
+	 * @return the node count
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+	
+	/**
+	 * Writes the result in a single line.
+	 * @return the move, score, depth and node count
+	 */
+	@Override
+	public String toString() {
+		return "bestmove " + Move.toString(move) + " score " + score + " depth " + depth + " nodes " + nodes;
+	}
+}
@@ -0,0 +1,198 @@
+package chess.engine;
+
+import chess.Board;
+import chess.Game;
+import chess.Move;
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pieces.Ghost;
+import chess.pieces.HighTemplar;
+import chess.pieces.King;
+import chess.pieces.Piece;
+
+/**
+ * A StaticExchange class that works out what a capture wins once every piece that can join in
+ * on the target square has taken its turn, without making any moves. The two sides take turns
+ * capturing with their cheapest attacker, and either side can stop when going on would lose
+ * more. A storm takes the pieces in front of and behind its target as well, own pieces
+ * included, and leaves the square empty, as does a snipe, so either one ends the exchange.
+ * Pins and checks are ignored, which makes the result a guess, but a cheap one. A search
+ * keeps one StaticExchange for all its captures, so the gains are worked out in the same
+ * buffer every time.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public final class StaticExchange {
+	private static final int KING_VALUE = 20000; // high enough that capturing into a defended square never pays
+	private static final int MAX_CAPTURES = 64; // more captures than there can be pieces on the square's lines
+	
+	/**
+	 * The Piece types from cheapest to dearest, in the order attackers are picked.
+	 */
+	private static final Piece.Type ATTACKER_ORDER[] = { Piece.Type.PAWN, Piece.Type.GHOST, Piece.Type.KNIGHT,
+		Piece.Type.BISHOP, Piece.Type.HIGHTEMPLAR, Piece.Type.ROOK, Piece.Type.QUEEN, Piece.Type.KING };
+	
+	private int gain[]; // the material won after each capture of the exchange being worked out
+	
+	/**
+	 * The constructor for the StaticExchange class.
+	 */
+	public StaticExchange() {
+		gain = new int[MAX_CAPTURES];
+	}
+	
+	/**
+	 * Works out the material the given capture wins for the team making it, after every
+	 * recapture worth making on the same square.
+	 * @param game, the game the move is played in
+	 * @param move, the capture, storm or snipe to evaluate
+	 * @return the material won, negative if the capture loses material
+	 */
+	public int evaluate(Game game, int move) {
+		Board board = game.board;
+		Position position = board.getPosition();
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		PieceColor us = position.getPiece(from).getColor();
+		long occupied = position.getOccupied();
+		if (Move.hasFlag(move, Move.STORM))
+			return stormGain(position, to, us, true, value(position.getPiece(to)), occupied);
+		
+		Piece target = position.getPiece(to);
+		gain[0] = target != null ? value(target) : 0;
+		if (Move.hasFlag(move, Move.SNIPE)) // the Ghost stays put, so there's nothing to take back
+			return gain[0];
+		
+		Piece onSquare = position.getPiece(from); // the piece the next capture takes
+		occupied &= ~(1L << from);
+		boolean ourTurn = false;
+		int depth = 0;
+		while (depth + 1 < MAX_CAPTURES) {
+			long attackers = getAttackers(game, to, us, ourTurn, occupied);
+			if (onSquare.getType() == Piece.Type.HIGHTEMPLAR)
+				attackers |= Ghost.SNIPES[to] & position.getTypeBoard(Piece.Type.GHOST) & sideBoard(game, us, ourTurn) & occupied;
+			
+			int attackerSquare = leastValuable(position, attackers);
+			if (attackerSquare < 0)
+				break;
+			
+			Piece attacker = position.getPiece(attackerSquare);
+			depth++;
+			if (attacker.getType() == Piece.Type.GHOST && (King.ATTACKS[to] & (1L << attackerSquare)) == 0) {
+				gain[depth] = value(onSquare) - gain[depth - 1];
+				break; // the snipe empties the square
+			}
+			
+			if (attacker.getType() == Piece.Type.HIGHTEMPLAR && (HighTemplar.STORM[to] & (1L << attackerSquare)) != 0
+				&& ((HighTemplar) attacker).canCastStorm()) {
+				gain[depth] = stormGain(position, to, us, ourTurn, value(onSquare), occupied) - gain[depth - 1];
+				break; // the storm empties the square
+			}
+			
+			gain[depth] = value(onSquare) - gain[depth - 1];
+			occupied &= ~(1L << attackerSquare);
+			onSquare = attacker;
+			ourTurn = !ourTurn;
+		}
+		
+		// each side only makes its capture if that beats stopping before it
+		for (; depth > 0; depth--)
+			gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+		
+		return gain[0];
+	}
+	
+	/**
+	 * Works out the material a storm on the given square wins for the side casting it. The
+	 * pieces in front of and behind the target count against the caster when they're its own.
+	 * @param position, the position the storm is cast in
+	 * @param square, the square the storm targets
+	 * @param us, the color of the team that made the capture being evaluated
+	 * @param ourStorm, whether that team is the one casting the storm
+	 * @param targetValue, the value of the piece on the target square
+	 * @param occupied, the squares still holding a piece
+	 * @return the material won by the caster
+	 */
+	private static int stormGain(Position position, int square, PieceColor us, boolean ourStorm, int targetValue,
+		long occupied) {
+		int gain = targetValue;
+		int neighbors[] = { square - Position.SIDE_LENGTH, square + Position.SIDE_LENGTH };
+		for (int i = 0; i < neighbors.length; i++) {
+			int neighbor = neighbors[i];
+			if (neighbor < 0 || neighbor >= Position.NUM_SQUARES || (occupied & (1L << neighbor)) == 0)
+				continue;
+			
+			Piece piece = position.getPiece(neighbor);
+			boolean friendly = (piece.getColor() == us) == ourStorm;
+			gain += friendly ? -value(piece) : value(piece);
+		}
+		
+		return gain;
+	}
+	
+	/**
+	 * Finds the pieces of one side that can capture on the given square by moving to it or
+	 * casting a storm on it. Every team but the one that made the first capture counts as
+	 * the other side.
+	 * @param game, the game to look at
+	 * @param square, the square being fought over
+	 * @param us, the color of the team that made the first capture
+	 * @param ourTurn, whether to find that team's attackers or the other side's
+	 * @param occupied, the squares still holding a piece
+	 * @return the bitboard of attackers
+	 */
+	private static long getAttackers(Game game, int square, PieceColor us, boolean ourTurn, long occupied) {
+		if (ourTurn)
+			return game.board.getMovingAttackers(square, us, occupied);
+		
+		long attackers = 0;
+		for (int i = 0; i < game.getNumPlayers(); i++) {
+			PieceColor color = game.getPlayerColor(i);
+			if (color != us)
+				attackers |= game.board.getMovingAttackers(square, color, occupied);
+		}
+		
+		return attackers;
+	}
+	
+	/**
+	 * Retrieves the squares of every piece on one side.
+	 * @param game, the game to look at
+	 * @param us, the color of the team that made the first capture
+	 * @param ourTurn, whether to find that team's pieces or the other side's
+	 * @return the bitboard of the side's pieces
+	 */
+	private static long sideBoard(Game game, PieceColor us, boolean ourTurn) {
+		long ours = game.board.getPosition().getColorBoard(us);
+		return ourTurn ? ours : game.board.getPosition().getOccupied() & ~ours;
+	}
+	
+	/**
+	 * Picks the cheapest piece out of the given attackers.
+	 * @param position, the position the attackers stand in
+	 * @param attackers, the bitboard of attackers
+	 * @return the square of the cheapest attacker, or -1 if there are none
+	 */
+	private static int leastValuable(Position position, long attackers) {
+		if (attackers == 0)
+			return -1;
+		
+		for (int i = 0; i < ATTACKER_ORDER.length; i++) {
+			long pieces = attackers & position.getTypeBoard(ATTACKER_ORDER[i]);
+			if (pieces != 0)
+				return Long.numberOfTrailingZeros(pieces);
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Retrieves the value a piece is exchanged at. The King gets a huge value instead of none,
+	 * so the exchange never lets it capture onto a square the other side still attacks.
+	 * @param piece, the piece to value
+	 * @return the value of the piece
+	 */
+	private static int value(Piece piece) {
+		return piece.getType() == Piece.Type.KING ? KING_VALUE : Evaluator.VALUES[piece.getType().ordinal()];
+	}
+}
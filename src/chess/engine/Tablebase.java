@@ -0,0 +1,303 @@
+package chess.engine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import chess.EndgameProbe;
+import chess.Fen;
+import chess.Game;
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pieces.HighTemplar;
+import chess.pieces.Piece;
+
+/**
+ * A Tablebase class that knows the result of every position with a handful of pieces under
+ * perfect play, looked up instead of searched. The results come from EndgameTable files in a
+ * directory, which are only opened the first time a position of their pieces comes up, and
+ * are made by working backwards from every mate with generate. Results are given the way
+ * EndgameProbe describes them. Only the white and black teams are covered, without Pawns,
+ * since a Pawn's first move would have to be part of every position. The tables are only
+ * read once they're generated, so any number of threads can share a Tablebase.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Tablebase implements EndgameProbe, Closeable {
+	public static final int MAX_PIECES = 4; // the most pieces a table is made for, Kings included
+	
+	/**
+	 * The order the pieces of each team are named and indexed in.
+	 */
+	private static final Piece.Type ORDER[] = { Piece.Type.KING, Piece.Type.QUEEN, Piece.Type.ROOK,
+		Piece.Type.BISHOP, Piece.Type.KNIGHT, Piece.Type.HIGHTEMPLAR, Piece.Type.GHOST };
+	
+	private File directory; // where the table files are
+	private ConcurrentHashMap<String, EndgameTable> tables; // the tables opened so far, by name
+	private ConcurrentHashMap<String, Boolean> missing; // the tables looked for that have no file
+	
+	/**
+	 * The constructor for the Tablebase class. No file is opened until it's needed.
+	 * @param directory, the directory holding the table files
+	 */
+	public Tablebase(File directory) {
+		this.directory = directory;
+		tables = new ConcurrentHashMap<String, EndgameTable>();
+		missing = new ConcurrentHashMap<String, Boolean>();
+	}
+	
+	/**
+	 * Looks up the result of the position in the given game for the team to move.
+	 * @param game, the game to look at
+	 * @return the result, or UNKNOWN if no table covers the position
+	 */
+	public int probe(Game game) {
+		PieceColor color = game.getPlayerColor(game.getTurn());
+		if (color != PieceColor.WHITE && color != PieceColor.BLACK)
+			return UNKNOWN;
+		
+		return probe(game.board.getPosition(), color == PieceColor.WHITE);
+	}
+	
+	/**
+	 * Looks up the result of the given position.
+	 * @param position, the position to look up
+	 * @param whiteToMove, whether white is the team to move
+	 * @return the result for the team to move, or UNKNOWN if no table covers the position
+	 */
+	public int probe(Position position, boolean whiteToMove) {
+		long occupied = position.getOccupied();
+		int count = Long.bitCount(occupied);
+		long teams = position.getColorBoard(PieceColor.WHITE) | position.getColorBoard(PieceColor.BLACK);
+		if (count > MAX_PIECES || teams != occupied || position.getTypeBoard(Piece.Type.PAWN) != 0
+			|| Long.bitCount(position.getPieces(PieceColor.WHITE, Piece.Type.KING)) != 1
+			|| Long.bitCount(position.getPieces(PieceColor.BLACK, Piece.Type.KING)) != 1)
+			return UNKNOWN;
+		
+		if (count == 2) // two Kings can never mate each other
+			return DRAW;
+		
+		int squares[] = new int[count];
+		int energies[] = new int[count];
+		StringBuilder name = new StringBuilder();
+		int slot = 0;
+		for (int team = 0; team < 2; team++) {
+			PieceColor color = team == 0 ? PieceColor.WHITE : PieceColor.BLACK;
+			if (team == 1)
+				name.append('v');
+			
+			for (int i = 0; i < ORDER.length; i++) {
+				for (long pieces = position.getPieces(color, ORDER[i]); pieces != 0; pieces &= pieces - 1) {
+					squares[slot] = Long.numberOfTrailingZeros(pieces);
+					if (ORDER[i] == Piece.Type.HIGHTEMPLAR)
+						energies[slot] = ((HighTemplar) position.getPiece(squares[slot])).getEnergy();
+					
+					name.append(Fen.getLetter(ORDER[i]));
+					slot++;
+				}
+			}
+		}
+		
+		EndgameTable table = getTable(name.toString());
+		if (table == null)
+			return UNKNOWN;
+		
+		int result = table.get(table.index(whiteToMove, squares, energies));
+		return result == EndgameTable.ILLEGAL ? UNKNOWN : result;
+	}
+	
+	/**
+	 * Finds the table with the given name, opening its file the first time it's asked for.
+	 * @param name, the pieces of the table, such as "KQvK"
+	 * @return the table, or null if the directory has no file for it
+	 */
+	public EndgameTable getTable(String name) {
+		EndgameTable table = tables.get(name);
+		if (table != null || missing.containsKey(name))
+			return table;
+		
+		synchronized (this) {
+			table = tables.get(name);
+			if (table == null && !missing.containsKey(name)) {
+				try {
+					table = EndgameTable.open(directory, name);
+					tables.put(name, table);
+				} catch (IOException e) {
+					missing.put(name, Boolean.TRUE);
+				}
+			}
+		}
+		
+		return table;
+	}
+	
+	/**
+	 * Generates the table of the given pieces and writes it to the directory, first generating
+	 * every table it can capture down to that the directory doesn't have yet.
+	 * @param name, the pieces of the table, such as "KQvK", in any order within each team
+	 * @return the name the table was written under, with the pieces of each team in order
+	 * @throws IOException if a table file can't be written
+	 */
+	public synchronized String generate(String name) throws IOException {
+		int counts[][] = parseCounts(name);
+		int total = 0;
+		for (int team = 0; team < 2; team++) {
+			if (counts[team][Piece.Type.KING.ordinal()] != 1 || counts[team][Piece.Type.PAWN.ordinal()] != 0)
+				throw new IllegalArgumentException("not a table of one King a team and no Pawns: " + name);
+			
+			for (int i = 0; i < ORDER.length; i++)
+				total += counts[team][ORDER[i].ordinal()];
+		}
+		
+		if (total > MAX_PIECES)
+			throw new IllegalArgumentException("more than " + MAX_PIECES + " pieces: " + name);
+		
+		String canonical = toName(counts);
+		for (int team = 0; team < 2; team++) {
+			for (int i = 1; i < ORDER.length; i++) { // every capture leaves one of these tables
+				int type = ORDER[i].ordinal();
+				if (counts[team][type] == 0)
+					continue;
+				
+				counts[team][type]--;
+				String child = toName(counts);
+				if (total > 3 && getTable(child) == null)
+					generate(child);
+				
+				counts[team][type]++;
+			}
+		}
+		
+		EndgameTable old = tables.remove(canonical);
+		if (old != null)
+			old.close();
+		
+		EndgameTable table = EndgameTable.create(directory, canonical);
+		try {
+			new TablebaseGenerator(this, table).run();
+		} finally {
+			table.close();
+		}
+		
+		missing.remove(canonical);
+		return canonical;
+	}
+	
+	/**
+	 * Closes every table file opened so far.
+	 * @throws IOException if a file can't be closed
+	 */
+	public synchronized void close() throws IOException {
+		for (Iterator<EndgameTable> it = tables.values().iterator(); it.hasNext();) {
+			it.next().close();
+			it.remove();
+		}
+		
+		missing.clear();
+	}
+	
+	/**
+	 * Checks if a result is a win for the team to move.
+	 * @param result, the result of a position
+	 * @return true if the team to move mates, false otherwise
+	 */
+	public static boolean isWin(int result) {
+		return result > 0;
+	}
+	
+	/**
+	 * Checks if a result is a loss for the team to move.
+	 * @param result, the result of a position
+	 * @return true if the team to move gets mated, false otherwise
+	 */
+	public static boolean isLoss(int result) {
+		return result < 0 && result != UNKNOWN;
+	}
+	
+	/**
+	 * Retrieves the number of plies to the mate of a won or lost result.
+	 * @param result, the result of a position
+	 * @return the plies to mate
+	 */
+	public static int getDistance(int result) {
+		return Math.abs(result) - 1;
+	}
+	
+	/**
+	 * Builds the result of a position the team to move mates from.
+	 * @param distance, the plies to mate, at least 1
+	 * @return the result
+	 */
+	static int win(int distance) {
+		return distance + 1;
+	}
+	
+	/**
+	 * Builds the result of a position the team to move gets mated from.
+	 * @param distance, the plies to mate, 0 if the team is mated already
+	 * @return the result
+	 */
+	static int loss(int distance) {
+		return -distance - 1;
+	}
+	
+	/**
+	 * Counts the pieces of every type of each team in a table name.
+	 * @param name, the pieces of the table
+	 * @return the counts, by team and then by Piece type ordinal
+	 */
+	private static int[][] parseCounts(String name) {
+		Piece.Type types[] = EndgameTable.parseName(name);
+		int whitePieces = name.indexOf('v');
+		int counts[][] = new int[2][Piece.Type.values().length];
+		for (int i = 0; i < types.length; i++)
+			counts[i < whitePieces ? 0 : 1][types[i].ordinal()]++;
+		
+		return counts;
+	}
+	
+	/**
+	 * Writes the name of the table with the given pieces.
+	 * @param counts, the number of pieces of every type of each team
+	 * @return the name, with the pieces of each team in order
+	 */
+	private static String toName(int counts[][]) {
+		StringBuilder name = new StringBuilder();
+		for (int team = 0; team < 2; team++) {
+			if (team == 1)
+				name.append('v');
+			
+			for (int i = 0; i < ORDER.length; i++) {
+				for (int j = 0; j < counts[team][ORDER[i].ordinal()]; j++)
+					name.append(Fen.getLetter(ORDER[i]));
+			}
+		}
+		
+		return name.toString();
+	}
+	
+	/**
+	 * Generates the tables named on the command line.
+	 * @param args, the directory to write to, then the names of the tables
+	 * @throws IOException if a table file can't be written
+	 */
+	public static void main(String args[]) throws IOException {
+		if (args.length < 2) {
+			System.out.println("usage: Tablebase <directory> <table>...");
+			return;
+		}
+		
+		Tablebase tablebase = new Tablebase(new File(args[0]));
+		try {
+			for (int i = 1; i < args.length; i++) {
+				long start = System.currentTimeMillis();
+				String name = tablebase.generate(args[i]);
+				System.out.println(name + ": " + (System.currentTimeMillis() - start) + " ms");
+			}
+		} finally {
+			tablebase.close();
+		}
+	}
+}
@@ -0,0 +1,260 @@
+package chess.engine;
+
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pieces.HighTemplar;
+import chess.pieces.King;
+import chess.pieces.Knight;
+import chess.pieces.Piece;
+import chess.pieces.SlidingAttacks;
+
+/**
+ * A TablebaseGenerator class that fills in an EndgameTable by retrograde analysis. Every
+ * position is set up once on a board of its own to find the mates, the stalemates and what
+ * its captures lead to, which the smaller tables already know. From then on no moves are
+ * generated at all: the positions mated in n plies are taken back one move to find the ones
+ * that mate in n + 1, and the positions that mate in n are taken back to count down the moves
+ * left to their predecessors, which are lost once every move is. A position whose moves never
+ * all run out is a draw. A High Templar's energy only ever goes up by one with a quiet move,
+ * so taking a move back takes one away, and the last level can come from itself.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+class TablebaseGenerator {
+	private Tablebase tablebase; // finds the results the captures lead to
+	private EndgameTable table; // the table to fill in
+	private Game game; // the game every position is set up in
+	private Position position; // the position of that game
+	private MoveGenerator generator; // generates the moves of every position set up
+	private Piece pieces[]; // the piece in every slot of the table
+	private int squares[]; // the square of every slot in the position being looked at
+	private int energies[]; // the energy of every slot in the position being looked at
+	private int moves[]; // the move buffer
+	private byte moveCounts[]; // the moves of every position not yet known to lose, unsigned
+	private byte floors[]; // the longest a position lasts by making its best losing capture, unsigned
+	private int longest; // the longest distance to mate found so far
+	
+	/**
+	 * The constructor for the TablebaseGenerator class.
+	 * @param tablebase, the tablebase holding every table the captures lead to
+	 * @param table, the table to fill in
+	 */
+	TablebaseGenerator(Tablebase tablebase, EndgameTable table) {
+		this.tablebase = tablebase;
+		this.table = table;
+		game = new Game();
+		position = game.board.getPosition();
+		generator = game.getMoveGenerator();
+		int count = table.getPieceCount();
+		pieces = new Piece[count];
+		for (int i = 0; i < count; i++)
+			pieces[i] = Piece.create(table.getType(i), table.getColor(i), 0, 0);
+		
+		squares = new int[count];
+		energies = new int[count];
+		moves = new int[MoveGenerator.MAX_MOVES];
+	}
+	
+	/**
+	 * Works out the result of every position of the table and writes it out.
+	 */
+	void run() {
+		int size = table.size();
+		moveCounts = new byte[size];
+		floors = new byte[size];
+		for (int index = 0; index < size; index++)
+			setUp(index);
+		
+		for (int distance = 0; distance <= longest; distance++) {
+			int lost = Tablebase.loss(distance);
+			int won = Tablebase.win(distance);
+			for (int index = 0; index < size; index++) {
+				int result = table.get(index);
+				if (result == lost || result == won)
+					takeBack(index, distance, result == lost);
+			}
+		}
+		
+		table.force();
+	}
+	
+	/**
+	 * Sets up the position with the given index and works out what can be known of it
+	 * without looking at any other position of the table: whether it's legal, mated or
+	 * stalemated, the best result of its captures, and how many quiet moves it has.
+	 * @param index, the index of the position
+	 */
+	private void setUp(int index) {
+		boolean whiteToMove = table.decode(index, squares, energies);
+		if (!place()) {
+			table.set(index, EndgameTable.ILLEGAL);
+			return;
+		}
+		
+		PieceColor us = whiteToMove ? PieceColor.WHITE : PieceColor.BLACK;
+		PieceColor them = whiteToMove ? PieceColor.BLACK : PieceColor.WHITE;
+		if (game.board.isKingAttacked(them)) { // the team that just moved can't have left its King in check
+			table.set(index, EndgameTable.ILLEGAL);
+			return;
+		}
+		
+		int count = generator.generateLegalMoves(us, moves);
+		if (count == 0) {
+			table.set(index, game.board.isKingAttacked(us) ? Tablebase.loss(0) : Tablebase.DRAW);
+			return;
+		}
+		
+		int quiets = 0;
+		int win = Integer.MAX_VALUE; // the quickest mate a capture leads to
+		int floor = 0;
+		boolean drawn = false;
+		for (int i = 0; i < count; i++) {
+			if (!Move.hasFlag(moves[i], Move.CAPTURE)) {
+				quiets++;
+				continue;
+			}
+			
+			game.board.makeMove(moves[i]);
+			int result = tablebase.probe(position, !whiteToMove);
+			game.board.unmakeMove();
+			if (Tablebase.isLoss(result))
+				win = Math.min(win, Tablebase.getDistance(result) + 1);
+			else if (Tablebase.isWin(result))
+				floor = Math.max(floor, Tablebase.getDistance(result) + 1);
+			else
+				drawn = true;
+		}
+		
+		if (win != Integer.MAX_VALUE) {
+			setResult(index, Tablebase.win(win)); // a quiet move may still mate sooner
+		} else if (quiets == 0 && !drawn) {
+			setResult(index, Tablebase.loss(floor));
+		} else {
+			table.set(index, Tablebase.DRAW);
+		}
+		
+		moveCounts[index] = (byte) (quiets + (drawn ? 1 : 0)); // a drawing capture is a move that never runs out
+		floors[index] = (byte) floor;
+	}
+	
+	/**
+	 * Takes back every quiet move that could have led to the given position, which has just
+	 * been found to mate or be mated in the given number of plies.
+	 * @param index, the index of the position
+	 * @param distance, the plies to mate
+	 * @param lost, true if the team to move gets mated, false if it mates
+	 */
+	private void takeBack(int index, int distance, boolean lost) {
+		boolean whiteToMove = table.decode(index, squares, energies);
+		PieceColor moved = whiteToMove ? PieceColor.BLACK : PieceColor.WHITE;
+		long occupied = 0;
+		for (int i = 0; i < squares.length; i++)
+			occupied |= 1L << squares[i];
+		
+		for (int i = 0; i < squares.length; i++) {
+			if (table.getColor(i) != moved)
+				continue;
+			
+			int square = squares[i];
+			int energy = energies[i];
+			int lowest = energy;
+			int highest = energy;
+			if (table.getType(i) == Piece.Type.HIGHTEMPLAR) {
+				if (energy == 0) // only a storm leaves a High Templar without energy, and that's a capture
+					continue;
+				
+				lowest = energy - 1;
+				if (energy < HighTemplar.STORM_ENERGY)
+					highest = energy - 1;
+			}
+			
+			for (long origins = reach(table.getType(i), square, occupied) & ~occupied; origins != 0; origins &= origins - 1) {
+				squares[i] = Long.numberOfTrailingZeros(origins);
+				for (energies[i] = lowest; energies[i] <= highest; energies[i]++)
+					update(table.index(!whiteToMove, squares, energies), distance, lost);
+			}
+			
+			squares[i] = square;
+			energies[i] = energy;
+		}
+	}
+	
+	/**
+	 * Updates a position that has a quiet move to a position that was just found to mate or be
+	 * mated. Moving into a lost position wins it right away, and moving into a won position is
+	 * one less move that saves it.
+	 * @param index, the index of the position with the move
+	 * @param distance, the plies to mate of the position the move leads to
+	 * @param lost, true if the position the move leads to is lost for its team to move
+	 */
+	private void update(int index, int distance, boolean lost) {
+		int result = table.get(index);
+		if (result == EndgameTable.ILLEGAL || Tablebase.isLoss(result))
+			return;
+		
+		if (lost) {
+			if (!Tablebase.isWin(result) || Tablebase.getDistance(result) > distance + 1)
+				setResult(index, Tablebase.win(distance + 1));
+		} else if (!Tablebase.isWin(result) && moveCounts[index] != 0 && --moveCounts[index] == 0) {
+			setResult(index, Tablebase.loss(Math.max(distance + 1, floors[index] & 0xFF)));
+		}
+	}
+	
+	/**
+	 * Writes a won or lost result, keeping track of the longest distance to mate.
+	 * @param index, the index of the position
+	 * @param result, the result to write
+	 */
+	private void setResult(int index, int result) {
+		table.set(index, result);
+		longest = Math.max(longest, Tablebase.getDistance(result));
+	}
+	
+	/**
+	 * Places the pieces of the table on the squares the current index gives them.
+	 * @return true if every piece has a square of its own, false otherwise
+	 */
+	private boolean place() {
+		position.clear();
+		for (int i = 0; i < pieces.length; i++) {
+			if (position.isOccupied(squares[i]))
+				return false;
+			
+			pieces[i].setSquare(squares[i]);
+			if (pieces[i].getType() == Piece.Type.HIGHTEMPLAR)
+				((HighTemplar) pieces[i]).setEnergy(energies[i]);
+			
+			position.addPiece(pieces[i], squares[i]);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Finds the squares a piece of the given type moves between without capturing, which are
+	 * the same both ways.
+	 * @param type, the type of the piece
+	 * @param square, the square of the piece
+	 * @param occupied, the squares holding a piece, which block sliding pieces
+	 * @return the bitboard of squares
+	 */
+	private static long reach(Piece.Type type, int square, long occupied) {
+		switch (type) {
+		case KNIGHT:
+			return Knight.ATTACKS[square];
+		case BISHOP:
+			return SlidingAttacks.bishopAttacks(square, occupied);
+		case ROOK:
+			return SlidingAttacks.rookAttacks(square, occupied);
+		case QUEEN:
+			return SlidingAttacks.queenAttacks(square, occupied);
+		case HIGHTEMPLAR:
+			return HighTemplar.ATTACKS[square];
+		default: // the King, and the Ghost, which moves like one
+			return King.ATTACKS[square];
+		}
+	}
+}
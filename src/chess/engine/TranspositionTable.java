@@ -0,0 +1,206 @@
+package chess.engine;
+
+/**
+ * A TranspositionTable class that remembers what a search learned about positions it has seen,
+ * keyed by their Zobrist keys. The table is a single long array split into buckets of four
+ * entries, and every entry is two longs: the packed data, and the key XORed with that data.
+ * Search threads share one table without any locks. A thread that reads an entry while another
+ * is writing it can see the new half of one long and the old half of the other, but then the
+ * key no longer matches when the two are XORed back together, so the entry is just a miss.
+ * Within a bucket, a new entry replaces the one with the same key, or else the one searched to
+ * the lowest depth, counting entries left over from earlier searches as shallower.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class TranspositionTable {
+	public static final int BOUND_NONE = 0; // nothing is known about the score
+	public static final int BOUND_UPPER = 1; // the real score is at most the stored score
+	public static final int BOUND_LOWER = 2; // the real score is at least the stored score
+	public static final int BOUND_EXACT = 3; // the stored score is the real score
+	
+	private static final int ENTRY_LONGS = 2; // the check long and the data long
+	private static final int BUCKET_ENTRIES = 4; // four entries fill a 64 byte cache line
+	private static final int BUCKET_LONGS = ENTRY_LONGS * BUCKET_ENTRIES;
+	private static final int BUCKET_BYTES = BUCKET_LONGS * 8;
+	private static final long MAX_BUCKETS = 1L << 27; // the most buckets a single array can index
+	private static final int MAX_DEPTH = 0xFF;
+	private static final int GENERATIONS = 0x100;
+	private static final int AGE_WEIGHT = 8; // how many plies of depth one search of age is worth
+	
+	private static final int SCORE_SHIFT = 16;
+	private static final int DEPTH_SHIFT = 32;
+	private static final int BOUND_SHIFT = 40;
+	private static final int GENERATION_SHIFT = 42;
+	
+	private long table[]; // the buckets, one after another
+	private int bucketMask; // the number of buckets minus one, which is a power of two
+	private int generation; // counts the searches, so entries from older ones can be replaced first
+	
+	/**
+	 * The constructor for the TranspositionTable class. The number of buckets is the largest
+	 * power of two that fits in the given size.
+	 * @param megabytes, the most memory the table may use
+	 */
+	public TranspositionTable(int megabytes) {
+		long buckets = Long.highestOneBit(Math.max(1L, ((long) megabytes << 20) / BUCKET_BYTES));
+		buckets = Math.min(buckets, MAX_BUCKETS);
+		table = new long[(int) buckets * BUCKET_LONGS];
+		bucketMask = (int) buckets - 1;
+		generation = 0;
+	}
+	
+	/**
+	 * Empties every entry of the table.
+	 */
+	public void clear() {
+		for (int i = 0; i < table.length; i++)
+			table[i] = 0L;
+		
+		generation = 0;
+	}
+	
+	/**
+	 * Marks the start of a new search, which makes every entry stored so far older.
+	 */
+	public void newSearch() {
+		generation = (generation + 1) & (GENERATIONS - 1);
+	}
+	
+	/**
+	 * Looks up the entry of the given key.
+	 * @param key, the Zobrist key of the position
+	 * @return the packed data of the entry, or 0 if the position isn't in the table
+	 */
+	public long probe(long key) {
+		int bucket = bucketIndex(key);
+		for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+			long data = table[i + 1];
+			if ((table[i] ^ data) == key && data != 0)
+				return data;
+		}
+		
+		return 0L;
+	}
+	
+	/**
+	 * Stores what a search found about the position with the given key. A stored move is kept
+	 * when the same position is stored again without one.
+	 * @param key, the Zobrist key of the position
+	 * @param move, the best move found, packed by the Move class, or Move.NONE
+	 * @param score, the score found, which has to fit in a short
+	 * @param depth, the depth the position was searched to
+	 * @param bound, how the score relates to the real score of the position
+	 */
+	public void store(long key, int move, int score, int depth, int bound) {
+		int bucket = bucketIndex(key);
+		int replace = bucket;
+		int lowestWorth = Integer.MAX_VALUE;
+		for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+			long data = table[i + 1];
+			if (data == 0 || (table[i] ^ data) == key) {
+				replace = i;
+				if (data != 0 && move == 0)
+					move = getMove(data);
+				
+				if (data != 0 && bound != BOUND_EXACT && depth + 2 < getDepth(data) && getGeneration(data) == generation)
+					return; // a much deeper result from this search is worth more
+				
+				break;
+			}
+			
+			int age = (generation - getGeneration(data)) & (GENERATIONS - 1);
+			int worth = getDepth(data) - AGE_WEIGHT * age;
+			if (worth < lowestWorth) {
+				lowestWorth = worth;
+				replace = i;
+			}
+		}
+		
+		long data = (move & 0xFFFFL)
+			| ((score & 0xFFFFL) << SCORE_SHIFT)
+			| ((long) Math.max(0, Math.min(depth, MAX_DEPTH)) << DEPTH_SHIFT)
+			| ((long) bound << BOUND_SHIFT)
+			| ((long) generation << GENERATION_SHIFT);
+		table[replace] = key ^ data;
+		table[replace + 1] = data;
+	}
+	
+	/**
+	 * Estimates how full the table is from the first thousand entries.
+	 * @return the number of entries out of a thousand that hold a result of the current search
+	 */
+	public int hashfull() {
+		int used = 0;
+		int entries = Math.min(1000, table.length / ENTRY_LONGS);
+		for (int i = 0; i < entries; i++) {
+			long data = table[i * ENTRY_LONGS + 1];
+			if (data != 0 && getGeneration(data) == generation)
+				used++;
+		}
+		
+		return used * 1000 / Math.max(1, entries);
+	}
+	
+	/**
+	 * Retrieves the number of entries the table can hold.
+	 * @return the capacity of the table
+	 */
+	public int getCapacity() {
+		return table.length / ENTRY_LONGS;
+	}
+	
+	/**
+	 * Retrieves the best move of an entry.
+	 * @param data, the packed data of the entry
+	 * @return the move packed by the Move class, or Move.NONE if none was stored
+	 */
+	public static int getMove(long data) {
+		return (int) (data & 0xFFFF);
+	}
+	
+	/**
+	 * Retrieves the score of an entry.
+	 * @param data, the packed data of the entry
+	 * @return the stored score
+	 */
+	public static int getScore(long data) {
+		return (short) (data >>> SCORE_SHIFT);
+	}
+	
+	/**
+	 * Retrieves the depth of an entry.
+	 * @param data, the packed data of the entry
+	 * @return the depth the position was searched to
+	 */
+	public static int getDepth(long data) {
+		return (int) (data >>> DEPTH_SHIFT) & MAX_DEPTH;
+	}
+	
+	/**
+	 * Retrieves the bound of an entry.
+	 * @param data, the packed data of the entry
+	 * @return one of the BOUND constants
+	 */
+	public static int getBound(long data) {
+		return (int) (data >>> BOUND_SHIFT) & 3;
+	}
+	
+	/**
+	 * Retrieves the search an entry was stored in.
+	 * @param data, the packed data of the entry
+	 * @return the generation of the entry
+	 */
+	private static int getGeneration(long data) {
+		return (int) (data >>> GENERATION_SHIFT) & (GENERATIONS - 1);
+	}
+	
+	/**
+	 * Finds the first long of the bucket the given key belongs in, picked by the high bits of
+	 * the key.
+	 * @param key, the Zobrist key of the position
+	 * @return the index of the bucket in the table
+	 */
+	private int bucketIndex(long key) {
+		return ((int) (key >>> 32) & bucketMask) * BUCKET_LONGS;
+	}
+}
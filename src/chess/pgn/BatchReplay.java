@@ -0,0 +1,237 @@
+package chess.pgn;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A BatchReplay class that replays every game of a record on several threads and adds up what
+ * they found. The calling thread only splits the record into games, which is far cheaper than
+ * playing them, and hands them over in batches through a bounded queue to workers running on a
+ * fork-join pool. Every worker plays its games on a Replay of its own and keeps statistics of
+ * its own, so the workers share nothing but the two queues, and a queue is only touched once
+ * per batch. Batches are handed back empty once they've been played and filled again, so the
+ * memory used depends on the size of the queue, not the size of the record.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class BatchReplay {
+	public static final int DEFAULT_BATCH_GAMES = 64;
+	public static final int DEFAULT_QUEUE_BATCHES = 4; // for each worker
+	
+	private static final Batch END = new Batch(0); // tells a worker the record has run out
+	private static final long WAIT_MILLIS = 100; // how often a waiting reader checks on the workers
+	
+	private int threads; // the number of workers
+	private int queueBatches; // the number of batches that can wait for a worker
+	private int batchGames; // the number of games in a batch
+	private int bufferBytes; // the number of bytes read from the channel at once
+	
+	/**
+	 * The constructor for the BatchReplay class, with the default queue and batch sizes.
+	 * @param threads, the number of workers to replay the games on
+	 */
+	public BatchReplay(int threads) {
+		this(threads, Math.max(1, threads) * DEFAULT_QUEUE_BATCHES, DEFAULT_BATCH_GAMES);
+	}
+	
+	/**
+	 * The constructor for the BatchReplay class.
+	 * @param threads, the number of workers to replay the games on
+	 * @param queueBatches, the number of batches that can wait for a worker before reading stops
+	 * @param batchGames, the number of games handed to a worker at once
+	 */
+	public BatchReplay(int threads, int queueBatches, int batchGames) {
+		this.threads = Math.max(1, threads);
+		this.queueBatches = Math.max(1, queueBatches);
+		this.batchGames = Math.max(1, batchGames);
+		bufferBytes = PgnTokenizer.DEFAULT_BUFFER_BYTES;
+	}
+	
+	/**
+	 * Sets the number of bytes read from the channel at once.
+	 * @param bufferBytes, the buffer size
+	 */
+	public void setBufferBytes(int bufferBytes) {
+		this.bufferBytes = bufferBytes;
+	}
+	
+	/**
+	 * Replays every game of a record and adds up what the workers found.
+	 * @param channel, the channel to read the record from
+	 * @return the statistics of every game, with the time the whole replay took
+	 * @throws IOException if the channel can't be read
+	 */
+	public ReplayStatistics run(ReadableByteChannel channel) throws IOException {
+		final BlockingQueue<Batch> full = new ArrayBlockingQueue<Batch>(queueBatches);
+		final BlockingQueue<Batch> empty = new ArrayBlockingQueue<Batch>(queueBatches + threads + 1);
+		for (int i = 0; i < queueBatches + threads + 1; i++)
+			empty.add(new Batch(batchGames));
+		
+		long start = System.nanoTime();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		List<Future<ReplayStatistics>> workers = new ArrayList<Future<ReplayStatistics>>(threads);
+		for (int i = 0; i < threads; i++) {
+			workers.add(pool.submit(new Callable<ReplayStatistics>() {
+				public ReplayStatistics call() throws InterruptedException {
+					return work(full, empty);
+				}
+			}));
+		}
+		
+		ReplayStatistics statistics = new ReplayStatistics();
+		try {
+			PgnReader reader = new PgnReader(channel, null, bufferBytes);
+			boolean more = true;
+			while (more) {
+				Batch batch = takeEmpty(empty, workers);
+				batch.count = 0;
+				while (batch.count < batch.records.length && (more = reader.readRecord(batch.records[batch.count])))
+					batch.count++;
+				
+				putFull(full, batch, workers);
+			}
+			
+			for (int i = 0; i < threads; i++)
+				putFull(full, END, workers);
+			
+			for (int i = 0; i < threads; i++)
+				statistics.add(workers.get(i).get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("The replay was interrupted");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A replay worker failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		
+		statistics.setNanos(System.nanoTime() - start);
+		return statistics;
+	}
+	
+	/**
+	 * Waits for a worker to hand back an empty batch, giving up if a worker has failed, since
+	 * it would never hand back the batch it held.
+	 * @param empty, the queue of empty batches
+	 * @param workers, the workers
+	 * @return an empty batch
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws ExecutionException if a worker failed
+	 */
+	private static Batch takeEmpty(BlockingQueue<Batch> empty, List<Future<ReplayStatistics>> workers)
+		throws InterruptedException, ExecutionException {
+		Batch batch;
+		while ((batch = empty.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS)) == null)
+			checkWorkers(workers);
+		
+		return batch;
+	}
+	
+	/**
+	 * Waits for room to hand a batch to the workers, giving up if a worker has failed, since
+	 * the queue may never drain once every worker is gone.
+	 * @param full, the queue of batches to replay
+	 * @param batch, the batch to hand over
+	 * @param workers, the workers
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws ExecutionException if a worker failed
+	 */
+	private static void putFull(BlockingQueue<Batch> full, Batch batch, List<Future<ReplayStatistics>> workers)
+		throws InterruptedException, ExecutionException {
+		while (!full.offer(batch, WAIT_MILLIS, TimeUnit.MILLISECONDS))
+			checkWorkers(workers);
+	}
+	
+	/**
+	 * Throws the failure of any worker that has failed. A worker that finished after being
+	 * told the record ran out has nothing to throw.
+	 * @param workers, the workers
+	 * @throws InterruptedException if the thread is interrupted while checking
+	 * @throws ExecutionException if a worker failed
+	 */
+	private static void checkWorkers(List<Future<ReplayStatistics>> workers)
+		throws InterruptedException, ExecutionException {
+		for (int i = 0; i < workers.size(); i++) {
+			if (workers.get(i).isDone())
+				workers.get(i).get();
+		}
+	}
+	
+	/**
+	 * Replays the batches of one worker until the record runs out.
+	 * @param full, the queue of batches to replay
+	 * @param empty, the queue to hand the batches back on
+	 * @return the statistics of the games the worker replayed
+	 * @throws InterruptedException if the worker is interrupted while waiting
+	 */
+	private static ReplayStatistics work(BlockingQueue<Batch> full, BlockingQueue<Batch> empty)
+		throws InterruptedException {
+		Replay replay = new Replay();
+		ReplayStatistics statistics = new ReplayStatistics();
+		for (Batch batch = full.take(); batch != END; batch = full.take()) {
+			for (int i = 0; i < batch.count; i++) {
+				GameRecord record = batch.records[i];
+				statistics.add(record, replay, replay.replay(record));
+			}
+			
+			empty.put(batch);
+		}
+		
+		return statistics;
+	}
+	
+	/**
+	 * Replays a record file with each of the given numbers of workers and prints the statistics
+	 * of every run, to see how the speed grows with the workers. The arguments are the file and
+	 * then the numbers of workers, which default to every core.
+	 * @param args, the command line arguments
+	 * @throws IOException if the file can't be read
+	 */
+	public static void main(String args[]) throws IOException {
+		if (args.length < 1) {
+			System.out.println("usage: BatchReplay <file> [threads]...");
+			return;
+		}
+		
+		int runs = Math.max(1, args.length - 1);
+		for (int i = 0; i < runs; i++) {
+			int threads = args.length > 1 ? Integer.parseInt(args[i + 1]) : Runtime.getRuntime().availableProcessors();
+			FileInputStream in = new FileInputStream(args[0]);
+			try {
+				ReplayStatistics statistics = new BatchReplay(threads).run(in.getChannel());
+				System.out.println(threads + " thread(s): " + statistics);
+			} finally {
+				in.close();
+			}
+		}
+	}
+	
+	/**
+	 * A Batch class holding the games handed to a worker at once.
+	 */
+	private static class Batch {
+		private GameRecord records[]; // the games, reused from batch to batch
+		private int count; // the number of games filled in
+		
+		/**
+		 * The constructor for the Batch class.
+		 * @param games, the most games the batch can hold
+		 */
+		private Batch(int games) {
+			records = new GameRecord[games];
+			for (int i = 0; i < games; i++)
+				records[i] = new GameRecord();
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package chess.pgn;
+
+import java.util.ArrayList;
+
+/**
+ * A GameRecord class holding the text of one game as a PgnReader split it out of a record:
+ * its tags, the text of its moves and the result it was written down with. Nothing is played,
+ * so a record can be read on one thread and replayed on another. The moves are kept one after
+ * another in a single buffer, and a record is meant to be cleared and filled again, so reading
+ * game after game into the same few records makes no garbage beyond the tags.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class GameRecord {
+	private ArrayList<String> tags; // the name and then the value of every tag
+	private StringBuilder moves; // the text of every move, one after another
+	private int ends[]; // where the text of each move ends in the buffer
+	private int moveCount; // the number of moves
+	private String setUp; // the value of the FEN tag, or null for the standard set-up
+	private String result; // the result the game was written down with
+	private long number; // where the game is in its record, counting from 1
+	
+	/**
+	 * The constructor for the GameRecord class. The record starts out empty.
+	 */
+	public GameRecord() {
+		tags = new ArrayList<String>();
+		moves = new StringBuilder();
+		ends = new int[128];
+		clear();
+	}
+	
+	/**
+	 * Empties the record so it can hold another game.
+	 */
+	public void clear() {
+		tags.clear();
+		moves.setLength(0);
+		moveCount = 0;
+		setUp = null;
+		result = PgnReader.NO_RESULT;
+		number = 0;
+	}
+	
+	/**
+	 * Adds a tag pair. The FEN tag also sets the position the game starts from.
+	 * @param name, the name of the tag
+	 * @param value, the value of the tag
+	 */
+	public void addTag(String name, String value) {
+		tags.add(name);
+		tags.add(value);
+		if (name.equals(PgnReader.FEN_TAG))
+			setUp = value;
+	}
+	
+	/**
+	 * Adds the text of the next move.
+	 * @param text, the move in algebraic notation
+	 */
+	public void addMove(CharSequence text) {
+		if (moveCount == ends.length) {
+			int grown[] = new int[ends.length * 2];
+			System.arraycopy(ends, 0, grown, 0, ends.length);
+			ends = grown;
+		}
+		
+		moves.append(text);
+		ends[moveCount++] = moves.length();
+	}
+	
+	/**
+	 * Retrieves the number of tag pairs.
+	 * @return the tag count
+	 */
+	public int getTagCount() {
+		return tags.size() / 2;
+	}
+	
+	/**
+	 * Retrieves the name of a tag pair.
+	 * @param index, the place of the tag among the game's tags
+	 * @return the name of the tag
+	 */
+	public String getTagName(int index) {
+		return tags.get(index * 2);
+	}
+	
+	/**
+	 * Retrieves the value of a tag pair.
+	 * @param index, the place of the tag among the game's tags
+	 * @return the value of the tag
+	 */
+	public String getTagValue(int index) {
+		return tags.get(index * 2 + 1);
+	}
+	
+	/**
+	 * Retrieves the number of moves.
+	 * @return the move count
+	 */
+	public int getMoveCount() {
+		return moveCount;
+	}
+	
+	/**
+	 * Copies the text of a move onto the end of the given buffer, without making a String of it.
+	 * @param index, the place of the move in the game, counting from 0
+	 * @param out, the buffer to copy to
+	 */
+	public void getMove(int index, StringBuilder out) {
+		out.append(moves, index > 0 ? ends[index - 1] : 0, ends[index]);
+	}
+	
+	/**
+	 * Retrieves the text of a move.
+	 * @param index, the place of the move in the game, counting from 0
+	 * @return the move in algebraic notation
+	 */
+	public String getMove(int index) {
+		return moves.substring(index > 0 ? ends[index - 1] : 0, ends[index]);
+	}
+	
+	/**
+	 * Get method for the position the game starts from.
+	 * @return the value of the FEN tag, or null for the standard set-up
+	 */
+	public String getSetUp() {
+		return setUp;
+	}
+	
+	/**
+	 * Get method for the result the game was written down with.
+	 * @return 1-0, 0-1, 1/2-1/2, or * if the game has none
+	 */
+	public String getResult() {
+		return result;
+	}
+	
+	/**
+	 * Set method for the result the game was written down with.
+	 * @param result, 1-0, 0-1, 1/2-1/2 or *
+	 */
+	public void setResult(String result) {
+		this.result = result;
+	}
+	
+	/**
+	 * Get method for where the game is in its record.
+	 * @return the number of the game, counting from 1
+	 */
+	public long getNumber() {
+		return number;
+	}
+	
+	/**
+	 * Set method for where the game is in its record.
+	 * @param number, the number of the game, counting from 1
+	 */
+	public void setNumber(long number) {
+		this.number = number;
+	}
+}
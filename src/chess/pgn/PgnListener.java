@@ -0,0 +1,18 @@
+package chess.pgn;
+
+import chess.Game;
+
+/**
+ * A PgnListener interface for the events a PgnReader sends as it replays a game record. The
+ * game passed along is the reader's own, reused for every game, so it's only valid during
+ * the call, and the text passed along is only valid until the call returns.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public interface PgnListener {
+	public void startGame(); // a new game record begins
+	public void tag(String name, String value); // a tag pair of the game, before its moves
+	public void move(Game game, int move, CharSequence san); // a move was made on the game's board
+	public void illegal(Game game, CharSequence text); // a move or set-up that can't be played, which ends the replay
+	public void endGame(Game game, String result); // the game ended with the given result, or "*" if it has none
+}
@@ -0,0 +1,221 @@
+package chess.pgn;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A PgnReader class that replays the games of a record in Portable Game Notation as it reads
+ * them, and tells a PgnListener about every tag, move and result. Only the game being read is
+ * kept: its text goes into a GameRecord that's reused for the next one, and it's replayed on a
+ * single Game of the reader's own, without a View or move lists, so an archive of any size is
+ * read in the same memory. A game starts from the standard set-up, or from its FEN tag in the
+ * notation Fen reads. Every move has to be the one legal move its text names; the first move
+ * that isn't ends the replay of its game, and the rest of its moves are skipped. Side lines in
+ * parentheses are skipped. The games can also be split out without being replayed, to be
+ * replayed somewhere else.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class PgnReader {
+	public static final String FEN_TAG = "FEN"; // the tag holding the position a game starts from
+	public static final String WHITE_WINS = "1-0";
+	public static final String BLACK_WINS = "0-1";
+	public static final String DRAWN = "1/2-1/2";
+	public static final String NO_RESULT = "*";
+	
+	private PgnTokenizer tokenizer; // splits the record into tokens
+	private PgnListener listener; // hears about every game
+	private GameRecord record; // the text of the game being read
+	private Replay replay; // plays the game that was read
+	private long games; // the number of games read
+	
+	/**
+	 * The constructor for the PgnReader class, with the default buffer size.
+	 * @param channel, the channel to read the record from
+	 * @param listener, the listener to tell about the games
+	 */
+	public PgnReader(ReadableByteChannel channel, PgnListener listener) {
+		this(channel, listener, PgnTokenizer.DEFAULT_BUFFER_BYTES);
+	}
+	
+	/**
+	 * The constructor for the PgnReader class.
+	 * @param channel, the channel to read the record from
+	 * @param listener, the listener to tell about the games, or null to only split them out
+	 * @param bufferBytes, the number of bytes to read from the channel at once
+	 */
+	public PgnReader(ReadableByteChannel channel, PgnListener listener, int bufferBytes) {
+		tokenizer = new PgnTokenizer(channel, bufferBytes);
+		this.listener = listener;
+		record = new GameRecord();
+		replay = new Replay();
+	}
+	
+	/**
+	 * Reads and replays every game left in the record.
+	 * @return the number of games read by this call
+	 * @throws IOException if the channel can't be read
+	 */
+	public long readAll() throws IOException {
+		long start = games;
+		while (readGame());
+		return games - start;
+	}
+	
+	/**
+	 * Reads and replays the next game of the record.
+	 * @return true if a game was read, false if the record has run out
+	 * @throws IOException if the channel can't be read
+	 */
+	public boolean readGame() throws IOException {
+		if (!readRecord(record))
+			return false;
+		
+		replay.replay(record, listener);
+		return true;
+	}
+	
+	/**
+	 * Splits the next game out of the record without replaying it.
+	 * @param record, the record to fill with the game, which is cleared first
+	 * @return true if a game was read, false if the record has run out
+	 * @throws IOException if the channel can't be read
+	 */
+	public boolean readRecord(GameRecord record) throws IOException {
+		int token = tokenizer.next();
+		while (token != PgnTokenizer.END && token != PgnTokenizer.TAG_START && token != PgnTokenizer.SYMBOL)
+			token = tokenizer.next(); // whatever was left over from the last game
+		
+		if (token == PgnTokenizer.END)
+			return false;
+		
+		record.clear();
+		record.setNumber(++games);
+		boolean started = false;
+		for (;; token = tokenizer.next()) {
+			switch (token) {
+			case PgnTokenizer.TAG_START:
+				if (started) { // the next game began without a result
+					tokenizer.pushBack();
+					return true;
+				}
+				
+				readTag(record);
+				break;
+			case PgnTokenizer.SYMBOL:
+				CharSequence text = tokenizer.getText();
+				started = true;
+				String result = toResult(text);
+				if (result != null) {
+					record.setResult(result);
+					return true;
+				}
+				
+				if (!Character.isDigit(text.charAt(0)))
+					record.addMove(text); // anything but a move number
+				
+				break;
+			case PgnTokenizer.VARIATION_START:
+				skipVariation();
+				break;
+			case PgnTokenizer.END:
+				return true;
+			default: // move number periods, annotations and anything out of place
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Retrieves the number of games read so far.
+	 * @return the number of games
+	 */
+	public long getGames() {
+		return games;
+	}
+	
+	/**
+	 * Retrieves the line of the record the reader has got to.
+	 * @return the line number, counting from 1
+	 */
+	public long getLine() {
+		return tokenizer.getLine();
+	}
+	
+	/**
+	 * Reads the rest of a tag pair into the given record.
+	 * @param record, the record of the game the tag belongs to
+	 * @throws IOException if the channel can't be read
+	 */
+	private void readTag(GameRecord record) throws IOException {
+		String name = null;
+		String value = null;
+		int token;
+		while ((token = tokenizer.next()) != PgnTokenizer.TAG_END && token != PgnTokenizer.END) {
+			if (token == PgnTokenizer.SYMBOL && name == null)
+				name = tokenizer.getText().toString();
+			else if (token == PgnTokenizer.STRING && value == null)
+				value = tokenizer.getText().toString();
+			else if (token == PgnTokenizer.TAG_START) { // the tag was never closed
+				tokenizer.pushBack();
+				break;
+			}
+		}
+		
+		if (name != null && value != null)
+			record.addTag(name, value);
+	}
+	
+	/**
+	 * Skips a side line and every side line inside it.
+	 * @throws IOException if the channel can't be read
+	 */
+	private void skipVariation() throws IOException {
+		int depth = 1;
+		while (depth > 0) {
+			int token = tokenizer.next();
+			if (token == PgnTokenizer.VARIATION_START)
+				depth++;
+			else if (token == PgnTokenizer.VARIATION_END)
+				depth--;
+			else if (token == PgnTokenizer.END)
+				return;
+		}
+	}
+	
+	/**
+	 * Finds the result a symbol stands for, if it's the result that ends a game.
+	 * @param text, the symbol
+	 * @return the result, or null if the symbol isn't 1-0, 0-1, 1/2-1/2 or *
+	 */
+	private static String toResult(CharSequence text) {
+		if (matches(text, WHITE_WINS))
+			return WHITE_WINS;
+		else if (matches(text, BLACK_WINS))
+			return BLACK_WINS;
+		else if (matches(text, DRAWN))
+			return DRAWN;
+		else if (matches(text, NO_RESULT))
+			return NO_RESULT;
+		
+		return null;
+	}
+	
+	/**
+	 * Compares a symbol to a string without copying the symbol out of the tokenizer's buffer.
+	 * @param text, the symbol
+	 * @param string, the string to compare to
+	 * @return true if the two hold the same characters, false otherwise
+	 */
+	private static boolean matches(CharSequence text, String string) {
+		if (text.length() != string.length())
+			return false;
+		
+		for (int i = 0; i < string.length(); i++) {
+			if (text.charAt(i) != string.charAt(i))
+				return false;
+		}
+		
+		return true;
+	}
+}
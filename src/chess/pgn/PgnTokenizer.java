@@ -0,0 +1,238 @@
+package chess.pgn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A PgnTokenizer class that splits a game record in Portable Game Notation into tokens as it
+ * reads it from a channel, one fixed-size buffer at a time, so a file of any size is read in
+ * the same memory. The text of a token is kept in a buffer that's reused for the next one.
+ * Comments, in braces or after a semicolon, and lines starting with % are skipped. The bytes
+ * are read as Latin-1, the character set of the format.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class PgnTokenizer {
+	public static final int END = 0; // the end of the input
+	public static final int SYMBOL = 1; // a move, a move number, a result or a tag name
+	public static final int STRING = 2; // a quoted tag value, without its quotes
+	public static final int PERIOD = 3;
+	public static final int NAG = 4; // a numeric annotation such as $1, without its dollar sign
+	public static final int TAG_START = 5;
+	public static final int TAG_END = 6;
+	public static final int VARIATION_START = 7;
+	public static final int VARIATION_END = 8;
+	public static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+	
+	private ReadableByteChannel channel; // where the record is read from
+	private ByteBuffer buffer; // the bytes read but not yet tokenized
+	private StringBuilder text; // the text of the last token
+	private int pushedBack; // a character read one too far, or -1
+	private int current; // the last character read
+	private int previous; // the character before it, to tell if a % starts a line
+	private int lastToken; // the last token handed out
+	private boolean repeat; // whether the last token is handed out again
+	private boolean ended; // whether the channel has run out
+	private long line; // the line the tokenizer is on, counting from 1
+	
+	/**
+	 * The constructor for the PgnTokenizer class, with the default buffer size.
+	 * @param channel, the channel to read from
+	 */
+	public PgnTokenizer(ReadableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_BYTES);
+	}
+	
+	/**
+	 * The constructor for the PgnTokenizer class.
+	 * @param channel, the channel to read from
+	 * @param bufferBytes, the number of bytes to read from the channel at once
+	 */
+	public PgnTokenizer(ReadableByteChannel channel, int bufferBytes) {
+		this.channel = channel;
+		buffer = ByteBuffer.allocate(Math.max(bufferBytes, 1));
+		buffer.flip(); // nothing to read yet
+		text = new StringBuilder();
+		pushedBack = -1;
+		current = '\n';
+		previous = '\n';
+		line = 1;
+	}
+	
+	/**
+	 * Reads the next token.
+	 * @return the kind of token, or END once the input runs out
+	 * @throws IOException if the channel can't be read
+	 */
+	public int next() throws IOException {
+		if (repeat) {
+			repeat = false;
+			return lastToken;
+		}
+		
+		lastToken = readToken();
+		return lastToken;
+	}
+	
+	/**
+	 * Makes the next call to next hand out the last token again, with the same text.
+	 */
+	public void pushBack() {
+		repeat = true;
+	}
+	
+	/**
+	 * Retrieves the text of the last symbol, string or annotation. It's only valid until the
+	 * next token is read.
+	 * @return the text of the token
+	 */
+	public CharSequence getText() {
+		return text;
+	}
+	
+	/**
+	 * Retrieves the line of the input the tokenizer is on.
+	 * @return the line number, counting from 1
+	 */
+	public long getLine() {
+		return line;
+	}
+	
+	/**
+	 * Skips the rest of the current line, up to and including its end.
+	 * @throws IOException if the channel can't be read
+	 */
+	private void skipLine() throws IOException {
+		for (int c = read(); c != -1 && c != '\n'; c = read());
+	}
+	
+	/**
+	 * Reads a token from the input, skipping the white space and comments before it.
+	 * @return the kind of token
+	 * @throws IOException if the channel can't be read
+	 */
+	private int readToken() throws IOException {
+		text.setLength(0);
+		while (true) {
+			int c = read();
+			switch (c) {
+			case -1:
+				return END;
+			case ' ':
+			case '\t':
+			case '\r':
+			case '\n':
+				continue;
+			case '%':
+				if (previous != '\n')
+					return readSymbol(c);
+				
+				skipLine(); // an escaped line is skipped like a comment
+				continue;
+			case ';':
+				skipLine();
+				continue;
+			case '{':
+				while ((c = read()) != -1 && c != '}');
+				continue;
+			case '[':
+				return TAG_START;
+			case ']':
+				return TAG_END;
+			case '(':
+				return VARIATION_START;
+			case ')':
+				return VARIATION_END;
+			case '.':
+				return PERIOD;
+			case '"':
+				return readString();
+			case '$':
+				while ((c = read()) >= '0' && c <= '9')
+					text.append((char) c);
+				
+				unread(c);
+				return NAG;
+			default:
+				return readSymbol(c);
+			}
+		}
+	}
+	
+	/**
+	 * Reads a symbol, which runs until white space or a character that's a token of its own.
+	 * @param first, the first character of the symbol
+	 * @return SYMBOL
+	 * @throws IOException if the channel can't be read
+	 */
+	private int readSymbol(int first) throws IOException {
+		text.append((char) first);
+		int c;
+		while ((c = read()) != -1 && c > ' ' && "[](){}.;\"$".indexOf(c) < 0)
+			text.append((char) c);
+		
+		unread(c);
+		return SYMBOL;
+	}
+	
+	/**
+	 * Reads a quoted string, in which a backslash escapes the character after it.
+	 * @return STRING
+	 * @throws IOException if the channel can't be read
+	 */
+	private int readString() throws IOException {
+		int c;
+		while ((c = read()) != -1 && c != '"' && c != '\n') {
+			if (c == '\\' && (c = read()) == -1)
+				break;
+			
+			text.append((char) c);
+		}
+		
+		if (c == '\n')
+			unread(c);
+		
+		return STRING;
+	}
+	
+	/**
+	 * Reads the next character, refilling the buffer from the channel when it runs out.
+	 * @return the character, or -1 at the end of the input
+	 * @throws IOException if the channel can't be read
+	 */
+	private int read() throws IOException {
+		if (pushedBack >= 0) {
+			int c = pushedBack;
+			pushedBack = -1;
+			return c;
+		}
+		
+		while (!buffer.hasRemaining()) {
+			if (ended)
+				return -1;
+			
+			buffer.clear();
+			if (channel.read(buffer) < 0)
+				ended = true;
+			
+			buffer.flip();
+		}
+		
+		int c = buffer.get() & 0xFF;
+		if (c == '\n')
+			line++;
+		
+		previous = current;
+		current = c;
+		return c;
+	}
+	
+	/**
+	 * Puts a character back to be read again.
+	 * @param c, the character, or -1 for none
+	 */
+	private void unread(int c) {
+		pushedBack = c;
+	}
+}
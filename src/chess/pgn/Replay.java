@@ -0,0 +1,126 @@
+package chess.pgn;
+
+import chess.Fen;
+import chess.Game;
+import chess.Move;
+import chess.enums.PieceColor;
+
+/**
+ * A Replay class that plays the moves of a GameRecord on a Game of its own, checking each one
+ * against the legal moves of the position. The same Game is set up again for every record, so
+ * a thread can replay any number of games with one Replay. A record replays to the end only
+ * if every move in it is one Game.playerMove would have accepted, and the result its final
+ * position comes to can then be checked against the one it was written down with.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Replay {
+	private Game game; // the game every record is played on
+	private Fen fen; // sets up the position every record starts from
+	private San san; // finds the move the text of a move names
+	private StringBuilder text; // the text of the move being played
+	private int plies; // the number of moves played of the last record
+	
+	/**
+	 * The constructor for the Replay class.
+	 */
+	public Replay() {
+		game = new Game();
+		fen = new Fen();
+		san = new San(game);
+		text = new StringBuilder();
+	}
+	
+	/**
+	 * Plays the moves of a record until they run out or one can't be played.
+	 * @param record, the game to play
+	 * @return true if every move was played, false if a move or the set-up couldn't be
+	 */
+	public boolean replay(GameRecord record) {
+		return replay(record, null);
+	}
+	
+	/**
+	 * Plays the moves of a record until they run out or one can't be played, and tells the
+	 * given listener about the game's tags, every move played and how the game ended.
+	 * @param record, the game to play
+	 * @param listener, the listener to tell, or null for none
+	 * @return true if every move was played, false if a move or the set-up couldn't be
+	 */
+	public boolean replay(GameRecord record, PgnListener listener) {
+		plies = 0;
+		if (listener != null) {
+			listener.startGame();
+			for (int i = 0; i < record.getTagCount(); i++)
+				listener.tag(record.getTagName(i), record.getTagValue(i));
+		}
+		
+		String setUp = record.getSetUp();
+		try {
+			fen.load(game, setUp != null ? setUp : Fen.START);
+		} catch (IllegalArgumentException e) {
+			if (listener != null) {
+				listener.illegal(game, setUp);
+				listener.endGame(game, record.getResult());
+			}
+			
+			return false;
+		}
+		
+		for (int i = 0; i < record.getMoveCount(); i++) {
+			text.setLength(0);
+			record.getMove(i, text);
+			int move = san.resolve(text);
+			if (move == Move.NONE) {
+				if (listener != null) {
+					listener.illegal(game, text);
+					listener.endGame(game, record.getResult());
+				}
+				
+				return false;
+			}
+			
+			game.board.makeMove(move);
+			plies++;
+			if (listener != null)
+				listener.move(game, move, text);
+		}
+		
+		if (listener != null)
+			listener.endGame(game, record.getResult());
+		
+		return true;
+	}
+	
+	/**
+	 * Works out the result the position the last record got to stands at. Games that were
+	 * resigned or agreed drawn end in positions that can still be played on, and come to *.
+	 * @return 1-0 or 0-1 if the team to move is checkmated, 1/2-1/2 if it's stalemated, * otherwise
+	 */
+	public String getResult() {
+		PieceColor color = game.getPlayerColor(game.getTurn());
+		if (game.checkCheckmate(color))
+			return color == PieceColor.WHITE ? PgnReader.BLACK_WINS : PgnReader.WHITE_WINS;
+		
+		if (game.checkStalemate())
+			return PgnReader.DRAWN;
+		
+		return PgnReader.NO_RESULT;
+	}
+	
+	/**
+	 * Retrieves the number of moves played of the last record.
+	 * @return the number of plies played
+	 */
+	public int getPlies() {
+		return plies;
+	}
+	
+	/**
+	 * Retrieves the game the records are played on. It's set up again for every record.
+	 * @return the game
+	 */
+	public Game getGame() {
+		return game;
+	}
+}
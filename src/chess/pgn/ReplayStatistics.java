@@ -0,0 +1,171 @@
+package chess.pgn;
+
+/**
+ * A ReplayStatistics class counting what replaying a batch of games found: how many games and
+ * moves were played, how many games had a move or a set-up that couldn't be played, how many
+ * ended in checkmate or stalemate, and how many were written down with a result their final
+ * position contradicts. A result is only held to contradict the position when both are known,
+ * since a resigned game ends in a position that can still be played on. Each thread keeps its
+ * own statistics and they're added up at the end.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class ReplayStatistics {
+	private long games; // the number of games replayed
+	private long plies; // the number of moves played
+	private long illegal; // the number of games with a move or set-up that couldn't be played
+	private long whiteMates; // the number of games White won by checkmate
+	private long blackMates; // the number of games Black won by checkmate
+	private long stalemates; // the number of games ending in stalemate
+	private long mismatches; // the number of games written down with the wrong result
+	private long firstIllegal; // the number of the first game that couldn't be played, or 0
+	private long nanos; // the time the replay took
+	
+	/**
+	 * Counts a game that was replayed.
+	 * @param record, the game
+	 * @param replay, the replay that just played it
+	 * @param played, whether every move of the game could be played
+	 */
+	public void add(GameRecord record, Replay replay, boolean played) {
+		games++;
+		plies += replay.getPlies();
+		if (!played) {
+			illegal++;
+			if (firstIllegal == 0 || record.getNumber() < firstIllegal)
+				firstIllegal = record.getNumber();
+			
+			return;
+		}
+		
+		String result = replay.getResult();
+		if (result.equals(PgnReader.WHITE_WINS))
+			whiteMates++;
+		else if (result.equals(PgnReader.BLACK_WINS))
+			blackMates++;
+		else if (result.equals(PgnReader.DRAWN))
+			stalemates++;
+		
+		if (!result.equals(PgnReader.NO_RESULT) && !record.getResult().equals(PgnReader.NO_RESULT)
+			&& !result.equals(record.getResult()))
+			mismatches++;
+	}
+	
+	/**
+	 * Adds the counts of other statistics to these ones. The times aren't added, since the
+	 * threads run at the same time.
+	 * @param other, the statistics to add
+	 */
+	public void add(ReplayStatistics other) {
+		games += other.games;
+		plies += other.plies;
+		illegal += other.illegal;
+		whiteMates += other.whiteMates;
+		blackMates += other.blackMates;
+		stalemates += other.stalemates;
+		mismatches += other.mismatches;
+		if (other.firstIllegal != 0 && (firstIllegal == 0 || other.firstIllegal < firstIllegal))
+			firstIllegal = other.firstIllegal;
+	}
+	
+	/**
+	 * Get method for the number of games replayed.
+	 * @return the game count
+	 */
+	public long getGames() {
+		return games;
+	}
+	
+	/**
+	 * Get method for the number of moves played.
+	 * @return the ply count
+	 */
+	public long getPlies() {
+		return plies;
+	}
+	
+	/**
+	 * Get method for the number of games that couldn't be played to the end.
+	 * @return the illegal game count
+	 */
+	public long getIllegal() {
+		return illegal;
+	}
+	
+	/**
+	 * Get method for the number of the first game that couldn't be played to the end.
+	 * @return the game number, counting from 1, or 0 if every game could be played
+	 */
+	public long getFirstIllegal() {
+		return firstIllegal;
+	}
+	
+	/**
+	 * Get method for the number of games White won by checkmate.
+	 * @return the checkmate count
+	 */
+	public long getWhiteMates() {
+		return whiteMates;
+	}
+	
+	/**
+	 * Get method for the number of games Black won by checkmate.
+	 * @return the checkmate count
+	 */
+	public long getBlackMates() {
+		return blackMates;
+	}
+	
+	/**
+	 * Get method for the number of games ending in stalemate.
+	 * @return the stalemate count
+	 */
+	public long getStalemates() {
+		return stalemates;
+	}
+	
+	/**
+	 * Get method for the number of games written down with a result their final position
+	 * contradicts.
+	 * @return the mismatch count
+	 */
+	public long getMismatches() {
+		return mismatches;
+	}
+	
+	/**
+	 * Get method for the time the replay took.
+	 * @return the time in nanoseconds
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+	
+	/**
+	 * Set method for the time the replay took.
+	 * @param nanos, the time in nanoseconds
+	 */
+	public void setNanos(long nanos) {
+		this.nanos = nanos;
+	}
+	
+	/**
+	 * Works out how many games were replayed each second.
+	 * @return the games per second, or 0 if no time was measured
+	 */
+	public double getGamesPerSecond() {
+		return nanos > 0 ? games * 1000000000.0 / nanos : 0;
+	}
+	
+	/**
+	 * Describes the statistics on one line.
+	 * @return the counts, the time taken and the games per second
+	 */
+	@Override
+	public String toString() {
+		return games + " games, " + plies + " plies, " + illegal + " illegal"
+			+ (firstIllegal != 0 ? " (first is game " + firstIllegal + ")" : "") + ", " + whiteMates + " won by White and "
+			+ blackMates + " by Black in checkmate, " + stalemates + " stalemates, " + mismatches + " wrong results, "
+			+ nanos / 1000000 + " ms, " + String.format("%.0f", getGamesPerSecond()) + " games/s";
+	}
+}
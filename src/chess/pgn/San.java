@@ -0,0 +1,161 @@
+package chess.pgn;
+
+import chess.Fen;
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pieces.Piece;
+
+/**
+ * A San class that reads and writes moves in standard algebraic notation, the way game records
+ * write them: the letter of the piece, which Pawns leave off, then an x for a capture and the
+ * square the move ends on, as in Nf3, exd5 or Txc6. The High Templar is T and the Ghost is G,
+ * as in Fen, and a storm or a snipe is written as a capture of the piece it hits. When more than
+ * one piece of a type can reach the square, the column and then the row it comes from are
+ * added, as in Rad1. A move is only read if exactly one legal move fits it, so every move read
+ * is one Game.playerMove would have allowed.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class San {
+	private Game game; // the game whose moves are read and written
+	private int moves[]; // the legal moves of the position
+	
+	/**
+	 * The constructor for the San class.
+	 * @param game, the game whose moves to read and write
+	 */
+	public San(Game game) {
+		this.game = game;
+		moves = new int[MoveGenerator.MAX_MOVES];
+	}
+	
+	/**
+	 * Finds the legal move of the team to move that the given text names. Check and mate
+	 * signs and annotations such as ! or ?? at the end are ignored.
+	 * @param text, the move in algebraic notation
+	 * @return the move, or Move.NONE if no legal move or more than one fits the text
+	 */
+	public int resolve(CharSequence text) {
+		int end = text.length();
+		while (end > 0 && "+#!?".indexOf(text.charAt(end - 1)) >= 0)
+			end--;
+		
+		if (end < 2)
+			return Move.NONE;
+		
+		int start = 0;
+		Piece.Type type = Piece.Type.PAWN;
+		if (Character.isUpperCase(text.charAt(0))) {
+			type = Fen.getType(text.charAt(0));
+			if (type == null || type == Piece.Type.PAWN)
+				return Move.NONE;
+			
+			start = 1;
+		}
+		
+		int toX = text.charAt(end - 2) - 'a';
+		int toY = '8' - text.charAt(end - 1);
+		if (!Position.isOnBoard(toX, toY))
+			return Move.NONE;
+		
+		int fromX = -1;
+		int fromY = -1;
+		boolean capture = false;
+		for (int i = start; i < end - 2; i++) {
+			char letter = text.charAt(i);
+			if (letter == 'x')
+				capture = true;
+			else if (letter >= 'a' && letter <= 'h')
+				fromX = letter - 'a';
+			else if (letter >= '1' && letter <= '8')
+				fromY = '8' - letter;
+			else
+				return Move.NONE; // Pawns don't promote, and nothing else goes in the middle
+		}
+		
+		Position position = game.board.getPosition();
+		int to = Position.toSquare(toX, toY);
+		int count = game.getMoveGenerator().generateLegalMoves(moves);
+		int found = Move.NONE;
+		for (int i = 0; i < count; i++) {
+			int from = Move.getFrom(moves[i]);
+			if (Move.getTo(moves[i]) != to || position.getPiece(from).getType() != type
+				|| Move.hasFlag(moves[i], Move.CAPTURE) != capture
+				|| (fromX >= 0 && Position.getX(from) != fromX) || (fromY >= 0 && Position.getY(from) != fromY))
+				continue;
+			
+			if (found != Move.NONE)
+				return Move.NONE; // the text doesn't say which of the two it means
+			
+			found = moves[i];
+		}
+		
+		return found;
+	}
+	
+	/**
+	 * Writes a legal move of the team to move in algebraic notation, with + after a check
+	 * and # after a mate.
+	 * @param move, the move to write
+	 * @return the move in algebraic notation
+	 */
+	public String toString(int move) {
+		StringBuilder out = new StringBuilder();
+		write(move, out);
+		return out.toString();
+	}
+	
+	/**
+	 * Writes a legal move of the team to move in algebraic notation onto the end of the given
+	 * buffer, with + after a check and # after a mate.
+	 * @param move, the move to write
+	 * @param out, the buffer to write to
+	 */
+	public void write(int move, StringBuilder out) {
+		Position position = game.board.getPosition();
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		Piece.Type type = position.getPiece(from).getType();
+		boolean capture = Move.hasFlag(move, Move.CAPTURE);
+		if (type == Piece.Type.PAWN) {
+			if (capture)
+				out.append((char) ('a' + Position.getX(from)));
+		} else {
+			out.append(Fen.getLetter(type));
+			boolean ambiguous = false;
+			boolean sameColumn = false;
+			boolean sameRow = false;
+			int count = game.getMoveGenerator().generateLegalMoves(moves);
+			for (int i = 0; i < count; i++) {
+				int other = Move.getFrom(moves[i]);
+				if (moves[i] == move || Move.getTo(moves[i]) != to || position.getPiece(other).getType() != type
+					|| Move.hasFlag(moves[i], Move.CAPTURE) != capture)
+					continue;
+				
+				ambiguous = true;
+				sameColumn |= Position.getX(other) == Position.getX(from);
+				sameRow |= Position.getY(other) == Position.getY(from);
+			}
+			
+			if (ambiguous && (!sameColumn || sameRow))
+				out.append((char) ('a' + Position.getX(from)));
+			
+			if (sameColumn)
+				out.append((char) ('8' - Position.getY(from)));
+		}
+		
+		if (capture)
+			out.append('x');
+		
+		out.append(Move.squareName(to));
+		game.board.makeMove(move);
+		PieceColor enemy = game.getPlayerColor(game.getTurn());
+		if (game.board.isKingAttacked(enemy))
+			out.append(game.getMoveGenerator().generateLegalMoves(enemy, moves) == 0 ? '#' : '+');
+		
+		game.board.unmakeMove();
+	}
+}
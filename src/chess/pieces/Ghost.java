@@ -1,13 +1,34 @@
 package chess.pieces;
 
-import java.awt.Point;
-
-import chess.Board;
 import chess.Game;
+import chess.Move;
+import chess.Position;
 import chess.enums.PieceColor;
 
 public class Ghost extends Piece {
-	private final int MAX_RANGE = 5;
+	public static final int MAX_RANGE = 5; // the furthest a Ghost can snipe a High Templar from
+	
+	/**
+	 * The ring of squares around every square that a Ghost can step to.
+	 */
+	public static final long ATTACKS[] = King.ATTACKS;
+	
+	/**
+	 * The squares along the eight rays of every square, from 2 up to MAX_RANGE spaces away,
+	 * where a Ghost can snipe a High Templar. Snipes aren't blocked by pieces in between.
+	 */
+	public static final long SNIPES[] = new long[ATTACKS.length];
+	
+	static {
+		for (int distance = 2; distance <= MAX_RANGE; distance++) {
+			long ring[] = buildOffsetMasks(new int[][] {
+				{ -distance, 0 }, { -distance, -distance }, { 0, -distance }, { distance, -distance },
+				{ distance, 0 }, { distance, distance }, { 0, distance }, { -distance, distance }
+			});
+			for (int square = 0; square < SNIPES.length; square++)
+				SNIPES[square] |= ring[square];
+		}
+	}
 	
 	public Ghost(PieceColor color, int x, int y) {
 		super(color, Piece.Type.GHOST, x, y);
@@ -50,95 +71,19 @@ public class Ghost extends Piece {
 	
 	/**
 	 * Updates the Ghost's move list with new possible moves by clearing the current list
-	 * and populating the list again.
-	 * @param board, the game board to look at
+	 * and populating the list again. Ghosts can move/capture one space around it, or it can
+	 * snipe any enemy High Templar on its snipe rays. Sniping will not move the Ghost to the
+	 * High Templar's position.
+	 * @param game, the game to look at
 	 */
 	@Override
 	public void updateMoveList(Game game) {
-		moveList.clear();
-		calculateMoveList(coordinate.x + 1, coordinate.y, -1, game);
-		calculateMoveList(coordinate.x - 1, coordinate.y, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y + 1, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y - 1, -1, game);
-		calculateMoveList(coordinate.x + 1, coordinate.y + 1, -1, game);
-		calculateMoveList(coordinate.x - 1, coordinate.y + 1, -1, game);
-		calculateMoveList(coordinate.x + 1, coordinate.y - 1, -1, game);
-		calculateMoveList(coordinate.x - 1, coordinate.y - 1, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y, 0, game);
-		calculateMoveList(coordinate.x, coordinate.y, 1, game);
-		calculateMoveList(coordinate.x, coordinate.y, 2, game);
-		calculateMoveList(coordinate.x, coordinate.y, 3, game);
-		calculateMoveList(coordinate.x, coordinate.y, 4, game);
-		calculateMoveList(coordinate.x, coordinate.y, 5, game);
-		calculateMoveList(coordinate.x, coordinate.y, 6, game);
-		calculateMoveList(coordinate.x, coordinate.y, 7, game);
-	}
-
-	/**
-	 * A helper method that calculates the all possible moves based on the behaviors of a Ghost.
-	 * Ghosts can move/capture one space around it, or it can snipe any High Templar within
-	 * 5 spaces in any direction. Sniping will not move the Ghost to the High Templar's position.
-	 * @param currX, the current x-coordinate of the Piece
-	 * @param currY, the current y-coordinate of the Piece
-	 * @param destX, the next x-coordinate to check
-	 * @param destY, the next y-coordinate to check
-	 * @param direction, the direction to move to
-	 * @param board, the game board to look at
-	 */
-	@Override
-	protected void calculateMoveList(int destX, int destY, int direction, Game game) {
-		if (destY + 1 >= Board.GLOBAL_BOARD_SIDE_LENGTH || destY - 1 < 0
-			|| destX + 1 >= Board.GLOBAL_BOARD_SIDE_LENGTH || destX - 1 < 0
-			|| !isEnemy(game.board.getPiece(destX, destY)))
-			return;
-		if (direction != -1) {
-			for (int i = 1; i < MAX_RANGE; i++) {
-				switch(direction) {
-					case 0: // left
-						if (game.board.getPiece(destX - i, destY).getType() == Piece.Type.HIGHTEMPLAR
-							&& isEnemy(game.board.getPiece(destX - i, destY)))
-							moveList.add(new Point(destX - i, destY));
-						break;
-					case 1: // upper-left
-						if (game.board.getPiece(destX - i, destY - i).getType() == Piece.Type.HIGHTEMPLAR
-						&& isEnemy(game.board.getPiece(destX - i, destY - i)))
-							moveList.add(new Point(destX - i, destY - i));
-						break;
-					case 2: // up
-						if (game.board.getPiece(destX, destY - i).getType() == Piece.Type.HIGHTEMPLAR
-						&& isEnemy(game.board.getPiece(destX, destY - i)))
-							moveList.add(new Point(destX, destY - i));
-						break;
-					case 3: // upper-right
-						if (game.board.getPiece(destX + i, destY - i).getType() == Piece.Type.HIGHTEMPLAR
-						&& isEnemy(game.board.getPiece(destX + i, destY - i)))
-							moveList.add(new Point(destX + i, destY - i));
-						break;
-					case 4: // right
-						if (game.board.getPiece(destX + i, destY).getType() == Piece.Type.HIGHTEMPLAR
-						&& isEnemy(game.board.getPiece(destX + i, destY)))
-							moveList.add(new Point(destX + i, destY));
-						break;
-					case 5: // lower-right
-						if (game.board.getPiece(destX + i, destY + i).getType() == Piece.Type.HIGHTEMPLAR
-						&& isEnemy(game.board.getPiece(destX + i, destY + i)))
-							moveList.add(new Point(destX + i, destY + i));
-						break;
-					case 6: // down
-						if (game.board.getPiece(destX, destY + i).getType() == Piece.Type.HIGHTEMPLAR
-						&& isEnemy(game.board.getPiece(destX, destY + i)))
-							moveList.add(new Point(destX, destY + i));
-						break;
-					case 7: // lower-left
-						if (game.board.getPiece(destX - i, destY + i).getType() == Piece.Type.HIGHTEMPLAR
-						&& isEnemy(game.board.getPiece(destX - i, destY + i)))
-							moveList.add(new Point(destX - i, destY + i));
-				}
-			}
-			
-			return;
-		}
-		
-		moveList.add(new Point(destX, destY));
+		clearMoveList();
+		Position position = game.board.getPosition();
+		long allies = position.getColorBoard(color);
+		long enemyTemplars = position.getTypeBoard(Piece.Type.HIGHTEMPLAR) & ~allies;
+		addMoves(ATTACKS[getSquare()] & ~allies, position.getOccupied());
+		for (long snipes = SNIPES[getSquare()] & enemyTemplars; snipes != 0; snipes &= snipes - 1)
+			addMove(Long.numberOfTrailingZeros(snipes), Move.CAPTURE | Move.SNIPE);
 	}
 }
@@ -1,9 +1,9 @@
 package chess.pieces;
 
-import java.awt.Point;
-
 import chess.Board;
 import chess.Game;
+import chess.Move;
+import chess.Position;
 import chess.enums.PieceColor;
 
 /**
@@ -13,6 +13,26 @@ import chess.enums.PieceColor;
  */
 public class HighTemplar extends Piece{
 	
+	/**
+	 * The squares 3-4 spaces in front of or behind every square that a storm can target.
+	 */
+	public static final long STORM[] = buildOffsetMasks(new int[][] {
+		{ 0, 3 }, { 0, 4 }, { 0, -3 }, { 0, -4 }
+	});
+	
+	/**
+	 * Every square a High Templar can reach from every square: the ring around it plus its
+	 * storm squares.
+	 */
+	public static final long ATTACKS[] = new long[STORM.length];
+	
+	static {
+		for (int square = 0; square < ATTACKS.length; square++)
+			ATTACKS[square] = King.ATTACKS[square] | STORM[square];
+	}
+	
+	public static final int STORM_ENERGY = 3; // the energy needed to cast a storm
+	
 	int energy; // the resource High Templars use to cast its spell
 	
 	public HighTemplar(PieceColor color, int x, int y) {
@@ -41,7 +61,7 @@ public class HighTemplar extends Piece{
 				&& isEnemy(possibleEnemy)) { // check if we're capturing an enemy
 //				board.removeFromTeam(possibleEnemy.getColor(), possibleEnemy);
 				if ((yCoord == coordinate.y + 3 || yCoord == coordinate.y + 4
-					|| yCoord == coordinate.y - 3 || yCoord == coordinate.x - 4) // check if it can cast its spell
+					|| yCoord == coordinate.y - 3 || yCoord == coordinate.y - 4) // check if it can cast its spell
 					&& xCoord == coordinate.x && energy > 3) {
 					energy = 0; // use all of its energy
 					if (yCoord + 1 < Board.GLOBAL_BOARD_SIDE_LENGTH) { // also capture the piece behind the target
@@ -71,44 +91,55 @@ public class HighTemplar extends Piece{
 	
 	/**
 	 * Updates the High Templar's move list with new possible moves by clearing the current list
-	 * and populating the list again.
-	 * @param board, the game board to look at
+	 * and populating the list again. High Templars can move/capture one space around it, or it
+	 * can cast a spell on an enemy unit that's 3-4 spaces away, which also kills anything behind
+	 * it as well. Both come from the attack table, minus the squares held by allies. A storm
+	 * needs the energy of three earlier moves, since moving raises it to more than 3.
+	 * @param game, the game to look at
 	 */
 	@Override
 	public void updateMoveList(Game game) {
-		moveList.clear();
-		calculateMoveList(coordinate.x + 1, coordinate.y, -1, game);
-		calculateMoveList(coordinate.x - 1, coordinate.y, -1, game);
-		calculateMoveList(coordinate.x + 1, coordinate.y + 1, -1, game);
-		calculateMoveList(coordinate.x + 1, coordinate.y - 1, -1, game);
-		calculateMoveList(coordinate.x - 1, coordinate.y + 1, -1, game);
-		calculateMoveList(coordinate.x - 1, coordinate.y - 1, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y + 1, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y - 1, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y + 3, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y + 4, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y - 3, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y - 4, -1, game);
+		clearMoveList();
+		Position position = game.board.getPosition();
+		long targets = ATTACKS[getSquare()] & ~position.getColorBoard(color);
+		long storms = canCastStorm() ? STORM[getSquare()] & position.getOccupied() : 0L;
+		addMoves(targets & ~storms, position.getOccupied());
+		for (storms &= targets; storms != 0; storms &= storms - 1)
+			addMove(Long.numberOfTrailingZeros(storms), Move.CAPTURE | Move.STORM);
 	}
-
+	
 	/**
-	 * A helper method that calculates the all possible moves based on the behaviors of a High Templar.
-	 * High Templars can move/capture one space around it, or it can cast a spell on an enemy unit
-	 * that's 3-4 spaces away, which also kills anything behind it as well.
-	 * @param currX, the current x-coordinate of the Piece
-	 * @param currY, the current y-coordinate of the Piece
-	 * @param destX, the next x-coordinate to check
-	 * @param destY, the next y-coordinate to check
-	 * @param direction, the direction to move to
-	 * @param board, the game board to look at
+	 * Creates a copy of the High Templar with the same energy.
+	 * @return the copy of the High Templar
 	 */
 	@Override
-	protected void calculateMoveList(int destX, int destY, int direction, Game game) {
-		if (destY >= Board.GLOBAL_BOARD_SIDE_LENGTH || destY < 0
-			|| destX >= Board.GLOBAL_BOARD_SIDE_LENGTH || destX < 0
-			|| (game.board.getPiece(destX, destY) != null && !isEnemy(game.board.getPiece(destX, destY))))
-			return;
-		
-		moveList.add(new Point(destX, destY));
+	public Piece copy() {
+		HighTemplar copy = (HighTemplar) super.copy();
+		copy.energy = energy;
+		return copy;
+	}
+	
+	/**
+	 * Retrieves the energy the High Templar has built up for its storm.
+	 * @return the current energy
+	 */
+	public int getEnergy() {
+		return energy;
+	}
+	
+	/**
+	 * Checks if the High Templar has built up enough energy to cast its storm.
+	 * @return true if a storm can be cast, false otherwise
+	 */
+	public boolean canCastStorm() {
+		return energy >= STORM_ENERGY;
+	}
+	
+	/**
+	 * Sets the energy of the High Templar.
+	 * @param energy, the energy to set
+	 */
+	public void setEnergy(int energy) {
+		this.energy = energy;
 	}
 }
@@ -1,10 +1,9 @@
 package chess.pieces;
 
-import java.awt.Point;
-
 import chess.enums.*;
-import chess.Board;
 import chess.Game;
+import chess.Move;
+import chess.Position;
 
 /**
  * A King class representing a king piece in chess, containing movement behavior exclusive
@@ -14,6 +13,13 @@ import chess.Game;
 
 public class King extends Piece{
 	
+	/**
+	 * The ring of squares around every square that a King can step to.
+	 */
+	public static final long ATTACKS[] = buildOffsetMasks(new int[][] {
+		{ 1, 0 }, { -1, 0 }, { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 }, { 0, 1 }, { 0, -1 }
+	});
+	
 //	private boolean inCheck; // a flag determining if the King is in check.
 	
 	/**
@@ -30,68 +36,41 @@ public class King extends Piece{
 
 	/**
 	 * Updates the King's move list with new possible moves by clearing the current list
-	 * and populating the list again.
-	 * @param board, the game board to look at
+	 * and populating the list again. Every open square of the ring around the King is
+	 * checked so the King doesn't move into check.
+	 * @param game, the game to look at
 	 */
 	@Override
 	public void updateMoveList(Game game) {
-		moveList.clear();
-		calculateMoveList(coordinate.x + 1, coordinate.y, -1, game);
-		calculateMoveList(coordinate.x - 1, coordinate.y, -1, game);
-		calculateMoveList(coordinate.x + 1, coordinate.y + 1, -1, game);
-		calculateMoveList(coordinate.x + 1, coordinate.y - 1, -1, game);
-		calculateMoveList(coordinate.x - 1, coordinate.y + 1, -1, game);
-		calculateMoveList(coordinate.x - 1, coordinate.y - 1, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y + 1, -1, game);
-		calculateMoveList(coordinate.x, coordinate.y - 1, -1, game);
+		clearMoveList();
+		long targets = ATTACKS[getSquare()] & ~game.board.getPosition().getColorBoard(color);
+		while (targets != 0) {
+			int square = Long.numberOfTrailingZeros(targets);
+			calculateMoveList(Position.getX(square), Position.getY(square), -1, game);
+			targets &= targets - 1;
+		}
 	}
 	
 	/**
-	 * A helper function for the calculateMoveList method. It takes in a coordinate, checking if
-	 * it's within bounds and checks that the space isn't blocked and moving to that space
-	 * won't put the King in check.
+	 * A helper function for the updateMoveList method. It takes in a coordinate that's on the
+	 * board and not occupied by an ally, and checks that moving to that space won't put the
+	 * King in check. The King is lifted off the board for the check, so a slider can't hide
+	 * the square behind the King from itself.
 	 * @param destX, the x-coordinate to check
 	 * @param destY, the y-coordinate to check
 	 * @param direction, the direction to move to
-	 * @param board, the game board to look at
+	 * @param game, the game to look at
 	 */
 	@Override
 	protected void calculateMoveList(int destX, int destY, int direction, Game game) {
-		// check if the coordinates is in bounds
-		if (destX >= 0 && destY >= 0
-			&& destX < Board.GLOBAL_BOARD_SIDE_LENGTH && destY < Board.GLOBAL_BOARD_SIDE_LENGTH) {
-			if (game.board.getPiece(destX, destY) != null 
-				&& !isEnemy(game.board.getPiece(destX, destY))) // check if the space is occupied by an ally
+		int square = Position.toSquare(destX, destY);
+		long occupied = game.board.getPosition().getOccupied() & ~(1L << getSquare());
+		for (int i = 0; i < game.getNumPlayers(); i++) {
+			PieceColor enemyColor = game.getPlayerColor(i);
+			if (enemyColor != color && game.board.isSquareAttacked(square, enemyColor, occupied))
 				return;
-			
-			Point potentialMove = new Point(destX, destY);
-			for (int i = 0; i < game.getNumPlayers(); i++) {
-				PieceColor enemyColor = game.getPlayerColor(i);
-				if (enemyColor != color && movesIntoCheck(potentialMove, enemyColor, game))
-					return;
-			}
-			
-			moveList.add(potentialMove);
-		}
-	}
-	
-	/**
-	 * Checks if the given potential move will move the King to a space that's within
-	 * the move list of a piece with the given enemy color.
-	 * @param potentialMove, the potential coordinate to check
-	 * @param enemyColor, the color of the enemy team
-	 * @param board, the board to check
-	 * @return true if the potential move coordinates is within the enemy movelist, otherwise false
-	 */
-	private boolean movesIntoCheck(Point potentialMove, PieceColor enemyColor, Game game) {
-		for (int i = 0; i < game.getRosterSize(enemyColor); i++) { // iterate through the enemy's roster
-			Piece enemy = game.getPieceFromRoster(enemyColor, i);
-			for (int enemyMove = 0; enemyMove < enemy.moveList.size(); enemyMove++) {
-				if (potentialMove.equals(enemy.moveList.get(enemyMove))) // checks if the potential spot to move to is within the enemy's movelist
-					return true;
-			}
 		}
 		
-		return false;
+		addMove(square, game.board.getPosition().isOccupied(square) ? Move.CAPTURE : 0);
 	}
 }
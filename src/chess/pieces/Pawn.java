@@ -1,10 +1,10 @@
 package chess.pieces;
 
-import java.awt.Point;
-
 import chess.enums.*;
 import chess.Board;
 import chess.Game;
+import chess.Move;
+import chess.Position;
 
 /**
  * A Pawn class representing a pawn piece in chess, containing movement behavior exclusive
@@ -14,6 +14,27 @@ import chess.Game;
 
 public class Pawn extends Piece {
 
+	/**
+	 * The squares within two spaces forward or backward, or one space diagonally, of every
+	 * square. The state of these squares decides a Pawn's moves in either direction, so a
+	 * change to a square can only affect the pawns within its reach.
+	 */
+	public static final long REACH[] = buildOffsetMasks(new int[][] {
+		{ 0, 1 }, { 0, 2 }, { 0, -1 }, { 0, -2 }, { 1, 1 }, { -1, 1 }, { 1, -1 }, { -1, -1 }
+	});
+	
+	/**
+	 * The squares a Pawn moving down the board, toward larger y-coordinates, attacks from
+	 * every square. Black pawns move down.
+	 */
+	public static final long ATTACKS_DOWN[] = buildOffsetMasks(new int[][] { { 1, 1 }, { -1, 1 } });
+	
+	/**
+	 * The squares a Pawn moving up the board, toward smaller y-coordinates, attacks from
+	 * every square. Pawns of every other color move up.
+	 */
+	public static final long ATTACKS_UP[] = buildOffsetMasks(new int[][] { { 1, -1 }, { -1, -1 } });
+	
 	private boolean firstMove; // a flag determining if the Pawn still has to take its first move
 	
 	/**
@@ -28,6 +49,17 @@ public class Pawn extends Piece {
 		firstMove = true;
 	}
 	
+	/**
+	 * Creates a copy of the Pawn that also remembers whether it has made its first move.
+	 * @return the copy of the Pawn
+	 */
+	@Override
+	public Piece copy() {
+		Pawn copy = (Pawn) super.copy();
+		copy.firstMove = firstMove;
+		return copy;
+	}
+	
 	/**
 	 * Moves the Piece to the given coordinates if it's available on the board by calculating
 	 * all of it's possible moves first, then checking if the given coordinate is in the
@@ -54,7 +86,7 @@ public class Pawn extends Piece {
 	 */
 	@Override
 	public void updateMoveList(Game game) {
-		moveList.clear();
+		clearMoveList();
 		calculateMoveList(coordinate.x, coordinate.y, -1, game);
 	}
 	
@@ -75,49 +107,58 @@ public class Pawn extends Piece {
 			if (destY + 1 >= Board.GLOBAL_BOARD_SIDE_LENGTH) // check for out-of-bounds
 				return;
 			// check if the Pawn hasn't made its first move yet, and check the next two space in front are empty
-			if (firstMove 
+			if (firstMove && destY + 2 < Board.GLOBAL_BOARD_SIDE_LENGTH
 				&& game.board.getPiece(destX, destY + 1) == null
 				&& game.board.getPiece(destX, destY + 2) == null)
-				moveList.add(new Point(destX, destY + 2));
+				addMove(Position.toSquare(destX, destY + 2), Move.DOUBLE_PUSH);
 			
 			// check if the space in front is empty
 			if (game.board.getPiece(destX, destY + 1) == null)
-				moveList.add(new Point(destX, destY + 1));
+				addMove(Position.toSquare(destX, destY + 1), 0);
 			// check if the space in the front-right is occupied by a piece of the other color
 			if (destX + 1 >= 0
 				&& game.board.getPiece(destX + 1, destY + 1) != null
 				&& isEnemy(game.board.getPiece(destX + 1, destY + 1)))
-				moveList.add(new Point(destX + 1, destY + 1));
+				addMove(Position.toSquare(destX + 1, destY + 1), Move.CAPTURE);
 			// check if the space in the front-left is occupied by a piece of the other color
 			if (destX - 1 >= 0
 				&& game.board.getPiece(destX - 1, destY + 1) != null
 				&& isEnemy(game.board.getPiece(destX - 1, destY + 1)))
-				moveList.add(new Point(destX - 1, destY + 1));
+				addMove(Position.toSquare(destX - 1, destY + 1), Move.CAPTURE);
 		} else { //the Pawn must be on the white team
-			if (destY - 1 <= 0) // check for out-of-bounds
+			if (destY - 1 < 0) // check for out-of-bounds
 				return;
 			// check if the Pawn hasn't made its first move yet, and check the next two space in front are empty
-			if (firstMove 
+			if (firstMove && destY - 2 >= 0
 				&& game.board.getPiece(destX, destY - 1) == null
 				&& game.board.getPiece(destX, destY - 2) == null) 
-				moveList.add(new Point(destX, destY - 2));
+				addMove(Position.toSquare(destX, destY - 2), Move.DOUBLE_PUSH);
 
 			// check if the space in front is empty
 			if (game.board.getPiece(destX, destY - 1) == null)
-				moveList.add(new Point(destX, destY - 1));
+				addMove(Position.toSquare(destX, destY - 1), 0);
 			// check if the space in the front-right is occupied by a piece of the other color
 			if (destX + 1 >= 0
 				&& game.board.getPiece(destX + 1, destY - 1) != null
 				&& isEnemy(game.board.getPiece(destX + 1, destY - 1)))
-				moveList.add(new Point(destX + 1, destY - 1));
+				addMove(Position.toSquare(destX + 1, destY - 1), Move.CAPTURE);
 			// check if the space in the front-left is occupied by a piece of the other color
 			if (destX - 1 >= 0
 				&& game.board.getPiece(destX - 1, destY - 1) != null
 				&& isEnemy(game.board.getPiece(destX - 1, destY - 1)))
-				moveList.add(new Point(destX - 1, destY - 1));
+				addMove(Position.toSquare(destX - 1, destY - 1), Move.CAPTURE);
 		}
 	}
 	
+	/**
+	 * Retrieves the attack table for pawns of the given color.
+	 * @param color, the color of the pawns
+	 * @return the squares a pawn of that color attacks from every square
+	 */
+	public static long[] getAttacks(PieceColor color) {
+		return color == PieceColor.BLACK ? ATTACKS_DOWN : ATTACKS_UP;
+	}
+	
 	/**
 	 * Sets the firstMove flag to the given parameter
 	 * @param firstMove, the state whether the Pawn can make it's first move again
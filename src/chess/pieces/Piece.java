@@ -1,11 +1,12 @@
 package chess.pieces;
 
 import java.awt.Point;
-import java.util.ArrayList;
 
 import chess.enums.*;
 import chess.Board;
 import chess.Game;
+import chess.Move;
+import chess.Position;
 
 /**
  * A Piece class representing a generic piece in chess. Provides most functionality
@@ -18,11 +19,14 @@ public abstract class Piece {
 		PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING, HIGHTEMPLAR, GHOST, NOTHING
 	}
 	
+	public static final int MAX_MOVES = 64; // more moves than any single piece can have
+	
 	protected PieceColor color; 
 	protected Type type;
 	protected boolean alive; // flag determining if the piece is captured
 	protected Point coordinate; // the current location of the piece, first is x, second is y
-	protected ArrayList<Point> moveList; // a list of possible coordinates the piece can move to
+	protected int moveList[]; // the possible moves of the piece, packed by the Move class
+	protected int moveListSize; // the number of moves in the move list
 	
 	/**
 	 * The constructor of the Piece class. It sets the basic information of the Piece object.
@@ -35,10 +39,53 @@ public abstract class Piece {
 		this.color = color;
 		this.type = type;
 		coordinate = new Point(x, y);
-		moveList = new ArrayList<Point>();
+		moveList = new int[MAX_MOVES];
+		moveListSize = 0;
 		alive = true;
 	}
 
+	/**
+	 * Creates a new Piece of the given type.
+	 * @param type, the type of the piece
+	 * @param color, the team color of the piece
+	 * @param x, the starting x-coordinate
+	 * @param y, the starting y-coordinate
+	 * @return the new Piece, or null if the type isn't a real piece
+	 */
+	public static Piece create(Type type, PieceColor color, int x, int y) {
+		switch (type) {
+		case PAWN:
+			return new Pawn(color, x, y);
+		case KNIGHT:
+			return new Knight(color, x, y);
+		case BISHOP:
+			return new Bishop(color, x, y);
+		case ROOK:
+			return new Rook(color, x, y);
+		case QUEEN:
+			return new Queen(color, x, y);
+		case KING:
+			return new King(color, x, y);
+		case HIGHTEMPLAR:
+			return new HighTemplar(color, x, y);
+		case GHOST:
+			return new Ghost(color, x, y);
+		default:
+			return null;
+		}
+	}
+	
+	/**
+	 * Creates a new Piece of the same type and color on the same square, with the same alive
+	 * state. The move list isn't copied, and has to be updated before it's used.
+	 * @return the copy of the Piece
+	 */
+	public Piece copy() {
+		Piece copy = create(type, color, coordinate.x, coordinate.y);
+		copy.alive = alive;
+		return copy;
+	}
+	
 	/**
 	 * Changes the status of the piece
 	 * @param isAlive, whether or not the piece is still alive
@@ -61,6 +108,16 @@ public abstract class Piece {
 		}
 	}
 	
+	/**
+	 * Sets the location of the Piece to the given square without updating the move list.
+	 * This is used when the board replays or takes back moves itself.
+	 * @param square, the square to move to
+	 */
+	public void setSquare(int square) {
+		coordinate.x = Position.getX(square);
+		coordinate.y = Position.getY(square);
+	}
+	
 	/**
 	 * Moves the Piece to the given coordinates if it's available on the board by calculating
 	 * all of it's possible moves first, then checking if the given coordinate is in the
@@ -95,9 +152,12 @@ public abstract class Piece {
 	 * @param board, the game board to look at
 	 */
 	public boolean canMoveTo(int xCoord, int yCoord) {
-		for (int i = 0; i < moveList.size(); i++) {
-			Point possibleMove = moveList.get(i);
-			if (possibleMove.x == xCoord && possibleMove.y == yCoord)
+		if (!Position.isOnBoard(xCoord, yCoord))
+			return false;
+		
+		int square = Position.toSquare(xCoord, yCoord);
+		for (int i = 0; i < moveListSize; i++) {
+			if (Move.getTo(moveList[i]) == square)
 				return true;
 		}
 		
@@ -112,14 +172,75 @@ public abstract class Piece {
 	public abstract void updateMoveList(Game game);
 	
 	/**
-	 * An abstract method that calculates all the possible moves the Piece depending on the
-	 * type of piece it is.
+	 * A method that calculates all the possible moves the Piece depending on the type of
+	 * piece it is. Pieces that read their moves from precomputed attack tables don't walk
+	 * the board square by square, so they leave this empty.
 	 * @param destX, the next x-coordinate to check
 	 * @param destY, the next y-coordinate to check
 	 * @param direction, the direction to move to
 	 * @param board, the game board to look at
 	 */
-	protected abstract void calculateMoveList(int destX, int destY, int direction, Game game);
+	protected void calculateMoveList(int destX, int destY, int direction, Game game) {}
+	
+	/**
+	 * Builds a table of attack masks for a piece that jumps by fixed offsets. The mask of
+	 * each square holds every offset from that square that lands on the board.
+	 * @param offsets, the x and y offsets the piece can jump by
+	 * @return the attack mask for every square
+	 */
+	protected static long[] buildOffsetMasks(int offsets[][]) {
+		long masks[] = new long[Position.NUM_SQUARES];
+		for (int square = 0; square < Position.NUM_SQUARES; square++) {
+			for (int i = 0; i < offsets.length; i++) {
+				int x = Position.getX(square) + offsets[i][0];
+				int y = Position.getY(square) + offsets[i][1];
+				if (Position.isOnBoard(x, y))
+					masks[square] |= 1L << Position.toSquare(x, y);
+			}
+		}
+		
+		return masks;
+	}
+	
+	/**
+	 * Empties the move list. The array is kept so it can be filled again.
+	 */
+	protected void clearMoveList() {
+		moveListSize = 0;
+	}
+	
+	/**
+	 * Adds a move from the Piece's current square to the given square.
+	 * @param to, the square to move to
+	 * @param flags, the Move flags describing the move
+	 */
+	protected void addMove(int to, int flags) {
+		moveList[moveListSize++] = Move.encode(getSquare(), to, flags);
+	}
+	
+	/**
+	 * Adds every square in the given bitboard to the move list. Squares that are occupied
+	 * are flagged as captures.
+	 * @param targets, the bitboard of squares the Piece can move to
+	 * @param occupied, the occupancy of the whole board
+	 */
+	protected void addMoves(long targets, long occupied) {
+		int from = getSquare();
+		while (targets != 0) {
+			int square = Long.numberOfTrailingZeros(targets);
+			int flags = (occupied & (1L << square)) != 0 ? Move.CAPTURE : 0;
+			moveList[moveListSize++] = Move.encode(from, square, flags);
+			targets &= targets - 1;
+		}
+	}
+	
+	/**
+	 * Retrieves the square index of the Piece's current location.
+	 * @return the square the Piece is on
+	 */
+	public int getSquare() {
+		return Position.toSquare(coordinate.x, coordinate.y);
+	}
 	
 	/**
 	 * Calculates if the given piece is on the opposite team.
@@ -183,7 +304,7 @@ public abstract class Piece {
 	 * @return the size of the move list
 	 */
 	public int getMoveListSize() {
-		return moveList.size();
+		return moveListSize;
 	}
 	
 	/**
@@ -193,8 +314,7 @@ public abstract class Piece {
 	 * @return true if the coordinates is in the move list, false otherwise
 	 */
 	public boolean isInMoveList(int xCoord, int yCoord) {
-		Point coordinate = new Point(xCoord, yCoord);
-		return moveList.contains(coordinate);
+		return canMoveTo(xCoord, yCoord);
 	}
 	
 	/**
@@ -203,12 +323,26 @@ public abstract class Piece {
 	 * @return a Point containing the x and y coordinates of the move at the given index
 	 */
 	public Point getMove(int index) {
-		if (index >= 0 && index < moveList.size())
-			return moveList.get(index);
+		if (index >= 0 && index < moveListSize) {
+			int to = Move.getTo(moveList[index]);
+			return new Point(Position.getX(to), Position.getY(to));
+		}
 		
 		return null;
 	}
 	
+	/**
+	 * Retrieves the packed move in the Piece's move list at the specified index.
+	 * @param index, the index in the move list to get
+	 * @return the move packed by the Move class, or Move.NONE if the index is invalid
+	 */
+	public int getPackedMove(int index) {
+		if (index >= 0 && index < moveListSize)
+			return moveList[index];
+		
+		return Move.NONE;
+	}
+	
 	/**
 	 * Retrives the Piece's alive state.
 	 * @return true if the Piece hasn't been captured, false otherwise
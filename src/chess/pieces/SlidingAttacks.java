@@ -0,0 +1,186 @@
+package chess.pieces;
+
+import chess.Position;
+
+/**
+ * A SlidingAttacks class containing precomputed magic bitboard tables for the pieces that
+ * slide along rays. For every square, the blockers that matter on the rook or bishop rays
+ * are multiplied by a magic number, and the top bits of the product index a table holding
+ * the full attack set for that occupancy. A slider's attacks can then be read with one
+ * table lookup instead of walking each ray. The magic numbers were found offline by a
+ * random search, and the tables are filled from them once when the class is loaded.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public final class SlidingAttacks {
+	private static final int ROOK_DIRECTIONS[][] = { { 0, 1 }, { 0, -1 }, { -1, 0 }, { 1, 0 } };
+	private static final int BISHOP_DIRECTIONS[][] = { { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 } };
+
+	private static final long ROOK_MAGICS[] = {
+		0x0A80001080244000L, 0x8440049000200240L, 0xA080200080100008L, 0x4300086205001000L,
+		0x66002004700A0008L, 0x3200081001040200L, 0x3080008002000100L, 0x0E00004081082204L,
+		0x1400800080304000L, 0x1020401000200040L, 0x4000801000802000L, 0x0002000C20401200L,
+		0x0020800400800800L, 0x0080800400800200L, 0x4004001008020481L, 0x0140800040800100L,
+		0x00C0828000204000L, 0x0040010020408901L, 0x0841010040200010L, 0x240012000A420021L,
+		0x1200808004000800L, 0x0002010100040008L, 0x0200040002011008L, 0x8090020000A04104L,
+		0x0200400080008020L, 0x0200400180200080L, 0x2440410100200010L, 0x2090100080080080L,
+		0x0002050100080010L, 0x8B0A000200100804L, 0x0200100400020108L, 0xC1C2050600004084L,
+		0x0020800101002040L, 0x2000804000802010L, 0x2400820042002011L, 0x1000201001000904L,
+		0x8041001005000800L, 0x4000040080800200L, 0x0002005812000401L, 0xA0408004C0800B00L,
+		0x0410400080288000L, 0x127002432004C000L, 0x2C80408208220010L, 0x8409042010010008L,
+		0x0000080004008080L, 0x0084000402008080L, 0x0418902221240008L, 0x80021302408A0004L,
+		0x0540002080104080L, 0x20200040100020C0L, 0x0040100020048480L, 0x4440080080100080L,
+		0x0802050010080100L, 0x0348020004008080L, 0x8001001402005100L, 0x0882800100004080L,
+		0x2001008000204011L, 0x4082014303142082L, 0x8040090520001041L, 0x001221005000C805L,
+		0x0201001002040801L, 0x1002001001040882L, 0x8000109022010804L, 0xA02201108C004022L
+	};
+
+	private static final long BISHOP_MAGICS[] = {
+		0x4641140404004014L, 0x8142220809011000L, 0x4030530200701218L, 0x00022082000C0480L,
+		0x8004042124000080L, 0x02AA080208800048L, 0x030A011C82404008L, 0x0000104804500800L,
+		0x0840081044008400L, 0xC101040108020084L, 0x0060080811002200L, 0x0000242401800042L,
+		0x0030011040000000L, 0x0208008804400800L, 0x0000040148080484L, 0x0000008208010402L,
+		0x0010210644100400L, 0x0010008801082080L, 0x180A480800810200L, 0x0400800802044400L,
+		0x8202140401200000L, 0x501200414804242CL, 0x0441014C48080480L, 0x0802282844141400L,
+		0x01044011A0020400L, 0x4030280830018101L, 0x0000881010004010L, 0x0001040080440080L,
+		0x0110030004200802L, 0x0140420100411008L, 0x000C028222621042L, 0x6822004804884804L,
+		0x4008200418122400L, 0xC002121001210144L, 0x4207080101020400L, 0x7422020082180080L,
+		0x2054050201240048L, 0x100604010000B000L, 0x141401104B020805L, 0x00042100223A0082L,
+		0x2004042008880400L, 0x0004024802020480L, 0x008100128A003001L, 0x1000002018000100L,
+		0x1082011024000080L, 0x8820081000200112L, 0x104870210C400200L, 0x011C010408388100L,
+		0x2C00880802100200L, 0x890044008410A800L, 0x0051021042084006L, 0x1410011084044000L,
+		0x1000001002088004L, 0x2006202411820000L, 0x00C0032204130A00L, 0x0820640420444080L,
+		0x1200208808084208L, 0xA000404058084822L, 0x5000010042080420L, 0x84100E9041228800L,
+		0x0000240040028210L, 0x0000002104010200L, 0x01A0441418882102L, 0x0108103040802080L
+	};
+
+	private static final long ROOK_MASKS[] = new long[Position.NUM_SQUARES]; // relevant blockers for each square
+	private static final int ROOK_SHIFTS[] = new int[Position.NUM_SQUARES];
+	private static final long ROOK_TABLE[][] = new long[Position.NUM_SQUARES][];
+	private static final long BISHOP_MASKS[] = new long[Position.NUM_SQUARES];
+	private static final int BISHOP_SHIFTS[] = new int[Position.NUM_SQUARES];
+	private static final long BISHOP_TABLE[][] = new long[Position.NUM_SQUARES][];
+
+	static {
+		for (int square = 0; square < Position.NUM_SQUARES; square++) {
+			ROOK_MASKS[square] = relevantBlockers(square, ROOK_DIRECTIONS);
+			ROOK_SHIFTS[square] = 64 - Long.bitCount(ROOK_MASKS[square]);
+			ROOK_TABLE[square] = fillTable(square, ROOK_MASKS[square], ROOK_MAGICS[square],
+				ROOK_SHIFTS[square], ROOK_DIRECTIONS);
+			BISHOP_MASKS[square] = relevantBlockers(square, BISHOP_DIRECTIONS);
+			BISHOP_SHIFTS[square] = 64 - Long.bitCount(BISHOP_MASKS[square]);
+			BISHOP_TABLE[square] = fillTable(square, BISHOP_MASKS[square], BISHOP_MAGICS[square],
+				BISHOP_SHIFTS[square], BISHOP_DIRECTIONS);
+		}
+	}
+
+	private SlidingAttacks() {} // static tables only
+
+	/**
+	 * Retrieves every square a rook on the given square attacks. Each ray stops at the first
+	 * occupied square, which is included in the attack set.
+	 * @param square, the square of the rook
+	 * @param occupied, the occupancy of the whole board
+	 * @return the bitboard of attacked squares
+	 */
+	public static long rookAttacks(int square, long occupied) {
+		return ROOK_TABLE[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+
+	/**
+	 * Retrieves every square a bishop on the given square attacks. Each ray stops at the first
+	 * occupied square, which is included in the attack set.
+	 * @param square, the square of the bishop
+	 * @param occupied, the occupancy of the whole board
+	 * @return the bitboard of attacked squares
+	 */
+	public static long bishopAttacks(int square, long occupied) {
+		return BISHOP_TABLE[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+
+	/**
+	 * Retrieves every square a queen on the given square attacks.
+	 * @param square, the square of the queen
+	 * @param occupied, the occupancy of the whole board
+	 * @return the bitboard of attacked squares
+	 */
+	public static long queenAttacks(int square, long occupied) {
+		return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+	}
+
+	/**
+	 * Walks every ray from the given square one step at a time, stopping after the first
+	 * occupied square. This is only used to fill the tables.
+	 * @param square, the square to start from
+	 * @param occupied, the occupancy of the board
+	 * @param directions, the x and y steps of every ray
+	 * @return the bitboard of attacked squares
+	 */
+	private static long slowAttacks(int square, long occupied, int directions[][]) {
+		long attacks = 0L;
+		for (int i = 0; i < directions.length; i++) {
+			int x = Position.getX(square) + directions[i][0];
+			int y = Position.getY(square) + directions[i][1];
+			while (Position.isOnBoard(x, y)) {
+				long bit = 1L << Position.toSquare(x, y);
+				attacks |= bit;
+				if ((occupied & bit) != 0)
+					break;
+
+				x += directions[i][0];
+				y += directions[i][1];
+			}
+		}
+
+		return attacks;
+	}
+
+	/**
+	 * Calculates the squares on the rays from the given square whose occupancy can change
+	 * the attack set. The last square of each ray is left out, since a blocker there stops
+	 * the ray in the same place as the edge of the board.
+	 * @param square, the square to start from
+	 * @param directions, the x and y steps of every ray
+	 * @return the bitboard of relevant blocker squares
+	 */
+	private static long relevantBlockers(int square, int directions[][]) {
+		long mask = 0L;
+		for (int i = 0; i < directions.length; i++) {
+			int x = Position.getX(square) + directions[i][0];
+			int y = Position.getY(square) + directions[i][1];
+			while (Position.isOnBoard(x + directions[i][0], y + directions[i][1])) {
+				mask |= 1L << Position.toSquare(x, y);
+				x += directions[i][0];
+				y += directions[i][1];
+			}
+		}
+
+		return mask;
+	}
+
+	/**
+	 * Fills the attack table of a square by enumerating every blocker subset of its mask and
+	 * storing the attack set at the slot the magic number maps it to.
+	 * @param square, the square to fill the table for
+	 * @param mask, the relevant blockers of the square
+	 * @param magic, the magic number of the square
+	 * @param shift, the number of bits to shift the product by
+	 * @param directions, the x and y steps of every ray
+	 * @return the filled attack table
+	 */
+	private static long[] fillTable(int square, long mask, long magic, int shift, int directions[][]) {
+		long table[] = new long[1 << (64 - shift)];
+		long occupied = 0L;
+		do { // enumerate every subset of the mask
+			int index = (int) ((occupied * magic) >>> shift);
+			long attacks = slowAttacks(square, occupied, directions);
+			if (table[index] != 0 && table[index] != attacks)
+				throw new IllegalStateException("Magic number collision on square " + square);
+
+			table[index] = attacks;
+			occupied = (occupied - mask) & mask;
+		} while (occupied != 0);
+
+		return table;
+	}
+}
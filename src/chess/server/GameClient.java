@@ -0,0 +1,160 @@
+package chess.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * A GameClient class that drives a GameServer the way a player's program would, one HTTP
+ * request per command, so the server can be tried out and tested without anything else. It
+ * answers with the state the server sent back, in the lines GameSession writes, and getField
+ * picks a value out of them. A command the server turns down for being illegal throws an
+ * IllegalArgumentException with the server's reason, and anything else that goes wrong an
+ * IOException. A client holds no connection between commands, so one can be used by any
+ * number of threads.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class GameClient {
+	private String base; // the address of the games on the server
+	
+	/**
+	 * The constructor for the GameClient class, for a server on the local machine.
+	 * @param port, the port the server listens on
+	 */
+	public GameClient(int port) {
+		base = "http://127.0.0.1:" + port + GameServer.PATH;
+	}
+	
+	/**
+	 * Starts a game from the starting position.
+	 * @return the id of the game
+	 * @throws IOException if the server can't be reached or turns the game down
+	 */
+	public long newGame() throws IOException {
+		return newGame(null);
+	}
+	
+	/**
+	 * Starts a game from a position.
+	 * @param position, the position in the notation Fen reads, or null for the starting position
+	 * @return the id of the game
+	 * @throws IOException if the server can't be reached or turns the game down
+	 */
+	public long newGame(String position) throws IOException {
+		return Long.parseLong(getField(send("POST", "", position), "game"));
+	}
+	
+	/**
+	 * Plays a move.
+	 * @param id, the id of the game
+	 * @param move, the move in algebraic notation
+	 * @return the state of the game after the move
+	 * @throws IOException if the server can't be reached or doesn't have the game
+	 */
+	public String move(long id, String move) throws IOException {
+		return send("POST", "/" + id + "/moves", move);
+	}
+	
+	/**
+	 * Lets the engine play a move.
+	 * @param id, the id of the game
+	 * @param milliseconds, the time the engine may think for
+	 * @return the state of the game after the move
+	 * @throws IOException if the server can't be reached or doesn't have the game
+	 */
+	public String engineMove(long id, long milliseconds) throws IOException {
+		return send("POST", "/" + id + "/engine", String.valueOf(milliseconds));
+	}
+	
+	/**
+	 * Retrieves the state of a game.
+	 * @param id, the id of the game
+	 * @return the state of the game
+	 * @throws IOException if the server can't be reached or doesn't have the game
+	 */
+	public String getState(long id) throws IOException {
+		return send("GET", "/" + id, null);
+	}
+	
+	/**
+	 * Ends a game.
+	 * @param id, the id of the game
+	 * @throws IOException if the server can't be reached or doesn't have the game
+	 */
+	public void endGame(long id) throws IOException {
+		send("DELETE", "/" + id, null);
+	}
+	
+	/**
+	 * Picks the value of a field out of the state of a game.
+	 * @param state, the state the server sent
+	 * @param name, the name of the field, such as position or status
+	 * @return the value of the field, or null if the state doesn't have it
+	 */
+	public static String getField(String state, String name) {
+		String lines[] = state.split("\n");
+		for (int i = 0; i < lines.length; i++) {
+			if (lines[i].startsWith(name + " "))
+				return lines[i].substring(name.length() + 1);
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Sends a request to the server and reads the answer.
+	 * @param method, the HTTP method
+	 * @param path, the path after the games
+	 * @param body, the body of the request, or null for none
+	 * @return the answer
+	 * @throws IOException if the server can't be reached or answers with an error
+	 */
+	private String send(String method, String path, String body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(base + path).openConnection();
+		try {
+			connection.setRequestMethod(method);
+			if (body != null) {
+				connection.setDoOutput(true);
+				OutputStream out = connection.getOutputStream();
+				out.write(body.getBytes("UTF-8"));
+				out.close();
+			}
+			
+			int status = connection.getResponseCode();
+			InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+			String text = in != null ? read(in) : "";
+			if (status == HttpURLConnection.HTTP_BAD_REQUEST)
+				throw new IllegalArgumentException(text.trim());
+			
+			if (status != HttpURLConnection.HTTP_OK)
+				throw new IOException("the server answered " + status + ": " + text.trim());
+			
+			return text;
+		} finally {
+			connection.disconnect();
+		}
+	}
+	
+	/**
+	 * Reads an answer to the end.
+	 * @param in, the answer
+	 * @return the text of the answer
+	 * @throws IOException if the answer can't be read
+	 */
+	private static String read(InputStream in) throws IOException {
+		ByteArrayOutputStream text = new ByteArrayOutputStream();
+		byte buffer[] = new byte[512];
+		try {
+			for (int read; (read = in.read(buffer)) > 0;)
+				text.write(buffer, 0, read);
+		} finally {
+			in.close();
+		}
+		
+		return new String(text.toByteArray(), "UTF-8");
+	}
+}
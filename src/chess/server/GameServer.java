@@ -0,0 +1,397 @@
+package chess.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A GameServer class that hosts any number of games at once over HTTP, with no display and
+ * no Controller. It's built on the HTTP server that comes with the JDK, and every game is a
+ * GameSession whose commands go through a mailbox of its own. On a JDK with virtual threads,
+ * every request and every command runs on a virtual thread. Elsewhere the commands share a
+ * pool the size of the machine, and the requests, which mostly wait for their commands, a
+ * pool of their own, so a request waiting for its command can never hold up the command.
+ * Either way the engine moves run on a pool the size of the machine, so games the engine is
+ * thinking in can't hold up the moves of the others, and an idle game holds no thread, which
+ * is what lets a server keep tens of thousands of them. A game nobody has sent anything for
+ * DEFAULT_IDLE_MINUTES is ended. The games live under /games, and every answer is plain text:
+ * POST /games starts a game, from the position in the body if there is one;
+ * GET /games/{id} answers with the state of a game;
+ * POST /games/{id}/moves plays the move in the body, in algebraic notation;
+ * POST /games/{id}/engine lets the engine move, thinking for the milliseconds in the body;
+ * DELETE /games/{id} ends a game, cancelling the commands it still had to run.
+ * A move that isn't legal, or a think time over MAX_ENGINE_MILLIS, is answered with 400, a
+ * game that doesn't exist with 404, a command of a game that ended before it ran with 410,
+ * and a server that already holds as many games as it may with 503. A command whose answer
+ * isn't ready in REPLY_SECONDS is answered with 503 and cancelled, which also stops the
+ * engine if it's thinking.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class GameServer {
+	public static final String PATH = "/games";
+	public static final int DEFAULT_PORT = 8080;
+	public static final int DEFAULT_MAX_SESSIONS = 100000;
+	public static final long DEFAULT_ENGINE_MILLIS = 100;
+	public static final long REPLY_SECONDS = 30; // the longest a request waits for its command
+	public static final long MAX_ENGINE_MILLIS = REPLY_SECONDS * 1000 / 2; // leaves half the wait for the commands ahead
+	public static final long DEFAULT_IDLE_MINUTES = 30;
+	
+	private static final int MAX_BODY_BYTES = 4096; // more than any position or move needs
+	private static final int REQUEST_THREADS = 16; // the fewest requests answered at once without virtual threads
+	private static final long EXPIRY_CHECK_SECONDS = 10; // how often the idle games are looked for
+	
+	private HttpServer server; // accepts the requests
+	private ExecutorService requests; // runs the requests
+	private ExecutorService commands; // runs the commands of the games
+	private ExecutorService engines; // runs the engine moves of the games
+	private ScheduledExecutorService expiry; // ends the idle games
+	private ConcurrentHashMap<Long, GameSession> sessions; // the games, by id
+	private AtomicLong nextId; // the id of the next game
+	private int maxSessions; // the most games the server holds at once
+	private volatile long idleMillis; // how long a game may go without commands before it's ended
+	
+	/**
+	 * The constructor for the GameServer class. The server only listens on the local machine
+	 * and doesn't take requests until it's started.
+	 * @param port, the port to listen on, or 0 for any free port
+	 * @throws IOException if the port can't be listened on
+	 */
+	public GameServer(int port) throws IOException {
+		this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+	}
+	
+	/**
+	 * The constructor for the GameServer class. The server doesn't take requests until it's
+	 * started.
+	 * @param address, the address to listen on
+	 * @throws IOException if the address can't be listened on
+	 */
+	public GameServer(InetSocketAddress address) throws IOException {
+		server = HttpServer.create(address, 0);
+		int cores = Runtime.getRuntime().availableProcessors();
+		requests = createExecutor("game-request", Math.max(REQUEST_THREADS, cores));
+		commands = createExecutor("game-session", cores);
+		engines = createPool("game-engine", cores); // searching never waits, so more threads than cores wouldn't help
+		expiry = Executors.newSingleThreadScheduledExecutor(createThreadFactory("game-expiry"));
+		sessions = new ConcurrentHashMap<Long, GameSession>();
+		nextId = new AtomicLong();
+		maxSessions = DEFAULT_MAX_SESSIONS;
+		idleMillis = TimeUnit.MINUTES.toMillis(DEFAULT_IDLE_MINUTES);
+		server.setExecutor(requests);
+		server.createContext(PATH, new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					route(exchange);
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Starts taking requests.
+	 */
+	public void start() {
+		server.start();
+		expiry.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				expireIdleSessions();
+			}
+		}, EXPIRY_CHECK_SECONDS, EXPIRY_CHECK_SECONDS, TimeUnit.SECONDS);
+	}
+	
+	/**
+	 * Stops taking requests, waiting up to the given time for the ones being answered, and
+	 * lets the threads go. The server can't be started again.
+	 * @param seconds, the longest to wait for the requests being answered
+	 */
+	public void stop(int seconds) {
+		server.stop(seconds);
+		expiry.shutdownNow();
+		requests.shutdownNow();
+		commands.shutdownNow();
+		engines.shutdownNow();
+	}
+	
+	/**
+	 * Retrieves the port the server listens on, which is useful after asking for any free one.
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+	
+	/**
+	 * Retrieves the number of games the server holds.
+	 * @return the session count
+	 */
+	public int getSessionCount() {
+		return sessions.size();
+	}
+	
+	/**
+	 * Sets the most games the server holds at once. Starting another one is turned down.
+	 * @param maxSessions, the session limit
+	 */
+	public void setMaxSessions(int maxSessions) {
+		this.maxSessions = maxSessions;
+	}
+	
+	/**
+	 * Sets how long a game may go without commands before it's ended.
+	 * @param milliseconds, the idle time
+	 */
+	public void setIdleTimeout(long milliseconds) {
+		idleMillis = milliseconds;
+	}
+	
+	/**
+	 * Ends every game that has gone without commands for longer than the idle time, and has
+	 * none left to run. The server does this on its own every EXPIRY_CHECK_SECONDS.
+	 * @return the number of games ended
+	 */
+	public int expireIdleSessions() {
+		long since = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleMillis);
+		int expired = 0;
+		for (GameSession session : sessions.values()) {
+			if (session.isIdleSince(since) && sessions.remove(session.getId(), session)) {
+				session.close();
+				expired++;
+			}
+		}
+		
+		return expired;
+	}
+	
+	/**
+	 * Checks if the JDK has virtual threads, which the server then runs everything on.
+	 * @return true if there are virtual threads, false otherwise
+	 */
+	public static boolean hasVirtualThreads() {
+		ExecutorService executor = createVirtualThreadExecutor();
+		if (executor == null)
+			return false;
+		
+		executor.shutdown();
+		return true;
+	}
+	
+	/**
+	 * Answers a request to the games.
+	 * @param exchange, the request and its answer
+	 * @throws IOException if the answer can't be sent
+	 */
+	private void route(HttpExchange exchange) throws IOException {
+		String method = exchange.getRequestMethod();
+		String parts[] = exchange.getRequestURI().getPath().substring(PATH.length()).split("/");
+		String body = readBody(exchange);
+		if (parts.length > 0 && !parts[0].isEmpty()) {
+			reply(exchange, 404, "no such game\n"); // a path that only starts like the games
+		} else if (parts.length <= 1) { // the games themselves
+			if (!method.equals("POST")) {
+				reply(exchange, 405, "only POST starts a game\n");
+			} else if (sessions.size() >= maxSessions) {
+				reply(exchange, 503, "too many games\n");
+			} else {
+				GameSession session = new GameSession(nextId.incrementAndGet(), commands, engines);
+				sessions.put(session.getId(), session);
+				if (!answer(exchange, session.setUp(body.isEmpty() ? null : body)))
+					sessions.remove(session.getId()); // the position couldn't be read
+			}
+		} else {
+			route(exchange, method, parts, body);
+		}
+	}
+	
+	/**
+	 * Answers a request to one of the games.
+	 * @param exchange, the request and its answer
+	 * @param method, the HTTP method of the request
+	 * @param parts, the parts of the path after /games, the id of the game second
+	 * @param body, the body of the request
+	 * @throws IOException if the answer can't be sent
+	 */
+	private void route(HttpExchange exchange, String method, String parts[], String body) throws IOException {
+		GameSession session = null;
+		try {
+			session = sessions.get(Long.parseLong(parts[1]));
+		} catch (NumberFormatException e) {
+			// not the id of a game
+		}
+		
+		String action = parts.length > 2 ? parts[2] : "";
+		if (session == null || parts.length > 3) {
+			reply(exchange, 404, "no such game\n");
+		} else if (action.isEmpty() && method.equals("GET")) {
+			answer(exchange, session.getState());
+		} else if (action.isEmpty() && method.equals("DELETE")) {
+			sessions.remove(session.getId());
+			session.close();
+			reply(exchange, 200, "game " + session.getId() + "\nstatus ended\n");
+		} else if (action.equals("moves") && method.equals("POST")) {
+			answer(exchange, session.play(body));
+		} else if (action.equals("engine") && method.equals("POST")) {
+			long millis = DEFAULT_ENGINE_MILLIS;
+			try {
+				if (!body.isEmpty())
+					millis = Long.parseLong(body);
+			} catch (NumberFormatException e) {
+				reply(exchange, 400, "not a time: " + body + "\n");
+				return;
+			}
+			
+			if (millis > MAX_ENGINE_MILLIS) // the answer would time out before the engine is done
+				reply(exchange, 400, "the engine may think for at most " + MAX_ENGINE_MILLIS + " ms\n");
+			else
+				answer(exchange, session.playEngine(millis));
+		} else {
+			reply(exchange, 405, "no such command\n");
+		}
+	}
+	
+	/**
+	 * Waits for a command and sends its answer, or why it failed.
+	 * @param exchange, the request and its answer
+	 * @param command, the command
+	 * @return true if the command succeeded, false otherwise
+	 * @throws IOException if the answer can't be sent
+	 */
+	private boolean answer(HttpExchange exchange, Future<String> command) throws IOException {
+		try {
+			reply(exchange, 200, command.get(REPLY_SECONDS, TimeUnit.SECONDS));
+			return true;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IllegalArgumentException)
+				reply(exchange, 400, e.getCause().getMessage() + "\n");
+			else
+				reply(exchange, 500, "the command failed\n");
+		} catch (CancellationException e) {
+			reply(exchange, 410, "the game was ended\n");
+		} catch (TimeoutException e) {
+			command.cancel(false); // nobody is waiting for it any more
+			reply(exchange, 503, "the game is busy\n");
+		} catch (InterruptedException e) {
+			command.cancel(false);
+			Thread.currentThread().interrupt();
+			reply(exchange, 503, "the server is stopping\n");
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Sends an answer.
+	 * @param exchange, the request to answer
+	 * @param status, the HTTP status code
+	 * @param text, the text of the answer
+	 * @throws IOException if the answer can't be sent
+	 */
+	private static void reply(HttpExchange exchange, int status, String text) throws IOException {
+		byte bytes[] = text.getBytes("UTF-8");
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(bytes);
+		out.close();
+	}
+	
+	/**
+	 * Reads the body of a request, which is never more than a position or a move.
+	 * @param exchange, the request
+	 * @return the body without the white space around it, cut short if it's too long
+	 * @throws IOException if the body can't be read
+	 */
+	private static String readBody(HttpExchange exchange) throws IOException {
+		InputStream in = exchange.getRequestBody();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte buffer[] = new byte[512];
+		for (int read; body.size() < MAX_BODY_BYTES && (read = in.read(buffer)) > 0;)
+			body.write(buffer, 0, read);
+		
+		return new String(body.toByteArray(), "UTF-8").trim();
+	}
+	
+	/**
+	 * Makes an executor that starts a virtual thread for every task, if the JDK has them, or
+	 * a pool of daemon threads if it doesn't.
+	 * @param name, the name of the threads
+	 * @param threads, the size of the pool if there are no virtual threads
+	 * @return the executor
+	 */
+	private static ExecutorService createExecutor(String name, int threads) {
+		ExecutorService executor = createVirtualThreadExecutor();
+		if (executor != null)
+			return executor;
+		
+		return createPool(name, threads);
+	}
+	
+	/**
+	 * Makes a pool of daemon threads.
+	 * @param name, the name of the threads
+	 * @param threads, the size of the pool
+	 * @return the executor
+	 */
+	private static ExecutorService createPool(String name, int threads) {
+		return Executors.newFixedThreadPool(threads, createThreadFactory(name));
+	}
+	
+	/**
+	 * Makes a factory of daemon threads.
+	 * @param name, the name of the threads
+	 * @return the thread factory
+	 */
+	private static ThreadFactory createThreadFactory(final String name) {
+		return new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, name);
+				thread.setDaemon(true); // a server that wasn't stopped shouldn't keep the program open
+				return thread;
+			}
+		};
+	}
+	
+	/**
+	 * Makes an executor that starts a virtual thread for every task. Virtual threads are looked
+	 * up by reflection, so the server still builds and runs on JDKs that don't have them.
+	 * @return the executor, or null if the JDK doesn't have virtual threads
+	 */
+	private static ExecutorService createVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Starts a server and keeps it running. The argument is the port, which defaults to 8080.
+	 * @param args, the command line arguments
+	 * @throws IOException if the port can't be listened on
+	 */
+	public static void main(String args[]) throws IOException {
+		GameServer server = new GameServer(args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+		server.start();
+		System.out.println("Serving games on port " + server.getPort() + (hasVirtualThreads() ? " with virtual threads" : ""));
+	}
+}
@@ -0,0 +1,299 @@
+package chess.server;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import chess.Fen;
+import chess.Game;
+import chess.Move;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import chess.enums.PieceColor;
+import chess.pgn.San;
+
+/**
+ * A GameSession class holding one game a server hosts, and the mailbox its commands go
+ * through. The game is only ever touched by the commands, which run one at a time in the
+ * order they arrive, so players sending moves from any number of connections at once can't
+ * get in each other's way. A move is taken in algebraic notation and has to be the one legal
+ * move it names, the same moves Game.playerMove allows. Every command answers with the state
+ * of the game in lines of a name, a space and a value: the game's id, its position in the
+ * notation Fen writes, its status and the last move played. The engine moves can run on an
+ * executor of their own, so a long think doesn't hold a thread other games' commands need,
+ * and the engine is built on the first of them and kept for the rest of the game, so what it
+ * learned about one position helps with the next.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class GameSession {
+	public static final String PLAYING = "playing";
+	public static final String CHECKMATE = "checkmate";
+	public static final String STALEMATE = "stalemate";
+	public static final int ENGINE_TABLE_MEGABYTES = 1; // kept small, since every game the engine plays in keeps its own
+	
+	private long id; // the number the session is known by
+	private Game game; // the game being played
+	private Fen fen; // reads and writes the position of the game
+	private San san; // reads and writes the moves of the game
+	private String lastMove; // the last move played, in algebraic notation, or null
+	private Mailbox mailbox; // runs the commands one at a time
+	private Executor executor; // runs the other commands
+	private Executor engineExecutor; // runs the engine moves
+	private Search engine; // built on the first engine move, and only touched by the commands
+	private volatile Future<String> engineMove; // the last engine move sent, which closing stops
+	private volatile long lastUsed; // when the last command was sent, in System.nanoTime
+	private boolean closed; // set when the session is closed, guarded by this
+	
+	/**
+	 * The constructor for the GameSession class. The engine moves run on the same executor as
+	 * the other commands.
+	 * @param id, the number the session is known by
+	 * @param executor, the executor the commands of the session run on
+	 */
+	public GameSession(long id, Executor executor) {
+		this(id, executor, executor);
+	}
+	
+	/**
+	 * The constructor for the GameSession class.
+	 * @param id, the number the session is known by
+	 * @param executor, the executor the commands of the session run on
+	 * @param engineExecutor, the executor the engine moves run on
+	 */
+	public GameSession(long id, Executor executor, Executor engineExecutor) {
+		this.id = id;
+		game = new Game();
+		fen = new Fen();
+		san = new San(game);
+		mailbox = new Mailbox(executor);
+		this.executor = executor;
+		this.engineExecutor = engineExecutor;
+		lastUsed = System.nanoTime();
+	}
+	
+	/**
+	 * Sets the game up from a position.
+	 * @param position, the position in the notation Fen reads, or null for the starting position
+	 * @return the state of the game once the command has run
+	 */
+	public Future<String> setUp(final String position) {
+		return send(new Callable<String>() {
+			public String call() {
+				fen.load(game, position != null ? position : Fen.START);
+				lastMove = null;
+				return describe();
+			}
+		});
+	}
+	
+	/**
+	 * Plays a move for the team whose turn it is. The command fails with an
+	 * IllegalArgumentException if the move isn't legal or the game is already over.
+	 * @param text, the move in algebraic notation
+	 * @return the state of the game once the command has run
+	 */
+	public Future<String> play(final String text) {
+		return send(new Callable<String>() {
+			public String call() {
+				if (getStatus() != PLAYING)
+					throw new IllegalArgumentException("the game is over");
+				
+				int move = san.resolve(text);
+				if (move == Move.NONE)
+					throw new IllegalArgumentException("not a legal move: " + text);
+				
+				makeMove(move);
+				return describe();
+			}
+		});
+	}
+	
+	/**
+	 * Lets the engine play a move for the team whose turn it is. The command fails with an
+	 * IllegalArgumentException if the game is already over. Cancelling the answer stops the
+	 * engine, whether it's thinking already or still waiting in the mailbox, and leaves the
+	 * game as it was.
+	 * @param milliseconds, the time the engine may think for
+	 * @return the state of the game once the command has run
+	 */
+	public Future<String> playEngine(long milliseconds) {
+		final EngineMove command = new EngineMove(milliseconds);
+		FutureTask<String> task = new FutureTask<String>(command) {
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				command.cancel();
+				return super.cancel(mayInterruptIfRunning);
+			}
+		};
+		engineMove = task;
+		send(task, engineExecutor);
+		return task;
+	}
+	
+	/**
+	 * Retrieves the state of the game, after every command sent before it has run.
+	 * @return the state of the game
+	 */
+	public Future<String> getState() {
+		return send(new Callable<String>() {
+			public String call() {
+				return describe();
+			}
+		});
+	}
+	
+	/**
+	 * Get method for the number the session is known by.
+	 * @return the id
+	 */
+	public long getId() {
+		return id;
+	}
+	
+	/**
+	 * Checks if the session has had nothing to do since the given time.
+	 * @param since, the time in System.nanoTime
+	 * @return true if no command was sent since then and none is left to run, false otherwise
+	 */
+	public boolean isIdleSince(long since) {
+		return lastUsed - since < 0 && !mailbox.isBusy();
+	}
+	
+	/**
+	 * Ends the session. The commands still waiting are cancelled, the engine stops if it's
+	 * thinking, and every command sent from now on is cancelled right away.
+	 */
+	public void close() {
+		List<Runnable> waiting;
+		synchronized (this) {
+			closed = true;
+			waiting = mailbox.clear();
+		}
+		
+		for (int i = 0; i < waiting.size(); i++)
+			((Future<?>) waiting.get(i)).cancel(false);
+		
+		Future<String> thinking = engineMove;
+		if (thinking != null)
+			thinking.cancel(false);
+	}
+	
+	/**
+	 * Puts a command in the session's mailbox.
+	 * @param command, the command
+	 * @return the answer of the command once it has run
+	 */
+	private Future<String> send(Callable<String> command) {
+		FutureTask<String> task = new FutureTask<String>(command);
+		send(task, executor);
+		return task;
+	}
+	
+	/**
+	 * Puts a task in the session's mailbox, or cancels it if the session is closed.
+	 * @param task, the task
+	 * @param executor, the executor the task runs on
+	 */
+	private synchronized void send(FutureTask<String> task, Executor executor) {
+		lastUsed = System.nanoTime();
+		if (closed)
+			task.cancel(false);
+		else
+			mailbox.execute(task, executor);
+	}
+	
+	/**
+	 * Plays a legal move on the board and remembers how it's written.
+	 * @param move, the move
+	 */
+	private void makeMove(int move) {
+		lastMove = san.toString(move);
+		game.board.makeMove(move);
+	}
+	
+	/**
+	 * Works out whether the game is over.
+	 * @return CHECKMATE or STALEMATE if the team to move has no legal move, PLAYING otherwise
+	 */
+	private String getStatus() {
+		if (game.checkCheckmate(game.getPlayerColor(game.getTurn())))
+			return CHECKMATE;
+		
+		return game.checkStalemate() ? STALEMATE : PLAYING;
+	}
+	
+	/**
+	 * Describes the state of the game.
+	 * @return the lines describing the game
+	 */
+	private String describe() {
+		StringBuilder out = new StringBuilder();
+		out.append("game ").append(id).append('\n');
+		out.append("position ").append(fen.write(game)).append('\n');
+		out.append("turn ").append(game.getPlayerColor(game.getTurn()) == PieceColor.WHITE ? "white" : "black").append('\n');
+		out.append("status ").append(getStatus()).append('\n');
+		if (lastMove != null)
+			out.append("last ").append(lastMove).append('\n');
+		
+		return out.toString();
+	}
+	
+	/**
+	 * An EngineMove class for the command that lets the engine move. Cancelling it and playing
+	 * the move it found are done under the same lock, so a cancelled command never changes the
+	 * game, however late the cancel comes.
+	 */
+	private class EngineMove implements Callable<String> {
+		private long milliseconds; // the time the engine may think for
+		private boolean thinking; // whether the engine is searching, guarded by this
+		private boolean cancelled; // whether the command was cancelled, guarded by this
+		
+		/**
+		 * The constructor for the EngineMove class.
+		 * @param milliseconds, the time the engine may think for
+		 */
+		public EngineMove(long milliseconds) {
+			this.milliseconds = milliseconds;
+		}
+		
+		public String call() {
+			if (getStatus() != PLAYING)
+				throw new IllegalArgumentException("the game is over");
+			
+			if (engine == null)
+				engine = new Search(game, new TranspositionTable(ENGINE_TABLE_MEGABYTES));
+			
+			synchronized (this) {
+				if (cancelled)
+					return describe();
+				
+				thinking = true;
+			}
+			
+			SearchResult result = engine.search(SearchLimits.moveTime(Math.max(1, milliseconds)));
+			synchronized (this) {
+				thinking = false;
+				if (cancelled) // a stopped search only has a stand-in move
+					engine.resume();
+				else
+					makeMove(result.getMove());
+			}
+			
+			return describe();
+		}
+		
+		/**
+		 * Cancels the command, stopping the engine if it's thinking.
+		 */
+		public synchronized void cancel() {
+			cancelled = true;
+			if (thinking)
+				engine.abort(); // holds even if the search hasn't started, and the search doesn't notice interrupts
+		}
+	}
+}
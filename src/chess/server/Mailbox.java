@@ -0,0 +1,151 @@
+package chess.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * A Mailbox class that runs the tasks sent to it one at a time, in the order they were sent,
+ * on threads borrowed from a shared executor. Nothing runs while the mailbox is empty, so a
+ * mailbox that isn't being sent anything holds no thread at all, and any number of them can
+ * share a small pool. When the executor starts a virtual thread for every task, each mailbox
+ * works the way a thread of its own would. Tasks of one mailbox never run at the same time, so
+ * what they touch needs no locking as long as only they touch it. A task can also be sent to
+ * run on an executor of its own, which keeps long tasks off the shared pool without letting
+ * them run out of order.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Mailbox implements Executor {
+	private Executor executor; // lends the threads the tasks run on
+	private Queue<Runnable> tasks; // the tasks waiting to run
+	private Queue<Executor> executors; // the executor each waiting task runs on, in the same order
+	private boolean running; // whether a thread is working through the tasks
+	
+	/**
+	 * The constructor for the Mailbox class.
+	 * @param executor, the executor to run the tasks on
+	 */
+	public Mailbox(Executor executor) {
+		this.executor = executor;
+		tasks = new ArrayDeque<Runnable>();
+		executors = new ArrayDeque<Executor>();
+	}
+	
+	/**
+	 * Sends a task to the mailbox, to run after every task sent before it.
+	 * @param task, the task to run
+	 */
+	public void execute(Runnable task) {
+		execute(task, executor);
+	}
+	
+	/**
+	 * Sends a task to the mailbox, to run on the given executor after every task sent before it.
+	 * @param task, the task to run
+	 * @param on, the executor to run the task on
+	 */
+	public void execute(Runnable task, Executor on) {
+		synchronized (this) {
+			tasks.add(task);
+			executors.add(on);
+			if (running)
+				return;
+			
+			running = true;
+		}
+		
+		try {
+			start(on);
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				clear();
+				running = false;
+			}
+			
+			throw e;
+		}
+	}
+	
+	/**
+	 * Checks if the mailbox has tasks waiting or running.
+	 * @return true if the mailbox is busy, false if it's empty
+	 */
+	public synchronized boolean isBusy() {
+		return running;
+	}
+	
+	/**
+	 * Takes every task that hasn't started yet out of the mailbox. The task running, if any,
+	 * runs to the end.
+	 * @return the tasks taken out, in the order they were sent
+	 */
+	public synchronized List<Runnable> clear() {
+		List<Runnable> waiting = new ArrayList<Runnable>(tasks);
+		tasks.clear();
+		executors.clear();
+		return waiting;
+	}
+	
+	/**
+	 * Has an executor work through the tasks.
+	 * @param on, the executor
+	 */
+	private void start(final Executor on) {
+		on.execute(new Runnable() {
+			public void run() {
+				drain(on);
+			}
+		});
+	}
+	
+	/**
+	 * Runs the tasks until there are none left, or hands the rest over when the next task runs
+	 * on another executor. A task that throws doesn't stop the ones after it.
+	 * @param current, the executor running the tasks
+	 */
+	private void drain(Executor current) {
+		Executor next;
+		while (true) {
+			Runnable task;
+			synchronized (this) {
+				if (tasks.isEmpty()) {
+					running = false;
+					return;
+				}
+				
+				next = executors.peek();
+				if (next != current)
+					break;
+				
+				executors.poll();
+				task = tasks.poll();
+			}
+			
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+			}
+		}
+		
+		try {
+			start(next);
+		} catch (RuntimeException e) { // nobody is left to run the tasks, so they're given up on
+			List<Runnable> dropped;
+			synchronized (this) {
+				dropped = clear();
+				running = false;
+			}
+			
+			for (int i = 0; i < dropped.size(); i++) {
+				if (dropped.get(i) instanceof Future)
+					((Future<?>) dropped.get(i)).cancel(false);
+			}
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.pgn.BatchReplay;
+import chess.pgn.ReplayStatistics;
+
+public class BatchReplayTest {
+	
+	public static final String FOOLS_MATE = "[Event \"Mate\"]\n1. f3 e5 2. g4 Qh4# 0-1\n\n";
+	public static final String WRONG_RESULT = "1. f3 e5 2. g4 Qh4# 1-0\n\n";
+	public static final String STALEMATE = "1. e3 a5 2. Qh5 Ra6 3. Qxa5 h5 4. h4 Rah6 5. Qxc7 f6 6. Qxd7+ Kf7 "
+		+ "7. Qxb7 Qd3 8. Qxb8 Qh7 9. Qxc8 Kg6 10. Qe6 1/2-1/2\n\n";
+	public static final String RESIGNED = "1. e4 e5 2. Nf3 {and Black gave up} 1-0\n\n";
+	public static final String ILLEGAL = "1. e4 e5 2. Ke3 *\n\n";
+	
+	public static byte record[];
+	
+	/**
+	 * This method is ran before every test. It writes a record of 100 rounds of five games:
+	 * two checkmates, one of them written down as a win for the wrong team, a stalemate, a
+	 * resigned game and a game with a move that can't be played.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 100; i++)
+			text.append(FOOLS_MATE).append(WRONG_RESULT).append(STALEMATE).append(RESIGNED).append(ILLEGAL);
+		
+		record = text.toString().getBytes("ISO-8859-1");
+	}
+	
+	/**
+	 * Replays the record with the given settings.
+	 * @param replay, the settings
+	 * @return the statistics of the replay
+	 */
+	private ReplayStatistics run(BatchReplay replay) throws Exception {
+		return replay.run(Channels.newChannel(new ByteArrayInputStream(record)));
+	}
+	
+	/**
+	 * Counts the checkmates, stalemates, wrong results and illegal games of every game.
+	 */
+	@Test
+	public void countsResults() throws Exception {
+		ReplayStatistics statistics = run(new BatchReplay(1));
+		assertEquals(500, statistics.getGames());
+		assertEquals(200, statistics.getBlackMates());
+		assertEquals(0, statistics.getWhiteMates());
+		assertEquals(100, statistics.getStalemates());
+		assertEquals(100, statistics.getMismatches());
+		assertEquals(100, statistics.getIllegal());
+		assertEquals(5, statistics.getFirstIllegal());
+		assertEquals(100 * (4 + 4 + 19 + 3 + 2), statistics.getPlies());
+		assertTrue(statistics.getNanos() > 0);
+	}
+	
+	/**
+	 * Comes to the same counts however many workers there are and however the games are
+	 * batched, including batches of one game and a queue of one batch.
+	 */
+	@Test
+	public void sameOnManyThreads() throws Exception {
+		ReplayStatistics single = run(new BatchReplay(1));
+		BatchReplay settings[] = { new BatchReplay(4), new BatchReplay(3, 1, 1), new BatchReplay(8, 2, 7) };
+		settings[2].setBufferBytes(5);
+		for (int i = 0; i < settings.length; i++) {
+			ReplayStatistics statistics = run(settings[i]);
+			assertEquals(single.getGames(), statistics.getGames());
+			assertEquals(single.getPlies(), statistics.getPlies());
+			assertEquals(single.getBlackMates(), statistics.getBlackMates());
+			assertEquals(single.getStalemates(), statistics.getStalemates());
+			assertEquals(single.getMismatches(), statistics.getMismatches());
+			assertEquals(single.getIllegal(), statistics.getIllegal());
+			assertEquals(single.getFirstIllegal(), statistics.getFirstIllegal());
+		}
+	}
+	
+	/**
+	 * Finishes on a record without any games.
+	 */
+	@Test
+	public void emptyRecord() throws Exception {
+		record = new byte[0];
+		ReplayStatistics statistics = run(new BatchReplay(2));
+		assertEquals(0, statistics.getGames());
+		assertEquals(0, statistics.getFirstIllegal());
+	}
+}
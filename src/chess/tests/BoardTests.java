@@ -8,7 +8,10 @@ import org.junit.Test;
 
 import chess.enums.*;
 import chess.Board;
+import chess.Fen;
 import chess.Game;
+import chess.Move;
+import chess.Position;
 import chess.pieces.*;
 
 public class BoardTests {
@@ -138,4 +141,180 @@ public class BoardTests {
 //		assertEquals(game.board.getPieceFromRoster(PieceColor.WHITE, 0).getType(), Piece.Type.QUEEN);
 //		assertEquals(game.board.getPieceFromRoster(PieceColor.WHITE, 1).getType(), Piece.Type.KNIGHT);
 	}
+	
+	/**
+	 * Plays the same moves on a board that updates incrementally and on a board that is
+	 * rebuilt after every move, then checks that every piece ends up with the same moves.
+	 * @throws Exception
+	 */
+	@Test
+	public void testIncrementalUpdates() throws Exception {
+		Game rebuilt = new Game();
+		rebuilt.board.setIncrementalUpdates(false);
+		game.board.setUpGame();
+		rebuilt.board.setUpGame();
+		int moves[][] = { { 4, 6, 4, 4 }, { 3, 1, 3, 3 }, { 4, 4, 3, 3 }, { 3, 0, 3, 3 },
+			{ 1, 7, 2, 5 }, { 3, 3, 0, 3 }, { 5, 7, 1, 3 }, { 2, 1, 2, 2 } };
+		for (int i = 0; i < moves.length; i++) {
+			assertTrue(game.board.movePiece(game.board.getPiece(moves[i][0], moves[i][1]), moves[i][2], moves[i][3]));
+			assertTrue(rebuilt.board.movePiece(rebuilt.board.getPiece(moves[i][0], moves[i][1]), moves[i][2], moves[i][3]));
+		}
+		
+		assertSameMoveLists(game, rebuilt);
+	}
+	
+	/**
+	 * Plays moves, a storm among them, through Game.playerMove and undoes some of them, on a
+	 * board that updates incrementally and on one that recalculates every move list, checking
+	 * after every step that every piece has the same moves on both.
+	 * @throws Exception
+	 */
+	@Test
+	public void testIncrementalPlayMove() throws Exception {
+		Game rebuilt = new Game();
+		rebuilt.board.setIncrementalUpdates(false);
+		Game games[] = { game, rebuilt };
+		for (int i = 0; i < games.length; i++) {
+			new Fen().load(games[i], "8/2r1bk2/2r5/2P5/8/8/2TK4/8 w - c2:3");
+			games[i].board.refreshMoveLists();
+		}
+		
+		int moves[][] = { { 2, 6, 2, 2 }, null, { 3, 6, 3, 5 }, { 2, 2, 2, 3 }, null }; // null undoes the last move
+		for (int i = 0; i < moves.length; i++) {
+			for (int j = 0; j < games.length; j++) {
+				if (moves[i] == null)
+					games[j].undo();
+				else
+					assertTrue(games[j].playerMove(games[j].board.getPiece(moves[i][0], moves[i][1]), moves[i][2], moves[i][3]));
+			}
+			
+			assertSameMoveLists(game, rebuilt);
+		}
+		
+		assertNotNull(game.board.getPiece(2, 3));
+		assertEquals(Piece.Type.PAWN, game.board.getPiece(2, 3).getType());
+	}
+	
+	/**
+	 * Checks that every piece of one game has the same moves as the piece on the same square
+	 * of the other.
+	 * @param incremental, the game whose move lists were updated incrementally
+	 * @param rebuilt, the game whose move lists were recalculated in full
+	 */
+	private void assertSameMoveLists(Game incremental, Game rebuilt) {
+		for (int i = 0; i < Board.GLOBAL_BOARD_SIDE_LENGTH; i++) {
+			for (int j = 0; j < Board.GLOBAL_BOARD_SIDE_LENGTH; j++) {
+				Piece piece = incremental.board.getPiece(i, j);
+				Piece full = rebuilt.board.getPiece(i, j);
+				if (piece == null) {
+					assertNull(full);
+					continue;
+				}
+				
+				assertEquals(full.getType(), piece.getType());
+				assertEquals(full.getMoveListSize(), piece.getMoveListSize());
+				for (int k = 0; k < full.getMoveListSize(); k++)
+					assertTrue(piece.canMoveTo(full.getMove(k).x, full.getMove(k).y));
+			}
+		}
+	}
+	
+	/**
+	 * Makes a pawn move and a capture, then takes both back and checks that the board,
+	 * the rosters, the pawn's first move flag and the turn are restored.
+	 * @throws Exception
+	 */
+	@Test
+	public void testMakeUnmakeMove() throws Exception {
+		game.board.setUpGame();
+		Pawn pawn = (Pawn) game.board.getPiece(4, 6);
+		Knight knight = (Knight) game.board.getPiece(1, 0);
+		Pawn target = (Pawn) game.board.getPiece(3, 1);
+		Piece roster[] = new Piece[game.getRosterSize(PieceColor.BLACK)];
+		for (int i = 0; i < roster.length; i++)
+			roster[i] = game.getPieceFromRoster(PieceColor.BLACK, i);
+		
+		game.board.makeMove(Move.encode(Position.toSquare(4, 6), Position.toSquare(4, 4), Move.DOUBLE_PUSH));
+		assertEquals(Game.PLAYER2, game.getTurn());
+		assertFalse(pawn.getFirstMove());
+		assertEquals(pawn, game.board.getPiece(4, 4));
+		game.board.makeMove(Move.encode(Position.toSquare(4, 4), Position.toSquare(3, 1), Move.CAPTURE));
+		assertFalse(target.isAlive());
+		assertEquals(15, game.getRosterSize(PieceColor.BLACK));
+		game.board.unmakeMove();
+		game.board.unmakeMove();
+		assertEquals(Game.PLAYER1, game.getTurn());
+		assertTrue(pawn.getFirstMove());
+		assertTrue(target.isAlive());
+		assertEquals(pawn, game.board.getPiece(4, 6));
+		assertEquals(target, game.board.getPiece(3, 1));
+		assertNull(game.board.getPiece(4, 4));
+		assertEquals(16, game.getRosterSize(PieceColor.BLACK));
+		for (int i = 0; i < roster.length; i++)
+			assertEquals(roster[i], game.getPieceFromRoster(PieceColor.BLACK, i));
+		
+		assertEquals(knight, game.board.getPiece(1, 0));
+		assertEquals(0, game.board.getUndoCount());
+	}
+	
+	/**
+	 * Casts a High Templar storm that captures three pieces, then takes it back and checks
+	 * that every piece and the High Templar's energy are restored.
+	 * @throws Exception
+	 */
+	@Test
+	public void testUnmakeStorm() throws Exception {
+		HighTemplar templar = new HighTemplar(PieceColor.WHITE, 2, 6);
+		Rook target = new Rook(PieceColor.BLACK, 2, 2);
+		Bishop behind = new Bishop(PieceColor.BLACK, 2, 1);
+		Pawn ahead = new Pawn(PieceColor.WHITE, 2, 3);
+		Piece pieces[] = { templar, target, behind, ahead };
+		for (int i = 0; i < pieces.length; i++) {
+			game.board.addPiece(pieces[i]);
+			game.addToTeam(pieces[i].getColor(), pieces[i]);
+		}
+		
+		templar.setEnergy(3);
+		game.board.makeMove(Move.encode(Position.toSquare(2, 6), Position.toSquare(2, 2), Move.CAPTURE | Move.STORM));
+		assertEquals(templar, game.board.getPiece(2, 6));
+		assertNull(game.board.getPiece(2, 1));
+		assertNull(game.board.getPiece(2, 2));
+		assertNull(game.board.getPiece(2, 3));
+		assertEquals(0, templar.getEnergy());
+		assertEquals(1, game.getRosterSize(PieceColor.WHITE));
+		game.board.unmakeMove();
+		assertEquals(3, templar.getEnergy());
+		for (int i = 0; i < pieces.length; i++) {
+			assertTrue(pieces[i].isAlive());
+			assertEquals(pieces[i], game.board.getPiece(pieces[i].getX(), pieces[i].getY()));
+		}
+		
+		assertEquals(ahead, game.getPieceFromRoster(PieceColor.WHITE, 1));
+		assertEquals(behind, game.getPieceFromRoster(PieceColor.BLACK, 1));
+	}
+	
+	/**
+	 * Checks the attack query against pawns of both directions, a slider blocked by another
+	 * piece, and a storm that would hit the square next to its target.
+	 */
+	@Test
+	public void testSquareAttacked() throws Exception {
+		game.board.addPiece(new Pawn(PieceColor.BLACK, 3, 3));
+		game.board.addPiece(new Pawn(PieceColor.WHITE, 5, 5));
+		game.board.addPiece(new Rook(PieceColor.BLACK, 0, 6));
+		game.board.addPiece(new Knight(PieceColor.WHITE, 2, 6));
+		assertTrue(game.board.isSquareAttacked(Position.toSquare(4, 4), PieceColor.BLACK));
+		assertFalse(game.board.isSquareAttacked(Position.toSquare(4, 2), PieceColor.BLACK));
+		assertTrue(game.board.isSquareAttacked(Position.toSquare(4, 4), PieceColor.WHITE));
+		assertTrue(game.board.isSquareAttacked(Position.toSquare(2, 6), PieceColor.BLACK));
+		assertFalse(game.board.isSquareAttacked(Position.toSquare(3, 6), PieceColor.BLACK));
+		
+		HighTemplar templar = new HighTemplar(PieceColor.WHITE, 7, 7);
+		game.board.addPiece(templar);
+		game.board.addPiece(new Pawn(PieceColor.BLACK, 7, 3));
+		assertTrue(game.board.isSquareAttacked(Position.toSquare(7, 3), PieceColor.WHITE));
+		assertFalse(game.board.isSquareAttacked(Position.toSquare(7, 2), PieceColor.WHITE));
+		templar.setEnergy(3);
+		assertTrue(game.board.isSquareAttacked(Position.toSquare(7, 2), PieceColor.WHITE));
+	}
 }
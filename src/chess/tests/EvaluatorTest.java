@@ -0,0 +1,66 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.engine.Evaluator;
+import chess.pieces.*;
+
+public class EvaluatorTest {
+	
+	public static Game game;
+	public static Evaluator evaluator;
+	
+	/**
+	 * This method is ran before every test. It creates a new game and an evaluator.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		evaluator = new Evaluator();
+	}
+	
+	/**
+	 * Scores the standard starting position as even.
+	 */
+	@Test
+	public void startingPositionIsEven() throws Exception {
+		game.board.setUpGame();
+		assertEquals(0, evaluator.evaluate(game));
+	}
+	
+	/**
+	 * Prefers a Knight in the middle of the board to one in the corner, from either side.
+	 */
+	@Test
+	public void centralKnight() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 4, 7), new Knight(PieceColor.WHITE, 3, 4),
+			new King(PieceColor.BLACK, 4, 0), new Knight(PieceColor.BLACK, 0, 0));
+		int score = evaluator.evaluate(game);
+		assertTrue(score > 0);
+		game.board.makeNullMove();
+		assertEquals(-score, evaluator.evaluate(game));
+	}
+	
+	/**
+	 * Wants the King in the middle once the board is bare, but back home while the Queens
+	 * are on.
+	 */
+	@Test
+	public void kingTapersToTheMiddle() throws Exception {
+		King king = new King(PieceColor.WHITE, 4, 4);
+		Fixtures.addPieces(game, king, new King(PieceColor.BLACK, 4, 0));
+		assertTrue(evaluator.evaluate(game) > 0);
+		Fixtures.addPieces(game, new Queen(PieceColor.WHITE, 0, 7), new Queen(PieceColor.BLACK, 0, 0),
+			new Rook(PieceColor.WHITE, 7, 7), new Rook(PieceColor.BLACK, 7, 0),
+			new HighTemplar(PieceColor.WHITE, 1, 7), new HighTemplar(PieceColor.BLACK, 1, 0),
+			new Bishop(PieceColor.WHITE, 2, 7), new Bishop(PieceColor.BLACK, 2, 0),
+			new Knight(PieceColor.WHITE, 6, 7), new Knight(PieceColor.BLACK, 6, 0),
+			new Rook(PieceColor.WHITE, 5, 7), new Rook(PieceColor.BLACK, 5, 0));
+		assertTrue(evaluator.evaluate(game) < 0);
+	}
+}
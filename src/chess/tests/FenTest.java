@@ -0,0 +1,122 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.Fen;
+import chess.Game;
+import chess.Perft;
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pieces.*;
+
+public class FenTest {
+	
+	public static Game game;
+	public static Fen fen;
+	
+	/**
+	 * This method is ran before every test. It creates an empty game and a reader for it.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		fen = new Fen();
+	}
+	
+	/**
+	 * Reads and writes the starting position the same as the board sets it up.
+	 */
+	@Test
+	public void startingPosition() {
+		Game standard = new Game();
+		standard.board.setUpGame();
+		assertEquals(Fen.START, fen.write(standard));
+		fen.load(game, Fen.START);
+		assertEquals(Fen.START, fen.write(game));
+		assertEquals(standard.board.getKey(), game.board.getKey());
+		assertEquals(16, game.getRosterSize(PieceColor.WHITE));
+		assertEquals(16, game.getRosterSize(PieceColor.BLACK));
+		assertEquals(8902, new Perft(game).perft(3));
+	}
+	
+	/**
+	 * Writes High Templars, Ghosts, their energy and the Pawns that already moved, and reads
+	 * them back into the same position.
+	 */
+	@Test
+	public void variantPieces() {
+		HighTemplar templar = new HighTemplar(PieceColor.WHITE, 2, 7);
+		templar.setEnergy(2);
+		HighTemplar enemyTemplar = new HighTemplar(PieceColor.BLACK, 5, 0);
+		enemyTemplar.setEnergy(5);
+		Pawn moved = new Pawn(PieceColor.WHITE, 4, 6);
+		moved.setFirstMove(false);
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 4, 7), templar, new Ghost(PieceColor.WHITE, 3, 5), moved,
+			new Pawn(PieceColor.WHITE, 0, 6), new King(PieceColor.BLACK, 4, 0), enemyTemplar,
+			new Ghost(PieceColor.BLACK, 6, 1), new Pawn(PieceColor.BLACK, 3, 3));
+		game.board.makeNullMove();
+		String text = fen.write(game);
+		assertEquals("4kt2/6g1/8/3p4/8/3G4/P3P3/2T1K3 b d5a2 f8:5,c1:2", text);
+		
+		Game loaded = new Game();
+		fen.load(loaded, text);
+		assertEquals(text, fen.write(loaded));
+		assertEquals(game.board.getKey(), loaded.board.getKey());
+		assertEquals(PieceColor.BLACK, loaded.getPlayerColor(loaded.getTurn()));
+		Piece piece = loaded.board.getPiece(5, 0);
+		assertEquals(Piece.Type.HIGHTEMPLAR, piece.getType());
+		assertEquals(5, ((HighTemplar) piece).getEnergy());
+		assertFalse(((Pawn) loaded.board.getPiece(4, 6)).getFirstMove());
+		assertTrue(((Pawn) loaded.board.getPiece(3, 3)).getFirstMove());
+		assertEquals(0, loaded.board.getPiece(4, 7).getMoveListSize()); // no move list was worked out
+	}
+	
+	/**
+	 * Lets Pawns on their starting rows move two when the last two fields are left off.
+	 */
+	@Test
+	public void defaultFields() {
+		fen.load(game, "4k3/p7/1p6/8/8/8/PP6/4K3 w");
+		assertTrue(((Pawn) game.board.getPiece(0, 1)).getFirstMove());
+		assertFalse(((Pawn) game.board.getPiece(1, 2)).getFirstMove());
+		assertTrue(((Pawn) game.board.getPiece(1, 6)).getFirstMove());
+		assertEquals("4k3/p7/1p6/8/8/8/PP6/4K3 w a7a2b2 -", fen.write(game));
+		assertEquals(Position.toSquare(4, 0), game.getPieceOfType(PieceColor.BLACK, Piece.Type.KING).getSquare());
+	}
+	
+	/**
+	 * Loads one position over another, leaving nothing of the first behind.
+	 */
+	@Test
+	public void replacesPosition() {
+		game.board.setUpGame();
+		fen.load(game, "4k3/8/8/8/8/8/8/4K2R b - -");
+		assertEquals(3, Long.bitCount(game.board.getPosition().getOccupied()));
+		assertEquals(2, game.getRosterSize(PieceColor.WHITE));
+		assertEquals(1, game.getRosterSize(PieceColor.BLACK));
+		assertEquals(Game.PLAYER2, game.getTurn());
+	}
+	
+	/**
+	 * Refuses text that isn't a position, and leaves the game as it was.
+	 */
+	@Test
+	public void rejectsBadText() {
+		game.board.setUpGame();
+		long key = game.board.getKey();
+		String bad[] = { "", "8/8/8/8/8/8/8/8", "9/8/8/8/8/8/8/8 w", "8/8/8/8/8/8/8 w", "8/8/8/8/8/8/8/8 x",
+			"4k3/8/8/8/8/8/8/4X3 w", "4k3/8/8/8/8/8/8/4K3 w e1", "4k3/8/8/8/8/8/8/4K3 w - e1:2",
+			"4k3/8/8/8/8/8/8/2T1K3 w - c1", "4k3/8/8/8/8/8/8/2T1K3 w - c1:2,", "4k3/8/8/8/8/8/8/4K3 w - - 0" };
+		for (int i = 0; i < bad.length; i++) {
+			try {
+				fen.load(game, bad[i]);
+				fail("read " + bad[i]);
+			} catch (IllegalArgumentException e) {
+				assertEquals(key, game.board.getKey());
+			}
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package chess.tests;
+
+import chess.Game;
+import chess.pieces.Piece;
+
+/**
+ * A Fixtures class holding the setup the engine tests share, for tests that place their
+ * pieces one by one instead of reading a position.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public final class Fixtures {
+	
+	private Fixtures() {} // static methods only
+	
+	/**
+	 * Adds the given pieces to the board of a game and to their teams.
+	 * @param game, the game to add the pieces to
+	 * @param pieces, the pieces to add
+	 */
+	public static void addPieces(Game game, Piece... pieces) {
+		for (int i = 0; i < pieces.length; i++) {
+			game.board.addPiece(pieces[i]);
+			game.addToTeam(pieces[i].getColor(), pieces[i]);
+		}
+	}
+}
@@ -0,0 +1,322 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.Fen;
+import chess.server.GameClient;
+import chess.server.GameServer;
+import chess.server.GameSession;
+import chess.server.Mailbox;
+
+public class GameServerTest {
+	
+	public static GameServer server;
+	public static GameClient client;
+	
+	/**
+	 * This method is ran before every test. It starts a server on a free port and a client
+	 * for it.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		server = new GameServer(0);
+		server.start();
+		client = new GameClient(server.getPort());
+	}
+	
+	/**
+	 * This method is ran after every test. It stops the server.
+	 */
+	@After
+	public void tearDown() throws Exception {
+		server.stop(0);
+	}
+	
+	/**
+	 * Plays a short game to checkmate, and turns down moves once it's over.
+	 */
+	@Test
+	public void playsToCheckmate() throws Exception {
+		long id = client.newGame();
+		String state = client.getState(id);
+		assertEquals(Fen.START, GameClient.getField(state, "position"));
+		assertEquals("white", GameClient.getField(state, "turn"));
+		assertEquals(GameSession.PLAYING, GameClient.getField(state, "status"));
+		assertNull(GameClient.getField(state, "last"));
+		client.move(id, "f3");
+		client.move(id, "e5");
+		client.move(id, "g4");
+		state = client.move(id, "Qh4");
+		assertEquals("Qh4#", GameClient.getField(state, "last"));
+		assertEquals(GameSession.CHECKMATE, GameClient.getField(state, "status"));
+		try {
+			client.move(id, "e4");
+			fail("moved after the game was over");
+		} catch (IllegalArgumentException e) {
+			assertEquals("the game is over", e.getMessage());
+		}
+	}
+	
+	/**
+	 * Turns down moves that aren't legal, positions it can't read and games it doesn't have.
+	 */
+	@Test
+	public void turnsDownBadCommands() throws Exception {
+		long id = client.newGame();
+		try {
+			client.move(id, "e5");
+			fail("played a move for the wrong team");
+		} catch (IllegalArgumentException e) {
+			assertEquals("not a legal move: e5", e.getMessage());
+		}
+		
+		assertEquals(Fen.START, GameClient.getField(client.getState(id), "position"));
+		try {
+			client.newGame("not a position");
+			fail("started a game from nothing");
+		} catch (IllegalArgumentException e) {
+			assertEquals(1, server.getSessionCount());
+		}
+		
+		client.endGame(id);
+		assertEquals(0, server.getSessionCount());
+		try {
+			client.getState(id);
+			fail("found a game that was ended");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("the server answered 404"));
+		}
+	}
+	
+	/**
+	 * Starts a game from a position and lets the engine find the mate in it.
+	 */
+	@Test
+	public void engineMoves() throws Exception {
+		long id = client.newGame("4k3/8/4K3/8/8/8/8/7R w - -");
+		String state = client.engineMove(id, 200);
+		assertEquals("Rh8#", GameClient.getField(state, "last"));
+		assertEquals(GameSession.CHECKMATE, GameClient.getField(state, "status"));
+		id = client.newGame();
+		try {
+			client.engineMove(id, GameServer.MAX_ENGINE_MILLIS + 1);
+			fail("a think time past the reply window was taken");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Cancels a long engine move and checks the game is free for the next command right away,
+	 * with no move played.
+	 */
+	@Test
+	public void cancelsEngine() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			GameSession session = new GameSession(1, executor);
+			session.setUp(null).get();
+			Future<String> engine = session.playEngine(60000);
+			Thread.sleep(100);
+			engine.cancel(false);
+			String state = session.getState().get(10, TimeUnit.SECONDS);
+			assertEquals(Fen.START, GameClient.getField(state, "position"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Cancels engine moves around the time they finish, and checks none that was cancelled in
+	 * time changed the game.
+	 */
+	@Test
+	public void cancelledEngineNeverMoves() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			GameSession session = new GameSession(1, executor);
+			for (int delay = 0; delay < 30; delay += 2) {
+				session.setUp(null).get();
+				Future<String> engine = session.playEngine(10);
+				Thread.sleep(delay);
+				boolean cancelled = engine.cancel(false);
+				String state = session.getState().get(10, TimeUnit.SECONDS);
+				if (cancelled)
+					assertEquals(Fen.START, GameClient.getField(state, "position"));
+				else
+					assertNotNull(GameClient.getField(state, "last"));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Thinks in one game on the engine's pool while another game sharing the only command
+	 * thread keeps answering, and the game thinking still runs its commands in order.
+	 */
+	@Test
+	public void engineLeavesCommandsFree() throws Exception {
+		ExecutorService commands = Executors.newSingleThreadExecutor();
+		ExecutorService engines = Executors.newSingleThreadExecutor();
+		try {
+			GameSession thinking = new GameSession(1, commands, engines);
+			GameSession other = new GameSession(2, commands, engines);
+			thinking.setUp(null).get();
+			other.setUp(null).get();
+			Future<String> engine = thinking.playEngine(60000);
+			Future<String> after = thinking.play("e4");
+			String state = other.play("e4").get(10, TimeUnit.SECONDS);
+			assertEquals("e4", GameClient.getField(state, "last"));
+			assertFalse(after.isDone());
+			engine.cancel(false);
+			state = after.get(10, TimeUnit.SECONDS);
+			assertEquals("e4", GameClient.getField(state, "last"));
+		} finally {
+			commands.shutdownNow();
+			engines.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Closes a game while the engine is thinking, which stops the engine and cancels the
+	 * commands still waiting and the ones sent afterwards.
+	 */
+	@Test
+	public void closeCancelsCommands() throws Exception {
+		ExecutorService commands = Executors.newSingleThreadExecutor();
+		ExecutorService engines = Executors.newSingleThreadExecutor();
+		try {
+			GameSession session = new GameSession(1, commands, engines);
+			session.setUp(null).get();
+			Future<String> engine = session.playEngine(60000);
+			Future<String> waiting = session.play("e4");
+			Thread.sleep(100);
+			session.close();
+			assertTrue(engine.isCancelled());
+			assertTrue(waiting.isCancelled());
+			assertTrue(session.getState().isCancelled());
+			Future<?> free = engines.submit(new Runnable() {
+				public void run() {
+					// only runs once the engine has stopped
+				}
+			});
+			free.get(10, TimeUnit.SECONDS);
+		} finally {
+			commands.shutdownNow();
+			engines.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Ends the games nobody has sent anything to for longer than the idle time.
+	 */
+	@Test
+	public void expiresIdleGames() throws Exception {
+		long id = client.newGame();
+		assertEquals(0, server.expireIdleSessions());
+		server.setIdleTimeout(0);
+		Thread.sleep(10);
+		assertEquals(1, server.expireIdleSessions());
+		assertEquals(0, server.getSessionCount());
+		try {
+			client.getState(id);
+			fail("found a game that expired");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("the server answered 404"));
+		}
+	}
+	
+	/**
+	 * Plays many games at once from many threads, each game getting its moves in order.
+	 */
+	@Test
+	public void playsGamesAtOnce() throws Exception {
+		final int games = 40;
+		final List<String> results = Collections.synchronizedList(new ArrayList<String>());
+		final CountDownLatch done = new CountDownLatch(games);
+		ExecutorService players = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < games; i++) {
+			players.execute(new Runnable() {
+				public void run() {
+					try {
+						long id = client.newGame();
+						String moves[] = { "f3", "e5", "g4", "Qh4" };
+						String state = null;
+						for (int j = 0; j < moves.length; j++)
+							state = client.move(id, moves[j]);
+						
+						results.add(GameClient.getField(state, "status"));
+					} catch (Exception e) {
+						results.add(e.toString());
+					} finally {
+						done.countDown();
+					}
+				}
+			});
+		}
+		
+		assertTrue(done.await(60, TimeUnit.SECONDS));
+		players.shutdown();
+		assertEquals(games, results.size());
+		for (int i = 0; i < games; i++)
+			assertEquals(GameSession.CHECKMATE, results.get(i));
+		
+		assertEquals(games, server.getSessionCount());
+	}
+	
+	/**
+	 * Runs the tasks of a mailbox one at a time and in order, however many threads send them.
+	 */
+	@Test
+	public void mailboxRunsInOrder() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		final Mailbox mailbox = new Mailbox(pool);
+		final int counter[] = new int[1];
+		final List<Integer> order = new ArrayList<Integer>();
+		final CountDownLatch done = new CountDownLatch(4 * 1000);
+		Thread senders[] = new Thread[4];
+		for (int i = 0; i < senders.length; i++) {
+			final int sender = i;
+			senders[i] = new Thread(new Runnable() {
+				public void run() {
+					for (int j = 0; j < 1000; j++) {
+						final int task = sender * 1000 + j;
+						mailbox.execute(new Runnable() {
+							public void run() {
+								counter[0]++; // only safe if no two tasks run at once
+								order.add(task);
+								done.countDown();
+							}
+						});
+					}
+				}
+			});
+			senders[i].start();
+		}
+		
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		pool.shutdown();
+		assertEquals(4000, counter[0]);
+		int last[] = { -1, -1, -1, -1 };
+		for (int i = 0; i < order.size(); i++) {
+			int task = order.get(i);
+			assertTrue(task % 1000 > last[task / 1000]); // each sender's tasks ran in the order sent
+			last[task / 1000] = task % 1000;
+		}
+	}
+}
@@ -6,9 +6,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import chess.Fen;
 import chess.Game;
 import chess.enums.PieceColor;
+import chess.pieces.HighTemplar;
 import chess.pieces.King;
+import chess.pieces.Pawn;
+import chess.pieces.Piece;
 import chess.pieces.Queen;
 import chess.pieces.Rook;
 
@@ -49,12 +53,16 @@ public class GameTest {
 	public void testCheckmate() throws Exception {
 		Queen blackEnemy = new Queen(PieceColor.BLACK, 2, 5);
 		Rook blackEnemy2 = new Rook(PieceColor.BLACK, 4, 7);
+		Rook blackEnemy3 = new Rook(PieceColor.BLACK, 2, 0); // guards the Queen from the King
 		game.addToTeam(PieceColor.BLACK, blackEnemy);
 		game.addToTeam(PieceColor.BLACK, blackEnemy2);
+		game.addToTeam(PieceColor.BLACK, blackEnemy3);
 		game.board.addPiece(blackEnemy);
 		game.board.addPiece(blackEnemy2);
+		game.board.addPiece(blackEnemy3);
 		blackEnemy.updateMoveList(game);
 		blackEnemy2.updateMoveList(game);
+		blackEnemy3.updateMoveList(game);
 		assertEquals(game.checkCheckmate(PieceColor.WHITE), true);
 	}
 	
@@ -99,4 +107,58 @@ public class GameTest {
 		game.removeFromTeam(PieceColor.WHITE, kingWhite);
 		assertEquals(game.checkStalemate(), true);
 	}
+	
+	/**
+	 * Casts a storm through playerMove, then undoes it and checks every piece the storm hit,
+	 * the High Templar's energy and the turn are back.
+	 */
+	@Test
+	public void testUndoStorm() throws Exception {
+		new Fen().load(game, "8/2r2k2/2r5/2P5/8/8/2TK4/8 w - c2:3");
+		game.board.refreshMoveLists();
+		HighTemplar templar = (HighTemplar) game.board.getPiece(2, 6);
+		Piece pieces[] = { templar, game.board.getPiece(2, 2), game.board.getPiece(2, 1), game.board.getPiece(2, 3) };
+		assertTrue(game.playerMove(templar, 2, 2));
+		assertNull(game.board.getPiece(2, 1));
+		assertNull(game.board.getPiece(2, 3));
+		assertEquals(0, templar.getEnergy());
+		assertEquals(Game.PLAYER2, game.getTurn());
+		game.undo();
+		assertEquals(3, templar.getEnergy());
+		assertEquals(Game.PLAYER1, game.getTurn());
+		for (int i = 0; i < pieces.length; i++) {
+			assertTrue(pieces[i].isAlive());
+			assertEquals(pieces[i], game.board.getPiece(pieces[i].getX(), pieces[i].getY()));
+		}
+		
+		assertTrue(templar.canMoveTo(2, 2));
+	}
+	
+	/**
+	 * Copies a game and checks the copy hashes the same, holds different Piece objects, and
+	 * doesn't change when the original does.
+	 */
+	@Test
+	public void testCopy() throws Exception {
+		HighTemplar templar = new HighTemplar(PieceColor.WHITE, 2, 4);
+		Pawn pawn = new Pawn(PieceColor.BLACK, 6, 2);
+		templar.setEnergy(2);
+		pawn.setFirstMove(false);
+		game.board.addPiece(templar);
+		game.board.addPiece(pawn);
+		game.addToTeam(PieceColor.WHITE, templar);
+		game.addToTeam(PieceColor.BLACK, pawn);
+		Game copy = new Game(game);
+		assertEquals(game.board.getKey(), copy.board.getKey());
+		assertEquals(game.getRosterSize(PieceColor.WHITE), copy.getRosterSize(PieceColor.WHITE));
+		assertEquals(copy.board.getPiece(2, 4), copy.getPieceFromRoster(PieceColor.WHITE, 1));
+		assertNotSame(templar, copy.board.getPiece(2, 4));
+		assertEquals(2, ((HighTemplar) copy.board.getPiece(2, 4)).getEnergy());
+		
+		long key = copy.board.getKey();
+		game.board.movePiece(kingWhite, 3, 7);
+		assertEquals(key, copy.board.getKey());
+		assertEquals(kingWhite, game.board.getPiece(3, 7));
+		assertNull(copy.board.getPiece(3, 7));
+	}
 }
@@ -0,0 +1,78 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.Game;
+import chess.enums.PieceColor;
+import chess.pieces.Ghost;
+import chess.pieces.HighTemplar;
+import chess.pieces.Pawn;
+
+public class GhostTest {
+
+	public static Game game;
+	public static Ghost ghostCorner;
+	public static Ghost ghostMiddle;
+
+	/**
+	 * This method is ran before every test. It creates a new game, and puts Ghosts in
+	 * specific spaces for testing purposes.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		ghostCorner = new Ghost(PieceColor.WHITE, 0, 7);
+		ghostMiddle = new Ghost(PieceColor.WHITE, 4, 4);
+		game.board.addPiece(ghostCorner);
+		game.board.addPiece(ghostMiddle);
+		game.addToTeam(PieceColor.WHITE, ghostCorner);
+		game.addToTeam(PieceColor.WHITE, ghostMiddle);
+	}
+
+	/**
+	 * Checks the Ghost can step to every open space around it, and nowhere further.
+	 */
+	@Test
+	public void moveListAroundGhost() throws Exception {
+		ghostCorner.updateMoveList(game);
+		ghostMiddle.updateMoveList(game);
+		assertEquals(3, ghostCorner.getMoveListSize());
+		assertEquals(8, ghostMiddle.getMoveListSize());
+		assertTrue(ghostMiddle.canMoveTo(3, 3));
+		assertTrue(ghostMiddle.canMoveTo(5, 5));
+		assertFalse(ghostMiddle.canMoveTo(4, 6));
+	}
+
+	/**
+	 * Checks the Ghost can't step onto an ally, and can only snipe enemy High Templars.
+	 */
+	@Test
+	public void snipeTargets() throws Exception {
+		game.board.addPiece(new Pawn(PieceColor.WHITE, 3, 3));
+		game.board.addPiece(new HighTemplar(PieceColor.BLACK, 4, 0));
+		game.board.addPiece(new HighTemplar(PieceColor.WHITE, 0, 4));
+		game.board.addPiece(new Pawn(PieceColor.BLACK, 6, 6));
+		ghostMiddle.updateMoveList(game);
+		assertFalse(ghostMiddle.canMoveTo(3, 3));
+		assertTrue(ghostMiddle.canMoveTo(4, 0));
+		assertFalse(ghostMiddle.canMoveTo(0, 4));
+		assertFalse(ghostMiddle.canMoveTo(6, 6));
+	}
+
+	/**
+	 * Snipes an enemy High Templar and checks the Ghost stays where it is.
+	 */
+	@Test
+	public void snipeHighTemplar() throws Exception {
+		HighTemplar target = new HighTemplar(PieceColor.BLACK, 0, 2);
+		game.board.addPiece(target);
+		game.addToTeam(PieceColor.BLACK, target);
+		assertTrue(game.board.movePiece(ghostCorner, 0, 2));
+		assertFalse(target.isAlive());
+		assertNull(game.board.getPiece(0, 2));
+		assertEquals(ghostCorner, game.board.getPiece(0, 7));
+	}
+}
@@ -140,9 +140,9 @@ public class KingTest {
 		game.board.addPiece(captureTarget4);
 		
 		game.board.movePiece(kingCorner1White, 1, 7);
+		game.board.movePiece(kingSide2Black, 6, 4); // the Queen guards (6, 0) until it's captured
 		game.board.movePiece(kingCorner2Black, 6, 0);
 		game.board.movePiece(kingSide1White, 4, 1);
-		game.board.movePiece(kingSide2Black, 6, 4);
 		assertEquals(kingCorner1White, game.board.getPiece(1, 7));
 		assertEquals(kingCorner2Black, game.board.getPiece(6, 0));
 		assertEquals(kingSide1White, game.board.getPiece(4, 1));
@@ -0,0 +1,146 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+import chess.pieces.*;
+
+public class MoveGeneratorTest {
+	
+	public static Game game;
+	public static MoveGenerator generator;
+	public static int moves[];
+	
+	/**
+	 * This method is ran before every test. It creates a new game and a buffer to generate
+	 * moves into.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		generator = game.getMoveGenerator();
+		moves = new int[MoveGenerator.MAX_MOVES];
+	}
+	
+	/**
+	 * Counts the generated moves that start on the given square.
+	 * @param count, the number of generated moves
+	 * @param xCoord, the x-coordinate of the square
+	 * @param yCoord, the y-coordinate of the square
+	 * @return the number of moves from that square
+	 */
+	private int countFrom(int count, int xCoord, int yCoord) {
+		int from = 0;
+		for (int i = 0; i < count; i++) {
+			if (Move.getFrom(moves[i]) == Position.toSquare(xCoord, yCoord))
+				from++;
+		}
+		
+		return from;
+	}
+	
+	/**
+	 * Checks the twenty opening moves of a standard game.
+	 */
+	@Test
+	public void standardOpening() throws Exception {
+		game.board.setUpGame();
+		assertEquals(20, generator.generateLegalMoves(moves));
+		assertEquals(20, generator.generateLegalMoves(PieceColor.BLACK, moves));
+	}
+	
+	/**
+	 * Pins a Rook to its King and checks it can only slide along the pin.
+	 */
+	@Test
+	public void pinnedPiece() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 4, 7), new Rook(PieceColor.WHITE, 4, 5),
+			new Rook(PieceColor.BLACK, 4, 0), new King(PieceColor.BLACK, 0, 0));
+		int count = generator.generateLegalMoves(PieceColor.WHITE, moves);
+		assertEquals(1L << Position.toSquare(4, 5), generator.getPinned());
+		assertEquals(6, countFrom(count, 4, 5));
+		assertEquals(5, countFrom(count, 4, 7));
+	}
+	
+	/**
+	 * Checks the King with a Rook and checks that only blocking the Rook or stepping off its
+	 * file is allowed.
+	 */
+	@Test
+	public void checkEvasions() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 4, 7), new Rook(PieceColor.WHITE, 0, 5),
+			new Rook(PieceColor.BLACK, 4, 0), new King(PieceColor.BLACK, 0, 0));
+		int count = generator.generateLegalMoves(PieceColor.WHITE, moves);
+		assertEquals(1L << Position.toSquare(4, 0), generator.getCheckers());
+		assertEquals(1, countFrom(count, 0, 5));
+		assertEquals(4, countFrom(count, 4, 7));
+		for (int i = 0; i < count; i++) {
+			if (Move.getFrom(moves[i]) == Position.toSquare(0, 5))
+				assertEquals(Position.toSquare(4, 5), Move.getTo(moves[i]));
+		}
+		
+		assertFalse(game.checkCheckmate(PieceColor.WHITE));
+	}
+	
+	/**
+	 * Charges a High Templar whose storm would hit the King from the Pawn in front of it, and
+	 * checks that the Pawn stepping out of the storm's reach is allowed.
+	 */
+	@Test
+	public void stormCollateralCheck() throws Exception {
+		HighTemplar templar = new HighTemplar(PieceColor.BLACK, 4, 2);
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 4, 7), new Pawn(PieceColor.WHITE, 4, 6),
+			templar, new King(PieceColor.BLACK, 0, 0));
+		assertFalse(game.board.isKingAttacked(PieceColor.WHITE));
+		assertEquals(6, generator.generateLegalMoves(PieceColor.WHITE, moves));
+		templar.setEnergy(3);
+		assertTrue(game.board.isKingAttacked(PieceColor.WHITE));
+		assertEquals(6, generator.generateLegalMoves(PieceColor.WHITE, moves));
+		assertFalse(game.checkCheckmate(PieceColor.WHITE));
+	}
+	
+	/**
+	 * Leaves the team to move with a King that can't move and isn't in check.
+	 */
+	@Test
+	public void stalemate() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 0, 7), new Queen(PieceColor.BLACK, 1, 5),
+			new King(PieceColor.BLACK, 7, 0));
+		assertEquals(0, generator.generateLegalMoves(PieceColor.WHITE, moves));
+		assertTrue(game.checkStalemate());
+		assertFalse(game.checkCheckmate(PieceColor.WHITE));
+	}
+	
+	/**
+	 * Splits the legal moves into captures and quiet moves, and checks single moves of a pinned
+	 * Rook, whose flags have to match as well.
+	 */
+	@Test
+	public void capturesAndQuiets() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 4, 7), new Rook(PieceColor.WHITE, 4, 5),
+			new Rook(PieceColor.BLACK, 4, 1), new Knight(PieceColor.BLACK, 1, 5), new King(PieceColor.BLACK, 0, 0));
+		int legal = generator.generateLegalMoves(PieceColor.WHITE, moves);
+		int captures = generator.generateLegalCaptures(PieceColor.WHITE, moves);
+		for (int i = 0; i < captures; i++)
+			assertTrue(Move.hasFlag(moves[i], Move.CAPTURE));
+		
+		int quiets = generator.generateLegalQuiets(PieceColor.WHITE, moves);
+		for (int i = 0; i < quiets; i++)
+			assertFalse(Move.hasFlag(moves[i], Move.CAPTURE));
+		
+		assertEquals(1, captures);
+		assertEquals(legal, captures + quiets);
+		int rook = Position.toSquare(4, 5);
+		assertTrue(generator.isLegal(PieceColor.WHITE, Move.encode(rook, Position.toSquare(4, 1), Move.CAPTURE)));
+		assertFalse(generator.isLegal(PieceColor.WHITE, Move.encode(rook, Position.toSquare(4, 1), 0)));
+		assertFalse(generator.isLegal(PieceColor.WHITE, Move.encode(rook, Position.toSquare(1, 5), Move.CAPTURE)));
+		assertFalse(generator.isLegal(PieceColor.BLACK, Move.encode(rook, Position.toSquare(4, 4), 0)));
+	}
+}
@@ -0,0 +1,143 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+import chess.engine.History;
+import chess.engine.MovePicker;
+import chess.pieces.*;
+
+public class MovePickerTest {
+	
+	public static Game game;
+	public static History history;
+	public static MovePicker picker;
+	
+	/**
+	 * This method is ran before every test. It creates a new game and a move picker for it.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		history = new History(8);
+		picker = new MovePicker(game, game.getMoveGenerator(), history);
+	}
+	
+	/**
+	 * Takes every move the picker hands out for white at the root.
+	 * @param hashMove, the hash move to give the picker
+	 * @return the moves in the order they were handed out
+	 */
+	private int[] pickAll(int hashMove) {
+		int picked[] = new int[MoveGenerator.MAX_MOVES];
+		int count = 0;
+		picker.reset(PieceColor.WHITE, hashMove, 0);
+		for (int move; (move = picker.next()) != Move.NONE;)
+			picked[count++] = move;
+		
+		return Arrays.copyOf(picked, count);
+	}
+	
+	/**
+	 * Checks the given moves are exactly the legal moves of white, each once.
+	 * @param picked, the moves handed out
+	 */
+	private void assertAllLegalMoves(int picked[]) {
+		int legal[] = new int[MoveGenerator.MAX_MOVES];
+		int count = game.getMoveGenerator().generateLegalMoves(PieceColor.WHITE, legal);
+		int sortedLegal[] = Arrays.copyOf(legal, count);
+		int sortedPicked[] = picked.clone();
+		Arrays.sort(sortedLegal);
+		Arrays.sort(sortedPicked);
+		assertEquals(Arrays.toString(sortedLegal), Arrays.toString(sortedPicked));
+	}
+	
+	/**
+	 * Hands out the hash move first, then every other legal move once.
+	 */
+	@Test
+	public void hashMoveFirst() throws Exception {
+		game.board.setUpGame();
+		int hashMove = Move.encode(Position.toSquare(4, 6), Position.toSquare(4, 4), Move.DOUBLE_PUSH);
+		int picked[] = pickAll(hashMove);
+		assertEquals(hashMove, picked[0]);
+		assertAllLegalMoves(picked);
+	}
+	
+	/**
+	 * Leaves out a hash move that can't be played in the position.
+	 */
+	@Test
+	public void illegalHashMove() throws Exception {
+		game.board.setUpGame();
+		int hashMove = Move.encode(Position.toSquare(4, 4), Position.toSquare(4, 3), 0);
+		int picked[] = pickAll(hashMove);
+		assertEquals(20, picked.length);
+		assertAllLegalMoves(picked);
+	}
+	
+	/**
+	 * Hands out the captures of the most valuable victim first, cheapest attacker first, then
+	 * the killer move, then the other quiet moves.
+	 */
+	@Test
+	public void capturesThenKillers() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 7, 7), new Pawn(PieceColor.WHITE, 3, 4), new Rook(PieceColor.WHITE, 2, 7),
+			new King(PieceColor.BLACK, 7, 0), new Queen(PieceColor.BLACK, 2, 3), new Knight(PieceColor.BLACK, 4, 3));
+		int killer = Move.encode(Position.toSquare(7, 7), Position.toSquare(6, 7), 0);
+		history.addCutoff(PieceColor.WHITE, killer, 4, 0);
+		int picked[] = pickAll(Move.NONE);
+		assertEquals(Move.encode(Position.toSquare(3, 4), Position.toSquare(2, 3), Move.CAPTURE), picked[0]);
+		assertEquals(Move.encode(Position.toSquare(2, 7), Position.toSquare(2, 3), Move.CAPTURE), picked[1]);
+		assertEquals(Move.encode(Position.toSquare(3, 4), Position.toSquare(4, 3), Move.CAPTURE), picked[2]);
+		assertEquals(killer, picked[3]);
+		assertAllLegalMoves(picked);
+	}
+	
+	/**
+	 * Puts the storms that also hit a Rook ahead of taking a Knight, and the storm that also
+	 * hits a Pawn of its own team behind the other one.
+	 */
+	@Test
+	public void stormCountsEveryVictim() throws Exception {
+		HighTemplar templar = new HighTemplar(PieceColor.WHITE, 3, 6);
+		templar.setEnergy(HighTemplar.STORM_ENERGY);
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 7, 7), templar, new Pawn(PieceColor.WHITE, 5, 4), new Pawn(PieceColor.WHITE, 3, 4),
+			new King(PieceColor.BLACK, 7, 0), new Pawn(PieceColor.BLACK, 3, 3), new Rook(PieceColor.BLACK, 3, 2),
+			new Knight(PieceColor.BLACK, 6, 3));
+		int picked[] = pickAll(Move.NONE);
+		assertEquals(Move.encode(Position.toSquare(3, 6), Position.toSquare(3, 2), Move.CAPTURE | Move.STORM), picked[0]);
+		assertEquals(Move.encode(Position.toSquare(3, 6), Position.toSquare(3, 3), Move.CAPTURE | Move.STORM), picked[1]);
+		assertEquals(Move.encode(Position.toSquare(5, 4), Position.toSquare(6, 3), Move.CAPTURE), picked[2]);
+		assertAllLegalMoves(picked);
+	}
+	
+	/**
+	 * Orders the quiet moves by how often and how deep they cut off before.
+	 */
+	@Test
+	public void historyOrdersQuietMoves() throws Exception {
+		game.board.setUpGame();
+		int often = Move.encode(Position.toSquare(6, 7), Position.toSquare(5, 5), 0);
+		int deep = Move.encode(Position.toSquare(3, 6), Position.toSquare(3, 4), Move.DOUBLE_PUSH);
+		history.addCutoff(PieceColor.WHITE, often, 2, 1);
+		history.addCutoff(PieceColor.WHITE, often, 2, 2);
+		history.addCutoff(PieceColor.WHITE, deep, 5, 3);
+		assertEquals(25, history.getScore(PieceColor.WHITE, deep));
+		int picked[] = pickAll(Move.NONE);
+		assertEquals(deep, picked[0]);
+		assertEquals(often, picked[1]);
+		history.age();
+		assertEquals(12, history.getScore(PieceColor.WHITE, deep));
+		assertEquals(Move.NONE, history.getKiller(3, 0));
+	}
+}
@@ -0,0 +1,144 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.engine.OpeningBook;
+import chess.engine.OpeningBookBuilder;
+import chess.engine.Search;
+import chess.engine.SearchResult;
+
+public class OpeningBookTest {
+	
+	public static Game game;
+	public static File file;
+	
+	/**
+	 * This method is ran before every test. It creates a game in the starting position and a
+	 * file to write a book to.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		game.board.setUpGame();
+		file = File.createTempFile("book", ".bin");
+	}
+	
+	/**
+	 * This method is ran after every test. It deletes the book file.
+	 */
+	@After
+	public void tearDown() throws Exception {
+		file.delete();
+	}
+	
+	/**
+	 * Builds a book of three short games and opens it.
+	 * @return the opened book
+	 */
+	private OpeningBook buildBook() throws IOException {
+		OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_PLIES);
+		builder.addGame("e2e4 e7e5");
+		builder.addGame("e2e4 c7c5");
+		builder.addGame("d2d4 d7d5");
+		assertEquals(5, builder.size());
+		builder.write(file);
+		return new OpeningBook(file);
+	}
+	
+	/**
+	 * Finds the moves of the starting position heaviest first, and plays the heaviest.
+	 */
+	@Test
+	public void lookUpMoves() throws Exception {
+		OpeningBook book = buildBook();
+		assertEquals(5, book.size());
+		assertEquals(16 + 5 * 16, file.length());
+		int moves[] = new int[MoveGenerator.MAX_MOVES];
+		int weights[] = new int[MoveGenerator.MAX_MOVES];
+		assertEquals(2, book.getMoves(game.board.getKey(), moves, weights));
+		assertEquals("e2e4", Move.toString(moves[0]));
+		assertEquals(2, weights[0]);
+		assertEquals("d2d4", Move.toString(moves[1]));
+		assertEquals(1, weights[1]);
+		assertEquals("e2e4", Move.toString(book.bestMove(game)));
+		game.board.makeMove(book.bestMove(game));
+		String reply = Move.toString(book.probe(game, new Random(1)));
+		assertTrue(reply.equals("e7e5") || reply.equals("c7c5"));
+		game.board.makeMove(game.getMoveGenerator().findMove("a7a6"));
+		assertEquals(Move.NONE, book.bestMove(game));
+		book.close();
+	}
+	
+	/**
+	 * Answers a book position without searching, and searches once the game leaves the book.
+	 */
+	@Test
+	public void searchPlaysFromBook() throws Exception {
+		OpeningBook book = buildBook();
+		Search search = new Search(game);
+		search.setOpeningBook(book);
+		SearchResult result = search.search(4);
+		assertEquals("e2e4", Move.toString(result.getMove()));
+		assertEquals(0, result.getDepth());
+		assertEquals(0, result.getNodes());
+		game.board.makeMove(game.getMoveGenerator().findMove("a2a3"));
+		assertEquals(4, search.search(4).getDepth());
+		book.close();
+	}
+	
+	/**
+	 * Picks moves in proportion to their weights.
+	 */
+	@Test
+	public void weightedChoice() throws Exception {
+		OpeningBook book = buildBook();
+		Random random = new Random(7);
+		int kingPawn = 0;
+		for (int i = 0; i < 3000; i++) {
+			if (Move.toString(book.probe(game, random)).equals("e2e4"))
+				kingPawn++;
+		}
+		
+		assertTrue(kingPawn > 1800 && kingPawn < 2200);
+		book.close();
+	}
+	
+	/**
+	 * Skips move numbers and results, and stops a record at its first illegal move.
+	 */
+	@Test
+	public void readRecords() throws Exception {
+		OpeningBookBuilder builder = new OpeningBookBuilder(2);
+		assertEquals(1, builder.addGame("e2e4 e2e4 d2d4"));
+		assertEquals(2, builder.addGame("1. d2d4 d7d5 2. c2c4 1-0"));
+		assertEquals(3, builder.size());
+	}
+	
+	/**
+	 * Refuses to open a file that isn't a book.
+	 */
+	@Test
+	public void notABook() throws Exception {
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[32]);
+		out.close();
+		try {
+			new OpeningBook(file).close();
+			fail("opened a file of zeros as a book");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("not an opening book"));
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.Move;
+import chess.Position;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import chess.pieces.*;
+
+public class ParallelSearchTest {
+	
+	public static Game game;
+	public static ParallelSearch search;
+	
+	/**
+	 * This method is ran before every test. It creates a new game and a search on three threads.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		search = new ParallelSearch(3, new TranspositionTable(4));
+	}
+	
+	@After
+	public void after() throws Exception {
+		search.shutdown();
+	}
+	
+	/**
+	 * Finds a back rank mate with several threads and checks the game itself wasn't touched.
+	 */
+	@Test
+	public void findsMate() throws Exception {
+		Piece pieces[] = { new King(PieceColor.WHITE, 4, 7), new Rook(PieceColor.WHITE, 0, 6),
+			new King(PieceColor.BLACK, 7, 0), new Pawn(PieceColor.BLACK, 6, 1), new Pawn(PieceColor.BLACK, 7, 1) };
+		for (int i = 0; i < pieces.length; i++) {
+			game.board.addPiece(pieces[i]);
+			game.addToTeam(pieces[i].getColor(), pieces[i]);
+		}
+		
+		long key = game.board.getKey();
+		SearchResult result = search.search(game, SearchLimits.depth(4));
+		assertEquals(Move.encode(Position.toSquare(0, 6), Position.toSquare(0, 0), 0), result.getMove());
+		assertEquals(key, game.board.getKey());
+		assertEquals(pieces[1], game.board.getPiece(0, 6));
+	}
+	
+	/**
+	 * Searches the opening position under a time limit and checks the helpers were stopped
+	 * with the main thread.
+	 */
+	@Test
+	public void timeLimit() throws Exception {
+		game.board.setUpGame();
+		long start = System.currentTimeMillis();
+		SearchResult result = search.search(game, SearchLimits.moveTime(200));
+		assertTrue(System.currentTimeMillis() - start < 2000);
+		assertTrue(result.getMove() != Move.NONE);
+		assertEquals(3, search.getThreads());
+	}
+	
+	/**
+	 * Runs shallow searches one after another, which end before the helpers may have started,
+	 * and checks every one of them comes back.
+	 */
+	@Test
+	public void shallowSearches() throws Exception {
+		game.board.setUpGame();
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 50; i++)
+			assertTrue(search.search(game, SearchLimits.depth(1)).getMove() != Move.NONE);
+		
+		assertTrue(System.currentTimeMillis() - start < 10000);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.Move;
+import chess.Position;
+import chess.Zobrist;
+import chess.engine.PawnTable;
+import chess.pieces.*;
+
+public class PawnTableTest {
+	
+	public static Game game;
+	public static Position position;
+	public static PawnTable table;
+	
+	/**
+	 * This method is ran before every test. It creates a new game and a small pawn table.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		position = game.board.getPosition();
+		table = new PawnTable(64);
+	}
+	
+	/**
+	 * Scores doubled, isolated and passed Pawns of both teams.
+	 */
+	@Test
+	public void structureTerms() throws Exception {
+		Fixtures.addPieces(game, new Pawn(PieceColor.WHITE, 0, 6), new Pawn(PieceColor.WHITE, 0, 5), new Pawn(PieceColor.WHITE, 4, 3),
+			new Pawn(PieceColor.BLACK, 7, 1));
+		PawnTable.Entry entry = table.probe(position);
+		int whiteMidgame = PawnTable.DOUBLED_MIDGAME + 3 * PawnTable.ISOLATED_MIDGAME + PawnTable.PASSED_MIDGAME[1]
+			+ PawnTable.PASSED_MIDGAME[3];
+		int whiteEndgame = PawnTable.DOUBLED_ENDGAME + 3 * PawnTable.ISOLATED_ENDGAME + PawnTable.PASSED_ENDGAME[1]
+			+ PawnTable.PASSED_ENDGAME[3];
+		assertEquals(whiteMidgame - PawnTable.ISOLATED_MIDGAME, entry.getMidgame());
+		assertEquals(whiteEndgame - PawnTable.ISOLATED_ENDGAME, entry.getEndgame());
+	}
+	
+	/**
+	 * Finds a structure it already scored, and doesn't confuse it with another one.
+	 */
+	@Test
+	public void hitsStoredStructure() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 4, 7), new Pawn(PieceColor.WHITE, 3, 6), new Pawn(PieceColor.WHITE, 4, 6),
+			new King(PieceColor.BLACK, 4, 0), new Pawn(PieceColor.BLACK, 3, 1));
+		int first = table.probe(position).getMidgame();
+		game.board.makeMove(Move.encode(Position.toSquare(4, 7), Position.toSquare(5, 7), 0));
+		assertEquals(first, table.probe(position).getMidgame());
+		assertEquals(1, table.getHits());
+		game.board.makeMove(Move.encode(Position.toSquare(3, 1), Position.toSquare(3, 3), Move.DOUBLE_PUSH));
+		table.probe(position);
+		game.board.unmakeMove();
+		game.board.unmakeMove();
+		assertEquals(first, table.probe(position).getMidgame());
+		assertEquals(4, table.getProbes());
+	}
+	
+	/**
+	 * Keeps the pawn key equal to the one counted from scratch, and unchanged by moves of other
+	 * pieces and by a Pawn losing its first move.
+	 */
+	@Test
+	public void pawnKey() throws Exception {
+		game.board.setUpGame();
+		long start = position.getPawnKey();
+		assertEquals(Zobrist.computePawnKey(position), start);
+		game.board.makeMove(Move.encode(Position.toSquare(6, 7), Position.toSquare(5, 5), 0));
+		assertEquals(start, position.getPawnKey());
+		game.board.makeMove(Move.encode(Position.toSquare(4, 1), Position.toSquare(4, 2), 0));
+		assertTrue(start != position.getPawnKey());
+		assertEquals(Zobrist.computePawnKey(position), position.getPawnKey());
+		game.board.unmakeMove();
+		assertEquals(start, position.getPawnKey());
+		((Pawn) position.getPiece(Position.toSquare(0, 6))).setFirstMove(false);
+		position.refreshKey(Position.toSquare(0, 6));
+		assertEquals(start, position.getPawnKey());
+	}
+}
@@ -0,0 +1,114 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.MoveGenerator;
+import chess.Perft;
+import chess.pieces.*;
+
+public class PerftTest {
+
+	public static Game game;
+	public static Perft perft;
+
+	/**
+	 * This method is ran before every test. It creates a new game and a perft counter for it.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		perft = new Perft(game);
+	}
+
+	/**
+	 * Puts High Templars, Ghosts and a few other pieces on the board, with one High Templar
+	 * close to casting its storm.
+	 */
+	private void setUpVariantPosition() {
+		Piece pieces[] = { new King(PieceColor.WHITE, 4, 7), new HighTemplar(PieceColor.WHITE, 3, 6),
+			new Ghost(PieceColor.WHITE, 5, 6), new Rook(PieceColor.WHITE, 0, 7), new Pawn(PieceColor.WHITE, 4, 6),
+			new King(PieceColor.BLACK, 4, 0), new HighTemplar(PieceColor.BLACK, 3, 2), new Ghost(PieceColor.BLACK, 6, 1),
+			new Bishop(PieceColor.BLACK, 2, 0), new Pawn(PieceColor.BLACK, 3, 1) };
+		for (int i = 0; i < pieces.length; i++) {
+			game.board.addPiece(pieces[i]);
+			game.addToTeam(pieces[i].getColor(), pieces[i]);
+		}
+
+		((HighTemplar) pieces[6]).setEnergy(2);
+	}
+
+	/**
+	 * Counts the leaves of the move tree by playing out every pseudo-legal move and dropping
+	 * the ones that leave the King attacked, which is slow but doesn't depend on pins.
+	 * @param depth, the number of plies to search
+	 * @return the number of leaf nodes
+	 */
+	private long bruteForce(int depth) {
+		if (depth == 0)
+			return 1;
+
+		PieceColor color = game.getPlayerColor(game.getTurn());
+		int moves[] = new int[MoveGenerator.MAX_MOVES];
+		int count = game.getMoveGenerator().generatePseudoLegalMoves(color, moves);
+		long nodes = 0;
+		for (int i = 0; i < count; i++) {
+			game.board.makeMove(moves[i]);
+			if (game.board.getPosition().getPieces(color, Piece.Type.KING) != 0 && !game.board.isKingAttacked(color))
+				nodes += bruteForce(depth - 1);
+
+			game.board.unmakeMove();
+		}
+
+		return nodes;
+	}
+
+	/**
+	 * Checks the published counts of the standard starting position.
+	 */
+	@Test
+	public void standardPosition() throws Exception {
+		game.board.setUpGame();
+		assertEquals(20, perft.perft(1));
+		assertEquals(400, perft.perft(2));
+		assertEquals(8902, perft.perft(3));
+		assertEquals(197281, perft.perft(4));
+	}
+
+	/**
+	 * Checks the counts of a position with High Templars and Ghosts against playing out every
+	 * move, deep enough for the storm to charge.
+	 */
+	@Test
+	public void variantPosition() throws Exception {
+		setUpVariantPosition();
+		for (int depth = 1; depth <= 4; depth++)
+			assertEquals(bruteForce(depth), perft.perft(depth));
+	}
+
+	/**
+	 * Checks that divide prints every root move and adds them up to the perft count, and that
+	 * the board is left as it was.
+	 */
+	@Test
+	public void divide() throws Exception {
+		setUpVariantPosition();
+		long occupied = game.board.getPosition().getOccupied();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		long total = perft.divide(3, new PrintStream(bytes));
+		String output = bytes.toString();
+		assertEquals(perft.perft(3), total);
+		assertTrue(output.contains("e1f1: "));
+		assertTrue(output.contains("Nodes: " + total));
+		assertEquals(occupied, game.board.getPosition().getOccupied());
+		assertEquals(Game.PLAYER1, game.getTurn());
+		assertEquals(0, game.board.getUndoCount());
+	}
+}
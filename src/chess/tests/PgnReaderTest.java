@@ -0,0 +1,131 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.Fen;
+import chess.Game;
+import chess.pgn.PgnListener;
+import chess.pgn.PgnReader;
+
+public class PgnReaderTest {
+	
+	public static ArrayList<String> events;
+	public static Fen fen;
+	
+	/**
+	 * This method is ran before every test. It clears the record of what the reader sent.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		events = new ArrayList<String>();
+		fen = new Fen();
+	}
+	
+	/**
+	 * Reads a record with a buffer of a few bytes, so tokens are split across refills, and
+	 * writes down everything the reader sends.
+	 * @param record, the game record
+	 * @return the number of games read
+	 */
+	private long read(String record) throws Exception {
+		PgnListener listener = new PgnListener() {
+			public void startGame() {
+				events.add("start");
+			}
+			
+			public void tag(String name, String value) {
+				events.add(name + "=" + value);
+			}
+			
+			public void move(Game game, int move, CharSequence san) {
+				events.add(san.toString());
+			}
+			
+			public void illegal(Game game, CharSequence text) {
+				events.add("illegal " + text);
+			}
+			
+			public void endGame(Game game, String result) {
+				events.add("end " + result + " " + fen.write(game));
+			}
+		};
+		PgnReader reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream(record.getBytes("ISO-8859-1"))),
+			listener, 7);
+		long games = reader.readAll();
+		assertEquals(games, reader.getGames());
+		return games;
+	}
+	
+	/**
+	 * Replays two games one after the other, passing on their tags and moves.
+	 */
+	@Test
+	public void twoGames() throws Exception {
+		assertEquals(2, read("[Event \"First\"]\n[Site \"Here \\\"and\\\" there\"]\n\n1. f3 e5 2. g4 Qh4# 0-1\n\n"
+			+ "[Event \"Second\"]\n\n1. e4 1-0\n"));
+		assertEquals("start", events.get(0));
+		assertEquals("Event=First", events.get(1));
+		assertEquals("Site=Here \"and\" there", events.get(2));
+		assertEquals("f3", events.get(3));
+		assertEquals("Qh4#", events.get(6));
+		assertEquals("end 0-1 rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w a7b7c7d7f7g7h7a2b2c2d2e2h2 -", events.get(7));
+		assertEquals("start", events.get(8));
+		assertEquals("e4", events.get(10));
+		assertEquals("1-0", events.get(11).split(" ")[1]);
+		assertEquals(12, events.size());
+	}
+	
+	/**
+	 * Skips comments, annotations, escaped lines and side lines, however deep.
+	 */
+	@Test
+	public void skipsCommentary() throws Exception {
+		assertEquals(1, read("% written by hand\n1. e4 {the best} e5 $1 ; by far\n2. Nf3 (2. f4 exf4 (2... d5)) 2... Nc6 *"));
+		assertEquals("[start, e4, e5, Nf3, Nc6]", events.subList(0, 5).toString());
+		assertTrue(events.get(5).startsWith("end * r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/"));
+	}
+	
+	/**
+	 * Starts a game from its FEN tag.
+	 */
+	@Test
+	public void setUpTag() throws Exception {
+		read("[FEN \"4k3/8/8/3n4/8/8/3T4/4K3 w - d2:3\"]\n1. Txd5 Kf7 1/2-1/2");
+		assertEquals("[start, FEN=4k3/8/8/3n4/8/8/3T4/4K3 w - d2:3, Txd5, Kf7, end 1/2-1/2 8/5k2/8/8/8/8/3T4/4K3 w - -]",
+			events.toString());
+	}
+	
+	/**
+	 * Stops replaying a game at a move that can't be played, and picks up again at the next game.
+	 */
+	@Test
+	public void illegalMoves() throws Exception {
+		assertEquals(3, read("1. e4 e6 2. e5 e5 3. d4 d5 0-1\n[FEN \"not a position\"]\n1. e4 *\n1. d4 1/2-1/2"));
+		assertEquals("[start, e4, e6, e5, illegal e5]", events.subList(0, 5).toString());
+		assertTrue(events.get(5).startsWith("end 0-1 "));
+		assertEquals("start", events.get(6));
+		assertEquals("illegal not a position", events.get(8));
+		assertEquals("end *", events.get(9).substring(0, 5));
+		assertEquals("[start, d4]", events.subList(10, 12).toString());
+	}
+	
+	/**
+	 * Ends a game without a result when the next one starts or the record runs out.
+	 */
+	@Test
+	public void missingResults() throws Exception {
+		assertEquals(2, read("[Event \"First\"]\n1. e4\n[Event \"Second\"]\n1. d4 d5"));
+		assertEquals("[start, Event=First, e4]", events.subList(0, 3).toString());
+		assertTrue(events.get(3).startsWith("end * "));
+		assertEquals("[start, Event=Second, d4, d5]", events.subList(4, 8).toString());
+		assertTrue(events.get(8).startsWith("end * "));
+		assertEquals(0, read(" \n{nothing here}\n"));
+	}
+}
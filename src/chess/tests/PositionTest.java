@@ -0,0 +1,140 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.Move;
+import chess.PieceSquareTables;
+import chess.Position;
+import chess.pieces.*;
+
+public class PositionTest {
+
+	public static Game game;
+	public static Position position;
+
+	/**
+	 * This method is ran before every test. It creates a new game and retrieves the
+	 * bitboards backing its board.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		position = game.board.getPosition();
+	}
+
+	/**
+	 * Adds pieces through the board and checks that the color and type bitboards
+	 * contain exactly the squares of those pieces.
+	 */
+	@Test
+	public void addPieceSetsBits() throws Exception {
+		game.board.addPiece(new Rook(PieceColor.WHITE, 0, 7));
+		game.board.addPiece(new HighTemplar(PieceColor.BLACK, 3, 2));
+		game.board.addPiece(new Ghost(PieceColor.WHITE, 5, 5));
+		long rookBit = 1L << Position.toSquare(0, 7);
+		long templarBit = 1L << Position.toSquare(3, 2);
+		long ghostBit = 1L << Position.toSquare(5, 5);
+		assertEquals(rookBit | templarBit | ghostBit, position.getOccupied());
+		assertEquals(rookBit | ghostBit, position.getColorBoard(PieceColor.WHITE));
+		assertEquals(templarBit, position.getColorBoard(PieceColor.BLACK));
+		assertEquals(templarBit, position.getTypeBoard(Piece.Type.HIGHTEMPLAR));
+		assertEquals(ghostBit, position.getPieces(PieceColor.WHITE, Piece.Type.GHOST));
+		assertEquals(0L, position.getPieces(PieceColor.BLACK, Piece.Type.GHOST));
+	}
+
+	/**
+	 * Removes pieces through the board and checks that every bitboard is cleared.
+	 */
+	@Test
+	public void removePieceClearsBits() throws Exception {
+		game.board.addPiece(new Queen(PieceColor.BLACK, 4, 4));
+		game.board.addPiece(new Pawn(PieceColor.BLACK, 4, 1));
+		game.board.removePiece(4, 4);
+		assertNull(game.board.getPiece(4, 4));
+		assertFalse(position.isOccupied(Position.toSquare(4, 4)));
+		assertEquals(0L, position.getTypeBoard(Piece.Type.QUEEN));
+		assertEquals(1L << Position.toSquare(4, 1), position.getColorBoard(PieceColor.BLACK));
+	}
+
+	/**
+	 * Replaces a piece on an occupied square and checks that the old piece's bits are gone.
+	 */
+	@Test
+	public void replacePiece() throws Exception {
+		game.board.addPiece(new Knight(PieceColor.WHITE, 2, 2));
+		Bishop bishop = new Bishop(PieceColor.BLACK, 2, 2);
+		game.board.addPiece(bishop);
+		assertEquals(bishop, game.board.getPiece(2, 2));
+		assertEquals(0L, position.getTypeBoard(Piece.Type.KNIGHT));
+		assertEquals(0L, position.getColorBoard(PieceColor.WHITE));
+	}
+
+	/**
+	 * Sets up a standard game and checks the occupancy of both teams.
+	 */
+	@Test
+	public void standardSetUp() throws Exception {
+		game.board.setUpGame();
+		assertEquals(0x000000000000FFFFL, position.getColorBoard(PieceColor.BLACK));
+		assertEquals(0xFFFF000000000000L, position.getColorBoard(PieceColor.WHITE));
+		assertEquals(16, Long.bitCount(position.getTypeBoard(Piece.Type.PAWN)));
+		assertEquals(1L << Position.toSquare(4, 7), position.getPieces(PieceColor.WHITE, Piece.Type.KING));
+	}
+
+	/**
+	 * Adds up the piece-square scores of one team from scratch.
+	 * @param color, the color of the team
+	 * @param midgame, true for the middlegame score, false for the endgame score
+	 * @return the score of the team
+	 */
+	private int scoreFromScratch(PieceColor color, boolean midgame) {
+		int score = 0;
+		for (long pieces = position.getColorBoard(color); pieces != 0; pieces &= pieces - 1) {
+			int square = Long.numberOfTrailingZeros(pieces);
+			Piece piece = position.getPiece(square);
+			score += midgame ? PieceSquareTables.midgame(piece, square) : PieceSquareTables.endgame(piece, square);
+		}
+
+		return score;
+	}
+
+	/**
+	 * Checks the piece-square scores and the game phase start out the same for both teams,
+	 * and stay equal to the scores counted from scratch through captures and taking them back.
+	 */
+	@Test
+	public void pieceSquareScores() throws Exception {
+		game.board.setUpGame();
+		assertEquals(PieceSquareTables.MAX_PHASE, position.getPhase());
+		assertEquals(position.getMidgame(PieceColor.WHITE), position.getMidgame(PieceColor.BLACK));
+		assertEquals(position.getEndgame(PieceColor.WHITE), position.getEndgame(PieceColor.BLACK));
+		int moves[] = { Move.encode(Position.toSquare(4, 6), Position.toSquare(4, 4), Move.DOUBLE_PUSH),
+			Move.encode(Position.toSquare(3, 1), Position.toSquare(3, 3), Move.DOUBLE_PUSH),
+			Move.encode(Position.toSquare(4, 4), Position.toSquare(3, 3), Move.CAPTURE),
+			Move.encode(Position.toSquare(3, 0), Position.toSquare(3, 3), Move.CAPTURE) };
+		for (int i = 0; i < moves.length; i++) {
+			game.board.makeMove(moves[i]);
+			for (PieceColor color : new PieceColor[] { PieceColor.WHITE, PieceColor.BLACK }) {
+				assertEquals(scoreFromScratch(color, true), position.getMidgame(color));
+				assertEquals(scoreFromScratch(color, false), position.getEndgame(color));
+			}
+		}
+
+		assertEquals(PieceSquareTables.MAX_PHASE, position.getPhase());
+		game.board.makeMove(Move.encode(Position.toSquare(3, 7), Position.toSquare(3, 3), Move.CAPTURE));
+		assertEquals(PieceSquareTables.MAX_PHASE - 4, position.getPhase());
+		for (int i = 0; i <= moves.length; i++)
+			game.board.unmakeMove();
+
+		assertEquals(position.getMidgame(PieceColor.WHITE), position.getMidgame(PieceColor.BLACK));
+		assertEquals(scoreFromScratch(PieceColor.BLACK, false), position.getEndgame(PieceColor.BLACK));
+		position.clear();
+		assertEquals(0, position.getPhase());
+		assertEquals(0, position.getMidgame(PieceColor.WHITE));
+	}
+}
@@ -0,0 +1,111 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.Fen;
+import chess.Game;
+import chess.Move;
+import chess.Position;
+import chess.enums.PieceColor;
+import chess.pgn.San;
+
+public class SanTest {
+	
+	public static Game game;
+	public static Fen fen;
+	public static San san;
+	
+	/**
+	 * This method is ran before every test. It creates an empty game and the readers for it.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		fen = new Fen();
+		san = new San(game);
+	}
+	
+	/**
+	 * Reads a move, checks it goes between the given squares, and writes it back the same way.
+	 * @param text, the move in algebraic notation
+	 * @param fromX, the column the move should start from
+	 * @param fromY, the row the move should start from
+	 * @param toX, the column the move should end on
+	 * @param toY, the row the move should end on
+	 * @return the move
+	 */
+	private int play(String text, int fromX, int fromY, int toX, int toY) {
+		int move = san.resolve(text);
+		assertEquals(Position.toSquare(fromX, fromY), Move.getFrom(move));
+		assertEquals(Position.toSquare(toX, toY), Move.getTo(move));
+		assertEquals(text, san.toString(move));
+		game.board.makeMove(move);
+		return move;
+	}
+	
+	/**
+	 * Plays a short game from the starting position, with a Pawn taking and a mate at the end.
+	 */
+	@Test
+	public void pawnsAndMate() {
+		fen.load(game, Fen.START);
+		play("e4", 4, 6, 4, 4);
+		play("d5", 3, 1, 3, 3);
+		assertTrue(Move.hasFlag(play("exd5", 4, 4, 3, 3), Move.CAPTURE));
+		play("Nf6", 6, 0, 5, 2);
+		fen.load(game, Fen.START);
+		play("f3", 5, 6, 5, 5);
+		play("e5", 4, 1, 4, 3);
+		play("g4", 6, 6, 6, 4);
+		play("Qh4#", 3, 0, 7, 4);
+		assertTrue(game.checkCheckmate(PieceColor.WHITE));
+	}
+	
+	/**
+	 * Tells pieces of the same type apart by their column, then by their row.
+	 */
+	@Test
+	public void disambiguation() {
+		fen.load(game, "4k3/8/8/R7/8/8/8/RN2KN2 w - -");
+		assertEquals(Move.NONE, san.resolve("Nd2"));
+		assertEquals(Move.NONE, san.resolve("Ra3"));
+		play("Nbd2", 1, 7, 3, 6);
+		fen.load(game, "4k3/8/8/R7/8/8/8/RN2KN2 w - -");
+		play("Nfd2", 5, 7, 3, 6);
+		fen.load(game, "4k3/8/8/R7/8/8/8/RN2KN2 w - -");
+		play("R1a3", 0, 7, 0, 5);
+		fen.load(game, "4k3/8/8/R7/8/8/8/RN2KN2 w - -");
+		play("R5a3", 0, 3, 0, 5);
+		assertEquals(Move.NONE, san.resolve("Rb5a3"));
+	}
+	
+	/**
+	 * Writes storms and snipes as captures of the piece they hit.
+	 */
+	@Test
+	public void stormsAndSnipes() {
+		fen.load(game, "4k3/8/8/3n4/8/8/3T4/4K3 w - d2:3");
+		int storm = play("Txd5", 3, 6, 3, 3);
+		assertTrue(Move.hasFlag(storm, Move.STORM));
+		assertEquals(Position.toSquare(3, 6), game.board.getPiece(3, 6).getSquare()); // the High Templar stays put
+		fen.load(game, "4k3/8/8/3t4/8/8/G7/4K3 w - -");
+		assertTrue(Move.hasFlag(play("Gxd5", 0, 6, 3, 3), Move.SNIPE));
+	}
+	
+	/**
+	 * Reads past check signs and annotations, and turns down moves that aren't legal or
+	 * aren't written right.
+	 */
+	@Test
+	public void badMoves() {
+		fen.load(game, Fen.START);
+		assertEquals(Move.encode(Position.toSquare(6, 7), Position.toSquare(5, 5), 0), san.resolve("Nf3!?"));
+		assertEquals(Move.encode(Position.toSquare(4, 6), Position.toSquare(4, 4), Move.DOUBLE_PUSH), san.resolve("e4+"));
+		String bad[] = { "", "e", "e5", "Nf4", "Nxf3", "exd3", "Ke2", "Xe4", "Pe4", "e9", "i4", "e4=Q", "O-O" };
+		for (int i = 0; i < bad.length; i++)
+			assertEquals(bad[i], Move.NONE, san.resolve(bad[i]));
+	}
+}
@@ -0,0 +1,154 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.Move;
+import chess.Position;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.pieces.*;
+
+public class SearchTest {
+	
+	public static Game game;
+	public static Search search;
+	
+	/**
+	 * This method is ran before every test. It creates a new game and a search for it.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		search = new Search(game);
+	}
+	
+	/**
+	 * Finds a back rank mate in one move.
+	 */
+	@Test
+	public void mateInOne() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 4, 7), new Rook(PieceColor.WHITE, 0, 6),
+			new King(PieceColor.BLACK, 7, 0), new Pawn(PieceColor.BLACK, 6, 1), new Pawn(PieceColor.BLACK, 7, 1));
+		SearchResult result = search.search(3);
+		assertEquals(Move.encode(Position.toSquare(0, 6), Position.toSquare(0, 0), 0), result.getMove());
+		assertEquals(Search.MATE - 1, result.getScore());
+	}
+	
+	/**
+	 * Takes a Queen that isn't defended, and leaves the board as it was.
+	 */
+	@Test
+	public void winsMaterial() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 4, 7), new Knight(PieceColor.WHITE, 2, 5),
+			new King(PieceColor.BLACK, 4, 0), new Queen(PieceColor.BLACK, 3, 3), new Pawn(PieceColor.BLACK, 0, 1));
+		long key = game.board.getKey();
+		SearchResult result = search.search(4);
+		assertEquals(Move.encode(Position.toSquare(2, 5), Position.toSquare(3, 3), Move.CAPTURE), result.getMove());
+		assertTrue(result.getScore() >= 100); // a Knight against a Pawn once the Queen is gone
+		assertEquals(key, game.board.getKey());
+		assertEquals(0, game.board.getUndoCount());
+	}
+	
+	/**
+	 * Leaves a Pawn defended by another Pawn alone, even at a depth that ends right after the
+	 * Queen would take it.
+	 */
+	@Test
+	public void avoidsDefendedPawn() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 7, 7), new Queen(PieceColor.WHITE, 4, 5),
+			new King(PieceColor.BLACK, 7, 0), new Pawn(PieceColor.BLACK, 4, 3), new Pawn(PieceColor.BLACK, 3, 2));
+		SearchResult result = search.search(1);
+		assertTrue(result.getMove() != Move.encode(Position.toSquare(4, 5), Position.toSquare(4, 3), Move.CAPTURE));
+		assertTrue(result.getScore() >= 600);
+	}
+	
+	/**
+	 * Searches the opening position of a standard game and checks a legal move comes back
+	 * with a score near even.
+	 */
+	@Test
+	public void openingPosition() throws Exception {
+		game.board.setUpGame();
+		SearchResult result = search.search(4);
+		assertEquals(4, result.getDepth());
+		assertTrue(result.getNodes() > 0);
+		assertTrue(Math.abs(result.getScore()) < 100);
+		assertEquals(PieceColor.WHITE, game.board.getPosition().getPiece(Move.getFrom(result.getMove())).getColor());
+	}
+	
+	/**
+	 * Gives the team to move no legal move and checks no move comes back.
+	 */
+	@Test
+	public void noLegalMove() throws Exception {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 0, 7), new Queen(PieceColor.BLACK, 1, 5),
+			new King(PieceColor.BLACK, 7, 0));
+		SearchResult result = search.search(3);
+		assertEquals(Move.NONE, result.getMove());
+		assertEquals(Search.DRAW, result.getScore());
+	}
+	
+	/**
+	 * Searches with a node limit twice from scratch and checks both searches stop at the
+	 * same place with the same answer.
+	 */
+	@Test
+	public void nodeLimitIsReproducible() throws Exception {
+		game.board.setUpGame();
+		SearchLimits limits = new SearchLimits();
+		limits.setNodes(5000);
+		SearchResult first = search.search(limits);
+		SearchResult second = new Search(game).search(limits);
+		assertEquals(first.getMove(), second.getMove());
+		assertEquals(first.getDepth(), second.getDepth());
+		assertEquals(5001, first.getNodes());
+		assertTrue(first.getMove() != Move.NONE);
+		assertEquals(0, game.board.getUndoCount());
+	}
+	
+	/**
+	 * Gives a deep search a short hard time limit and checks it answers in time with a move
+	 * from a complete iteration.
+	 */
+	@Test
+	public void hardTimeLimit() throws Exception {
+		game.board.setUpGame();
+		SearchLimits limits = SearchLimits.moveTime(100);
+		long start = System.currentTimeMillis();
+		SearchResult result = search.search(limits);
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		assertTrue(result.getDepth() >= 1);
+		assertTrue(result.getDepth() < limits.getDepth());
+		assertTrue(result.getMove() != Move.NONE);
+		assertEquals(0, game.board.getUndoCount());
+	}
+	
+	/**
+	 * Stops a search that has no limits from another thread.
+	 */
+	@Test
+	public void stopFromAnotherThread() throws Exception {
+		game.board.setUpGame();
+		Thread stopper = new Thread(new Runnable() {
+			public void run() {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					return;
+				}
+				
+				search.stop();
+			}
+		});
+		stopper.start();
+		SearchResult result = search.search(new SearchLimits());
+		stopper.join();
+		assertTrue(result.getMove() != Move.NONE);
+	}
+}
@@ -0,0 +1,120 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+import chess.engine.StaticExchange;
+import chess.pieces.*;
+
+public class StaticExchangeTest {
+	
+	public static Game game;
+	public static StaticExchange exchange;
+	
+	/**
+	 * This method is ran before every test. It creates a new game with both Kings tucked away
+	 * in the corners, and an exchange to evaluate its captures.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		exchange = new StaticExchange();
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 7, 7), new King(PieceColor.BLACK, 7, 0));
+	}
+	
+	/**
+	 * Finds the legal move of the team to move between the given squares.
+	 * @param fromX, the x-coordinate the move starts on
+	 * @param fromY, the y-coordinate the move starts on
+	 * @param toX, the x-coordinate the move ends on
+	 * @param toY, the y-coordinate the move ends on
+	 * @return the move, with its flags
+	 */
+	private int findMove(int fromX, int fromY, int toX, int toY) {
+		int moves[] = new int[MoveGenerator.MAX_MOVES];
+		int count = game.getMoveGenerator().generateLegalMoves(moves);
+		for (int i = 0; i < count; i++) {
+			if (Move.getFrom(moves[i]) == Position.toSquare(fromX, fromY) && Move.getTo(moves[i]) == Position.toSquare(toX, toY))
+				return moves[i];
+		}
+		
+		fail("no move from (" + fromX + ", " + fromY + ") to (" + toX + ", " + toY + ")");
+		return Move.NONE;
+	}
+	
+	/**
+	 * A Pawn taking a defended Knight still wins a Knight for a Pawn.
+	 */
+	@Test
+	public void pawnTakesDefendedKnight() throws Exception {
+		Fixtures.addPieces(game, new Pawn(PieceColor.WHITE, 3, 4), new Knight(PieceColor.BLACK, 4, 3), new Pawn(PieceColor.BLACK, 5, 2));
+		assertEquals(200, exchange.evaluate(game, findMove(3, 4, 4, 3)));
+	}
+	
+	/**
+	 * A Queen taking a defended Pawn loses the Queen.
+	 */
+	@Test
+	public void queenTakesDefendedPawn() throws Exception {
+		Fixtures.addPieces(game, new Queen(PieceColor.WHITE, 4, 5), new Pawn(PieceColor.BLACK, 4, 3), new Pawn(PieceColor.BLACK, 3, 2));
+		assertEquals(-800, exchange.evaluate(game, findMove(4, 5, 4, 3)));
+	}
+	
+	/**
+	 * A Rook behind the capturing Rook joins in once the first one has gone.
+	 */
+	@Test
+	public void rookBehindRook() throws Exception {
+		Fixtures.addPieces(game, new Rook(PieceColor.WHITE, 0, 6), new Rook(PieceColor.WHITE, 0, 7),
+			new Pawn(PieceColor.BLACK, 0, 2), new Rook(PieceColor.BLACK, 0, 0));
+		assertEquals(100, exchange.evaluate(game, findMove(0, 6, 0, 2)));
+	}
+	
+	/**
+	 * A storm counts the pieces in front of and behind its target, and its own pieces count
+	 * against it.
+	 */
+	@Test
+	public void stormTakesThreePieces() throws Exception {
+		HighTemplar templar = new HighTemplar(PieceColor.WHITE, 3, 6);
+		templar.setEnergy(HighTemplar.STORM_ENERGY);
+		Fixtures.addPieces(game, templar, new Knight(PieceColor.BLACK, 3, 3), new Pawn(PieceColor.BLACK, 3, 2),
+			new Pawn(PieceColor.WHITE, 3, 4), new Rook(PieceColor.BLACK, 2, 2));
+		int move = findMove(3, 6, 3, 3);
+		assertTrue(Move.hasFlag(move, Move.STORM));
+		assertEquals(300, exchange.evaluate(game, move));
+	}
+	
+	/**
+	 * A snipe wins the High Templar outright, however well it's defended, since the Ghost
+	 * never steps onto its square.
+	 */
+	@Test
+	public void snipeCannotBeTakenBack() throws Exception {
+		Fixtures.addPieces(game, new Ghost(PieceColor.WHITE, 0, 7), new HighTemplar(PieceColor.BLACK, 3, 4),
+			new Pawn(PieceColor.BLACK, 2, 3), new Queen(PieceColor.BLACK, 3, 0));
+		int move = findMove(0, 7, 3, 4);
+		assertTrue(Move.hasFlag(move, Move.SNIPE));
+		assertEquals(450, exchange.evaluate(game, move));
+	}
+	
+	/**
+	 * A charged High Templar takes back with a storm that also hits the capturing team's Pawn
+	 * behind the target.
+	 */
+	@Test
+	public void stormTakesBack() throws Exception {
+		HighTemplar templar = new HighTemplar(PieceColor.BLACK, 3, 0);
+		templar.setEnergy(HighTemplar.STORM_ENERGY);
+		Fixtures.addPieces(game, templar, new Knight(PieceColor.WHITE, 2, 5), new Pawn(PieceColor.BLACK, 3, 3),
+			new Pawn(PieceColor.WHITE, 3, 4));
+		assertEquals(-300, exchange.evaluate(game, findMove(2, 5, 3, 3)));
+	}
+}
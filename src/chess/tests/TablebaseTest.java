@@ -0,0 +1,185 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+import chess.engine.EndgameTable;
+import chess.engine.Search;
+import chess.engine.SearchResult;
+import chess.engine.Tablebase;
+import chess.enums.PieceColor;
+import chess.pieces.King;
+import chess.pieces.Queen;
+import chess.pieces.Rook;
+
+public class TablebaseTest {
+	
+	public static Game game;
+	public static Tablebase tablebase;
+	public static File directory;
+	
+	/**
+	 * This method is ran before every test. It creates an empty game, and generates the
+	 * tables the tests look up the first time it's ran.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		if (tablebase == null) {
+			directory = File.createTempFile("tablebase", "");
+			directory.delete();
+			directory.mkdir();
+			directory.deleteOnExit();
+			tablebase = new Tablebase(directory);
+			assertEquals("KQvK", tablebase.generate("KQvK"));
+			assertEquals("KRvK", tablebase.generate("KRvK"));
+			new File(directory, "KQvK" + EndgameTable.EXTENSION).deleteOnExit();
+			new File(directory, "KRvK" + EndgameTable.EXTENSION).deleteOnExit();
+		}
+		
+		game.setTablebase(tablebase);
+	}
+	
+	/**
+	 * Writes a file of one short for every King and Queen placement and team to move.
+	 */
+	@Test
+	public void tableFile() {
+		File file = new File(directory, "KQvK" + EndgameTable.EXTENSION);
+		assertTrue(file.exists());
+		assertEquals(EndgameTable.HEADER_BYTES + 2 * 2 * 64 * 64 * 64, file.length());
+		assertEquals(3, tablebase.getTable("KQvK").getPieceCount());
+		assertNull(tablebase.getTable("KBvK"));
+	}
+	
+	/**
+	 * Finds a mate in one, and the mated position after it.
+	 */
+	@Test
+	public void mateInOne() {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 1, 2), new Queen(PieceColor.WHITE, 7, 1), new King(PieceColor.BLACK, 0, 0));
+		int result = game.getTablebaseResult();
+		assertTrue(Tablebase.isWin(result));
+		assertEquals(1, Tablebase.getDistance(result));
+		game.board.makeMove(Move.encode(Position.toSquare(7, 1), Position.toSquare(1, 1), 0));
+		result = game.getTablebaseResult();
+		assertTrue(Tablebase.isLoss(result));
+		assertEquals(0, Tablebase.getDistance(result));
+		assertTrue(game.checkCheckmate(PieceColor.BLACK));
+	}
+	
+	/**
+	 * Has a lone Queen that the King can take as a draw, as is a position of two Kings.
+	 */
+	@Test
+	public void draws() {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 7, 7), new Queen(PieceColor.WHITE, 1, 1), new King(PieceColor.BLACK, 0, 0));
+		game.board.makeNullMove();
+		assertEquals(Tablebase.DRAW, game.getTablebaseResult());
+		assertTrue(game.checkTablebaseDraw());
+		game.board.makeMove(Move.encode(Position.toSquare(0, 0), Position.toSquare(1, 1), Move.CAPTURE));
+		assertEquals(Tablebase.DRAW, game.getTablebaseResult());
+	}
+	
+	/**
+	 * Leaves positions with Pawns, more pieces or missing tables to the search.
+	 */
+	@Test
+	public void unknownPositions() {
+		game.board.setUpGame();
+		assertEquals(Tablebase.UNKNOWN, game.getTablebaseResult());
+		assertFalse(game.checkTablebaseDraw());
+		game = new Game();
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 7, 7), new Rook(PieceColor.WHITE, 3, 3), new Rook(PieceColor.WHITE, 4, 4),
+			new King(PieceColor.BLACK, 0, 0));
+		assertEquals(Tablebase.UNKNOWN, tablebase.probe(game));
+	}
+	
+	/**
+	 * Checks random positions against what their moves lead to: a win mates one ply after the
+	 * quickest mated position a move leads to, and a loss one ply after the slowest.
+	 */
+	@Test
+	public void agreesWithMoves() {
+		Random random = new Random(7);
+		int moves[] = new int[MoveGenerator.MAX_MOVES];
+		int checked = 0;
+		while (checked < 300) {
+			game = new Game();
+			int squares[] = new int[3];
+			for (int i = 0; i < squares.length; i++)
+				squares[i] = random.nextInt(Position.NUM_SQUARES);
+			
+			if (squares[0] == squares[1] || squares[0] == squares[2] || squares[1] == squares[2])
+				continue;
+			
+			Fixtures.addPieces(game, new King(PieceColor.WHITE, Position.getX(squares[0]), Position.getY(squares[0])),
+				new Rook(PieceColor.WHITE, Position.getX(squares[1]), Position.getY(squares[1])),
+				new King(PieceColor.BLACK, Position.getX(squares[2]), Position.getY(squares[2])));
+			PieceColor color = PieceColor.WHITE;
+			if (random.nextBoolean()) {
+				game.board.makeNullMove();
+				color = PieceColor.BLACK;
+			}
+			
+			int result = tablebase.probe(game);
+			if (result == Tablebase.UNKNOWN)
+				continue; // the team that just moved is in check
+			
+			int count = game.getMoveGenerator().generateLegalMoves(color, moves);
+			int quickestWin = Integer.MAX_VALUE;
+			int slowestLoss = -1;
+			boolean drawn = false;
+			for (int i = 0; i < count; i++) {
+				game.board.makeMove(moves[i]);
+				int child = tablebase.probe(game);
+				game.board.unmakeMove();
+				assertTrue(child != Tablebase.UNKNOWN);
+				if (Tablebase.isLoss(child))
+					quickestWin = Math.min(quickestWin, Tablebase.getDistance(child) + 1);
+				else if (Tablebase.isWin(child))
+					slowestLoss = Math.max(slowestLoss, Tablebase.getDistance(child) + 1);
+				else
+					drawn = true;
+			}
+			
+			if (quickestWin != Integer.MAX_VALUE) {
+				assertTrue(Tablebase.isWin(result));
+				assertEquals(quickestWin, Tablebase.getDistance(result));
+			} else if (count == 0) {
+				assertEquals(game.board.isKingAttacked(color), Tablebase.isLoss(result));
+			} else if (drawn) {
+				assertEquals(Tablebase.DRAW, result);
+			} else {
+				assertTrue(Tablebase.isLoss(result));
+				assertEquals(slowestLoss, Tablebase.getDistance(result));
+			}
+			
+			checked++;
+		}
+	}
+	
+	/**
+	 * Plays a mate from the tablebase without searching.
+	 */
+	@Test
+	public void searchUsesTablebase() {
+		Fixtures.addPieces(game, new King(PieceColor.WHITE, 1, 2), new Queen(PieceColor.WHITE, 7, 1), new King(PieceColor.BLACK, 0, 0));
+		Search search = new Search(game);
+		search.setTablebase(tablebase);
+		SearchResult result = search.search(6);
+		assertEquals(Search.MATE - 1, result.getScore());
+		assertEquals(0, result.getDepth());
+		game.board.makeMove(result.getMove());
+		assertTrue(game.checkCheckmate(PieceColor.BLACK));
+	}
+}
@@ -0,0 +1,122 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.engine.EndgameTable;
+import chess.engine.Tablebase;
+import chess.tournament.Engine;
+import chess.tournament.TimeControl;
+import chess.tournament.Tournament;
+import chess.tournament.TournamentResult;
+
+public class TournamentTest {
+	
+	public static Engine first;
+	public static Engine second;
+	public static Tournament tournament;
+	
+	/**
+	 * This method is ran before every test. It sets up a short tournament of engines that
+	 * only search one ply, with plenty of time, so every run plays the same games.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		first = new Engine("first", 1);
+		second = new Engine("second", 1);
+		first.setDepth(1);
+		second.setDepth(1);
+		tournament = new Tournament(first, second, new TimeControl(60000, 0));
+		tournament.setPairs(3);
+		tournament.setThreads(2);
+		tournament.setMaxPlies(20);
+		tournament.setSeed(7);
+	}
+	
+	/**
+	 * Plays the tournament and returns the lines of the games in the results, in order.
+	 * @return the game lines
+	 */
+	private String[] play() throws Exception {
+		StringWriter out = new StringWriter();
+		TournamentResult result = tournament.run(out);
+		String lines[] = out.toString().split("\n");
+		assertTrue(lines[0].startsWith("# first vs second, 6 games"));
+		assertEquals("# " + result, lines[lines.length - 1]);
+		String games[] = Arrays.copyOfRange(lines, 1, lines.length - 1);
+		Arrays.sort(games);
+		return games;
+	}
+	
+	/**
+	 * Plays every pair from one opening with the engines taking turns at White, and writes
+	 * every game to the results.
+	 */
+	@Test
+	public void playsPairs() throws Exception {
+		String games[] = play();
+		assertEquals(6, games.length);
+		for (int i = 0; i < games.length; i++) {
+			String fields[] = games[i].split("\t");
+			assertEquals(6, fields.length);
+			assertEquals(String.valueOf(i + 1), fields[0]);
+			assertEquals(i % 2 == 0 ? "first" : "second", fields[1]);
+			assertEquals(i % 2 == 0 ? "second" : "first", fields[2]);
+			assertTrue(Integer.parseInt(fields[5]) <= 20 + Tournament.DEFAULT_RANDOM_PLIES);
+		}
+		
+		assertEquals(Arrays.asList(games), Arrays.asList(play())); // the same seed plays the same games
+	}
+	
+	/**
+	 * Ends games the tablebase knows the result of right away.
+	 */
+	@Test
+	public void tablebaseDecides() throws Exception {
+		File directory = File.createTempFile("tablebase", "");
+		directory.delete();
+		directory.mkdir();
+		directory.deleteOnExit();
+		Tablebase tablebase = new Tablebase(directory);
+		tablebase.generate("KQvK");
+		new File(directory, "KQvK" + EndgameTable.EXTENSION).deleteOnExit();
+		new File(directory, "KvK" + EndgameTable.EXTENSION).deleteOnExit();
+		tournament.setTablebase(tablebase);
+		tournament.setStart("4k3/8/8/8/8/8/8/3QK3 w - -");
+		tournament.setRandomPlies(0);
+		TournamentResult result = tournament.run(new StringWriter());
+		tablebase.close();
+		assertEquals(3, result.getWins()); // with White
+		assertEquals(3, result.getLosses()); // with Black
+		assertEquals(6, result.getTerminations(Tournament.TABLEBASE));
+	}
+	
+	/**
+	 * Works out the Elo difference and its error from the score.
+	 */
+	@Test
+	public void eloDifference() {
+		TournamentResult result = new TournamentResult("first", "second");
+		for (int i = 0; i < 100; i++)
+			result.add(i % 2 == 0, i < 60 ? (i % 2 == 0 ? "1-0" : "0-1") : i < 80 ? "1/2-1/2" : (i % 2 == 0 ? "0-1" : "1-0"),
+				Tournament.CHECKMATE);
+		
+		assertEquals(60, result.getWins());
+		assertEquals(20, result.getDraws());
+		assertEquals(20, result.getLosses());
+		assertEquals(0.7, result.getScore(), 1e-9);
+		assertEquals(147.19, result.getEloDifference(), 0.01);
+		assertTrue(result.getEloError() > 50 && result.getEloError() < 100);
+		assertEquals(0, TournamentResult.toElo(0.5), 1e-9);
+		assertEquals(-result.getEloDifference(), TournamentResult.toElo(0.3), 1e-9);
+		result = new TournamentResult("first", "second");
+		result.add(true, "1-0", Tournament.CHECKMATE);
+		assertTrue(Double.isInfinite(result.getEloDifference()));
+	}
+}
@@ -0,0 +1,105 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.Move;
+import chess.engine.TranspositionTable;
+
+public class TranspositionTableTest {
+	
+	public static TranspositionTable table;
+	
+	/**
+	 * This method is ran before every test. It creates a one megabyte table.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		table = new TranspositionTable(1);
+	}
+	
+	/**
+	 * Stores an entry and reads every field back, including a negative score.
+	 */
+	@Test
+	public void storeAndProbe() throws Exception {
+		long key = 0x123456789ABCDEF0L;
+		int move = Move.encode(12, 28, Move.DOUBLE_PUSH);
+		assertEquals(0L, table.probe(key));
+		table.store(key, move, -345, 7, TranspositionTable.BOUND_LOWER);
+		long data = table.probe(key);
+		assertEquals(move, TranspositionTable.getMove(data));
+		assertEquals(-345, TranspositionTable.getScore(data));
+		assertEquals(7, TranspositionTable.getDepth(data));
+		assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.getBound(data));
+		assertEquals(0L, table.probe(key ^ 1));
+		assertEquals(65536, table.getCapacity()); // 16 bytes an entry
+	}
+	
+	/**
+	 * Fills a bucket past its size and checks the shallowest entry is the one replaced, and
+	 * that entries from an older search give way to new ones.
+	 */
+	@Test
+	public void depthPreferredReplacement() throws Exception {
+		long bucket = 5L << 32; // keys that differ only in their low bits share a bucket
+		for (int i = 0; i < 4; i++)
+			table.store(bucket | i, Move.NONE, i, 10 + i, TranspositionTable.BOUND_EXACT);
+		
+		table.store(bucket | 4, Move.NONE, 4, 20, TranspositionTable.BOUND_EXACT);
+		assertEquals(0L, table.probe(bucket));
+		for (int i = 1; i <= 4; i++)
+			assertEquals(i, TranspositionTable.getScore(table.probe(bucket | i)));
+		
+		table.newSearch();
+		table.newSearch();
+		table.store(bucket | 5, Move.NONE, 5, 1, TranspositionTable.BOUND_UPPER);
+		assertFalse(table.probe(bucket | 5) == 0L);
+		assertFalse(table.probe(bucket | 4) == 0L);
+	}
+	
+	/**
+	 * Stores the same position again without a move and checks the old move is kept.
+	 */
+	@Test
+	public void keepsMove() throws Exception {
+		int move = Move.encode(6, 21, 0);
+		table.store(42L, move, 10, 3, TranspositionTable.BOUND_EXACT);
+		table.store(42L, Move.NONE, 12, 4, TranspositionTable.BOUND_UPPER);
+		long data = table.probe(42L);
+		assertEquals(move, TranspositionTable.getMove(data));
+		assertEquals(12, TranspositionTable.getScore(data));
+	}
+	
+	/**
+	 * Writes entries from several threads at once while they read their own entries back,
+	 * and checks that a read never returns data stored under another key.
+	 */
+	@Test
+	public void concurrentAccess() throws Exception {
+		final boolean failed[] = new boolean[1];
+		Thread threads[] = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int id = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					for (int i = 0; i < 200000; i++) {
+						long key = (i * 0x9E3779B97F4A7C15L) & ~0xFFFFL;
+						table.store(key | id, id, id, i & 63, TranspositionTable.BOUND_EXACT);
+						long data = table.probe(key | id);
+						if (data != 0 && TranspositionTable.getScore(data) != id)
+							failed[0] = true;
+					}
+				}
+			});
+			threads[t].start();
+		}
+		
+		for (int t = 0; t < threads.length; t++)
+			threads[t].join();
+		
+		assertFalse(failed[0]);
+	}
+}
@@ -0,0 +1,126 @@
+package chess.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import chess.enums.*;
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.Position;
+import chess.Zobrist;
+import chess.pieces.*;
+
+public class ZobristTest {
+	
+	public static Game game;
+	
+	/**
+	 * This method is ran before every test. It creates a new game with the standard set up.
+	 */
+	@Before
+	public void setUpClass() throws Exception {
+		game = new Game();
+		game.board.setUpGame();
+	}
+	
+	/**
+	 * Makes the move between the two given coordinates.
+	 * @param fromX, the x-coordinate to move from
+	 * @param fromY, the y-coordinate to move from
+	 * @param toX, the x-coordinate to move to
+	 * @param toY, the y-coordinate to move to
+	 * @param flags, the Move flags of the move
+	 */
+	private void makeMove(int fromX, int fromY, int toX, int toY, int flags) {
+		game.board.makeMove(Move.encode(Position.toSquare(fromX, fromY), Position.toSquare(toX, toY), flags));
+	}
+	
+	/**
+	 * Walks every line of the move tree to the given depth and checks the key kept up to date
+	 * against the key calculated from scratch after every move and take back.
+	 * @param depth, the number of plies left to walk
+	 */
+	private void walk(int depth) {
+		assertEquals(Zobrist.computeKey(game.board.getPosition(), game.getTurn()), game.board.getKey());
+		if (depth == 0)
+			return;
+		
+		int moves[] = new int[MoveGenerator.MAX_MOVES];
+		int count = game.getMoveGenerator().generateLegalMoves(moves);
+		for (int i = 0; i < count; i++) {
+			long key = game.board.getKey();
+			game.board.makeMove(moves[i]);
+			walk(depth - 1);
+			game.board.unmakeMove();
+			assertEquals(key, game.board.getKey());
+		}
+	}
+	
+	/**
+	 * Reaches the same position through two different move orders and checks the keys match,
+	 * while the position after a single move has a different key.
+	 */
+	@Test
+	public void transposition() throws Exception {
+		long start = game.board.getKey();
+		makeMove(6, 7, 5, 5, 0);
+		assertFalse(start == game.board.getKey());
+		makeMove(6, 0, 5, 2, 0);
+		makeMove(5, 5, 6, 7, 0);
+		makeMove(5, 2, 6, 0, 0);
+		assertEquals(start, game.board.getKey());
+		
+		makeMove(4, 6, 4, 4, Move.DOUBLE_PUSH);
+		long doublePush = game.board.getKey();
+		game.board.unmakeMove();
+		makeMove(4, 6, 4, 5, 0);
+		makeMove(1, 0, 2, 2, 0);
+		makeMove(4, 5, 4, 4, 0);
+		makeMove(2, 2, 1, 0, 0);
+		assertEquals(doublePush ^ Zobrist.turnKey(Game.PLAYER1) ^ Zobrist.turnKey(Game.PLAYER2), game.board.getKey());
+	}
+	
+	/**
+	 * Checks the key of a Pawn that hasn't moved differs from one that has, and that only
+	 * High Templar energy up to what a storm needs changes the key.
+	 */
+	@Test
+	public void pieceState() throws Exception {
+		Pawn pawn = (Pawn) game.board.getPiece(0, 6);
+		long key = game.board.getKey();
+		pawn.setFirstMove(false);
+		game.board.getPosition().refreshKey(pawn.getSquare());
+		assertFalse(key == game.board.getKey());
+		
+		HighTemplar templar = new HighTemplar(PieceColor.WHITE, 3, 4);
+		int square = templar.getSquare();
+		templar.setEnergy(2);
+		long two = Zobrist.pieceKey(templar, square);
+		templar.setEnergy(3);
+		long three = Zobrist.pieceKey(templar, square);
+		templar.setEnergy(7);
+		assertFalse(two == three);
+		assertEquals(three, Zobrist.pieceKey(templar, square));
+	}
+	
+	/**
+	 * Checks the key through every line three moves deep, then through a position where storms
+	 * and snipes are played.
+	 */
+	@Test
+	public void incrementalMatchesScratch() throws Exception {
+		walk(3);
+		game.board.clearBoard();
+		HighTemplar templar = new HighTemplar(PieceColor.WHITE, 3, 6);
+		templar.setEnergy(2);
+		Piece pieces[] = { new King(PieceColor.WHITE, 4, 7), templar, new Ghost(PieceColor.WHITE, 5, 6),
+			new King(PieceColor.BLACK, 4, 0), new HighTemplar(PieceColor.BLACK, 3, 2), new Pawn(PieceColor.BLACK, 3, 1) };
+		for (int i = 0; i < pieces.length; i++)
+			game.board.addPiece(pieces[i]);
+		
+		walk(4);
+	}
+}
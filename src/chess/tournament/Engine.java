@@ -0,0 +1,117 @@
+package chess.tournament;
+
+import chess.Game;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.Tablebase;
+import chess.engine.TranspositionTable;
+
+/**
+ * An Engine class describing one side of a tournament: its name, the size of its
+ * transposition table, the depth and node limits it searches under on top of the clock, and
+ * the tablebase it looks endgames up in. A tournament makes a new Search of the engine for
+ * every game, so an engine with a change to try out can be added by overriding createSearch.
+ * One Engine is used by every worker of a tournament at once, so it holds settings only.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Engine {
+	private String name; // the name the engine is reported under
+	private int tableMegabytes; // the size of the transposition table of every game
+	private int depth; // the deepest iteration to run, on top of the clock
+	private long nodes; // the most positions to visit for a move, on top of the clock
+	private Tablebase tablebase; // the endgames to look up instead of searching, or null
+	
+	/**
+	 * The constructor for the Engine class, with a table of the default size.
+	 * @param name, the name to report the engine under
+	 */
+	public Engine(String name) {
+		this(name, Search.DEFAULT_TABLE_MEGABYTES);
+	}
+	
+	/**
+	 * The constructor for the Engine class.
+	 * @param name, the name to report the engine under
+	 * @param tableMegabytes, the size of the transposition table of every game
+	 */
+	public Engine(String name, int tableMegabytes) {
+		this.name = name;
+		this.tableMegabytes = tableMegabytes;
+		depth = Search.MAX_PLY - 1;
+		nodes = SearchLimits.UNLIMITED;
+	}
+	
+	/**
+	 * Makes a search of the engine for a game. The table is cleared before every game.
+	 * @param game, the game to search
+	 * @param table, the transposition table to search with
+	 * @return the search
+	 */
+	public Search createSearch(Game game, TranspositionTable table) {
+		Search search = new Search(game, table);
+		search.setTablebase(tablebase);
+		return search;
+	}
+	
+	/**
+	 * Adds the engine's own depth and node limits to the limits the clock allows.
+	 * @param limits, the limits of the clock
+	 * @return the same limits, with the engine's added
+	 */
+	public SearchLimits limit(SearchLimits limits) {
+		limits.setDepth(Math.min(depth, limits.getDepth()));
+		limits.setNodes(Math.min(nodes, limits.getNodes()));
+		return limits;
+	}
+	
+	/**
+	 * Get method for the name of the engine.
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Get method for the size of the engine's transposition table.
+	 * @return the size in megabytes
+	 */
+	public int getTableMegabytes() {
+		return tableMegabytes;
+	}
+	
+	/**
+	 * Sets the deepest iteration the engine runs, however much time it has.
+	 * @param depth, the depth in plies
+	 */
+	public void setDepth(int depth) {
+		this.depth = depth;
+	}
+	
+	/**
+	 * Sets the most positions the engine visits for a move, however much time it has. This
+	 * makes games come out the same on every run and on any machine.
+	 * @param nodes, the node limit
+	 */
+	public void setNodes(long nodes) {
+		this.nodes = nodes;
+	}
+	
+	/**
+	 * Gives the engine a tablebase to look endgames up in.
+	 * @param tablebase, the tablebase, or null to always search
+	 */
+	public void setTablebase(Tablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+	
+	/**
+	 * Names the engine, the way the results file does.
+	 * @return the name of the engine
+	 */
+	@Override
+	public String toString() {
+		return name;
+	}
+}
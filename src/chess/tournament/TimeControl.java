@@ -0,0 +1,65 @@
+package chess.tournament;
+
+import chess.engine.SearchLimits;
+
+/**
+ * A TimeControl class describing the clock each engine plays a tournament game on: a base
+ * time for the whole game, and an increment added after every move. An engine that runs its
+ * clock below zero loses the game. The time for a move is a share of what's left on the clock
+ * plus most of the increment, and it's handed to the search as a move time, so the search
+ * stops in time even in the middle of an iteration.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class TimeControl {
+	public static final int MOVES_TO_GO = 30; // the moves the time left on a clock is spread over
+	public static final long MARGIN = 20; // the milliseconds kept back for making the move itself
+	
+	private long base; // the milliseconds each engine starts the game with
+	private long increment; // the milliseconds added to a clock after every move
+	
+	/**
+	 * The constructor for the TimeControl class.
+	 * @param base, the milliseconds each engine starts the game with
+	 * @param increment, the milliseconds added to a clock after every move
+	 */
+	public TimeControl(long base, long increment) {
+		this.base = base;
+		this.increment = increment;
+	}
+	
+	/**
+	 * Works out the limits for the next move of an engine.
+	 * @param remaining, the milliseconds left on the engine's clock
+	 * @return the limits of the search for the move
+	 */
+	public SearchLimits allocate(long remaining) {
+		long budget = remaining / MOVES_TO_GO + increment * 3 / 4;
+		return SearchLimits.moveTime(Math.max(1, Math.min(budget, remaining - MARGIN)));
+	}
+	
+	/**
+	 * Get method for the base time.
+	 * @return the milliseconds each engine starts the game with
+	 */
+	public long getBase() {
+		return base;
+	}
+	
+	/**
+	 * Get method for the increment.
+	 * @return the milliseconds added to a clock after every move
+	 */
+	public long getIncrement() {
+		return increment;
+	}
+	
+	/**
+	 * Describes the time control the way tournaments write it, as base+increment in seconds.
+	 * @return the time control
+	 */
+	@Override
+	public String toString() {
+		return base / 1000.0 + "+" + increment / 1000.0;
+	}
+}
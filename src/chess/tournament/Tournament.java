@@ -0,0 +1,334 @@
+package chess.tournament;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chess.Fen;
+import chess.engine.OpeningBook;
+import chess.engine.Tablebase;
+
+/**
+ * A Tournament class that plays two engines against each other without a View or anyone to
+ * click the squares, to measure whether a change made an engine stronger. The games are played
+ * in pairs on a pool of workers, every worker with a Game of its own, and each pair starts
+ * from an opening of its own, taken from an opening book and random legal moves, with the
+ * engines taking turns at White. The openings are drawn from the seed, so a tournament can be
+ * played again with the same openings. Every game is written to the results file as it ends,
+ * a line each with tabs between its number, White, Black, the result, how it ended and its
+ * number of moves, and the wins, draws, losses and Elo difference are written at the end on
+ * lines starting with #.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class Tournament {
+	public static final int DEFAULT_PAIRS = 50;
+	public static final int DEFAULT_RANDOM_PLIES = 4;
+	public static final int DEFAULT_MAX_PLIES = 300; // the moves after the opening before the game is drawn
+	public static final String CHECKMATE = "checkmate";
+	public static final String STALEMATE = "stalemate";
+	public static final String REPETITION = "repetition";
+	public static final String TABLEBASE = "tablebase";
+	public static final String MOVE_LIMIT = "move limit";
+	public static final String TIME_FORFEIT = "time forfeit";
+	public static final String NO_MOVE = "no move"; // the engine came back without a move
+	
+	private Engine first; // the engine the results are counted for
+	private Engine second; // the engine it plays against
+	private TimeControl timeControl; // the clock of every game
+	private int pairs; // the number of pairs of games to play
+	private int threads; // the number of games played at once
+	private String start; // the position every opening starts from
+	private OpeningBook book; // the book the openings start with, or null
+	private int bookPlies; // the most moves of an opening taken from the book
+	private int randomPlies; // the random moves played after the book moves
+	private int maxPlies; // the moves after the opening before the game is drawn
+	private long seed; // the seed the openings are drawn from
+	private Tablebase tablebase; // the tablebase that decides the endgames it covers, or null
+	private AtomicInteger nextPair; // the pair the next worker to ask plays
+	private TournamentResult result; // the results so far
+	private PrintWriter out; // where the results are written
+	
+	/**
+	 * The constructor for the Tournament class, with the default settings.
+	 * @param first, the engine the results are counted for
+	 * @param second, the engine it plays against
+	 * @param timeControl, the clock of every game
+	 */
+	public Tournament(Engine first, Engine second, TimeControl timeControl) {
+		this.first = first;
+		this.second = second;
+		this.timeControl = timeControl;
+		pairs = DEFAULT_PAIRS;
+		threads = Runtime.getRuntime().availableProcessors();
+		start = Fen.START;
+		randomPlies = DEFAULT_RANDOM_PLIES;
+		maxPlies = DEFAULT_MAX_PLIES;
+	}
+	
+	/**
+	 * Plays every game of the tournament and writes the results to a file.
+	 * @param file, the file to write, which is replaced if it exists
+	 * @return the results
+	 * @throws IOException if the file can't be written
+	 */
+	public TournamentResult run(File file) throws IOException {
+		Writer writer = new BufferedWriter(new FileWriter(file));
+		try {
+			return run(writer);
+		} finally {
+			writer.close();
+		}
+	}
+	
+	/**
+	 * Plays every game of the tournament and writes the results out.
+	 * @param writer, where to write the results
+	 * @return the results
+	 * @throws IOException if the results can't be written
+	 */
+	public TournamentResult run(Writer writer) throws IOException {
+		out = new PrintWriter(writer);
+		result = new TournamentResult(first.getName(), second.getName());
+		nextPair = new AtomicInteger();
+		out.println("# " + first + " vs " + second + ", " + pairs * 2 + " games at " + timeControl + ", seed " + seed);
+		ExecutorService workers = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "tournament-worker");
+				thread.setDaemon(true); // a tournament given up on shouldn't keep the program open
+				return thread;
+			}
+		});
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>(threads);
+			for (int i = 0; i < threads; i++)
+				futures.add(workers.submit(new TournamentWorker(this)));
+			
+			for (int i = 0; i < threads; i++)
+				futures.get(i).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("The tournament was interrupted");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A tournament worker failed", e.getCause());
+		} finally {
+			workers.shutdownNow();
+		}
+		
+		out.println("# " + result);
+		out.flush();
+		if (out.checkError())
+			throw new IOException("The results couldn't be written");
+		
+		return result;
+	}
+	
+	/**
+	 * Hands out the next pair of games to play.
+	 * @return the number of the pair, counting from 0, or -1 if every pair has been handed out
+	 */
+	int nextPair() {
+		int pair = nextPair.getAndIncrement();
+		return pair < pairs ? pair : -1;
+	}
+	
+	/**
+	 * Counts a finished game and writes it to the results.
+	 * @param number, the number of the game, counting from 1
+	 * @param white, the engine that played White
+	 * @param black, the engine that played Black
+	 * @param outcome, 1-0, 0-1 or 1/2-1/2
+	 * @param termination, how the game ended
+	 * @param plies, the number of moves made, the opening included
+	 */
+	synchronized void record(int number, Engine white, Engine black, String outcome, String termination, int plies) {
+		result.add(white == first, outcome, termination);
+		out.println(number + "\t" + white + "\t" + black + "\t" + outcome + "\t" + termination + "\t" + plies);
+		out.flush();
+	}
+	
+	/**
+	 * Sets the number of pairs of games to play. Every pair is two games.
+	 * @param pairs, the pair count
+	 */
+	public void setPairs(int pairs) {
+		this.pairs = pairs;
+	}
+	
+	/**
+	 * Sets the number of games played at once.
+	 * @param threads, the number of workers
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+	
+	/**
+	 * Sets the position every opening starts from.
+	 * @param start, the position in the notation Fen reads
+	 */
+	public void setStart(String start) {
+		this.start = start;
+	}
+	
+	/**
+	 * Sets the book the openings start with.
+	 * @param book, the opening book, or null for random moves only
+	 * @param plies, the most moves of an opening to take from the book
+	 */
+	public void setOpeningBook(OpeningBook book, int plies) {
+		this.book = book;
+		bookPlies = book != null ? plies : 0;
+	}
+	
+	/**
+	 * Sets the number of random moves played after the book moves of every opening.
+	 * @param randomPlies, the number of random moves
+	 */
+	public void setRandomPlies(int randomPlies) {
+		this.randomPlies = randomPlies;
+	}
+	
+	/**
+	 * Sets the number of moves after the opening before a game is drawn.
+	 * @param maxPlies, the move limit
+	 */
+	public void setMaxPlies(int maxPlies) {
+		this.maxPlies = maxPlies;
+	}
+	
+	/**
+	 * Sets the seed the openings are drawn from.
+	 * @param seed, the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+	
+	/**
+	 * Sets the tablebase that decides the endgames it covers as soon as they come up.
+	 * @param tablebase, the tablebase, or null to play every game out
+	 */
+	public void setTablebase(Tablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+	
+	/**
+	 * Get method for the engine the results are counted for.
+	 * @return the first engine
+	 */
+	public Engine getFirst() {
+		return first;
+	}
+	
+	/**
+	 * Get method for the engine the first plays against.
+	 * @return the second engine
+	 */
+	public Engine getSecond() {
+		return second;
+	}
+	
+	/**
+	 * Get method for the clock of every game.
+	 * @return the time control
+	 */
+	public TimeControl getTimeControl() {
+		return timeControl;
+	}
+	
+	/**
+	 * Get method for the position every opening starts from.
+	 * @return the position in the notation Fen reads
+	 */
+	public String getStart() {
+		return start;
+	}
+	
+	/**
+	 * Get method for the book the openings start with.
+	 * @return the opening book, or null
+	 */
+	public OpeningBook getOpeningBook() {
+		return book;
+	}
+	
+	/**
+	 * Get method for the most moves of an opening taken from the book.
+	 * @return the number of book moves
+	 */
+	public int getBookPlies() {
+		return bookPlies;
+	}
+	
+	/**
+	 * Get method for the number of random moves in every opening.
+	 * @return the number of random moves
+	 */
+	public int getRandomPlies() {
+		return randomPlies;
+	}
+	
+	/**
+	 * Get method for the number of moves after the opening before a game is drawn.
+	 * @return the move limit
+	 */
+	public int getMaxPlies() {
+		return maxPlies;
+	}
+	
+	/**
+	 * Get method for the seed the openings are drawn from.
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Get method for the tablebase that decides the endgames it covers.
+	 * @return the tablebase, or null
+	 */
+	public Tablebase getTablebase() {
+		return tablebase;
+	}
+	
+	/**
+	 * Plays the engine against itself and writes the results. An engine playing itself should
+	 * come out within the error of an Elo difference of 0, which makes this a check of the
+	 * tournament as much as of the engine. The arguments are the results file, the number of
+	 * pairs of games, the number of games at once, and the base time and increment in
+	 * milliseconds.
+	 * @param args, the command line arguments
+	 * @throws IOException if the results can't be written
+	 */
+	public static void main(String args[]) throws IOException {
+		if (args.length < 1) {
+			System.out.println("usage: Tournament <results file> [pairs] [threads] [base ms] [increment ms]");
+			return;
+		}
+		
+		long base = args.length > 3 ? Long.parseLong(args[3]) : 10000;
+		long increment = args.length > 4 ? Long.parseLong(args[4]) : 100;
+		Tournament tournament = new Tournament(new Engine("first"), new Engine("second"), new TimeControl(base, increment));
+		if (args.length > 1)
+			tournament.setPairs(Integer.parseInt(args[1]));
+		
+		if (args.length > 2)
+			tournament.setThreads(Integer.parseInt(args[2]));
+		
+		tournament.setSeed(System.currentTimeMillis());
+		System.out.println(tournament.run(new File(args[0])));
+	}
+}
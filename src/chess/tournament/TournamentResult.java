@@ -0,0 +1,157 @@
+package chess.tournament;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import chess.pgn.PgnReader;
+
+/**
+ * A TournamentResult class adding up the games of a tournament from the first engine's side:
+ * its wins, draws and losses, how the games ended, and what the score says about the
+ * difference in strength. The Elo difference is the one that would give the first engine its
+ * score, and the error is the 95% confidence margin of it, worked out from the spread of the
+ * results of single games.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+public class TournamentResult {
+	public static final double CONFIDENCE = 1.959964; // the standard deviations a 95% confidence margin spans
+	
+	private String first; // the name of the first engine
+	private String second; // the name of the second engine
+	private long wins; // the games the first engine won
+	private long draws; // the games drawn
+	private long losses; // the games the first engine lost
+	private Map<String, Long> terminations; // the number of games that ended each way
+	
+	/**
+	 * The constructor for the TournamentResult class.
+	 * @param first, the name of the first engine
+	 * @param second, the name of the second engine
+	 */
+	public TournamentResult(String first, String second) {
+		this.first = first;
+		this.second = second;
+		terminations = new TreeMap<String, Long>();
+	}
+	
+	/**
+	 * Counts a game.
+	 * @param firstIsWhite, whether the first engine played White
+	 * @param result, 1-0, 0-1 or 1/2-1/2
+	 * @param termination, how the game ended
+	 */
+	public void add(boolean firstIsWhite, String result, String termination) {
+		if (result.equals(PgnReader.DRAWN))
+			draws++;
+		else if (result.equals(PgnReader.WHITE_WINS) == firstIsWhite)
+			wins++;
+		else
+			losses++;
+		
+		Long count = terminations.get(termination);
+		terminations.put(termination, count == null ? 1 : count + 1);
+	}
+	
+	/**
+	 * Get method for the number of games played.
+	 * @return the game count
+	 */
+	public long getGames() {
+		return wins + draws + losses;
+	}
+	
+	/**
+	 * Get method for the games the first engine won.
+	 * @return the win count
+	 */
+	public long getWins() {
+		return wins;
+	}
+	
+	/**
+	 * Get method for the games drawn.
+	 * @return the draw count
+	 */
+	public long getDraws() {
+		return draws;
+	}
+	
+	/**
+	 * Get method for the games the first engine lost.
+	 * @return the loss count
+	 */
+	public long getLosses() {
+		return losses;
+	}
+	
+	/**
+	 * Retrieves the number of games that ended a given way.
+	 * @param termination, how the games ended
+	 * @return the game count
+	 */
+	public long getTerminations(String termination) {
+		Long count = terminations.get(termination);
+		return count == null ? 0 : count;
+	}
+	
+	/**
+	 * Works out the first engine's share of the points, a draw being worth half a win.
+	 * @return the score from 0 to 1, or 0.5 before any game is played
+	 */
+	public double getScore() {
+		long games = getGames();
+		return games > 0 ? (wins + draws / 2.0) / games : 0.5;
+	}
+	
+	/**
+	 * Works out how much stronger the first engine is from its score.
+	 * @return the Elo difference, which is infinite if one engine won every game
+	 */
+	public double getEloDifference() {
+		return toElo(getScore());
+	}
+	
+	/**
+	 * Works out the 95% confidence margin of the Elo difference. It's half the width of the
+	 * range of Elo differences whose scores lie within the margin of the score.
+	 * @return the margin in Elo, which is infinite if the score could still be 0 or 1
+	 */
+	public double getEloError() {
+		long games = getGames();
+		if (games == 0)
+			return Double.POSITIVE_INFINITY;
+		
+		double score = getScore();
+		double variance = (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score)
+			+ losses * score * score) / games;
+		double margin = CONFIDENCE * Math.sqrt(variance / games);
+		return (toElo(score + margin) - toElo(score - margin)) / 2;
+	}
+	
+	/**
+	 * Converts a score into the Elo difference that's expected to give it.
+	 * @param score, the share of the points, from 0 to 1
+	 * @return the Elo difference
+	 */
+	public static double toElo(double score) {
+		if (score <= 0)
+			return Double.NEGATIVE_INFINITY;
+		
+		if (score >= 1)
+			return Double.POSITIVE_INFINITY;
+		
+		return -400 * Math.log10(1 / score - 1);
+	}
+	
+	/**
+	 * Describes the results on one line, with the ways the games ended.
+	 * @return the results
+	 */
+	@Override
+	public String toString() {
+		return first + " vs " + second + ": +" + wins + " =" + draws + " -" + losses
+			+ String.format(", score %.1f%%, Elo %+.1f +/- %.1f (95%%), ", getScore() * 100, getEloDifference(),
+				getEloError()) + terminations;
+	}
+}
@@ -0,0 +1,216 @@
+package chess.tournament;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import chess.Fen;
+import chess.Game;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.Tablebase;
+import chess.engine.TranspositionTable;
+import chess.enums.PieceColor;
+import chess.pgn.PgnReader;
+
+/**
+ * A TournamentWorker class that plays pairs of tournament games on one thread until the
+ * tournament runs out of them. Both games of a pair start from the same randomized opening,
+ * each engine playing White in one of them, so an opening that favors one side doesn't favor
+ * either engine. The worker plays every game on the same Game, set up again each time, and
+ * keeps a transposition table of each engine's that's cleared between games, so nothing it
+ * plays with is shared with another worker.
+ * @author Ken Tian, ytian13@illinois.edu
+ */
+
+class TournamentWorker implements Callable<Void> {
+	private Tournament tournament; // where the settings come from and the results go
+	private Game game; // the game every game is played on
+	private Fen fen; // sets the game up for every game
+	private TranspositionTable firstTable; // the table of the first engine
+	private TranspositionTable secondTable; // the table of the second engine
+	private int moves[]; // the legal moves of the position
+	private int opening[]; // the moves of the opening of the current pair
+	private long keys[]; // the key of every position of the current game, to catch repetitions
+	private int positions; // the number of positions the current game has been through
+	private String termination; // how the last game ended
+	
+	/**
+	 * The constructor for the TournamentWorker class.
+	 * @param tournament, the tournament to play the games of
+	 */
+	TournamentWorker(Tournament tournament) {
+		this.tournament = tournament;
+		game = new Game();
+		game.setTablebase(tournament.getTablebase());
+		fen = new Fen();
+		firstTable = new TranspositionTable(tournament.getFirst().getTableMegabytes());
+		secondTable = new TranspositionTable(tournament.getSecond().getTableMegabytes());
+		moves = new int[MoveGenerator.MAX_MOVES];
+		opening = new int[tournament.getBookPlies() + tournament.getRandomPlies()];
+		keys = new long[tournament.getMaxPlies() + opening.length + 1];
+	}
+	
+	/**
+	 * Plays pairs of games until the tournament has none left.
+	 * @return nothing
+	 */
+	public Void call() {
+		Engine first = tournament.getFirst();
+		Engine second = tournament.getSecond();
+		for (int pair = tournament.nextPair(); pair >= 0; pair = tournament.nextPair()) {
+			int openingPlies = createOpening(new Random(tournament.getSeed() * 1000003 + pair));
+			String result = play(first, second, openingPlies);
+			tournament.record(pair * 2 + 1, first, second, result, termination, positions - 1);
+			result = play(second, first, openingPlies);
+			tournament.record(pair * 2 + 2, second, first, result, termination, positions - 1);
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Plays the opening of a pair of games: moves from the tournament's book while it has any,
+	 * then random legal moves. A random move that leaves the team to move without a legal
+	 * move is taken back, so every game has something to play.
+	 * @param random, the source of the choices
+	 * @return the number of moves in the opening
+	 */
+	private int createOpening(Random random) {
+		fen.load(game, tournament.getStart());
+		int count = 0;
+		if (tournament.getOpeningBook() != null) {
+			for (int move; count < tournament.getBookPlies()
+				&& (move = tournament.getOpeningBook().probe(game, random)) != Move.NONE; count++) {
+				opening[count] = move;
+				game.board.makeMove(move);
+			}
+		}
+		
+		for (int i = 0; i < tournament.getRandomPlies(); i++) {
+			int legal = game.getMoveGenerator().generateLegalMoves(moves);
+			if (legal == 0)
+				break;
+			
+			opening[count] = moves[random.nextInt(legal)];
+			game.board.makeMove(opening[count++]);
+		}
+		
+		while (count > 0 && game.getMoveGenerator().generateLegalMoves(moves) == 0) {
+			game.board.unmakeMove();
+			count--;
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Plays a game from the opening of the current pair until it's decided.
+	 * @param white, the engine playing White
+	 * @param black, the engine playing Black
+	 * @param openingPlies, the number of moves in the opening
+	 * @return the result, from White's side
+	 */
+	private String play(Engine white, Engine black, int openingPlies) {
+		fen.load(game, tournament.getStart());
+		positions = 0;
+		keys[positions++] = game.board.getKey();
+		for (int i = 0; i < openingPlies; i++) {
+			game.board.makeMove(opening[i]);
+			keys[positions++] = game.board.getKey();
+		}
+		
+		Engine engines[] = new Engine[2];
+		engines[Game.PLAYER1] = white;
+		engines[Game.PLAYER2] = black;
+		TranspositionTable tables[] = new TranspositionTable[2];
+		tables[Game.PLAYER1] = white == tournament.getFirst() ? firstTable : secondTable;
+		tables[Game.PLAYER2] = white == tournament.getFirst() ? secondTable : firstTable;
+		Search searches[] = new Search[2];
+		long clocks[] = new long[2];
+		for (int i = 0; i < 2; i++) {
+			tables[i].clear();
+			searches[i] = engines[i].createSearch(game, tables[i]);
+			clocks[i] = tournament.getTimeControl().getBase();
+		}
+		
+		while (true) {
+			int turn = game.getTurn();
+			PieceColor color = game.getPlayerColor(turn);
+			String result = adjudicate(color, openingPlies);
+			if (result != null)
+				return result;
+			
+			SearchLimits limits = engines[turn].limit(tournament.getTimeControl().allocate(clocks[turn]));
+			long start = System.nanoTime();
+			SearchResult found = searches[turn].search(limits);
+			clocks[turn] -= (System.nanoTime() - start) / 1000000;
+			if (clocks[turn] < 0 || found.getMove() == Move.NONE) {
+				termination = clocks[turn] < 0 ? Tournament.TIME_FORFEIT : Tournament.NO_MOVE;
+				return color == PieceColor.WHITE ? PgnReader.BLACK_WINS : PgnReader.WHITE_WINS;
+			}
+			
+			clocks[turn] += tournament.getTimeControl().getIncrement();
+			game.board.makeMove(found.getMove());
+			keys[positions++] = game.board.getKey();
+		}
+	}
+	
+	/**
+	 * Decides the game if it's over: a checkmate, a stalemate, a position that came up for the
+	 * third time, a tablebase position, or a game that went on too long.
+	 * @param color, the color of the team to move
+	 * @param openingPlies, the number of moves in the opening
+	 * @return the result, from White's side, or null if the game goes on
+	 */
+	private String adjudicate(PieceColor color, int openingPlies) {
+		String loss = color == PieceColor.WHITE ? PgnReader.BLACK_WINS : PgnReader.WHITE_WINS;
+		String win = color == PieceColor.WHITE ? PgnReader.WHITE_WINS : PgnReader.BLACK_WINS;
+		termination = null;
+		if (game.checkCheckmate(color)) {
+			termination = Tournament.CHECKMATE;
+			return loss;
+		}
+		
+		if (game.checkStalemate()) {
+			termination = Tournament.STALEMATE;
+			return PgnReader.DRAWN;
+		}
+		
+		if (isThirdRepetition()) {
+			termination = Tournament.REPETITION;
+			return PgnReader.DRAWN;
+		}
+		
+		int known = game.getTablebaseResult();
+		if (known != Tablebase.UNKNOWN) {
+			termination = Tournament.TABLEBASE;
+			return known == Tablebase.DRAW ? PgnReader.DRAWN : Tablebase.isWin(known) ? win : loss;
+		}
+		
+		if (positions - 1 - openingPlies >= tournament.getMaxPlies()) { // counting from the end of the opening
+			termination = Tournament.MOVE_LIMIT;
+			return PgnReader.DRAWN;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Checks if the position came up twice before in the game with the same team to move.
+	 * @return true if this is the third time, false otherwise
+	 */
+	private boolean isThirdRepetition() {
+		int step = game.getNumPlayers();
+		long key = keys[positions - 1];
+		int seen = 0;
+		for (int i = positions - 1 - step; i >= 0; i -= step) {
+			if (keys[i] == key && ++seen == 2)
+				return true;
+		}
+		
+		return false;
+	}
+}